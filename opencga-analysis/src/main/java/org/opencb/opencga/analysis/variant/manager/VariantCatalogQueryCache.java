@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.analysis.variant.manager;
+
+import org.opencb.opencga.catalog.exceptions.CatalogException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short lived cache of catalog entities resolved while translating variant queries.
+ *
+ * Entries are scoped by user, so a user never gets values resolved with the permissions of a different user.
+ * Values are kept for a few seconds, enough to avoid resolving the same entities several times within the same request
+ * or between consecutive requests, like paginated queries. Cached values must not be modified.
+ *
+ * There are no catalog update events. Changes made to the catalog outside the owner of the cache, like variant operations
+ * executed as jobs in a different process, or entities modified directly through the CatalogManager, are only seen
+ * once the cached entries expire.
+ */
+public class VariantCatalogQueryCache {
+
+    public static final int DEFAULT_MAX_SIZE = 5000;
+    public static final long DEFAULT_EXPIRATION_SECONDS = 10;
+
+    private final int maxSize;
+    private final long expirationMillis;
+    private final Map<String, CacheEntry> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    // Incremented on every invalidation. Avoids caching values read before an invalidation.
+    private final AtomicLong generation = new AtomicLong();
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws CatalogException;
+    }
+
+    private static class CacheEntry {
+        private final Object value;
+        private final long expiration;
+
+        CacheEntry(Object value, long expiration) {
+            this.value = value;
+            this.expiration = expiration;
+        }
+    }
+
+    public VariantCatalogQueryCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_EXPIRATION_SECONDS);
+    }
+
+    public VariantCatalogQueryCache(int maxSize, long expirationSeconds) {
+        this.maxSize = maxSize;
+        this.expirationMillis = expirationSeconds * 1000L;
+        this.cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > VariantCatalogQueryCache.this.maxSize;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0 && expirationMillis > 0;
+    }
+
+    /**
+     * Get a value from the cache, or load it if missing.
+     *
+     * @param userId User resolving the value
+     * @param key    Key of the value
+     * @param loader Loader of the value. Null values are not cached.
+     * @param <T>    Value type
+     * @return Cached or loaded value
+     * @throws CatalogException if the value can not be loaded
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String userId, String key, Loader<T> loader) throws CatalogException {
+        if (!isEnabled()) {
+            return loader.load();
+        }
+        String cacheKey = userId + '\u0000' + key;
+        long currentGeneration = generation.get();
+        synchronized (cache) {
+            CacheEntry entry = cache.get(cacheKey);
+            if (entry != null) {
+                if (entry.expiration > System.currentTimeMillis()) {
+                    hits.incrementAndGet();
+                    return (T) entry.value;
+                }
+                cache.remove(cacheKey);
+            }
+        }
+        misses.incrementAndGet();
+        T value = loader.load();
+        if (value != null) {
+            synchronized (cache) {
+                if (generation.get() == currentGeneration) {
+                    cache.put(cacheKey, new CacheEntry(value, System.currentTimeMillis() + expirationMillis));
+                }
+            }
+        }
+        return value;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("VariantCatalogQueryCache{");
+        sb.append("size=").append(size());
+        sb.append(", hits=").append(hits);
+        sb.append(", misses=").append(misses);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -114,11 +114,17 @@ public class VariantCatalogQueryUtils extends CatalogUtils {
     private final SampleFilterValidator sampleFilterValidator;
     private final GenotypeFilterValidator genotypeFilterValidator;
     private final CohortFilterValidator cohortFilterValidator;
+    private final VariantCatalogQueryCache cache;
     //    public static final QueryParam SAMPLE_FILTER_GENOTYPE = QueryParam.create("sampleFilterGenotype", "", QueryParam.Type.TEXT_ARRAY);
     protected static Logger logger = LoggerFactory.getLogger(VariantCatalogQueryUtils.class);
 
     public VariantCatalogQueryUtils(CatalogManager catalogManager) {
+        this(catalogManager, new VariantCatalogQueryCache());
+    }
+
+    public VariantCatalogQueryUtils(CatalogManager catalogManager, VariantCatalogQueryCache cache) {
         super(catalogManager);
+        this.cache = cache;
         studyFilterValidator = new StudyFilterValidator();
         fileFilterValidator = new FileFilterValidator();
         sampleFilterValidator = new SampleFilterValidator();
@@ -185,15 +191,11 @@ public class VariantCatalogQueryUtils extends CatalogUtils {
                 QueryOptions sampleOptions = new QueryOptions(INCLUDE, SampleDBAdaptor.QueryParams.UID.key());
 
                 for (String study : studies) {
-                    Query cohortQuery = new Query(CohortDBAdaptor.QueryParams.ID.key(), StudyEntry.DEFAULT_COHORT);
-                    QueryOptions cohortOptions = new QueryOptions(INCLUDE, CohortDBAdaptor.QueryParams.SAMPLE_UIDS.key());
                     // Get default cohort. It contains the list of indexed samples. If it doesn't exist, or is empty, do not include any
                     // sample from this study.
-                    DataResult<Cohort> result = catalogManager.getCohortManager().search(study, cohortQuery, cohortOptions, sessionId);
-                    if (result.first() != null || result.first().getSamples().isEmpty()) {
-                        Set<String> sampleIds = result
-                                .first()
-                                .getSamples()
+                    List<Sample> indexedSamples = getIndexedSamples(study, sessionId);
+                    if (!indexedSamples.isEmpty()) {
+                        Set<String> sampleIds = indexedSamples
                                 .stream()
                                 .map(Sample::getId)
                                 .collect(Collectors.toSet());
@@ -258,12 +260,7 @@ public class VariantCatalogQueryUtils extends CatalogUtils {
                 throw VariantQueryException.malformedParam(FAMILY_MEMBERS, familyMembers.toString(), "Only one member provided");
             }
 
-            // Use search instead of get to avoid smartResolutor to fetch all samples
-            Set<Long> indexedSampleUids = catalogManager.getCohortManager()
-                    .search(defaultStudyStr, new Query(CohortDBAdaptor.QueryParams.ID.key(), StudyEntry.DEFAULT_COHORT),
-                            new QueryOptions(INCLUDE, CohortDBAdaptor.QueryParams.SAMPLE_UIDS.key()), sessionId)
-                    .first()
-                    .getSamples()
+            Set<Long> indexedSampleUids = getIndexedSamples(defaultStudyStr, sessionId)
                     .stream()
                     .map(Sample::getUid).collect(Collectors.toSet());
 
@@ -626,6 +623,11 @@ public class VariantCatalogQueryUtils extends CatalogUtils {
      * @throws CatalogException if the panel does not exist, or the user does not have permissions to see it.
      */
     protected Panel getPanel(String studyId, String panelId, String sessionId) throws CatalogException {
+        String userId = catalogManager.getUserManager().getUserId(sessionId);
+        return cache.get(userId, "panel:" + studyId + ':' + panelId, () -> getPanelFromCatalog(studyId, panelId, sessionId));
+    }
+
+    private Panel getPanelFromCatalog(String studyId, String panelId, String sessionId) throws CatalogException {
         Panel panel = null;
         if (StringUtils.isNotEmpty(studyId)) {
             try {
@@ -640,6 +642,102 @@ public class VariantCatalogQueryUtils extends CatalogUtils {
         return panel;
     }
 
+    /**
+     * Get the samples from the default cohort of the study, which contains the list of indexed samples.
+     *
+     * @param study     Study
+     * @param sessionId users sessionId
+     * @return Unmodifiable list of indexed samples, with only ID and UID. Empty if the default cohort does not exist.
+     * @throws CatalogException if there is any catalog error
+     */
+    protected List<Sample> getIndexedSamples(String study, String sessionId) throws CatalogException {
+        String userId = catalogManager.getUserManager().getUserId(sessionId);
+        return cache.get(userId, "indexedSamples:" + study, () -> {
+            // Use search instead of get to avoid smartResolutor to fetch all samples
+            Cohort cohort = catalogManager.getCohortManager()
+                    .search(study, new Query(CohortDBAdaptor.QueryParams.ID.key(), StudyEntry.DEFAULT_COHORT),
+                            new QueryOptions(INCLUDE, CohortDBAdaptor.QueryParams.SAMPLE_UIDS.key()), sessionId)
+                    .first();
+            if (cohort == null || cohort.getSamples() == null) {
+                return Collections.emptyList();
+            } else {
+                return Collections.unmodifiableList(new ArrayList<>(cohort.getSamples()));
+            }
+        });
+    }
+
+    /**
+     * Get the samples of the study visible by the user, as a bitmap of sample ids from the storage metadata.
+     * Samples not registered in the storage metadata are discarded. Reads all the samples of the study, so it should only be
+     * used when all of them are required.
+     *
+     * Visible samples are cached for a short time. Cached values are discarded after any permission change made through the
+     * same catalog manager. Permission changes made by other catalog instances are only seen once the cached entries expire.
+     *
+     * @param studyFqn  Study fqn
+     * @param mm        Variant storage metadata manager
+     * @param sessionId users sessionId
+     * @return Bitmap of visible sample ids. Must not be modified.
+     * @throws CatalogException if there is any catalog error
+     */
+    public BitSet getVisibleSamples(String studyFqn, VariantStorageMetadataManager mm, String sessionId) throws CatalogException {
+        String userId = catalogManager.getUserManager().getUserId(sessionId);
+        long permissionsGeneration = catalogManager.getAuthorizationManager().getPermissionCacheGeneration();
+        return cache.get(userId, "visibleSamples:" + studyFqn + ':' + permissionsGeneration, () -> {
+            int studyId = mm.getStudyId(studyFqn);
+            List<Sample> samples = catalogManager.getSampleManager().search(studyFqn, new Query(),
+                    new QueryOptions(INCLUDE, SampleDBAdaptor.QueryParams.ID.key()).append("lazy", true), sessionId).getResults();
+            BitSet visibleSamples = new BitSet();
+            for (Sample sample : samples) {
+                Integer sampleId = mm.getSampleId(studyId, sample.getId());
+                if (sampleId != null) {
+                    visibleSamples.set(sampleId);
+                }
+            }
+            return visibleSamples;
+        });
+    }
+
+    /**
+     * Get the list of studies. Discards negated studies (starting with '!').
+     * Resolved studies are cached for a short time.
+     *
+     * @param query     Query with the values
+     * @param sessionId User's sessionId
+     * @return          List of positive studies.
+     * @throws CatalogException if there is an error with catalog
+     */
+    @Override
+    public List<String> getStudies(Query query, String sessionId) throws CatalogException {
+        String userId = catalogManager.getUserManager().getUserId(sessionId);
+        String key = "studies:" + query.getString(PROJECT.key())
+                + ':' + query.getString(INCLUDE_STUDY.key())
+                + ':' + query.getString(STUDY.key());
+        List<String> studies = cache.get(userId, key, () -> Collections.unmodifiableList(super.getStudies(query, sessionId)));
+        return new ArrayList<>(studies);
+    }
+
+    private String getStudyFqn(String study, String sessionId) throws CatalogException {
+        String userId = catalogManager.getUserManager().getUserId(sessionId);
+        return cache.get(userId, "studyFqn:" + study, () -> catalogManager.getStudyManager().get(study,
+                new QueryOptions(INCLUDE, StudyDBAdaptor.QueryParams.FQN.key()), sessionId).first().getFqn());
+    }
+
+    private String getSampleId(String studyFqn, long sampleUid, String sessionId) throws CatalogException {
+        String userId = catalogManager.getUserManager().getUserId(sessionId);
+        return cache.get(userId, "sampleId:" + studyFqn + ':' + sampleUid, () -> catalogManager.getSampleManager().search(studyFqn,
+                new Query(SampleDBAdaptor.QueryParams.UID.key(), sampleUid),
+                new QueryOptions(QueryOptions.INCLUDE, SampleDBAdaptor.QueryParams.ID.key()), sessionId).first().getId());
+    }
+
+    /**
+     * Invalidate all the cached catalog entities.
+     * Only affects this instance. Other instances will see the changes once their cached entries expire.
+     */
+    public void invalidateCache() {
+        cache.invalidateAll();
+    }
+
     public String getDefaultStudyId(Collection<String> studies) throws CatalogException {
         final String defaultStudyId;
         if (studies.size() == 1) {
@@ -686,12 +784,10 @@ public class VariantCatalogQueryUtils extends CatalogUtils {
 
             if (CollectionUtils.isNotEmpty(individual.getSamples())) {
                 for (Sample sample : individual.getSamples()) {
-                    sample = catalogManager.getSampleManager().search(studyFqn,
-                            new Query(SampleDBAdaptor.QueryParams.UID.key(), sample.getUid()),
-                            new QueryOptions(QueryOptions.INCLUDE, SampleDBAdaptor.QueryParams.ID.key()), sessionId).first();
-                    Integer sampleId = metadataManager.getSampleId(studyId, sample.getId(), true);
+                    String sampleName = getSampleId(studyFqn, sample.getUid(), sessionId);
+                    Integer sampleId = metadataManager.getSampleId(studyId, sampleName, true);
                     if (sampleId != null) {
-                        childSample = sample.getId();
+                        childSample = sampleName;
                         break;
                     }
                 }
@@ -700,12 +796,10 @@ public class VariantCatalogQueryUtils extends CatalogUtils {
                 Individual father = members.get(individual.getFather().getUid());
                 if (CollectionUtils.isNotEmpty(father.getSamples())) {
                     for (Sample sample : father.getSamples()) {
-                        sample = catalogManager.getSampleManager().search(studyFqn,
-                                new Query(SampleDBAdaptor.QueryParams.UID.key(), sample.getUid()),
-                                new QueryOptions(QueryOptions.INCLUDE, SampleDBAdaptor.QueryParams.ID.key()), sessionId).first();
-                        Integer sampleId = metadataManager.getSampleId(studyId, sample.getId(), true);
+                        String sampleName = getSampleId(studyFqn, sample.getUid(), sessionId);
+                        Integer sampleId = metadataManager.getSampleId(studyId, sampleName, true);
                         if (sampleId != null) {
-                            fatherSample = sample.getId();
+                            fatherSample = sampleName;
                             break;
                         }
                     }
@@ -715,12 +809,10 @@ public class VariantCatalogQueryUtils extends CatalogUtils {
                 Individual mother = members.get(individual.getMother().getUid());
                 if (CollectionUtils.isNotEmpty(mother.getSamples())) {
                     for (Sample sample : mother.getSamples()) {
-                        sample = catalogManager.getSampleManager().search(studyFqn,
-                                new Query(SampleDBAdaptor.QueryParams.UID.key(), sample.getUid()),
-                                new QueryOptions(QueryOptions.INCLUDE, SampleDBAdaptor.QueryParams.ID.key()), sessionId).first();
-                        Integer sampleId = metadataManager.getSampleId(studyId, sample.getId(), true);
+                        String sampleName = getSampleId(studyFqn, sample.getUid(), sessionId);
+                        Integer sampleId = metadataManager.getSampleId(studyId, sampleName, true);
                         if (sampleId != null) {
-                            motherSample = sample.getId();
+                            motherSample = sampleName;
                             break;
                         }
                     }
@@ -859,8 +951,10 @@ public class VariantCatalogQueryUtils extends CatalogUtils {
                                         String sessionId) throws CatalogException {
             if (release == null) {
                 String userId = catalogManager.getUserManager().getUserId(sessionId);
-                List<Study> studies = catalogManager.getStudyManager().resolveIds(values, userId);
-                return studies.stream().map(Study::getFqn).collect(Collectors.toList());
+                return cache.get(userId, "studyIds:" + values, () -> catalogManager.getStudyManager().resolveIds(values, userId)
+                        .stream()
+                        .map(Study::getFqn)
+                        .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList)));
             } else {
                 List<String> validatedValues = new ArrayList<>(values.size());
                 DataResult<Study> queryResult = catalogManager.getStudyManager().get(values, RELEASE_OPTIONS, false, sessionId);
@@ -880,9 +974,13 @@ public class VariantCatalogQueryUtils extends CatalogUtils {
                                         String sessionId)
                 throws CatalogException {
             if (release == null) {
-                DataResult<File> files = catalogManager.getFileManager().get(defaultStudyStr, values,
-                        FileManager.INCLUDE_FILE_IDS, sessionId);
-                return files.getResults().stream().map(File::getName).collect(Collectors.toList());
+                String userId = catalogManager.getUserManager().getUserId(sessionId);
+                return cache.get(userId, "fileIds:" + defaultStudyStr + ':' + values, () -> catalogManager.getFileManager()
+                        .get(defaultStudyStr, values, FileManager.INCLUDE_FILE_IDS, sessionId)
+                        .getResults()
+                        .stream()
+                        .map(File::getName)
+                        .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList)));
             } else {
                 return validate(defaultStudyStr, values, release, param, catalogManager.getFileManager(), File::getName,
                         file -> ((int) file.getIndex().getRelease()), file -> {
@@ -905,9 +1003,13 @@ public class VariantCatalogQueryUtils extends CatalogUtils {
         protected List<String> validate(String defaultStudyStr, List<String> values, Integer release, VariantQueryParam param,
                                         String sessionId) throws CatalogException {
             if (release == null) {
-                DataResult<Sample> samples = catalogManager.getSampleManager().get(defaultStudyStr, values,
-                        SampleManager.INCLUDE_SAMPLE_IDS, sessionId);
-                return samples.getResults().stream().map(Sample::getId).collect(Collectors.toList());
+                String userId = catalogManager.getUserManager().getUserId(sessionId);
+                return cache.get(userId, "sampleIds:" + defaultStudyStr + ':' + values, () -> catalogManager.getSampleManager()
+                        .get(defaultStudyStr, values, SampleManager.INCLUDE_SAMPLE_IDS, sessionId)
+                        .getResults()
+                        .stream()
+                        .map(Sample::getId)
+                        .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList)));
             } else {
                 return validate(defaultStudyStr, values, release, param, catalogManager.getSampleManager(),
                         Sample::getId, Sample::getRelease, null, sessionId);
@@ -957,8 +1059,7 @@ public class VariantCatalogQueryUtils extends CatalogUtils {
                         }
                         Cohort cohort = catalogManager.getCohortManager().get(study, value, CohortManager.INCLUDE_COHORT_IDS, sessionId)
                                 .first();
-                        String fqn = catalogManager.getStudyManager().get(study,
-                                new QueryOptions(INCLUDE, StudyDBAdaptor.QueryParams.FQN.key()), sessionId).first().getFqn();
+                        String fqn = getStudyFqn(study, sessionId);
                         if (fqn.equals(defaultStudyStr)) {
                             validated.add(cohort.getId());
                         } else {
@@ -967,9 +1068,13 @@ public class VariantCatalogQueryUtils extends CatalogUtils {
                     }
                     return validated;
                 } else {
-                    DataResult<Cohort> cohorts = catalogManager.getCohortManager().get(defaultStudyStr, values,
-                            CohortManager.INCLUDE_COHORT_IDS, sessionId);
-                    return cohorts.getResults().stream().map(Cohort::getId).collect(Collectors.toList());
+                    String userId = catalogManager.getUserManager().getUserId(sessionId);
+                    return cache.get(userId, "cohortIds:" + defaultStudyStr + ':' + values, () -> catalogManager.getCohortManager()
+                            .get(defaultStudyStr, values, CohortManager.INCLUDE_COHORT_IDS, sessionId)
+                            .getResults()
+                            .stream()
+                            .map(Cohort::getId)
+                            .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList)));
                 }
             } else {
                 return validate(defaultStudyStr, values, release, param, catalogManager.getCohortManager(),
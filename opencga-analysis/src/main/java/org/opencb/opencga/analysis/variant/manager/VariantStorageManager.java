@@ -18,6 +18,7 @@ package org.opencb.opencga.analysis.variant.manager;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.lang3.time.StopWatch;
 import org.opencb.biodata.models.core.Region;
 import org.opencb.biodata.models.variant.StudyEntry;
@@ -64,6 +65,7 @@ import org.opencb.opencga.storage.core.variant.adaptors.*;
 import org.opencb.opencga.storage.core.variant.adaptors.iterators.VariantDBIterator;
 import org.opencb.opencga.storage.core.variant.adaptors.sample.VariantSampleData;
 import org.opencb.opencga.storage.core.variant.io.VariantWriterFactory.VariantOutputFormat;
+import org.opencb.opencga.storage.core.variant.query.VariantQueryPlan;
 import org.opencb.opencga.storage.core.variant.score.VariantScoreFormatDescriptor;
 import org.opencb.opencga.storage.core.variant.search.solr.VariantSearchLoadResult;
 import org.opencb.opencga.storage.core.variant.search.solr.VariantSearchManager;
@@ -72,7 +74,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 import static org.opencb.commons.datastore.core.QueryOptions.INCLUDE;
@@ -83,6 +85,11 @@ import static org.opencb.opencga.storage.core.variant.adaptors.VariantQueryUtils
 
 public class VariantStorageManager extends StorageManager {
 
+    // Shared by all the instances. Runs in the caller thread when all threads are busy.
+    private static final ExecutorService CATALOG_EXECUTOR = new ThreadPoolExecutor(0, 8, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            new BasicThreadFactory.Builder().namingPattern("variant-catalog-%d").daemon(true).build(),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
     private final VariantCatalogQueryUtils catalogUtils;
 
     public VariantStorageManager(CatalogManager catalogManager, StorageEngineFactory storageEngineFactory) {
@@ -92,7 +99,8 @@ public class VariantStorageManager extends StorageManager {
 
     public void clearCache(String studyId, String type, String token) throws CatalogException {
         String userId = catalogManager.getUserManager().getUserId(token);
-
+        logger.debug("Clear catalog query cache. Requested by user '{}'", userId);
+        catalogUtils.invalidateCache();
     }
 
     // -------------------------//
@@ -463,6 +471,11 @@ public class VariantStorageManager extends StorageManager {
                 engine -> engine.count(query));
     }
 
+    public DataResult<VariantQueryPlan> explain(Query query, QueryOptions queryOptions, String token)
+            throws CatalogException, StorageEngineException {
+        return secure(query, queryOptions, token, engine -> engine.explain(query, queryOptions));
+    }
+
     public DataResult distinct(Query query, String field, String token)
             throws CatalogException, IOException, StorageEngineException {
         return (DataResult) secure(query, new QueryOptions(QueryOptions.EXCLUDE, VariantField.STUDIES), token,
@@ -694,6 +707,9 @@ public class VariantStorageManager extends StorageManager {
             exception = e;
             throw new StorageEngineException("Error executing operation " + operationName, e);
         } finally {
+            // Operations might modify catalog entities (cohorts, files, samples...) used to resolve the variant queries.
+            // This only invalidates the cache of this instance. Operations executed as jobs run in a different process.
+            catalogUtils.invalidateCache();
             if (result instanceof DataResult) {
                 auditAttributes.append("dbTime", ((DataResult) result).getTime());
                 auditAttributes.append("numResults", ((DataResult) result).getResults().size());
@@ -809,48 +825,53 @@ public class VariantStorageManager extends StorageManager {
 
         if (VariantQueryUtils.isIncludeSamplesDefined(query, returnedFields)) {
             Map<String, List<String>> samplesToReturn = VariantQueryUtils.getSamplesMetadata(query, queryOptions, mm);
-            for (Map.Entry<String, List<String>> entry : samplesToReturn.entrySet()) {
-                String studyId = entry.getKey();
-                if (!entry.getValue().isEmpty()) {
-                    DataResult<Sample> samplesQueryResult = catalogManager.getSampleManager().get(studyId, entry.getValue(),
-                            new QueryOptions(INCLUDE, SampleDBAdaptor.QueryParams.ID.key()), token);
-                    if (samplesQueryResult.getNumResults() != entry.getValue().size()) {
-                        throw new CatalogAuthorizationException("Permission denied. User "
-                                + catalogManager.getUserManager().getUserId(token) + " can't read all the requested samples");
-                    }
-                    samplesMap.put(studyId, samplesQueryResult.getResults());
-                } else {
-                    samplesMap.put(studyId, Collections.emptyList());
+            samplesMap.putAll(resolveByStudy(samplesToReturn.keySet(), studyFqn -> {
+                List<String> sampleNames = samplesToReturn.get(studyFqn);
+                if (sampleNames.isEmpty()) {
+                    return Collections.emptyList();
                 }
-            }
+                // Only check the requested samples
+                DataResult<Sample> samplesQueryResult = catalogManager.getSampleManager().get(studyFqn, sampleNames,
+                        new QueryOptions(INCLUDE, SampleDBAdaptor.QueryParams.ID.key()), token);
+                if (samplesQueryResult.getNumResults() != sampleNames.size()) {
+                    throw new CatalogAuthorizationException("Permission denied. User "
+                            + catalogManager.getUserManager().getUserId(token) + " can't read all the requested samples");
+                }
+                return samplesQueryResult.getResults();
+            }));
         } else {
             logger.debug("Missing include samples! Obtaining samples to include from catalog.");
             List<String> includeStudies = VariantQueryUtils.getIncludeStudies(query, queryOptions, mm)
                     .stream()
                     .map(mm::getStudyName)
                     .collect(Collectors.toList());
-            List<Study> studies = catalogManager.getStudyManager().get(includeStudies,
-                    new QueryOptions(INCLUDE, FQN.key()), false, token).getResults();
+            List<String> studies = catalogManager.getStudyManager().get(includeStudies,
+                    new QueryOptions(INCLUDE, FQN.key()), false, token).getResults()
+                    .stream()
+                    .map(Study::getFqn)
+                    .collect(Collectors.toList());
             if (!returnedFields.contains(VariantField.STUDIES_SAMPLES_DATA)) {
                 for (String returnedStudy : includeStudies) {
                     samplesMap.put(returnedStudy, Collections.emptyList());
                 }
             } else {
-                List<String> includeSamples = new LinkedList<>();
-                for (Study study : studies) {
-                    DataResult<Sample> samplesQueryResult = catalogManager.getSampleManager().search(study.getFqn(), new Query(),
-                            new QueryOptions(INCLUDE, SampleDBAdaptor.QueryParams.ID.key()).append("lazy", true), token);
-                    samplesQueryResult.getResults().sort(Comparator.comparing(Sample::getId));
-                    samplesMap.put(study.getFqn(), samplesQueryResult.getResults());
-                    int studyId = mm.getStudyId(study.getFqn());
-                    for (Iterator<Sample> iterator = samplesQueryResult.getResults().iterator(); iterator.hasNext();) {
-                        Sample sample = iterator.next();
-                        if (mm.getSampleId(studyId, sample.getId(), true) != null) {
-                            includeSamples.add(sample.getId());
-                        } else {
-                            iterator.remove();
+                samplesMap.putAll(resolveByStudy(studies, studyFqn -> {
+                    int studyId = mm.getStudyId(studyFqn);
+                    BitSet visibleSamples = catalogUtils.getVisibleSamples(studyFqn, mm, token);
+                    List<Sample> samples = new ArrayList<>(visibleSamples.cardinality());
+                    for (int sampleId = visibleSamples.nextSetBit(0); sampleId >= 0; sampleId = visibleSamples.nextSetBit(sampleId + 1)) {
+                        if (mm.isSampleIndexed(studyId, sampleId)) {
+                            samples.add(new Sample().setId(mm.getSampleName(studyId, sampleId)));
                         }
                     }
+                    samples.sort(Comparator.comparing(Sample::getId));
+                    return samples;
+                }));
+                List<String> includeSamples = new LinkedList<>();
+                for (String study : studies) {
+                    for (Sample sample : samplesMap.get(study)) {
+                        includeSamples.add(sample.getId());
+                    }
                 }
                 if (includeSamples.isEmpty()) {
                     query.append(VariantQueryParam.INCLUDE_SAMPLE.key(), NONE);
@@ -862,6 +883,53 @@ public class VariantStorageManager extends StorageManager {
         return samplesMap;
     }
 
+    @FunctionalInterface
+    private interface StudyResolver<T> {
+        T resolve(String studyFqn) throws CatalogException;
+    }
+
+    /**
+     * Resolve some value for each study. Multiple studies are resolved concurrently.
+     *
+     * @param studies  Studies to resolve
+     * @param resolver Resolver
+     * @param <T>      Resolved value type
+     * @return Map from study to resolved value
+     * @throws CatalogException if any study can not be resolved
+     */
+    private <T> Map<String, T> resolveByStudy(Collection<String> studies, StudyResolver<T> resolver) throws CatalogException {
+        Map<String, T> results = new HashMap<>(studies.size());
+        if (studies.size() <= 1) {
+            for (String study : studies) {
+                results.put(study, resolver.resolve(study));
+            }
+            return results;
+        }
+        Map<String, Future<T>> futures = new HashMap<>(studies.size());
+        for (String study : studies) {
+            futures.put(study, CATALOG_EXECUTOR.submit(() -> resolver.resolve(study)));
+        }
+        try {
+            for (Map.Entry<String, Future<T>> entry : futures.entrySet()) {
+                results.put(entry.getKey(), entry.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CatalogException("Interrupted while resolving studies " + studies, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CatalogException) {
+                throw (CatalogException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else {
+                throw new CatalogException(e.getCause());
+            }
+        } finally {
+            futures.values().forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
     // Some aux methods
 
     private String[] getRegions(Query query) {
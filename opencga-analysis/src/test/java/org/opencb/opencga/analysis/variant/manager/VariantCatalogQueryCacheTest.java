@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.analysis.variant.manager;
+
+import org.junit.Test;
+import org.opencb.commons.test.GenericTest;
+import org.opencb.opencga.catalog.exceptions.CatalogException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class VariantCatalogQueryCacheTest extends GenericTest {
+
+    @Test
+    public void testGet() throws CatalogException {
+        VariantCatalogQueryCache cache = new VariantCatalogQueryCache(10, 60);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get("user1", "key", () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get("user1", "key", () -> "v" + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // Values are scoped by user
+        assertEquals("v2", cache.get("user2", "key", () -> "v" + loads.incrementAndGet()));
+    }
+
+    @Test
+    public void testNullNotCached() throws CatalogException {
+        VariantCatalogQueryCache cache = new VariantCatalogQueryCache(10, 60);
+        assertNull(cache.get("user1", "key", () -> null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLoaderException() throws CatalogException {
+        VariantCatalogQueryCache cache = new VariantCatalogQueryCache(10, 60);
+        try {
+            cache.get("user1", "key", () -> {
+                throw new CatalogException("Not found");
+            });
+            fail();
+        } catch (CatalogException e) {
+            assertEquals("Not found", e.getMessage());
+        }
+        assertEquals("v", cache.get("user1", "key", () -> "v"));
+    }
+
+    @Test
+    public void testInvalidate() throws CatalogException {
+        VariantCatalogQueryCache cache = new VariantCatalogQueryCache(10, 60);
+        cache.get("user1", "key", () -> "v1");
+        cache.invalidateAll();
+        assertEquals("v2", cache.get("user1", "key", () -> "v2"));
+    }
+
+    @Test
+    public void testMaxSize() throws CatalogException {
+        VariantCatalogQueryCache cache = new VariantCatalogQueryCache(2, 60);
+        cache.get("user1", "key1", () -> "v1");
+        cache.get("user1", "key2", () -> "v2");
+        cache.get("user1", "key3", () -> "v3");
+        assertEquals(2, cache.size());
+        assertEquals("new", cache.get("user1", "key1", () -> "new"));
+    }
+
+    @Test
+    public void testDisabled() throws CatalogException {
+        VariantCatalogQueryCache cache = new VariantCatalogQueryCache(0, 60);
+        assertFalse(cache.isEnabled());
+        cache.get("user1", "key", () -> "v1");
+        assertEquals("v2", cache.get("user1", "key", () -> "v2"));
+    }
+}
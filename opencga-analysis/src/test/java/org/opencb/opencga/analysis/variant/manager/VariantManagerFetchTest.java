@@ -26,9 +26,14 @@ import org.opencb.commons.datastore.core.Query;
 import org.opencb.commons.datastore.core.QueryOptions;
 import org.opencb.opencga.analysis.variant.manager.VariantCatalogQueryUtils;
 import org.opencb.opencga.analysis.variant.manager.operations.AbstractVariantOperationManagerTest;
+import org.opencb.opencga.catalog.auth.authorization.AuthorizationManager;
 import org.opencb.opencga.catalog.exceptions.CatalogAuthorizationException;
+import org.opencb.opencga.core.models.Account;
 import org.opencb.opencga.core.models.GroupParams;
 import org.opencb.opencga.core.models.Sample;
+import org.opencb.opencga.core.models.Study;
+import org.opencb.opencga.core.models.acls.AclParams;
+import org.opencb.opencga.storage.core.metadata.VariantStorageMetadataManager;
 import org.opencb.opencga.storage.core.variant.adaptors.VariantField;
 import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryParam;
 
@@ -104,6 +109,51 @@ public class VariantManagerFetchTest extends AbstractVariantOperationManagerTest
         Assert.assertEquals(Arrays.asList("NA19600", "NA19660", "NA19661", "NA19685"), map.get(studyFqn).stream().map(Sample::getId).collect(Collectors.toList()));
     }
 
+    @Test
+    public void testCheckSamplePermissionsVisibleSamples() throws Exception {
+        VariantStorageMetadataManager mm = mockVariantDBAdaptor().getMetadataManager();
+        String user2SessionId = createUser2();
+        // Visible, but not indexed
+        catalogManager.getSampleManager().create(studyFqn, new Sample().setId("newSample"), new QueryOptions(), sessionId);
+
+        Map<String, List<Sample>> map = variantManager.checkSamplesPermissions(new Query(), new QueryOptions(), mm, user2SessionId);
+        Assert.assertEquals(Collections.singleton(studyFqn), map.keySet());
+        Assert.assertEquals(Arrays.asList("NA19600", "NA19660", "NA19661", "NA19685"), map.get(studyFqn).stream().map(Sample::getId).collect(Collectors.toList()));
+
+        // Revoke the permissions over one sample. Must not be returned by default, even if the visible samples were cached
+        catalogManager.getSampleManager().updateAcl(studyFqn, Collections.singletonList("NA19600"), "user2",
+                new Sample.SampleAclParams("", AclParams.Action.SET, null, null, null), sessionId);
+
+        map = variantManager.checkSamplesPermissions(new Query(), new QueryOptions(), mm, user2SessionId);
+        Assert.assertEquals(Collections.singleton(studyFqn), map.keySet());
+        Assert.assertEquals(Arrays.asList("NA19660", "NA19661", "NA19685"), map.get(studyFqn).stream().map(Sample::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testCheckSamplePermissionsIncludeSamples() throws Exception {
+        VariantStorageMetadataManager mm = mockVariantDBAdaptor().getMetadataManager();
+        String user2SessionId = createUser2();
+        catalogManager.getSampleManager().updateAcl(studyFqn, Collections.singletonList("NA19600"), "user2",
+                new Sample.SampleAclParams("", AclParams.Action.SET, null, null, null), sessionId);
+
+        Query query = new Query(VariantQueryParam.STUDY.key(), studyFqn)
+                .append(VariantQueryParam.INCLUDE_SAMPLE.key(), "NA19660,NA19661");
+        Map<String, List<Sample>> map = variantManager.checkSamplesPermissions(query, new QueryOptions(), mm, user2SessionId);
+        Assert.assertEquals(Arrays.asList("NA19660", "NA19661"), map.get(studyFqn).stream().map(Sample::getId).collect(Collectors.toList()));
+
+        query = new Query(VariantQueryParam.STUDY.key(), studyFqn)
+                .append(VariantQueryParam.INCLUDE_SAMPLE.key(), "NA19600,NA19660");
+        thrown.expect(CatalogAuthorizationException.class);
+        variantManager.checkSamplesPermissions(query, new QueryOptions(), mm, user2SessionId);
+    }
+
+    private String createUser2() throws Exception {
+        catalogManager.getUserManager().create("user2", "User2", "user2@email.org", "user2", "ACME", null, Account.Type.FULL, null);
+        catalogManager.getStudyManager().updateAcl(Collections.singletonList(studyFqn), "user2",
+                new Study.StudyAclParams("", AclParams.Action.ADD, AuthorizationManager.ROLE_ANALYST), sessionId);
+        return catalogManager.getUserManager().login("user2", "user2");
+    }
+
     @Test
     public void testQueryExcludeSamples() throws Exception {
         QueryOptions queryOptions = new QueryOptions(QueryOptions.EXCLUDE, VariantField.STUDIES_SAMPLES_DATA);
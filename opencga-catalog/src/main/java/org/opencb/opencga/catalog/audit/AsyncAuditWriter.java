@@ -0,0 +1,390 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.catalog.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.opencb.opencga.catalog.db.api.AuditDBAdaptor;
+import org.opencb.opencga.catalog.exceptions.CatalogDBException;
+import org.opencb.opencga.core.common.JacksonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the audit records in background.
+ *
+ * Records are buffered in a bounded queue and written in batches by a single thread, either when the batch is full or
+ * when the flush interval expires. Records that can not be queued (queue full) or written (database error) are appended
+ * to a spill file, which is loaded into the database once the writer is idle. Spilled records are written at least once.
+ *
+ * One writer is shared by all the users of the same spill directory within the JVM. See {@link #acquire} and {@link #release}.
+ * Records still queued when the JVM exits without releasing the writer are lost.
+ */
+public class AsyncAuditWriter implements Closeable {
+
+    public static final String SPILL_FILE_PREFIX = "audit-spill-";
+    public static final String SPILL_FILE_SUFFIX = ".jsonl";
+    public static final String RECOVERING_SUFFIX = ".recovering";
+    // Spill files of other processes not modified after this time are not in use anymore
+    private static final long STALE_FILE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    private static final long CLOSE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    // Maximum time waiting for new records, to check if the writer was closed
+    private static final long WAKE_UP_MILLIS = 200;
+
+    private static Logger logger = LoggerFactory.getLogger(AsyncAuditWriter.class);
+    // Shared writers, by spill directory
+    private static final Map<Path, AsyncAuditWriter> WRITERS = new HashMap<>();
+
+    // AuditDBAdaptors of the users of this writer. The last one is used.
+    private final List<AuditDBAdaptor> auditDBAdaptors = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<AuditRecord> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Path spillDirectory;
+    private final Path spillFile;
+    private final ObjectMapper objectMapper;
+    private final Object spillLock = new Object();
+    private final Thread thread;
+    private volatile boolean closed = false;
+    private long nextRecovery = 0;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+
+    /**
+     * Create and start a new AsyncAuditWriter.
+     *
+     * @param auditDBAdaptor      AuditDBAdaptor
+     * @param queueSize           Maximum number of records waiting to be written
+     * @param batchSize           Maximum number of records written at once
+     * @param flushIntervalMillis Maximum time a record waits in the queue
+     * @param spillDirectory      Directory for the records that could not be written to the database
+     */
+    public AsyncAuditWriter(AuditDBAdaptor auditDBAdaptor, int queueSize, int batchSize, long flushIntervalMillis,
+                            Path spillDirectory) {
+        this.auditDBAdaptors.add(auditDBAdaptor);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+        this.spillDirectory = spillDirectory;
+        this.spillFile = spillDirectory.resolve(SPILL_FILE_PREFIX + getProcessName() + SPILL_FILE_SUFFIX);
+        this.objectMapper = JacksonUtils.getDefaultObjectMapper();
+
+        thread = new Thread(this::run, "audit-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Get the writer shared by all the users of the given spill directory, or create a new one.
+     * Users of the same spill directory must write to the same audit database.
+     * Every call must be followed by a call to {@link #release} once the writer is not needed anymore.
+     *
+     * @param auditDBAdaptor      AuditDBAdaptor of the user
+     * @param queueSize           Maximum number of records waiting to be written
+     * @param batchSize           Maximum number of records written at once
+     * @param flushIntervalMillis Maximum time a record waits in the queue
+     * @param spillDirectory      Directory for the records that could not be written to the database
+     * @return Shared writer
+     */
+    public static AsyncAuditWriter acquire(AuditDBAdaptor auditDBAdaptor, int queueSize, int batchSize, long flushIntervalMillis,
+                                           Path spillDirectory) {
+        Path key = spillDirectory.toAbsolutePath().normalize();
+        synchronized (WRITERS) {
+            AsyncAuditWriter writer = WRITERS.get(key);
+            if (writer == null) {
+                writer = new AsyncAuditWriter(auditDBAdaptor, queueSize, batchSize, flushIntervalMillis, spillDirectory);
+                WRITERS.put(key, writer);
+            } else {
+                writer.auditDBAdaptors.add(auditDBAdaptor);
+            }
+            return writer;
+        }
+    }
+
+    /**
+     * Release a writer obtained with {@link #acquire}. The writer is closed when released by its last user.
+     *
+     * @param auditDBAdaptor AuditDBAdaptor given when acquiring the writer
+     */
+    public void release(AuditDBAdaptor auditDBAdaptor) {
+        synchronized (WRITERS) {
+            if (auditDBAdaptors.size() == 1 && auditDBAdaptors.contains(auditDBAdaptor)) {
+                close();
+                WRITERS.values().remove(this);
+            }
+            // Stop using the AuditDBAdaptor, as its owner might close it
+            auditDBAdaptors.remove(auditDBAdaptor);
+        }
+    }
+
+    private AuditDBAdaptor getAuditDBAdaptor() throws CatalogDBException {
+        List<AuditDBAdaptor> list = auditDBAdaptors;
+        if (list.isEmpty()) {
+            throw new CatalogDBException("Audit writer released");
+        }
+        return list.get(list.size() - 1);
+    }
+
+    /**
+     * Add an audit record to the queue. Never blocks. If the queue is full, the record is written to the spill file.
+     *
+     * @param auditRecord Audit record
+     */
+    public void write(AuditRecord auditRecord) {
+        if (closed || !queue.offer(auditRecord)) {
+            spill(Collections.singletonList(auditRecord));
+        }
+    }
+
+    private void run() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        try {
+            while (!closed || !queue.isEmpty() || !batch.isEmpty()) {
+                long timeout = batch.isEmpty() ? flushIntervalMillis : deadline - System.currentTimeMillis();
+                timeout = Math.min(Math.max(0, timeout), WAKE_UP_MILLIS);
+                AuditRecord auditRecord = closed ? queue.poll() : queue.poll(timeout, TimeUnit.MILLISECONDS);
+                if (auditRecord != null) {
+                    if (batch.isEmpty()) {
+                        deadline = System.currentTimeMillis() + flushIntervalMillis;
+                    }
+                    batch.add(auditRecord);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                if (!batch.isEmpty()
+                        && (batch.size() >= batchSize || closed || System.currentTimeMillis() >= deadline)) {
+                    flush(batch);
+                    batch.clear();
+                } else if (batch.isEmpty() && auditRecord == null) {
+                    // Idle. Try to write the spilled records
+                    recoverSpilled();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.addAll(queue);
+            queue.clear();
+            spill(batch);
+        } catch (RuntimeException e) {
+            logger.error("Unexpected error writing audit records", e);
+            batch.addAll(queue);
+            queue.clear();
+            spill(batch);
+        }
+    }
+
+    private void flush(List<AuditRecord> batch) {
+        try {
+            getAuditDBAdaptor().insertAuditRecords(batch);
+            written.addAndGet(batch.size());
+        } catch (Exception e) {
+            failedWrites.incrementAndGet();
+            logger.warn("Could not write {} audit records. Writing them to the spill file {} : {}", batch.size(), spillFile,
+                    e.getMessage());
+            spill(batch);
+            // Give some time to the database before loading the spilled records
+            nextRecovery = System.currentTimeMillis() + flushIntervalMillis * 10;
+        }
+    }
+
+    private void spill(List<AuditRecord> auditRecords) {
+        if (auditRecords.isEmpty()) {
+            return;
+        }
+        synchronized (spillLock) {
+            try {
+                Files.createDirectories(spillDirectory);
+                try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (AuditRecord auditRecord : auditRecords) {
+                        writer.write(objectMapper.writeValueAsString(auditRecord));
+                        writer.newLine();
+                    }
+                }
+                spilled.addAndGet(auditRecords.size());
+            } catch (IOException | RuntimeException e) {
+                dropped.addAndGet(auditRecords.size());
+                for (AuditRecord auditRecord : auditRecords) {
+                    logger.error("Could not audit '{}' -> Error: {}", auditRecord, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void recoverSpilled() {
+        if (closed || System.currentTimeMillis() < nextRecovery) {
+            return;
+        }
+        nextRecovery = System.currentTimeMillis() + flushIntervalMillis;
+        if (!Files.isDirectory(spillDirectory)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(spillDirectory, SPILL_FILE_PREFIX + "*")) {
+            for (Path path : stream) {
+                // Files from other processes might still be in use. Only load them if they are not modified for a while.
+                if (path.equals(spillFile)
+                        || Files.getLastModifiedTime(path).toMillis() + STALE_FILE_MILLIS < System.currentTimeMillis()) {
+                    files.add(path);
+                }
+            }
+            for (Path file : files) {
+                // Claim the file. Other processes sharing the spill directory might be recovering it as well
+                Path recoveringFile = file.resolveSibling(SPILL_FILE_PREFIX + UUID.randomUUID() + RECOVERING_SUFFIX);
+                synchronized (spillLock) {
+                    try {
+                        Files.move(file, recoveringFile, StandardCopyOption.ATOMIC_MOVE);
+                        // Mark the file as in use
+                        Files.setLastModifiedTime(recoveringFile, FileTime.fromMillis(System.currentTimeMillis()));
+                    } catch (NoSuchFileException e) {
+                        continue;
+                    }
+                }
+                if (!loadSpillFile(recoveringFile)) {
+                    // Move the records back to the spill file, to be loaded later
+                    synchronized (spillLock) {
+                        Files.write(spillFile, Files.readAllLines(recoveringFile, StandardCharsets.UTF_8), StandardCharsets.UTF_8,
+                                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                        Files.delete(recoveringFile);
+                    }
+                    nextRecovery = System.currentTimeMillis() + flushIntervalMillis * 10;
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Error loading spilled audit records from {} : {}", spillDirectory, e.getMessage());
+            nextRecovery = System.currentTimeMillis() + flushIntervalMillis * 10;
+        }
+    }
+
+    private boolean loadSpillFile(Path file) throws IOException {
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<AuditRecord> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, AuditRecord.class));
+                } catch (IOException e) {
+                    dropped.incrementAndGet();
+                    logger.error("Could not parse spilled audit record '{}' -> Error: {}", line, e.getMessage());
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    getAuditDBAdaptor().insertAuditRecords(batch);
+                    count += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                getAuditDBAdaptor().insertAuditRecords(batch);
+                count += batch.size();
+            }
+        } catch (CatalogDBException | RuntimeException e) {
+            logger.warn("Could not load spilled audit records from {} : {}", file, e.getMessage());
+            return false;
+        } finally {
+            written.addAndGet(count);
+        }
+        Files.delete(file);
+        logger.info("Loaded {} spilled audit records from {}", count, file);
+        return true;
+    }
+
+    /**
+     * Stop accepting records, and wait until all the queued records are written.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            thread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            thread.interrupt();
+        } else {
+            // Records added concurrently with the close
+            List<AuditRecord> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            spill(remaining);
+        }
+        logger.debug("Audit writer closed: {}", this);
+    }
+
+    private static String getProcessName() {
+        // Usually pid@hostname
+        return ManagementFactory.getRuntimeMXBean().getName().replaceAll("[^a-zA-Z0-9._@-]", "_");
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getSpilled() {
+        return spilled.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getFailedWrites() {
+        return failedWrites.get();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AsyncAuditWriter{");
+        sb.append("queueSize=").append(queue.size());
+        sb.append(", written=").append(written);
+        sb.append(", spilled=").append(spilled);
+        sb.append(", dropped=").append(dropped);
+        sb.append(", failedWrites=").append(failedWrites);
+        sb.append(", spillFile=").append(spillFile);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -24,18 +24,22 @@ import org.opencb.opencga.catalog.auth.authorization.AuthorizationManager;
 import org.opencb.opencga.catalog.db.DBAdaptorFactory;
 import org.opencb.opencga.catalog.db.api.AuditDBAdaptor;
 import org.opencb.opencga.catalog.exceptions.CatalogAuthorizationException;
-import org.opencb.opencga.catalog.exceptions.CatalogDBException;
 import org.opencb.opencga.catalog.exceptions.CatalogException;
 import org.opencb.opencga.catalog.managers.CatalogManager;
 import org.opencb.opencga.catalog.utils.UUIDUtils;
 import org.opencb.opencga.core.common.GitRepositoryState;
 import org.opencb.opencga.core.common.TimeUtils;
+import org.opencb.opencga.core.common.UriUtils;
+import org.opencb.opencga.core.config.Audit;
 import org.opencb.opencga.core.config.Configuration;
 import org.opencb.opencga.core.models.common.Enums;
 import org.opencb.opencga.core.results.OpenCGAResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -52,24 +56,69 @@ public class AuditManager {
     private final CatalogManager catalogManager;
     private final AuthorizationManager authorizationManager;
     private final AuditDBAdaptor auditDBAdaptor;
+    private final AsyncAuditWriter auditWriter;
 
     public AuditManager(AuthorizationManager authorizationManager, CatalogManager catalogManager, DBAdaptorFactory catalogDBAdaptorFactory,
                         Configuration configuration) {
         this.catalogManager = catalogManager;
         this.authorizationManager = authorizationManager;
         this.auditDBAdaptor = catalogDBAdaptorFactory.getCatalogAuditDbAdaptor();
+
+        Audit audit = configuration.getAudit();
+        if (audit != null && audit.isAsync()) {
+            this.auditWriter = AsyncAuditWriter.acquire(auditDBAdaptor, audit.getQueueSize(), audit.getBatchSize(),
+                    audit.getFlushInterval(), getSpillDirectory(configuration));
+        } else {
+            this.auditWriter = null;
+        }
+    }
+
+    private static Path getSpillDirectory(Configuration configuration) {
+        String spillDirectory = configuration.getAudit().getSpillDirectory();
+        if (StringUtils.isNotEmpty(spillDirectory)) {
+            return Paths.get(spillDirectory);
+        }
+        try {
+            return Paths.get(UriUtils.createDirectoryUri(configuration.getWorkspace())).resolve("audit");
+        } catch (URISyntaxException | RuntimeException e) {
+            Path tmpDirectory = Paths.get(System.getProperty("java.io.tmpdir"), "opencga-audit");
+            logger.warn("Could not use workspace '{}' to store spilled audit records. Using {}", configuration.getWorkspace(),
+                    tmpDirectory, e);
+            return tmpDirectory;
+        }
     }
 
     public void audit(AuditRecord auditRecord) throws CatalogException {
-        auditDBAdaptor.insertAuditRecord(auditRecord);
+        if (auditWriter != null) {
+            auditWriter.write(auditRecord);
+        } else {
+            auditDBAdaptor.insertAuditRecord(auditRecord);
+        }
     }
 
     public void audit(List<AuditRecord> auditRecordList) throws CatalogException {
-        for (AuditRecord auditRecord : auditRecordList) {
-            auditDBAdaptor.insertAuditRecord(auditRecord);
+        if (auditWriter != null) {
+            for (AuditRecord auditRecord : auditRecordList) {
+                auditWriter.write(auditRecord);
+            }
+        } else {
+            auditDBAdaptor.insertAuditRecords(auditRecordList);
         }
     }
 
+    /**
+     * Release the shared audit writer. The last user of the writer waits until all the pending audit records are written.
+     */
+    public void close() {
+        if (auditWriter != null) {
+            auditWriter.release(auditDBAdaptor);
+        }
+    }
+
+    public AsyncAuditWriter getAuditWriter() {
+        return auditWriter;
+    }
+
     public void auditCreate(String userId, Enums.Resource resource, String resourceId, String resourceUuid, String studyId,
                             String studyUuid, ObjectMap params, AuditRecord.Status status) {
         audit(userId, Enums.Action.CREATE, resource, resourceId, resourceUuid, studyId, studyUuid, params, status, new ObjectMap());
@@ -159,8 +208,8 @@ public class AuditManager {
         AuditRecord auditRecord = new AuditRecord(auditId, operationId, userId, apiVersion, action, resource, resourceId, resourceUuid,
                 studyId, studyUuid, params, status, date, attributes);
         try {
-            auditDBAdaptor.insertAuditRecord(auditRecord);
-        } catch (CatalogDBException e) {
+            audit(auditRecord);
+        } catch (CatalogException e) {
             logger.error("Could not audit '{}' -> Error: {}", auditRecord, e.getMessage(), e);
         }
     }
@@ -16,6 +16,7 @@
 
 package org.opencb.opencga.catalog.auth.authentication;
 
+import io.jsonwebtoken.Claims;
 import org.apache.commons.lang3.StringUtils;
 import org.opencb.opencga.catalog.exceptions.CatalogAuthenticationException;
 import org.opencb.opencga.catalog.exceptions.CatalogException;
@@ -74,6 +75,28 @@ public abstract class AuthenticationManager {
         return jwtManager.getUser(token);
     }
 
+    /**
+     * Verifies the token and obtains its claims. The user id and the expiration date can be read from the claims
+     * without verifying the token again.
+     *
+     * @param token token that have been assigned to a user.
+     * @return the claims of the token.
+     * @throws CatalogException when the token is not valid or has expired.
+     */
+    public Claims getClaims(String token) throws CatalogException {
+        return jwtManager.getClaims(token);
+    }
+
+    /**
+     * Obtains the userId from the claims of an already verified token.
+     *
+     * @param claims claims of the token, as returned by {@link #getClaims(String)}.
+     * @return the user id corresponding to the token.
+     */
+    public String getUserId(Claims claims) {
+        return claims.getSubject();
+    }
+
     public abstract List<User> getUsersFromRemoteGroup(String group) throws CatalogException;
 
     public abstract List<User> getRemoteUserInformation(List<String> userStringList) throws CatalogException;
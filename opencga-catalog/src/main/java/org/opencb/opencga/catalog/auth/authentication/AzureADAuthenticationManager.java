@@ -15,6 +15,7 @@ import com.nimbusds.jose.Header;
 import com.nimbusds.jwt.JWTParser;
 import com.nimbusds.oauth2.sdk.ParseException;
 import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Level;
@@ -337,6 +338,16 @@ public class AzureADAuthenticationManager extends AuthenticationManager {
         return (String) jwtManager.getClaim(token, "oid", getPublicKey(token));
     }
 
+    @Override
+    public Claims getClaims(String token) throws CatalogException {
+        return jwtManager.getClaims(token, getPublicKey(token));
+    }
+
+    @Override
+    public String getUserId(Claims claims) {
+        return (String) claims.get("oid");
+    }
+
     @Override
     public void changePassword(String userId, String oldPassword, String newPassword) throws CatalogException {
         throw new UnsupportedOperationException();
@@ -154,6 +154,14 @@ public class JwtManager {
         return parseClaims(token, publicKey).getBody().getExpiration();
     }
 
+    Claims getClaims(String token) throws CatalogAuthenticationException {
+        return getClaims(token, this.publicKey);
+    }
+
+    Claims getClaims(String token, Key publicKey) throws CatalogAuthenticationException {
+        return parseClaims(token, publicKey).getBody();
+    }
+
     Object getClaim(String token, String claimId) throws CatalogAuthenticationException {
         return getClaim(token, claimId, this.publicKey);
     }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.catalog.auth.authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of already verified tokens, to avoid verifying the signature of the same token on every request.
+ *
+ * Tokens are stored by their SHA-256 digest. Entries expire either with the token or after the maximum cache expiration,
+ * whichever happens first.
+ */
+public class TokenCache {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    public static final long DEFAULT_EXPIRATION_SECONDS = 300;
+
+    private final int maxSize;
+    private final long maxExpirationMillis;
+    private final LinkedHashMap<String, Entry> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public static class Entry {
+        private final String userId;
+        private final String authOrigin;
+        private final long expiration;
+
+        Entry(String userId, String authOrigin, long expiration) {
+            this.userId = userId;
+            this.authOrigin = authOrigin;
+            this.expiration = expiration;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public String getAuthOrigin() {
+            return authOrigin;
+        }
+
+        public long getExpiration() {
+            return expiration;
+        }
+    }
+
+    public TokenCache(int maxSize, long maxExpirationSeconds) {
+        this.maxSize = maxSize;
+        this.maxExpirationMillis = maxExpirationSeconds * 1000L;
+        this.cache = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > TokenCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0 && maxExpirationMillis > 0;
+    }
+
+    /**
+     * Get the cached entry of a verified token.
+     *
+     * @param token Token
+     * @return Cached entry, or null if the token is not in the cache or has expired.
+     */
+    public Entry get(String token) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String key = digest(token);
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+            if (entry != null && entry.expiration <= System.currentTimeMillis()) {
+                cache.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return entry;
+    }
+
+    /**
+     * Add a verified token to the cache.
+     *
+     * @param token      Verified token
+     * @param userId     User id owner of the token
+     * @param authOrigin Authentication origin that verified the token
+     * @param expiration Token expiration date. Null if the token does not expire.
+     */
+    public void put(String token, String userId, String authOrigin, Date expiration) {
+        if (!isEnabled()) {
+            return;
+        }
+        long cacheExpiration = System.currentTimeMillis() + maxExpirationMillis;
+        if (expiration != null) {
+            cacheExpiration = Math.min(cacheExpiration, expiration.getTime());
+        }
+        Entry entry = new Entry(userId, authOrigin, cacheExpiration);
+        String key = digest(token);
+        synchronized (cache) {
+            cache.put(key, entry);
+        }
+    }
+
+    public void invalidateUser(String userId) {
+        synchronized (cache) {
+            cache.values().removeIf(entry -> entry.userId.equals(userId));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TokenCache{");
+        sb.append("size=").append(size());
+        sb.append(", maxSize=").append(maxSize);
+        sb.append(", hits=").append(hits);
+        sb.append(", misses=").append(misses);
+        sb.append(", evictions=").append(evictions);
+        sb.append('}');
+        return sb.toString();
+    }
+}
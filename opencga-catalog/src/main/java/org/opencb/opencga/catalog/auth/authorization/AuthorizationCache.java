@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.catalog.auth.authorization;
+
+import org.opencb.opencga.core.models.acls.permissions.StudyAclEntry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Study scoped cache of resolved permissions.
+ *
+ * Stores the granted permissions of the users over each study and its entries. Only granted permissions are cached.
+ * Any change in the ACLs, permission rules or groups of the study must invalidate the study. As other catalog
+ * instances might change the permissions, entries also expire after a short time.
+ */
+public class AuthorizationCache {
+
+    public static final int DEFAULT_MAX_ENTRIES_PER_STUDY = 50000;
+    public static final long DEFAULT_EXPIRATION_SECONDS = 30;
+
+    private final int maxEntriesPerStudy;
+    private final long expirationMillis;
+    private final Map<Long, Map<String, CacheEntry>> studies = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    // Incremented on every invalidation. Avoids caching values read before an invalidation.
+    private final AtomicLong generation = new AtomicLong();
+
+    private static class CacheEntry {
+        private final Object value;
+        private final long expiration;
+
+        CacheEntry(Object value, long expiration) {
+            this.value = value;
+            this.expiration = expiration;
+        }
+    }
+
+    public AuthorizationCache() {
+        this(DEFAULT_MAX_ENTRIES_PER_STUDY, DEFAULT_EXPIRATION_SECONDS);
+    }
+
+    public AuthorizationCache(int maxEntriesPerStudy, long expirationSeconds) {
+        this.maxEntriesPerStudy = maxEntriesPerStudy;
+        this.expirationMillis = expirationSeconds * 1000L;
+    }
+
+    public boolean isEnabled() {
+        return maxEntriesPerStudy > 0 && expirationMillis > 0;
+    }
+
+    public static String studyPermissionKey(String user, StudyAclEntry.StudyPermissions permission) {
+        return "study:" + user + ':' + permission;
+    }
+
+    public static String permissionKey(String user, StudyAclEntry.StudyPermissions permission, long uid) {
+        return "entry:" + user + ':' + permission + ':' + uid;
+    }
+
+    /**
+     * Get a value from the cache.
+     *
+     * @param studyUid Study uid
+     * @param key      Key
+     * @param <T>      Value type
+     * @return Cached value, or null if missing or expired.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(long studyUid, String key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Map<String, CacheEntry> studyCache = studies.get(studyUid);
+        CacheEntry entry = null;
+        if (studyCache != null) {
+            synchronized (studyCache) {
+                entry = studyCache.get(key);
+                if (entry != null && entry.expiration <= System.currentTimeMillis()) {
+                    studyCache.remove(key);
+                    entry = null;
+                }
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        } else {
+            hits.incrementAndGet();
+            return (T) entry.value;
+        }
+    }
+
+    public boolean isGranted(long studyUid, String key) {
+        return Boolean.TRUE.equals(get(studyUid, key));
+    }
+
+    /**
+     * Get the current generation of the cache. Must be obtained before reading the value to cache from the database.
+     *
+     * @return Current generation
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Add a value to the cache, only if there were no invalidations since the given generation.
+     *
+     * @param studyUid   Study uid
+     * @param key        Key
+     * @param value      Value
+     * @param generation Generation of the cache before reading the value
+     */
+    public void put(long studyUid, String key, Object value, long generation) {
+        if (!isEnabled()) {
+            return;
+        }
+        Map<String, CacheEntry> studyCache = studies.computeIfAbsent(studyUid, uid -> newStudyCache());
+        synchronized (studyCache) {
+            if (this.generation.get() == generation) {
+                studyCache.put(key, new CacheEntry(value, System.currentTimeMillis() + expirationMillis));
+            }
+        }
+    }
+
+    private Map<String, CacheEntry> newStudyCache() {
+        return new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > maxEntriesPerStudy;
+            }
+        };
+    }
+
+    public void grant(long studyUid, String key, long generation) {
+        put(studyUid, key, Boolean.TRUE, generation);
+    }
+
+    public void invalidateStudy(long studyUid) {
+        generation.incrementAndGet();
+        studies.remove(studyUid);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        studies.clear();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AuthorizationCache{");
+        sb.append("studies=").append(studies.size());
+        sb.append(", hits=").append(hits);
+        sb.append(", misses=").append(misses);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -23,6 +23,7 @@ import org.opencb.opencga.core.models.Study;
 import org.opencb.opencga.core.models.common.Enums;
 import org.opencb.opencga.core.results.OpenCGAResult;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -54,6 +55,21 @@ public interface AuthorizationDBAdaptor {
     OpenCGAResult<Map<String, List<String>>> get(List<Long> resourceIds, List<String> members, Enums.Resource entry)
             throws CatalogException;
 
+    /**
+     * Filter the resources of a study the user is allowed to access, evaluating the permissions in a single query.
+     *
+     * @param studyId study uid.
+     * @param resourceIds uids of the file, sample... to be checked.
+     * @param user user for whom the permissions will be checked.
+     * @param studyPermission permission at the study level granting access to the resources.
+     * @param entryPermission permission at the resource level.
+     * @param entry Entity for which the permissions will be checked.
+     * @return the uids of the resources the user is allowed to access.
+     * @throws CatalogException  CatalogException.
+     */
+    OpenCGAResult<Long> getAuthorisedUids(long studyId, Collection<Long> resourceIds, String user, String studyPermission,
+                                          String entryPermission, Enums.Resource entry) throws CatalogException;
+
     /**
      * Remove all the Acls defined for the member in the resource for the study.
      *
@@ -25,9 +25,7 @@ import org.opencb.opencga.core.models.common.Enums;
 import org.opencb.opencga.core.results.OpenCGAResult;
 
 import javax.annotation.Nullable;
-import java.util.EnumSet;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Created by pfurio on 12/05/16.
@@ -134,6 +132,20 @@ public interface AuthorizationManager {
     void checkClinicalAnalysisPermission(long studyId, long analysisId, String userId,
                                          ClinicalAnalysisAclEntry.ClinicalAnalysisPermissions permission) throws CatalogException;
 
+    /**
+     * Filter the entries of a study the user is allowed to access. All the entries are checked with one single query.
+     *
+     * @param studyId    Study uid.
+     * @param uids       Uids of the entries to check.
+     * @param userId     User id.
+     * @param permission Study permission granting access to the entries. e.g. VIEW_SAMPLES.
+     * @param resource   Entity the entries belong to.
+     * @return the uids of the entries the user is allowed to access.
+     * @throws CatalogException if the permission is not valid for the entity or there is any database error.
+     */
+    Set<Long> filterAuthorisedEntries(long studyId, Collection<Long> uids, String userId, StudyAclEntry.StudyPermissions permission,
+                                      Enums.Resource resource) throws CatalogException;
+
     //------------------------- Study ACL -----------------------------
 
     /**
@@ -443,4 +455,24 @@ public interface AuthorizationManager {
     void removePermissionRuleAndRestorePermissions(Study study, String permissionRuleId, Study.Entity entry) throws CatalogException;
 
     void removePermissionRule(long studyId, String permissionRuleId, Study.Entity entry) throws CatalogException;
+
+    /**
+     * Invalidate the cached permissions of a study. Must be called after any change in the groups of the study.
+     *
+     * @param studyId Study uid.
+     */
+    void invalidatePermissionCache(long studyId);
+
+    /**
+     * Invalidate all the cached permissions.
+     */
+    void invalidatePermissionCache();
+
+    /**
+     * Get the generation of the permission cache. It is incremented every time that the permissions of any study change,
+     * so values derived from the permissions can be discarded after any change.
+     *
+     * @return Current generation
+     */
+    long getPermissionCacheGeneration();
 }
@@ -37,9 +37,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -69,10 +67,12 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
     private final boolean openRegister;
 
     private final AuthorizationDBAdaptor aclDBAdaptor;
+    private final AuthorizationCache authorizationCache;
 
     public CatalogAuthorizationManager(DBAdaptorFactory dbFactory, Configuration configuration)
             throws CatalogDBException {
         this.logger = LoggerFactory.getLogger(CatalogAuthorizationManager.class);
+        this.authorizationCache = new AuthorizationCache();
         this.aclDBAdaptor = new AuthorizationMongoDBAdaptor(dbFactory);
 
         this.openRegister = configuration.isOpenRegister();
@@ -135,7 +135,13 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
         if (OPENCGA.equals(userId)) {
             return;
         } else {
+            String cacheKey = AuthorizationCache.studyPermissionKey(userId, permission);
+            if (authorizationCache.isGranted(studyId, cacheKey)) {
+                return;
+            }
+            long generation = authorizationCache.getGeneration();
             if (studyDBAdaptor.hasStudyPermission(studyId, userId, permission)) {
+                authorizationCache.grant(studyId, cacheKey, generation);
                 return;
             }
         }
@@ -327,18 +333,24 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
                 throw new CatalogAuthorizationException("Permission " + permission.toString() + " not found");
         }
 
-        if (checkUserPermission(studyId, userId, query, studyPermission, fileDBAdaptor)) {
+        if (checkUserPermission(studyId, fileId, userId, query, studyPermission, fileDBAdaptor)) {
             return;
         }
         throw CatalogAuthorizationException.deny(userId, permission.toString(), "File", fileId, null);
     }
 
-    private boolean checkUserPermission(long studyUid, String userId, Query query, StudyAclEntry.StudyPermissions studyPermission,
+    private boolean checkUserPermission(long studyUid, long uid, String userId, Query query, StudyAclEntry.StudyPermissions studyPermission,
                                         DBAdaptor dbAdaptor) throws CatalogDBException, CatalogAuthorizationException {
         if (OPENCGA.equals(userId)) {
             return true;
         } else {
+            String cacheKey = AuthorizationCache.permissionKey(userId, studyPermission, uid);
+            if (authorizationCache.isGranted(studyUid, cacheKey)) {
+                return true;
+            }
+            long generation = authorizationCache.getGeneration();
             if (dbAdaptor.count(studyUid, query, userId, studyPermission).getNumMatches() == 1) {
+                authorizationCache.grant(studyUid, cacheKey, generation);
                 return true;
             }
         }
@@ -375,7 +387,7 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
                 throw new CatalogAuthorizationException("Permission " + permission.toString() + " not found");
         }
 
-        if (checkUserPermission(studyId, userId, query, studyPermission, sampleDBAdaptor)) {
+        if (checkUserPermission(studyId, sampleId, userId, query, studyPermission, sampleDBAdaptor)) {
             return;
         }
         throw CatalogAuthorizationException.deny(userId, permission.toString(), "Sample", sampleId, null);
@@ -411,7 +423,7 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
                 throw new CatalogAuthorizationException("Permission " + permission.toString() + " not found");
         }
 
-        if (checkUserPermission(studyId, userId, query, studyPermission, individualDBAdaptor)) {
+        if (checkUserPermission(studyId, individualId, userId, query, studyPermission, individualDBAdaptor)) {
             return;
         }
         throw CatalogAuthorizationException.deny(userId, permission.toString(), "Individual", individualId, null);
@@ -437,7 +449,7 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
                 throw new CatalogAuthorizationException("Permission " + permission.toString() + " not found");
         }
 
-        if (checkUserPermission(studyId, userId, query, studyPermission, jobDBAdaptor)) {
+        if (checkUserPermission(studyId, jobId, userId, query, studyPermission, jobDBAdaptor)) {
             return;
         }
         throw CatalogAuthorizationException.deny(userId, permission.toString(), "Job", jobId, null);
@@ -473,7 +485,7 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
                 throw new CatalogAuthorizationException("Permission " + permission.toString() + " not found");
         }
 
-        if (checkUserPermission(studyId, userId, query, studyPermission, cohortDBAdaptor)) {
+        if (checkUserPermission(studyId, cohortId, userId, query, studyPermission, cohortDBAdaptor)) {
             return;
         }
         throw CatalogAuthorizationException.deny(userId, permission.toString(), "Cohort", cohortId, null);
@@ -501,7 +513,7 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
                 throw new CatalogAuthorizationException("Permission " + permission.toString() + " not found");
         }
 
-        if (checkUserPermission(studyId, userId, query, studyPermission, panelDBAdaptor)) {
+        if (checkUserPermission(studyId, panelId, userId, query, studyPermission, panelDBAdaptor)) {
             return;
         }
         throw CatalogAuthorizationException.deny(userId, permission.toString(), "Panel", panelId, null);
@@ -537,7 +549,7 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
                 throw new CatalogAuthorizationException("Permission " + permission.toString() + " not found");
         }
 
-        if (checkUserPermission(studyId, userId, query, studyPermission, familyDBAdaptor)) {
+        if (checkUserPermission(studyId, familyId, userId, query, studyPermission, familyDBAdaptor)) {
             return;
         }
         throw CatalogAuthorizationException.deny(userId, permission.toString(), "Family", familyId, null);
@@ -565,7 +577,7 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
                 throw new CatalogAuthorizationException("Permission " + permission.toString() + " not found");
         }
 
-        if (checkUserPermission(studyId, userId, query, studyPermission, clinicalAnalysisDBAdaptor)) {
+        if (checkUserPermission(studyId, analysisId, userId, query, studyPermission, clinicalAnalysisDBAdaptor)) {
             return;
         }
         throw CatalogAuthorizationException.deny(userId, permission.toString(), "ClinicalAnalysis", analysisId, null);
@@ -632,7 +644,11 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
 
     @Override
     public void resetPermissionsFromAllEntities(long studyId, List<String> members) throws CatalogException {
-        aclDBAdaptor.resetMembersFromAllEntries(studyId, members);
+        try {
+            aclDBAdaptor.resetMembersFromAllEntries(studyId, members);
+        } finally {
+            invalidatePermissionCache(studyId);
+        }
     }
 
     @Override
@@ -837,21 +853,33 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
     @Override
     public OpenCGAResult<Map<String, List<String>>> setStudyAcls(List<Long> studyIds, List<String> members, List<String> permissions)
             throws CatalogException {
-        aclDBAdaptor.setToMembers(studyIds, members, permissions);
+        try {
+            aclDBAdaptor.setToMembers(studyIds, members, permissions);
+        } finally {
+            invalidatePermissionCache(studyIds);
+        }
         return aclDBAdaptor.get(studyIds, members, Enums.Resource.STUDY);
     }
 
     @Override
     public OpenCGAResult<Map<String, List<String>>> addStudyAcls(List<Long> studyIds, List<String> members, List<String> permissions)
             throws CatalogException {
-        aclDBAdaptor.addToMembers(studyIds, members, permissions);
+        try {
+            aclDBAdaptor.addToMembers(studyIds, members, permissions);
+        } finally {
+            invalidatePermissionCache(studyIds);
+        }
         return aclDBAdaptor.get(studyIds, members, Enums.Resource.STUDY);
     }
 
     @Override
     public OpenCGAResult<Map<String, List<String>>> removeStudyAcls(List<Long> studyIds, List<String> members,
                                                                     @Nullable List<String> permissions) throws CatalogException {
-        aclDBAdaptor.removeFromMembers(studyIds, members, permissions, Enums.Resource.STUDY);
+        try {
+            aclDBAdaptor.removeFromMembers(studyIds, members, permissions, Enums.Resource.STUDY);
+        } finally {
+            invalidatePermissionCache(studyIds);
+        }
         return aclDBAdaptor.get(studyIds, members, Enums.Resource.STUDY);
     }
 
@@ -868,7 +896,11 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
         }
 
         long startTime = System.currentTimeMillis();
-        aclDBAdaptor.setToMembers(studyId, ids, ids2, members, permissions, resource, resource2);
+        try {
+            aclDBAdaptor.setToMembers(studyId, ids, ids2, members, permissions, resource, resource2);
+        } finally {
+            invalidatePermissionCache(studyId);
+        }
 
         return getAclResult(ids, members, resource, startTime);
     }
@@ -882,7 +914,11 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
         }
 
         long startTime = System.currentTimeMillis();
-        aclDBAdaptor.addToMembers(studyId, ids, ids2, members, permissions, resource, resource2);
+        try {
+            aclDBAdaptor.addToMembers(studyId, ids, ids2, members, permissions, resource, resource2);
+        } finally {
+            invalidatePermissionCache(studyId);
+        }
         return getAclResult(ids, members, resource, startTime);
     }
 
@@ -895,7 +931,12 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
         }
 
         long startTime = System.currentTimeMillis();
-        aclDBAdaptor.removeFromMembers(ids, ids2, members, permissions, resource, resource2);
+        try {
+            aclDBAdaptor.removeFromMembers(ids, ids2, members, permissions, resource, resource2);
+        } finally {
+            // The study is not known
+            invalidatePermissionCache();
+        }
         return getAclResult(ids, members, resource, startTime);
     }
 
@@ -917,7 +958,11 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
         }
 
         long startTime = System.currentTimeMillis();
-        aclDBAdaptor.setAcls(ids, aclEntries, resource);
+        try {
+            aclDBAdaptor.setAcls(ids, aclEntries, resource);
+        } finally {
+            invalidatePermissionCache(studyId);
+        }
         int dbTime = (int) (System.currentTimeMillis() - startTime);
 
         OpenCGAResult result = getAcls(ids, null, resource);
@@ -938,7 +983,11 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
         }
 
         // 2. We can apply the permission rules
-        aclDBAdaptor.applyPermissionRules(studyId, permissionRule, entry);
+        try {
+            aclDBAdaptor.applyPermissionRules(studyId, permissionRule, entry);
+        } finally {
+            invalidatePermissionCache(studyId);
+        }
     }
 
     @Override
@@ -947,7 +996,11 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
         ParamUtils.checkObj(permissionRuleId, "PermissionRule id");
         ParamUtils.checkObj(entry, "Entity");
 
-        aclDBAdaptor.removePermissionRuleAndRemovePermissions(study, permissionRuleId, entry);
+        try {
+            aclDBAdaptor.removePermissionRuleAndRemovePermissions(study, permissionRuleId, entry);
+        } finally {
+            invalidatePermissionCache(study.getUid());
+        }
     }
 
     @Override
@@ -956,7 +1009,11 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
         ParamUtils.checkObj(permissionRuleId, "PermissionRule id");
         ParamUtils.checkObj(entry, "Entity");
 
-        aclDBAdaptor.removePermissionRuleAndRestorePermissions(study, permissionRuleId, entry);
+        try {
+            aclDBAdaptor.removePermissionRuleAndRestorePermissions(study, permissionRuleId, entry);
+        } finally {
+            invalidatePermissionCache(study.getUid());
+        }
     }
 
     @Override
@@ -964,7 +1021,11 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
         ParamUtils.checkObj(permissionRuleId, "PermissionRule id");
         ParamUtils.checkObj(entry, "Entity");
 
-        aclDBAdaptor.removePermissionRule(studyId, permissionRuleId, entry);
+        try {
+            aclDBAdaptor.removePermissionRule(studyId, permissionRuleId, entry);
+        } finally {
+            invalidatePermissionCache(studyId);
+        }
     }
 
     /*
@@ -972,6 +1033,94 @@ public class CatalogAuthorizationManager implements AuthorizationManager {
     Auxiliar methods
     ====================================
      */
+    @Override
+    public Set<Long> filterAuthorisedEntries(long studyId, Collection<Long> uids, String userId, StudyAclEntry.StudyPermissions permission,
+                                             Enums.Resource resource) throws CatalogException {
+        String entryPermission = getEntryPermission(permission, resource);
+        if (OPENCGA.equals(userId)) {
+            return new HashSet<>(uids);
+        }
+
+        Set<Long> authorised = new HashSet<>(uids.size());
+        List<Long> pending = new ArrayList<>(uids.size());
+        for (Long uid : uids) {
+            if (authorizationCache.isGranted(studyId, AuthorizationCache.permissionKey(userId, permission, uid))) {
+                authorised.add(uid);
+            } else {
+                pending.add(uid);
+            }
+        }
+        if (!pending.isEmpty()) {
+            long generation = authorizationCache.getGeneration();
+            OpenCGAResult<Long> result = aclDBAdaptor.getAuthorisedUids(studyId, pending, userId, permission.name(), entryPermission,
+                    resource);
+            for (Long uid : result.getResults()) {
+                authorizationCache.grant(studyId, AuthorizationCache.permissionKey(userId, permission, uid), generation);
+                authorised.add(uid);
+            }
+        }
+        return authorised;
+    }
+
+    private static String getEntryPermission(StudyAclEntry.StudyPermissions permission, Enums.Resource resource)
+            throws CatalogAuthorizationException {
+        Enum<?> entryPermission;
+        switch (resource) {
+            case FILE:
+                entryPermission = permission.getFilePermission();
+                break;
+            case SAMPLE:
+                entryPermission = permission.getSamplePermission();
+                break;
+            case JOB:
+                entryPermission = permission.getJobPermission();
+                break;
+            case INDIVIDUAL:
+                entryPermission = permission.getIndividualPermission();
+                break;
+            case COHORT:
+                entryPermission = permission.getCohortPermission();
+                break;
+            case DISEASE_PANEL:
+                entryPermission = permission.getPanelPermission();
+                break;
+            case FAMILY:
+                entryPermission = permission.getFamilyPermission();
+                break;
+            case CLINICAL_ANALYSIS:
+                entryPermission = permission.getClinicalAnalysisPermission();
+                break;
+            default:
+                entryPermission = null;
+                break;
+        }
+        if (entryPermission == null) {
+            throw new CatalogAuthorizationException("Permission " + permission + " not valid for " + resource);
+        }
+        return entryPermission.name();
+    }
+
+    @Override
+    public void invalidatePermissionCache(long studyId) {
+        authorizationCache.invalidateStudy(studyId);
+    }
+
+    @Override
+    public void invalidatePermissionCache() {
+        authorizationCache.invalidateAll();
+    }
+
+    @Override
+    public long getPermissionCacheGeneration() {
+        return authorizationCache.getGeneration();
+    }
+
+    private void invalidatePermissionCache(List<Long> studyIds) {
+        for (Long studyId : studyIds) {
+            authorizationCache.invalidateStudy(studyId);
+        }
+    }
+
     /**
      * Retrieves the groupId where the members belongs to.
      *
@@ -26,6 +26,17 @@ public interface DBIterator<E> extends Iterator<E>, Closeable {
 
     String INCLUDE_ACLS = DBAdaptor.INCLUDE_ACLS;
 
+    /**
+     * Number of documents read from the cursor at once. The related entities of each batch are fetched with a single query.
+     */
+    String BATCH_SIZE = "iteratorBatchSize";
+    int DEFAULT_BATCH_SIZE = 100;
+
+    /**
+     * Fetch the next batch in background while the current one is consumed. Disabled by default. Ignored within transactions.
+     */
+    String PREFETCH = "iteratorPrefetch";
+
     @Override
     void close();
 
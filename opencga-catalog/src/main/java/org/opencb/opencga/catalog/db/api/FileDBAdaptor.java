@@ -53,7 +53,7 @@ public interface FileDBAdaptor extends AnnotationSetDBAdaptor<File> {
         PATH("path", TEXT_ARRAY, ""),
         OWNER_ID("ownerId", TEXT_ARRAY, ""),
         CREATION_DATE("creationDate", DATE, ""),
-        MODIFICATION_DATE("modificationDate", TEXT_ARRAY, ""),
+        MODIFICATION_DATE("modificationDate", DATE, ""),
         DESCRIPTION("description", TEXT_ARRAY, ""),
         EXTERNAL("external", BOOLEAN, ""),
         RELEASE("release", INTEGER, ""),
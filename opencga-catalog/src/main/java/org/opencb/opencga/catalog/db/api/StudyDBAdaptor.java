@@ -205,6 +205,18 @@ public interface StudyDBAdaptor extends Iterable<Study> {
 
     OpenCGAResult<Study> updateStudyLastModified(long studyId) throws CatalogDBException;
 
+    /**
+     * Set an attribute of the study without updating its modification date. Meant for internal bookkeeping that does not
+     * modify the study itself, like the last time the study entries were indexed.
+     *
+     * @param studyUid Study uid.
+     * @param key      Attribute key.
+     * @param value    Attribute value.
+     * @return OpenCGAResult object.
+     * @throws CatalogDBException if the study does not exist.
+     */
+    OpenCGAResult<Study> setInternalAttribute(long studyUid, String key, Object value) throws CatalogDBException;
+
     long getId(long projectId, String studyAlias) throws CatalogDBException;
 
     long getProjectUidByStudyUid(long studyUid) throws CatalogDBException;
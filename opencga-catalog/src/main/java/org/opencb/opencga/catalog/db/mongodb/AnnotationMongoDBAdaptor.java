@@ -19,7 +19,6 @@ package org.opencb.opencga.catalog.db.mongodb;
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.model.Aggregates;
 import com.mongodb.client.model.Filters;
-import com.mongodb.client.model.Projections;
 import com.mongodb.client.model.Updates;
 import org.apache.commons.collections.map.LinkedMap;
 import org.apache.commons.lang3.StringUtils;
@@ -571,13 +570,15 @@ public abstract class AnnotationMongoDBAdaptor<T> extends MongoDBAdaptor impleme
         // Obtain the annotation names of the annotations that are using the variableSet variableSetId
         List<Bson> aggregation = new ArrayList<>(4);
         aggregation.add(Aggregates.match(Filters.eq(AnnotationSetParams.ANNOTATION_SETS_VARIABLE_SET_ID.key(), variableSetId)));
-        aggregation.add(Aggregates.unwind("$" + AnnotationSetParams.ANNOTATION_SETS.key()));
-        aggregation.add(Aggregates.project(Projections.include(
-                AnnotationSetParams.ANNOTATION_SETS_ANNOTATION_SET_NAME.key(), AnnotationSetParams.ANNOTATION_SETS_VARIABLE_SET_ID.key()
-        )));
-        aggregation.add(Aggregates.match(Filters.eq(AnnotationSetParams.ANNOTATION_SETS_VARIABLE_SET_ID.key(), variableSetId)));
+        // Keep only the annotation set names of the entries from the variable set before unwinding. Documents have one entry per
+        // annotated variable, so unwinding the whole array would generate many documents that would be discarded afterwards.
+        aggregation.add(Aggregates.project(new Document(AnnotationSetParams.ANNOTATION_SET_NAME.key(),
+                new Document("$setUnion", Collections.singletonList(new Document("$map", new Document()
+                        .append("input", filterAnnotationSetsByVariableSet(variableSetId))
+                        .append("in", "$$this." + AnnotationSetParams.ANNOTATION_SET_NAME.key())))))));
+        aggregation.add(Aggregates.unwind("$" + AnnotationSetParams.ANNOTATION_SET_NAME.key()));
         // We group by the annotation set name to get all the different ids
-        aggregation.add(new Document("$group", new Document("_id", "$" + AnnotationSetParams.ANNOTATION_SETS_ANNOTATION_SET_NAME.key())));
+        aggregation.add(new Document("$group", new Document("_id", "$" + AnnotationSetParams.ANNOTATION_SET_NAME.key())));
 
         DataResult<Document> aggregationResult = getCollection().aggregate(aggregation, null);
 
@@ -716,15 +717,14 @@ public abstract class AnnotationMongoDBAdaptor<T> extends MongoDBAdaptor impleme
     public OpenCGAResult<VariableSummary> getAnnotationSummary(long studyId, long variableSetId) throws CatalogDBException {
         long startTime = startQuery();
 
-        List<Bson> aggregation = new ArrayList<>(6);
-        aggregation.add(new Document("$match", new Document(PRIVATE_STUDY_UID, studyId)));
-        aggregation.add(new Document("$project", new Document(AnnotationSetParams.ANNOTATION_SETS.key(), 1)));
+        List<Bson> aggregation = new ArrayList<>(5);
+        // Only documents annotated with the variable set. Index backed by {studyUid, customAnnotationSets.vs}
+        aggregation.add(new Document("$match", new Document(PRIVATE_STUDY_UID, studyId)
+                .append(AnnotationSetParams.ANNOTATION_SETS_VARIABLE_SET_ID.key(), variableSetId)));
+        // Discard the entries from other variable sets before unwinding
+        aggregation.add(new Document("$project", new Document(AnnotationSetParams.ANNOTATION_SETS.key(),
+                filterAnnotationSetsByVariableSet(variableSetId))));
         aggregation.add(new Document("$unwind", "$" + AnnotationSetParams.ANNOTATION_SETS.key()));
-//        aggregation.add(new Document("$unwind", "$" + AnnotationSetParams.ANNOTATION_SETS_ANNOTATIONS.key()));
-
-        aggregation.add(new Document("$match",
-                new Document(AnnotationSetParams.ANNOTATION_SETS_VARIABLE_SET_ID.key(), variableSetId))
-        );
         aggregation.add(new Document("$group",
                         new Document("_id", new Document()
                                 .append("name", "$" + AnnotationSetParams.ANNOTATION_SETS_ID.key())
@@ -759,6 +759,19 @@ public abstract class AnnotationMongoDBAdaptor<T> extends MongoDBAdaptor impleme
         return endQuery(startTime, variableSummaryList);
     }
 
+    /**
+     * Aggregation expression filtering the annotation entries of the given variable set.
+     *
+     * @param variableSetId Variable set uid
+     * @return $filter expression
+     */
+    private Document filterAnnotationSetsByVariableSet(long variableSetId) {
+        return new Document("$filter", new Document()
+                .append("input", "$" + AnnotationSetParams.ANNOTATION_SETS.key())
+                .append("cond", new Document("$eq",
+                        Arrays.asList("$$this." + AnnotationSetParams.VARIABLE_SET_ID.key(), variableSetId))));
+    }
+
     public Document createAnnotationQuery(String annotations, ObjectMap variableTypeMap) throws CatalogDBException {
         Document document = new Document();
 
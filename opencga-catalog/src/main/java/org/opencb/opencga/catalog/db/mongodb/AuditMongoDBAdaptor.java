@@ -58,6 +58,22 @@ public class AuditMongoDBAdaptor extends MongoDBAdaptor implements AuditDBAdapto
         return endQuery(startQuery, Collections.singletonList(auditRecord));
     }
 
+    @Override
+    public OpenCGAResult<AuditRecord> insertAuditRecords(List<AuditRecord> auditRecords) throws CatalogDBException {
+        long startQuery = startQuery();
+        if (auditRecords.isEmpty()) {
+            return endQuery(startQuery);
+        }
+
+        List<Document> documents = new ArrayList<>(auditRecords.size());
+        for (AuditRecord auditRecord : auditRecords) {
+            documents.add(MongoDBUtils.getMongoDBDocument(auditRecord, "AuditRecord"));
+        }
+        auditCollection.insert(documents, new QueryOptions());
+
+        return endQuery(startQuery, auditRecords);
+    }
+
     @Override
     public OpenCGAResult<AuditRecord> get(Query query, QueryOptions queryOptions) throws CatalogDBException {
         long startTime = startQuery();
@@ -36,9 +36,11 @@ import org.opencb.opencga.catalog.auth.authorization.AuthorizationDBAdaptor;
 import org.opencb.opencga.catalog.auth.authorization.CatalogAuthorizationManager;
 import org.opencb.opencga.catalog.db.DBAdaptorFactory;
 import org.opencb.opencga.catalog.db.api.StudyDBAdaptor;
+import org.opencb.opencga.catalog.exceptions.CatalogAuthorizationException;
 import org.opencb.opencga.catalog.exceptions.CatalogDBException;
 import org.opencb.opencga.catalog.exceptions.CatalogException;
 import org.opencb.opencga.core.models.PermissionRule;
+import org.opencb.opencga.core.models.Status;
 import org.opencb.opencga.core.models.Study;
 import org.opencb.opencga.core.models.common.Enums;
 import org.opencb.opencga.core.results.OpenCGAResult;
@@ -59,6 +61,7 @@ public class AuthorizationMongoDBAdaptor extends MongoDBAdaptor implements Autho
     private Map<Enums.Resource, MongoDBCollection> dbCollectionMap = new HashMap<>();
 
     private static final String ANONYMOUS = "*";
+    private static final String STATUS_NAME = "status.name";
     static final String MEMBER_WITH_INTERNAL_ACL = "_withInternalAcls";
 
     public AuthorizationMongoDBAdaptor(DBAdaptorFactory dbFactory) throws CatalogDBException {
@@ -302,6 +305,57 @@ public class AuthorizationMongoDBAdaptor extends MongoDBAdaptor implements Autho
         return result;
     }
 
+    @Override
+    public OpenCGAResult<Long> getAuthorisedUids(long studyId, Collection<Long> resourceIds, String user, String studyPermission,
+                                                 String entryPermission, Enums.Resource resource) throws CatalogException {
+        validateEntry(resource);
+        long startTime = startQuery();
+        if (resourceIds.isEmpty()) {
+            return endQuery(startTime);
+        }
+
+        OpenCGAResult studyResult = dbAdaptorFactory.getCatalogStudyDBAdaptor()
+                .nativeGet(new Query(StudyDBAdaptor.QueryParams.UID.key(), studyId), QueryOptions.empty());
+        if (studyResult.getNumResults() == 0) {
+            throw new CatalogDBException("Study " + studyId + " not found");
+        }
+
+        Document queryForAuthorisedEntries;
+        try {
+            queryForAuthorisedEntries = AuthorizationMongoDBUtils.getQueryForAuthorisedEntries((Document) studyResult.first(), user,
+                    studyPermission, entryPermission, resource.name());
+        } catch (CatalogAuthorizationException e) {
+            // The user is not a member of the study
+            return endQuery(startTime);
+        }
+
+        List<Bson> filters = new ArrayList<>(5);
+        filters.add(Filters.eq(PRIVATE_STUDY_UID, studyId));
+        filters.add(Filters.in(PRIVATE_UID, resourceIds));
+        // Same base filters used by the entry queries. Only the last version of versioned entries, and no deleted entries.
+        if (isVersionedEntity(resource)) {
+            filters.add(Filters.eq(LAST_OF_VERSION, true));
+        }
+        filters.add(Filters.ne(STATUS_NAME, Status.DELETED));
+        if (!queryForAuthorisedEntries.isEmpty()) {
+            filters.add(queryForAuthorisedEntries);
+        }
+
+        List<Bson> aggregation = Arrays.asList(
+                Aggregates.match(Filters.and(filters)),
+                Aggregates.group("$" + PRIVATE_UID));
+        for (Bson bson : aggregation) {
+            logger.debug("Get authorised uids: {}", bson.toBsonDocument(Document.class, MongoClient.getDefaultCodecRegistry()));
+        }
+
+        DataResult<Document> aggregate = dbCollectionMap.get(resource).aggregate(aggregation, null);
+        List<Long> uids = new ArrayList<>(aggregate.getNumResults());
+        for (Document document : aggregate.getResults()) {
+            uids.add(((Number) document.get("_id")).longValue());
+        }
+        return endQuery(startTime, uids);
+    }
+
     @Override
     public OpenCGAResult removeFromStudy(long studyId, String member, Enums.Resource resource) throws CatalogException {
         validateEntry(resource);
@@ -840,6 +894,18 @@ public class AuthorizationMongoDBAdaptor extends MongoDBAdaptor implements Autho
         return OpenCGAResult.empty();
     }
 
+    private boolean isVersionedEntity(Enums.Resource resource) {
+        switch (resource) {
+            case SAMPLE:
+            case INDIVIDUAL:
+            case FAMILY:
+            case DISEASE_PANEL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private boolean isPermissionRuleEntity(Enums.Resource resource) {
         if (Study.Entity.CLINICAL_ANALYSES.getResource() == resource || Study.Entity.COHORTS.getResource() == resource
                 || Study.Entity.FAMILIES.getResource() == resource || Study.Entity.FILES.getResource() == resource
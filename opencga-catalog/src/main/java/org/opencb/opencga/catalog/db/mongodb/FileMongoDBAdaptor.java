@@ -1048,6 +1048,9 @@ public class FileMongoDBAdaptor extends AnnotationMongoDBAdaptor<File> implement
                     case CREATION_DATE:
                         addAutoOrQuery(PRIVATE_CREATION_DATE, queryParam.key(), myQuery, queryParam.type(), andBsonList);
                         break;
+                    case MODIFICATION_DATE:
+                        addAutoOrQuery(PRIVATE_MODIFICATION_DATE, queryParam.key(), myQuery, queryParam.type(), andBsonList);
+                        break;
                     case STATUS:
                     case STATUS_NAME:
                         // Convert the status to a positive status
@@ -1088,7 +1091,6 @@ public class FileMongoDBAdaptor extends AnnotationMongoDBAdaptor<File> implement
                     case CHECKSUM:
                     case URI:
                     case PATH:
-                    case MODIFICATION_DATE:
                     case DESCRIPTION:
                     case EXTERNAL:
                     case RELEASE:
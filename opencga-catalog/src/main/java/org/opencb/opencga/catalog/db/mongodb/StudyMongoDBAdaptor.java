@@ -245,6 +245,18 @@ public class StudyMongoDBAdaptor extends MongoDBAdaptor implements StudyDBAdapto
         return update(studyId, new ObjectMap("lastModified", TimeUtils.getTime()), QueryOptions.empty());
     }
 
+    @Override
+    public OpenCGAResult<Study> setInternalAttribute(long studyUid, String key, Object value) throws CatalogDBException {
+        Document query = new Document(PRIVATE_UID, studyUid);
+        Document update = new Document("$set", new Document(QueryParams.ATTRIBUTES.key() + "." + key, value));
+
+        DataResult result = studyCollection.update(query, update, null);
+        if (result.getNumMatches() == 0) {
+            throw new CatalogDBException("Study " + studyUid + " not found");
+        }
+        return new OpenCGAResult<>(result);
+    }
+
     @Override
     public long getId(long projectId, String studyAlias) throws CatalogDBException {
         Query query1 = new Query(QueryParams.PROJECT_ID.key(), projectId).append(QueryParams.ID.key(), studyAlias);
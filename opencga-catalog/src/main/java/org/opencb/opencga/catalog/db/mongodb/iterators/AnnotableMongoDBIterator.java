@@ -10,7 +10,7 @@ import org.opencb.opencga.core.models.Annotable;
 
 import java.util.function.Function;
 
-public class AnnotableMongoDBIterator<E> extends MongoDBIterator<E> {
+public abstract class AnnotableMongoDBIterator<E> extends BatchedMongoDBIterator<E> {
 
     protected QueryOptions options;
     protected AnnotableConverter<? extends Annotable> converter;
@@ -18,25 +18,19 @@ public class AnnotableMongoDBIterator<E> extends MongoDBIterator<E> {
     @Deprecated
     public AnnotableMongoDBIterator(MongoCursor mongoCursor, AnnotableConverter<? extends Annotable> converter,
                                     Function<Document, Document> filter, QueryOptions options) {
-        super(mongoCursor, null, null, filter);
-        this.options = ParamUtils.defaultObject(options, QueryOptions::new);
-        this.converter = converter;
+        this(mongoCursor, null, converter, filter, options);
     }
 
     public AnnotableMongoDBIterator(MongoCursor mongoCursor, ClientSession clientSession, AnnotableConverter<? extends Annotable> converter,
                                     Function<Document, Document> filter, QueryOptions options) {
-        super(mongoCursor, clientSession, null, filter);
+        super(mongoCursor, clientSession, null, filter, options);
         this.options = ParamUtils.defaultObject(options, QueryOptions::new);
         this.converter = converter;
     }
 
     @Override
-    public E next() {
-        Document next = (Document) mongoCursor.next();
-
-        if (filter != null) {
-            next = filter.apply(next);
-        }
+    protected E convert(Document next) {
+        addAclInformation(next, options);
 
         if (converter != null) {
             return (E) converter.convertToDataModelType(next, options);
@@ -2,36 +2,99 @@ package org.opencb.opencga.catalog.db.mongodb.iterators;
 
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.MongoCursor;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.bson.Document;
+import org.opencb.commons.datastore.core.QueryOptions;
 import org.opencb.commons.datastore.mongodb.GenericDocumentComplexConverter;
 
 import java.util.LinkedList;
 import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.concurrent.*;
 import java.util.function.Function;
 
+/**
+ * Iterator that reads the documents in batches, so the related entities of each batch can be fetched with a single query.
+ *
+ * If enabled with {@link #PREFETCH}, the next batch is fetched in background while the current one is being consumed, unless
+ * running within a transaction. The cursor is only used by one thread at a time, as there is never more than one batch being fetched.
+ * Prefetches are run by a small shared pool of threads. When all of them are busy, the batch is fetched by the caller thread.
+ */
 public abstract class BatchedMongoDBIterator<T> extends MongoDBIterator<T> {
 
+    private static final int PREFETCH_THREADS = 4;
+    private static final ExecutorService PREFETCH_EXECUTOR;
+
+    static {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(PREFETCH_THREADS, PREFETCH_THREADS, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(PREFETCH_THREADS),
+                new BasicThreadFactory.Builder()
+                        .namingPattern("catalog-iterator-prefetch-%d")
+                        .daemon(true)
+                        .build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        PREFETCH_EXECUTOR = executor;
+    }
+
+    private final int batchSize;
+    private final boolean prefetch;
     private Queue<Document> buffer = new LinkedList<>();
+    private Future<Queue<Document>> nextBuffer;
 
     public BatchedMongoDBIterator(MongoCursor mongoCursor, GenericDocumentComplexConverter<T> converter) {
-        super(mongoCursor, converter);
+        this(mongoCursor, null, converter, null, null);
     }
 
     public BatchedMongoDBIterator(MongoCursor mongoCursor, ClientSession clientSession, GenericDocumentComplexConverter<T> converter,
                                   Function<Document, Document> filter) {
-        super(mongoCursor, clientSession, converter, filter);
+        this(mongoCursor, clientSession, converter, filter, null);
     }
 
+    public BatchedMongoDBIterator(MongoCursor mongoCursor, ClientSession clientSession, GenericDocumentComplexConverter<T> converter,
+                                  Function<Document, Document> filter, QueryOptions options) {
+        super(mongoCursor, clientSession, converter, filter);
+        this.batchSize = getBatchSize(options);
+        // Sessions can not be used concurrently
+        this.prefetch = clientSession == null && (options == null || options.getBoolean(PREFETCH, false));
+    }
 
     @Override
     public boolean hasNext() {
         if (buffer.isEmpty()) {
-            fetchNextBatch(buffer, 100);
+            if (nextBuffer != null) {
+                buffer = waitNextBuffer();
+            } else {
+                fetchNextBatch(buffer, batchSize);
+            }
+            // A partial batch means that the cursor is exhausted
+            if (prefetch && buffer.size() >= batchSize) {
+                nextBuffer = PREFETCH_EXECUTOR.submit(() -> {
+                    Queue<Document> next = new LinkedList<>();
+                    fetchNextBatch(next, batchSize);
+                    return next;
+                });
+            }
         }
         return !buffer.isEmpty();
     }
 
+    private Queue<Document> waitNextBuffer() {
+        try {
+            return nextBuffer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching the next batch of documents", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            nextBuffer = null;
+        }
+    }
+
     protected abstract void fetchNextBatch(Queue<Document> buffer, int bufferSize);
 
     @Override
@@ -56,4 +119,17 @@ public abstract class BatchedMongoDBIterator<T> extends MongoDBIterator<T> {
             return (T) next;
         }
     }
+
+    @Override
+    public void close() {
+        // Wait for any pending batch before closing the cursor
+        if (nextBuffer != null) {
+            try {
+                waitNextBuffer();
+            } catch (RuntimeException ignore) {
+                // The iterator is being closed. Nothing else to do
+            }
+        }
+        super.close();
+    }
 }
@@ -33,7 +33,7 @@ public class ClinicalAnalysisMongoDBIterator<E> extends MongoDBIterator<E>  {
 
     private Logger logger;
 
-    private static final int BUFFER_SIZE = 100;
+    private final int batchSize;
 
     private static final String UID = ClinicalAnalysisDBAdaptor.QueryParams.UID.key();
     private static final String VERSION = FamilyDBAdaptor.QueryParams.VERSION.key();
@@ -56,6 +56,7 @@ public class ClinicalAnalysisMongoDBIterator<E> extends MongoDBIterator<E>  {
         this.interpretationQueryOptions = createInnerQueryOptions(ClinicalAnalysisDBAdaptor.QueryParams.INTERPRETATIONS.key(), false);
 
         this.clinicalAnalysisListBuffer= new LinkedList<>();
+        this.batchSize = getBatchSize(options);
         this.logger = LoggerFactory.getLogger(ClinicalAnalysisMongoDBIterator.class);
     }
 
@@ -88,9 +89,9 @@ public class ClinicalAnalysisMongoDBIterator<E> extends MongoDBIterator<E>  {
     private void fetchNextBatch() {
         Set<String> interpretationSet = new HashSet<>();
 
-        // Get next BUFFER_SIZE documents
+        // Get next batchSize documents
         int counter = 0;
-        while (mongoCursor.hasNext() && counter < BUFFER_SIZE) {
+        while (mongoCursor.hasNext() && counter < batchSize) {
             Document clinicalDocument = (Document) mongoCursor.next();
 
             if (user != null && studyUid <= 0) {
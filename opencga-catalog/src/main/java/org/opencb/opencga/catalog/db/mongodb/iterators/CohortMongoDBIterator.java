@@ -29,12 +29,8 @@ public class CohortMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
     private SampleMongoDBAdaptor sampleDBAdaptor;
     private QueryOptions sampleQueryOptions;
 
-    private Queue<Document> cohortListBuffer;
-
     private Logger logger;
 
-    private static final int BUFFER_SIZE = 100;
-
     public CohortMongoDBIterator(MongoCursor mongoCursor, ClientSession clientSession, AnnotableConverter<? extends Annotable> converter,
                                  Function<Document, Document> filter, SampleMongoDBAdaptor sampleMongoDBAdaptor,  QueryOptions options) {
         this(mongoCursor, clientSession, converter, filter, sampleMongoDBAdaptor, 0, null, options);
@@ -51,18 +47,11 @@ public class CohortMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
         this.sampleDBAdaptor = sampleMongoDBAdaptor;
         this.sampleQueryOptions = createSampleQueryOptions();
 
-        this.cohortListBuffer = new LinkedList<>();
         this.logger = LoggerFactory.getLogger(CohortMongoDBIterator.class);
     }
 
     @Override
-    public E next() {
-        Document next = cohortListBuffer.remove();
-
-        if (filter != null) {
-            next = filter.apply(next);
-        }
-
+    protected E convert(Document next) {
         Object origSampleList = next.get(CohortDBAdaptor.QueryParams.SAMPLES.key());
         // If the cohort contains more than 100 samples, we will only leave the id and version information
         if (origSampleList != null && ((List) origSampleList).size() > 100) {
@@ -79,36 +68,23 @@ public class CohortMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
             next.put(CohortDBAdaptor.QueryParams.SAMPLES.key(), sampleList);
         }
 
-        addAclInformation(next, options);
-
-        if (converter != null) {
-            return (E) converter.convertToDataModelType(next, options);
-        } else {
-            return (E) next;
-        }
+        return super.convert(next);
     }
 
     @Override
-    public boolean hasNext() {
-        if (cohortListBuffer.isEmpty()) {
-            fetchNextBatch();
-        }
-        return !cohortListBuffer.isEmpty();
-    }
-
-    private void fetchNextBatch() {
+    protected void fetchNextBatch(Queue<Document> buffer, int batchSize) {
         Set<Long> sampleSet = new HashSet<>();
 
-        // Get next BUFFER_SIZE documents
+        // Get next batchSize documents
         int counter = 0;
-        while (mongoCursor.hasNext() && counter < BUFFER_SIZE) {
+        while (mongoCursor.hasNext() && counter < batchSize) {
             Document cohortDocument = (Document) mongoCursor.next();
 
             if (user != null && studyUid <= 0) {
                 studyUid = cohortDocument.getLong(PRIVATE_STUDY_UID);
             }
 
-            cohortListBuffer.add(cohortDocument);
+            buffer.add(cohortDocument);
             counter++;
 
             // Extract all the samples
@@ -143,7 +119,7 @@ public class CohortMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
             );
 
             // Add the samples obtained to the corresponding cohorts
-            cohortListBuffer.forEach(cohortDocument -> {
+            buffer.forEach(cohortDocument -> {
                 List<Document> tmpSampleList = new ArrayList<>();
                 List<Document> samples = (List<Document>) cohortDocument.get(CohortDBAdaptor.QueryParams.SAMPLES.key());
 
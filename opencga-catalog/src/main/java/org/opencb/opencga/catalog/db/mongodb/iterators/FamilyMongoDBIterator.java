@@ -31,12 +31,8 @@ public class FamilyMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
     private IndividualMongoDBAdaptor individualDBAdaptor;
     private QueryOptions individualQueryOptions;
 
-    private Queue<Document> familyListBuffer;
-
     private Logger logger;
 
-    private static final int BUFFER_SIZE = 100;
-
     public FamilyMongoDBIterator(MongoCursor mongoCursor, ClientSession clientSession, AnnotableConverter<? extends Annotable> converter,
                                  Function<Document, Document> filter, IndividualMongoDBAdaptor individualDBAdaptor, QueryOptions options) {
         this(mongoCursor, clientSession, converter, filter, individualDBAdaptor, 0, null, options);
@@ -54,49 +50,23 @@ public class FamilyMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
         this.individualDBAdaptor = individualDBAdaptor;
         this.individualQueryOptions = createFamilyQueryOptions();
 
-        this.familyListBuffer = new LinkedList<>();
         this.logger = LoggerFactory.getLogger(FamilyMongoDBIterator.class);
     }
 
     @Override
-    public E next() {
-        Document next = familyListBuffer.remove();
-
-        if (filter != null) {
-            next = filter.apply(next);
-        }
-
-        addAclInformation(next, options);
-
-        if (converter != null) {
-            return (E) converter.convertToDataModelType(next, options);
-        } else {
-            return (E) next;
-        }
-    }
-
-
-    @Override
-    public boolean hasNext() {
-        if (familyListBuffer.isEmpty()) {
-            fetchNextBatch();
-        }
-        return !familyListBuffer.isEmpty();
-    }
-
-    private void fetchNextBatch() {
+    protected void fetchNextBatch(Queue<Document> buffer, int batchSize) {
         Set<String> memberVersions = new HashSet<>();
 
-        // Get next BUFFER_SIZE documents
+        // Get next batchSize documents
         int counter = 0;
-        while (mongoCursor.hasNext() && counter < BUFFER_SIZE) {
+        while (mongoCursor.hasNext() && counter < batchSize) {
             Document familyDocument = (Document) mongoCursor.next();
 
             if (user != null && studyUid <= 0) {
                 studyUid = familyDocument.getLong(PRIVATE_STUDY_UID);
             }
 
-            familyListBuffer.add(familyDocument);
+            buffer.add(familyDocument);
             counter++;
 
             // Extract all the members
@@ -152,7 +122,7 @@ public class FamilyMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
             );
 
             // Add the members obtained to the corresponding families
-            familyListBuffer.forEach(family -> {
+            buffer.forEach(family -> {
                 List<Document> tmpMemberList = new ArrayList<>();
                 List<Document> members = (List<Document>) family.get(FamilyMongoDBAdaptor.QueryParams.MEMBERS.key());
 
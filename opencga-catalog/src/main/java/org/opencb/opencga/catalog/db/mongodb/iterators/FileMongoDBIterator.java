@@ -32,12 +32,8 @@ public class FileMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
     private SampleMongoDBAdaptor sampleDBAdaptor;
     private QueryOptions sampleQueryOptions;
 
-    private Queue<Document> fileListBuffer;
-
     private Logger logger;
 
-    private static final int BUFFER_SIZE = 100;
-
     public FileMongoDBIterator(MongoCursor mongoCursor, ClientSession clientSession, AnnotableConverter<? extends Annotable> converter,
                                Function<Document, Document> filter, FileMongoDBAdaptor fileMongoDBAdaptor,
                                SampleMongoDBAdaptor sampleMongoDBAdaptor, QueryOptions options) {
@@ -57,18 +53,11 @@ public class FileMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
         this.sampleDBAdaptor = sampleMongoDBAdaptor;
         this.sampleQueryOptions = createSampleQueryOptions();
 
-        this.fileListBuffer = new LinkedList<>();
         this.logger = LoggerFactory.getLogger(FileMongoDBIterator.class);
     }
 
     @Override
-    public E next() {
-        Document next = fileListBuffer.remove();
-
-        if (filter != null) {
-            next = filter.apply(next);
-        }
-
+    protected E convert(Document next) {
         Object origSampleList = next.get(FileDBAdaptor.QueryParams.SAMPLES.key());
         // If the file contains more than 100 samples, we will only leave the id and version information
         if (origSampleList != null && ((List) origSampleList).size() > 100) {
@@ -85,38 +74,25 @@ public class FileMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
             next.put(FileDBAdaptor.QueryParams.SAMPLES.key(), sampleList);
         }
 
-        addAclInformation(next, options);
-
-        if (converter != null) {
-            return (E) converter.convertToDataModelType(next, options);
-        } else {
-            return (E) next;
-        }
+        return super.convert(next);
     }
 
     @Override
-    public boolean hasNext() {
-        if (fileListBuffer.isEmpty()) {
-            fetchNextBatch();
-        }
-        return !fileListBuffer.isEmpty();
-    }
-
-    private void fetchNextBatch() {
+    protected void fetchNextBatch(Queue<Document> buffer, int batchSize) {
         Set<Long> sampleSet = new HashSet<>();
         Map<String, String> relatedFileMap = new HashMap<>();
         Set<Long> relatedFileSet = new HashSet<>();
 
-        // Get next BUFFER_SIZE documents
+        // Get next batchSize documents
         int counter = 0;
-        while (mongoCursor.hasNext() && counter < BUFFER_SIZE) {
+        while (mongoCursor.hasNext() && counter < batchSize) {
             Document fileDocument = (Document) mongoCursor.next();
 
             if (user != null && studyUid <= 0) {
                 studyUid = fileDocument.getLong(PRIVATE_STUDY_UID);
             }
 
-            fileListBuffer.add(fileDocument);
+            buffer.add(fileDocument);
             counter++;
 
             // Extract all the samples
@@ -165,7 +141,7 @@ public class FileMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
             );
 
             // Add the samples obtained to the corresponding files
-            fileListBuffer.forEach(fileDocument -> {
+            buffer.forEach(fileDocument -> {
                 List<Document> tmpSampleList = new ArrayList<>();
                 List<Document> samples = (List<Document>) fileDocument.get(FileDBAdaptor.QueryParams.SAMPLES.key());
 
@@ -207,7 +183,7 @@ public class FileMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
             );
 
             // Add the files obtained to the corresponding related files
-            fileListBuffer.forEach(fileDocument -> {
+            buffer.forEach(fileDocument -> {
                 String fileId = String.valueOf(fileDocument.getLong(FileDBAdaptor.QueryParams.UID.key()));
 
                 List<Document> tmpFileList = new ArrayList<>();
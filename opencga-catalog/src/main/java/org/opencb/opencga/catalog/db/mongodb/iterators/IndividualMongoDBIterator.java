@@ -33,12 +33,8 @@ public class IndividualMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
 
     private IndividualDBAdaptor individualDBAdaptor;
 
-    private Queue<Document> individualListBuffer;
-
     private Logger logger;
 
-    private static final int BUFFER_SIZE = 100;
-
     public IndividualMongoDBIterator(MongoCursor mongoCursor, AnnotableConverter<? extends Annotable> converter,
                                      Function<Document, Document> filter, MongoDBAdaptorFactory dbAdaptorFactory, QueryOptions options) {
         this(mongoCursor, converter, filter, dbAdaptorFactory, 0, null, options);
@@ -57,49 +53,24 @@ public class IndividualMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
 
         this.individualDBAdaptor = dbAdaptorFactory.getCatalogIndividualDBAdaptor();
 
-        this.individualListBuffer = new LinkedList<>();
         this.logger = LoggerFactory.getLogger(IndividualMongoDBIterator.class);
     }
 
     @Override
-    public E next() {
-        Document next = individualListBuffer.remove();
-
-        if (filter != null) {
-            next = filter.apply(next);
-        }
-
-        addAclInformation(next, options);
-
-        if (converter != null) {
-            return (E) converter.convertToDataModelType(next, options);
-        } else {
-            return (E) next;
-        }
-    }
-
-    @Override
-    public boolean hasNext() {
-        if (individualListBuffer.isEmpty()) {
-            fetchNextBatch();
-        }
-        return !individualListBuffer.isEmpty();
-    }
-
-    private void fetchNextBatch() {
+    protected void fetchNextBatch(Queue<Document> buffer, int batchSize) {
         Set<String> sampleVersions = new HashSet<>();
         Map<Long, List<Document>> individualMap = new HashMap<>();
 
-        // Get next BUFFER_SIZE documents
+        // Get next batchSize documents
         int counter = 0;
-        while (mongoCursor.hasNext() && counter < BUFFER_SIZE) {
+        while (mongoCursor.hasNext() && counter < batchSize) {
             Document individualDocument = (Document) mongoCursor.next();
 
             if (user != null && studyUid <= 0) {
                 studyUid = individualDocument.getLong(PRIVATE_STUDY_UID);
             }
 
-            individualListBuffer.add(individualDocument);
+            buffer.add(individualDocument);
             counter++;
 
             // Extract all the samples
@@ -194,7 +165,7 @@ public class IndividualMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
             );
 
             // Add the samples obtained to the corresponding individuals
-            individualListBuffer.forEach(individual -> {
+            buffer.forEach(individual -> {
                 List<Document> tmpSampleList = new ArrayList<>();
                 List<Document> samples = (List<Document>) individual.get(IndividualMongoDBAdaptor.QueryParams.SAMPLES.key());
 
@@ -40,7 +40,7 @@ public class JobMongoDBIterator extends BatchedMongoDBIterator<Job> {
 
     public JobMongoDBIterator(MongoCursor mongoCursor, ClientSession clientSession, JobConverter converter,
                               FileMongoDBAdaptor fileDBAdaptor, QueryOptions options, long studyUid, String user) {
-        super(mongoCursor, clientSession, converter, null);
+        super(mongoCursor, clientSession, converter, null, options);
         this.fileDBAdaptor = fileDBAdaptor;
         this.user = user;
         this.studyUid = studyUid;
@@ -92,6 +92,17 @@ public class MongoDBIterator<E> implements DBIterator<E> {
         mongoCursor.close();
     }
 
+    /**
+     * Read the number of documents to be fetched at once from the query options.
+     *
+     * @param options Query options. Might be null.
+     * @return Batch size
+     */
+    protected static int getBatchSize(QueryOptions options) {
+        int batchSize = options == null ? DEFAULT_BATCH_SIZE : options.getInt(BATCH_SIZE, DEFAULT_BATCH_SIZE);
+        return batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+
     void addAclInformation(Document document, QueryOptions options) {
         if (document == null) {
             return;
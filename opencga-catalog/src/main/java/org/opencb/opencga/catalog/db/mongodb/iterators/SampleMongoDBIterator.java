@@ -29,12 +29,8 @@ public class SampleMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
     private IndividualMongoDBAdaptor individualDBAdaptor;
     private QueryOptions individualQueryOptions;
 
-    private Queue<Document> sampleListBuffer;
-
     private Logger logger;
 
-    private static final int BUFFER_SIZE = 100;
-
     public SampleMongoDBIterator(MongoCursor mongoCursor, ClientSession clientSession, AnnotableConverter<? extends Annotable> converter,
                                  Function<Document, Document> filter, IndividualMongoDBAdaptor individualDBAdaptor, QueryOptions options) {
         this(mongoCursor, clientSession, converter, filter, individualDBAdaptor, 0, null, options);
@@ -51,49 +47,23 @@ public class SampleMongoDBIterator<E> extends AnnotableMongoDBIterator<E> {
         this.individualDBAdaptor = individualDBAdaptor;
         this.individualQueryOptions = createIndividualQueryOptions();
 
-        this.sampleListBuffer = new LinkedList<>();
         this.logger = LoggerFactory.getLogger(SampleMongoDBIterator.class);
     }
 
     @Override
-    public E next() {
-        Document next = sampleListBuffer.remove();
-
-        if (filter != null) {
-            next = filter.apply(next);
-        }
-
-        addAclInformation(next, options);
-
-        if (converter != null) {
-            return (E) converter.convertToDataModelType(next, options);
-        } else {
-            return (E) next;
-        }
-    }
-
-
-    @Override
-    public boolean hasNext() {
-        if (sampleListBuffer.isEmpty()) {
-            fetchNextBatch();
-        }
-        return !sampleListBuffer.isEmpty();
-    }
-
-    private void fetchNextBatch() {
-        Map<Long, Document> sampleUidMap = new HashMap<>(BUFFER_SIZE);
+    protected void fetchNextBatch(Queue<Document> buffer, int batchSize) {
+        Map<Long, Document> sampleUidMap = new HashMap<>(batchSize);
 
-        // Get next BUFFER_SIZE documents
+        // Get next batchSize documents
         int counter = 0;
-        while (mongoCursor.hasNext() && counter < BUFFER_SIZE) {
+        while (mongoCursor.hasNext() && counter < batchSize) {
             Document sampleDocument = (Document) mongoCursor.next();
 
             if (user != null && studyUid <= 0) {
                 studyUid = sampleDocument.getLong(PRIVATE_STUDY_UID);
             }
 
-            sampleListBuffer.add(sampleDocument);
+            buffer.add(sampleDocument);
             counter++;
 
             // Extract the sample uids
@@ -28,8 +28,12 @@ import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.stream.Stream;
 
@@ -38,6 +42,7 @@ public class PosixCatalogIOManager extends CatalogIOManager {
     protected static Logger logger = LoggerFactory.getLogger(PosixCatalogIOManager.class);
     protected static ObjectMapper jsonObjectMapper;
     protected static ObjectWriter jsonObjectWriter;
+    private static final int CHECKSUM_BUFFER_SIZE = 1024 * 1024;
 
 
     public PosixCatalogIOManager(String propertiesFile) throws CatalogIOException {
@@ -582,28 +587,39 @@ public class PosixCatalogIOManager extends CatalogIOManager {
         }
     }
 
+    /**
+     * Calculate the MD5 checksum of a file, in the same format as md5sum.
+     *
+     * The file is read through a FileChannel into a direct buffer, without forking a md5sum process per file.
+     *
+     * @param file File uri
+     * @return Lowercase hexadecimal MD5 checksum
+     * @throws CatalogIOException if the file can not be read
+     */
     @Override
     public String calculateChecksum(URI file) throws CatalogIOException {
-        String checksum;
+        checkUriScheme(file);
+        MessageDigest digest;
         try {
-            String[] command = {"md5sum", file.getPath()};
-            logger.debug("command = {} {}", command[0], command[1]);
-            Process p = Runtime.getRuntime().exec(command);
-            BufferedReader br = new BufferedReader(new InputStreamReader(p.getInputStream()));
-            checksum = br.readLine();
-
-            if (p.waitFor() != 0) {
-                //TODO: Handle error in checksum
-                logger.info("checksum = " + checksum);
-                br = new BufferedReader(new InputStreamReader(p.getErrorStream()));
-                throw new CatalogIOException("md5sum failed with exit value : " + p.exitValue() + ". ERROR: " + br.readLine());
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new CatalogIOException("Checksum error in file " + file, e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHECKSUM_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
             }
-        } catch (IOException | InterruptedException e) {
-            //TODO: Handle error in checksum
+        } catch (IOException e) {
             throw new CatalogIOException("Checksum error in file " + file, e);
         }
-
-        return checksum.split(" ")[0];
+        StringBuilder checksum = new StringBuilder(32);
+        for (byte b : digest.digest()) {
+            checksum.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return checksum.toString();
     }
 
     @Override
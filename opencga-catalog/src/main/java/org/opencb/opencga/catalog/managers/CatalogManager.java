@@ -247,6 +247,7 @@ public class CatalogManager implements AutoCloseable {
 
     @Override
     public void close() throws CatalogException {
+        auditManager.close();
         catalogDBAdaptorFactory.close();
     }
 
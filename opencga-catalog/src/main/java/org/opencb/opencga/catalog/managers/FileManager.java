@@ -2907,19 +2907,27 @@ public class FileManager extends AnnotationSetManager<File> {
         // Obtain the files and directories inside the directory
         OpenCGAResult<File> fileDataResult = fileDBAdaptor.get(query, queryOptions);
 
+        // Check the VIEW permission of all the files of the directory at once
+        List<Long> fileUids = fileDataResult.getResults().stream()
+                .filter(fileAux -> !fileAux.getType().equals(File.Type.DIRECTORY))
+                .map(File::getUid)
+                .collect(Collectors.toList());
+        Set<Long> authorisedFileUids;
+        try {
+            authorisedFileUids = authorizationManager.filterAuthorisedEntries(studyId, fileUids, userId,
+                    StudyAclEntry.StudyPermissions.VIEW_FILES, Enums.Resource.FILE);
+        } catch (CatalogException e) {
+            authorisedFileUids = Collections.emptySet();
+        }
+
         for (File fileAux : fileDataResult.getResults()) {
             if (fileAux.getType().equals(File.Type.DIRECTORY)) {
                 FileTree subTree = getTree(fileAux, query, queryOptions, maxDepth - 1, studyId, userId);
                 if (subTree != null) {
                     children.add(subTree);
                 }
-            } else {
-                try {
-                    authorizationManager.checkFilePermission(studyId, fileAux.getUid(), userId, FileAclEntry.FilePermissions.VIEW);
-                    children.add(new FileTree(fileAux));
-                } catch (CatalogException e) {
-                    continue;
-                }
+            } else if (authorisedFileUids.contains(fileAux.getUid())) {
+                children.add(new FileTree(fileAux));
             }
         }
         fileTree.setChildren(children);
@@ -17,6 +17,7 @@
 package org.opencb.opencga.catalog.managers;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.opencb.commons.datastore.core.ObjectMap;
 import org.opencb.commons.datastore.core.Query;
@@ -37,10 +38,8 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -52,6 +51,9 @@ import java.util.stream.Stream;
 public class FileUtils {
 
     private static Logger logger = LoggerFactory.getLogger(FileUtils.class);
+    private static final int MAX_CHECKSUM_THREADS = 8;
+    // File attribute with the modification date (in millis) of the file when its checksum was calculated
+    public static final String CHECKSUM_FILE_MODIFICATION_DATE = "checksumFileModificationDate";
     private final CatalogManager catalogManager;
 
     public static final Map<File.Format, Pattern> FORMAT_MAP = new HashMap<>();
@@ -409,6 +411,17 @@ public class FileUtils {
             catalogManager.getFileManager().update(study.getFqn(), folder.getPath(), new ObjectMap("uri", externalUri), new QueryOptions(),
                     sessionId);
 
+            //Calculate in parallel the checksum of the new files
+            Map<URI, String> checksums = Collections.emptyMap();
+            if (calculateChecksum) {
+                List<URI> newUris = uriPathMap.entrySet()
+                        .stream()
+                        .filter(entry -> !pathFileMap.containsKey(entry.getValue()))
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toList());
+                checksums = calculateChecksums(newUris);
+            }
+
             //Create and link files.
             for (Map.Entry<URI, String> entry : uriPathMap.entrySet()) {
                 String relativePath = entry.getValue();
@@ -420,7 +433,8 @@ public class FileUtils {
                 if (!pathFileMap.containsKey(entry.getValue())) {
                     File newFile = catalogManager.getFileManager().create(study.getFqn(), File.Type.FILE, null, null,
                             relativePath, "", null, 0, null, (long) -1, null, null, true, null, null, sessionId).first();
-                    upload(uri, newFile, null, sessionId, false, false, false, calculateChecksum);
+                    String checksum = checksums.get(uri);
+                    upload(uri, newFile, checksum, sessionId, false, false, false, calculateChecksum && checksum == null);
                 }
             }
             for (File existingFile : existingFiles) {
@@ -557,9 +571,9 @@ public class FileUtils {
      *
      * @param file              file
      * @param fileUri           If null, calls to getFileUri()
-     *                          <p>
-     *                          TODO: Lazy checksum: Only calculate checksum if the size has changed.
-     * @param calculateChecksum Calculate checksum to check if have changed
+     * @param calculateChecksum Calculate checksum to check if have changed. The checksum is only calculated if the file already
+     *                          had no checksum, or if the size or the modification date of the file have changed since the
+     *                          checksum was calculated.
      * @return ObjectMap ObjectMap
      * @throws CatalogException CatalogException
      */
@@ -569,11 +583,82 @@ public class FileUtils {
         }
         String checksum = null;
         if (calculateChecksum) {
-            checksum = catalogManager.getCatalogIOManagerFactory().get(fileUri).calculateChecksum(fileUri);
+            CatalogIOManager ioManager = catalogManager.getCatalogIOManagerFactory().get(fileUri);
+            if (isModified(file, fileUri, ioManager)) {
+                checksum = ioManager.calculateChecksum(fileUri);
+            } else {
+                logger.debug("File {} not modified. Skip checksum", fileUri);
+            }
         }
         return getModifiedFileAttributes(file, checksum, fileUri, null);
     }
 
+    /**
+     * Check if the file might have changed since its checksum was calculated.
+     * Compares the uri, the size and the modification date of the file observed when the checksum was calculated,
+     * stored in the attribute {@link #CHECKSUM_FILE_MODIFICATION_DATE}. Any different modification date, newer or older,
+     * is considered as a modification. Files without checksum are always considered as modified.
+     *
+     * @throws CatalogIOException CatalogIOException
+     */
+    private boolean isModified(File file, URI fileUri, CatalogIOManager ioManager) throws CatalogIOException {
+        if (StringUtils.isEmpty(file.getChecksum())
+                || file.getUri() == null || !file.getUri().toString().equals(fileUri.toString())
+                || ioManager.getFileSize(fileUri) != file.getSize()) {
+            return true;
+        }
+        Object checksumModificationDate = file.getAttributes() == null ? null : file.getAttributes().get(CHECKSUM_FILE_MODIFICATION_DATE);
+        Date modificationDate = ioManager.getModificationDate(fileUri);
+        if (!(checksumModificationDate instanceof Number) || modificationDate == null) {
+            return true;
+        }
+        return modificationDate.getTime() != ((Number) checksumModificationDate).longValue();
+    }
+
+    /**
+     * Calculate the checksum of a set of files in parallel.
+     *
+     * @param uris  Files to calculate the checksum
+     * @return      Map from the file uri to its checksum
+     * @throws CatalogException CatalogException
+     */
+    public Map<URI, String> calculateChecksums(Collection<URI> uris) throws CatalogException {
+        Map<URI, String> checksums = new HashMap<>();
+        if (uris.size() <= 1) {
+            for (URI uri : uris) {
+                checksums.put(uri, catalogManager.getCatalogIOManagerFactory().get(uri).calculateChecksum(uri));
+            }
+            return checksums;
+        }
+
+        int numThreads = Math.min(uris.size(), Math.min(Runtime.getRuntime().availableProcessors(), MAX_CHECKSUM_THREADS));
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads, new BasicThreadFactory.Builder()
+                .namingPattern("checksum-%d")
+                .daemon(true)
+                .build());
+        try {
+            Map<URI, Future<String>> futures = new LinkedHashMap<>();
+            for (URI uri : uris) {
+                CatalogIOManager ioManager = catalogManager.getCatalogIOManagerFactory().get(uri);
+                futures.put(uri, executor.submit(() -> ioManager.calculateChecksum(uri)));
+            }
+            for (Map.Entry<URI, Future<String>> entry : futures.entrySet()) {
+                checksums.put(entry.getKey(), entry.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CatalogIOException("Interrupted while calculating checksums", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CatalogException) {
+                throw (CatalogException) e.getCause();
+            }
+            throw new CatalogIOException("Error calculating checksums", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return checksums;
+    }
+
     /**
      * Update some file attributes.
      * size
@@ -613,6 +698,21 @@ public class FileUtils {
             if (file.getChecksum() == null || !checksum.equals(file.getChecksum())) {
                 parameters.put(FileDBAdaptor.QueryParams.CHECKSUM.key(), checksum);
             }
+            // Store the modification date of the file, to detect any change since the checksum was calculated
+            try {
+                Date modificationDate = catalogIOManager.getModificationDate(fileUri);
+                if (modificationDate != null) {
+                    ObjectMap attributes = new ObjectMap();
+                    Object currentAttributes = parameters.get(FileDBAdaptor.QueryParams.ATTRIBUTES.key());
+                    if (currentAttributes instanceof Map) {
+                        attributes.putAll((Map<String, Object>) currentAttributes);
+                    }
+                    attributes.put(CHECKSUM_FILE_MODIFICATION_DATE, modificationDate.getTime());
+                    parameters.put(FileDBAdaptor.QueryParams.ATTRIBUTES.key(), attributes);
+                }
+            } catch (CatalogIOException e) {
+                logger.warn("Can't get modification date of file " + fileUri, e);
+            }
         }
 
         if (file.getUri() == null || !file.getUri().toString().equals(fileUri.toString())) {
@@ -65,6 +65,7 @@ import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -93,6 +94,10 @@ public class StudyManager extends AbstractManager {
             StudyDBAdaptor.QueryParams.FQN.key()));
     static final QueryOptions INCLUDE_VARIABLE_SET = new QueryOptions(QueryOptions.INCLUDE, StudyDBAdaptor.QueryParams.VARIABLE_SET.key());
 
+    private static final String SOLR_SYNC_WATERMARK_PREFIX = "OPENCGA_SOLR_SYNC_";
+    private static final List<Enums.Resource> SOLR_SYNC_RESOURCES = Arrays.asList(Enums.Resource.COHORT, Enums.Resource.FILE,
+            Enums.Resource.FAMILY, Enums.Resource.INDIVIDUAL, Enums.Resource.SAMPLE);
+
     protected Logger logger;
 
     StudyManager(AuthorizationManager authorizationManager, AuditManager auditManager, CatalogManager catalogManager,
@@ -970,6 +975,7 @@ public class StudyManager extends AbstractManager {
                 default:
                     throw new CatalogException("Unknown action " + groupParams.getAction() + " found.");
             }
+            authorizationManager.invalidatePermissionCache(study.getUid());
 
             auditManager.audit(userId, Enums.Action.UPDATE_USERS_FROM_STUDY_GROUP, Enums.Resource.STUDY, study.getId(),
                     study.getUuid(), study.getId(), study.getUuid(), auditParams,
@@ -1040,6 +1046,7 @@ public class StudyManager extends AbstractManager {
             // We remove all the users belonging to that group and resync it with the new external group
             studyDBAdaptor.removeUsersFromGroup(study.getUid(), catalogGroup, group.first().getUserIds());
             studyDBAdaptor.syncGroup(study.getUid(), catalogGroup, new Group.Sync(authenticationOriginId, externalGroup));
+            authorizationManager.invalidatePermissionCache(study.getUid());
         } else {
             // We need to create a new group
             Group newGroup = new Group(catalogGroup, catalogGroup, Collections.emptyList(), new Group.Sync(authenticationOriginId,
@@ -1115,6 +1122,7 @@ public class StudyManager extends AbstractManager {
             updateAcl(Collections.singletonList(studyId), groupId, aclParams, token);
 
             studyDBAdaptor.deleteGroup(study.getUid(), groupId);
+            authorizationManager.invalidatePermissionCache(study.getUid());
 
             auditManager.audit(userId, Enums.Action.REMOVE_STUDY_GROUP, Enums.Resource.STUDY, study.getId(), study.getUuid(),
                     study.getId(), study.getUuid(), auditParams, new AuditRecord.Status(AuditRecord.Status.Result.SUCCESS));
@@ -1573,45 +1581,79 @@ public class StudyManager extends AbstractManager {
     }
 
     public boolean indexCatalogIntoSolr(String token) throws CatalogException {
+        return indexCatalogIntoSolr(false, token);
+    }
+
+    /**
+     * Index the catalog entries into Solr.
+     *
+     * The incremental mode only indexes the entries modified since the last time each study and entity were indexed. Changes that do
+     * not modify the entries, like permission changes, are only indexed with a full index. In both modes, the entries deleted from
+     * catalog are removed from Solr.
+     *
+     * @param incremental Only index entries modified since the last index
+     * @param token       Token of the OpenCGA administrator
+     * @return true if the index tasks have been launched
+     * @throws CatalogException if the user is not the administrator or there are no studies
+     */
+    public boolean indexCatalogIntoSolr(boolean incremental, String token) throws CatalogException {
         String userId = catalogManager.getUserManager().getUserId(token);
 
         if (authorizationManager.checkIsAdmin(userId)) {
-            // Get all the studies
-            Query query = new Query();
-            QueryOptions options = new QueryOptions()
-                    .append(QueryOptions.INCLUDE, Arrays.asList(StudyDBAdaptor.QueryParams.UID.key(),
-                            StudyDBAdaptor.QueryParams.ID.key(), StudyDBAdaptor.QueryParams.FQN.key(),
-                            StudyDBAdaptor.QueryParams.VARIABLE_SET.key()))
-                    .append(DBAdaptor.INCLUDE_ACLS, true);
-            OpenCGAResult<Study> studyDataResult = studyDBAdaptor.get(query, options);
-            if (studyDataResult.getNumResults() == 0) {
-                throw new CatalogException("Could not index catalog into solr. No studies found");
-            }
-
             CatalogSolrManager catalogSolrManager = new CatalogSolrManager(this.catalogManager);
             // Create solr collections if they don't exist
             catalogSolrManager.createSolrCollections();
 
             ExecutorService threadPool = Executors.newFixedThreadPool(5);
-            for (Study study : studyDataResult.getResults()) {
-                Map<String, Set<String>> studyAcls = SolrConverterUtil
-                        .parseInternalOpenCGAAcls((List<Map<String, Object>>) study.getAttributes().get("OPENCGA_ACL"));
-                // We replace the current studyAcls for the parsed one
-                study.getAttributes().put("OPENCGA_ACL", studyAcls);
-
-                threadPool.submit(() -> indexCohort(catalogSolrManager, study));
-                threadPool.submit(() -> indexFile(catalogSolrManager, study));
-                threadPool.submit(() -> indexFamily(catalogSolrManager, study));
-                threadPool.submit(() -> indexIndividual(catalogSolrManager, study));
-                threadPool.submit(() -> indexSample(catalogSolrManager, study));
+            try {
+                indexCatalogIntoSolr(catalogSolrManager, threadPool, incremental);
+            } finally {
+                threadPool.shutdown();
             }
-
-            threadPool.shutdown();
             return true;
         }
         throw new CatalogException("Only the " + OPENCGA + " user can index in Solr");
     }
 
+    /**
+     * Submit the tasks to index the catalog entries of all the studies into Solr.
+     *
+     * @param catalogSolrManager Catalog Solr manager
+     * @param threadPool         Executor where the index tasks are submitted
+     * @param incremental        Only index entries modified since the last index
+     * @return Futures of the index tasks
+     * @throws CatalogException if there are no studies
+     */
+    List<Future<Boolean>> indexCatalogIntoSolr(CatalogSolrManager catalogSolrManager, ExecutorService threadPool, boolean incremental)
+            throws CatalogException {
+        // Get all the studies
+        Query query = new Query();
+        QueryOptions options = new QueryOptions()
+                .append(QueryOptions.INCLUDE, Arrays.asList(StudyDBAdaptor.QueryParams.UID.key(),
+                        StudyDBAdaptor.QueryParams.ID.key(), StudyDBAdaptor.QueryParams.FQN.key(),
+                        StudyDBAdaptor.QueryParams.VARIABLE_SET.key(), StudyDBAdaptor.QueryParams.ATTRIBUTES.key()))
+                .append(DBAdaptor.INCLUDE_ACLS, true);
+        OpenCGAResult<Study> studyDataResult = studyDBAdaptor.get(query, options);
+        if (studyDataResult.getNumResults() == 0) {
+            throw new CatalogException("Could not index catalog into solr. No studies found");
+        }
+
+        List<Future<Boolean>> futures = new ArrayList<>(studyDataResult.getNumResults() * 5);
+        for (Study study : studyDataResult.getResults()) {
+            Map<String, Set<String>> studyAcls = SolrConverterUtil
+                    .parseInternalOpenCGAAcls((List<Map<String, Object>>) study.getAttributes().get("OPENCGA_ACL"));
+            // We replace the current studyAcls for the parsed one
+            study.getAttributes().put("OPENCGA_ACL", studyAcls);
+
+            futures.add(threadPool.submit(() -> indexCohort(catalogSolrManager, study, incremental)));
+            futures.add(threadPool.submit(() -> indexFile(catalogSolrManager, study, incremental)));
+            futures.add(threadPool.submit(() -> indexFamily(catalogSolrManager, study, incremental)));
+            futures.add(threadPool.submit(() -> indexIndividual(catalogSolrManager, study, incremental)));
+            futures.add(threadPool.submit(() -> indexSample(catalogSolrManager, study, incremental)));
+        }
+        return futures;
+    }
+
     public Map<String, Object> facet(String studyStr, String fileFields, String sampleFields, String individualFields, String cohortFields,
                                      String familyFields, boolean defaultStats, String sessionId) throws CatalogException, IOException {
         Map<String, Object> result = new HashMap<>();
@@ -1635,13 +1677,72 @@ public class StudyManager extends AbstractManager {
         return queryOptions;
     }
 
+    /**
+     * Get the lag of the solr index of each entity of the study, this is, the time since the last indexed change.
+     *
+     * @param studyStr Study
+     * @param token    Token of the OpenCGA administrator
+     * @return Lag in milliseconds for each entity. -1 if the entity has never been indexed.
+     * @throws CatalogException if the user is not the administrator or the study does not exist
+     */
+    public Map<String, Long> getSolrSyncLag(String studyStr, String token) throws CatalogException {
+        String userId = catalogManager.getUserManager().getUserId(token);
+        if (!authorizationManager.checkIsAdmin(userId)) {
+            throw new CatalogException("Only the " + OPENCGA + " user can get the Solr index status");
+        }
+        Study study = resolveId(studyStr, userId, new QueryOptions(QueryOptions.INCLUDE, Arrays.asList(
+                StudyDBAdaptor.QueryParams.UID.key(), StudyDBAdaptor.QueryParams.ATTRIBUTES.key())));
+
+        long now = TimeUtils.getDate().getTime();
+        Map<String, Long> lag = new LinkedHashMap<>();
+        for (Enums.Resource resource : SOLR_SYNC_RESOURCES) {
+            String watermark = getSolrSyncWatermark(study, resource, true);
+            Date date = watermark == null ? null : TimeUtils.toDate(watermark);
+            lag.put(resource.name(), date == null ? -1 : now - date.getTime());
+        }
+        return lag;
+    }
+
     // **************************   Private methods  ******************************** //
 
-    private Boolean indexCohort(CatalogSolrManager catalogSolrManager, Study study) throws CatalogException {
+    private String getSolrSyncWatermark(Study study, Enums.Resource resource, boolean incremental) {
+        if (!incremental || study.getAttributes() == null) {
+            return null;
+        }
+        Object watermark = study.getAttributes().get(SOLR_SYNC_WATERMARK_PREFIX + resource.name());
+        return watermark == null ? null : watermark.toString();
+    }
+
+    private void updateSolrSyncWatermark(Study study, Enums.Resource resource, Date syncStart) throws CatalogDBException {
+        // Dates have a precision of seconds. Entries modified within the same second will be indexed again in the next sync.
+        // The watermark is not a change of the study, so it must not update its modification date.
+        studyDBAdaptor.setInternalAttribute(study.getUid(), SOLR_SYNC_WATERMARK_PREFIX + resource.name(), TimeUtils.getTime(syncStart));
+    }
+
+    /**
+     * Remove from Solr the entries deleted from catalog. Deleted entries are moved to a different collection, so they are never
+     * returned by the queries of the index. Removing entries that were already removed is harmless, so all the deleted entries of
+     * the study are removed on every index.
+     */
+    private <T extends Annotable> int deleteFromSolr(CatalogSolrManager catalogSolrManager, DBAdaptor<T> dbAdaptor, Query deletedQuery,
+                                                     String collection) throws CatalogException {
+        // All the entities share the same uid key
+        QueryOptions options = new QueryOptions(QueryOptions.INCLUDE, SampleDBAdaptor.QueryParams.UID.key());
+        DBIterator<T> iterator = dbAdaptor.iterator(deletedQuery, options);
+        return catalogSolrManager.deleteCatalogCollection(iterator, entry -> entry.getUid(), collection);
+    }
+
+    private Boolean indexCohort(CatalogSolrManager catalogSolrManager, Study study, boolean incremental) throws CatalogException {
         ObjectMap auditParams = new ObjectMap("study", study.getFqn());
         try {
+            Date syncStart = TimeUtils.getDate();
             Query query = new Query()
                     .append(CohortDBAdaptor.QueryParams.STUDY_UID.key(), study.getUid());
+            String watermark = getSolrSyncWatermark(study, Enums.Resource.COHORT, incremental);
+            if (watermark != null) {
+                query.append(CohortDBAdaptor.QueryParams.MODIFICATION_DATE.key(), ">=" + watermark);
+                auditParams.append("modifiedSince", watermark);
+            }
             QueryOptions cohortQueryOptions = new QueryOptions()
                     .append(QueryOptions.INCLUDE, Arrays.asList(CohortDBAdaptor.QueryParams.ID.key(),
                             CohortDBAdaptor.QueryParams.NAME.key(),
@@ -1651,8 +1752,16 @@ public class StudyManager extends AbstractManager {
                     .append(DBAdaptor.INCLUDE_ACLS, true)
                     .append(Constants.FLATTENED_ANNOTATIONS, true);
 
-            catalogSolrManager.insertCatalogCollection(this.cohortDBAdaptor.iterator(query,
+            int numEntries = catalogSolrManager.insertCatalogCollection(this.cohortDBAdaptor.iterator(query,
                     cohortQueryOptions), new CatalogCohortToSolrCohortConverter(study), CatalogSolrManager.COHORT_SOLR_COLLECTION);
+            Query deletedQuery = new Query()
+                    .append(CohortDBAdaptor.QueryParams.STUDY_UID.key(), study.getUid())
+                    .append(CohortDBAdaptor.QueryParams.DELETED.key(), true);
+            int numDeletedEntries = deleteFromSolr(catalogSolrManager, this.cohortDBAdaptor, deletedQuery,
+                    CatalogSolrManager.COHORT_SOLR_COLLECTION);
+            updateSolrSyncWatermark(study, Enums.Resource.COHORT, syncStart);
+            auditParams.append("numEntries", numEntries);
+            auditParams.append("numDeletedEntries", numDeletedEntries);
             auditManager.audit(OPENCGA, Enums.Action.INDEX, Enums.Resource.COHORT, "", "", study.getId(), study.getUuid(), auditParams,
                     new AuditRecord.Status(AuditRecord.Status.Result.SUCCESS));
             return true;
@@ -1663,12 +1772,18 @@ public class StudyManager extends AbstractManager {
         }
     }
 
-    private Boolean indexFile(CatalogSolrManager catalogSolrManager, Study study) throws CatalogException {
+    private Boolean indexFile(CatalogSolrManager catalogSolrManager, Study study, boolean incremental) throws CatalogException {
         ObjectMap auditParams = new ObjectMap("study", study.getFqn());
 
         try {
+            Date syncStart = TimeUtils.getDate();
             Query query = new Query()
                     .append(FileDBAdaptor.QueryParams.STUDY_UID.key(), study.getUid());
+            String watermark = getSolrSyncWatermark(study, Enums.Resource.FILE, incremental);
+            if (watermark != null) {
+                query.append(FileDBAdaptor.QueryParams.MODIFICATION_DATE.key(), ">=" + watermark);
+                auditParams.append("modifiedSince", watermark);
+            }
             QueryOptions fileQueryOptions = new QueryOptions()
                     .append(QueryOptions.INCLUDE, Arrays.asList(FileDBAdaptor.QueryParams.ID.key(),
                             FileDBAdaptor.QueryParams.NAME.key(), FileDBAdaptor.QueryParams.TYPE.key(),
@@ -1682,8 +1797,16 @@ public class StudyManager extends AbstractManager {
                     .append(DBAdaptor.INCLUDE_ACLS, true)
                     .append(Constants.FLATTENED_ANNOTATIONS, true);
 
-            catalogSolrManager.insertCatalogCollection(this.fileDBAdaptor.iterator(query,
+            int numEntries = catalogSolrManager.insertCatalogCollection(this.fileDBAdaptor.iterator(query,
                     fileQueryOptions), new CatalogFileToSolrFileConverter(study), CatalogSolrManager.FILE_SOLR_COLLECTION);
+            Query deletedQuery = new Query()
+                    .append(FileDBAdaptor.QueryParams.STUDY_UID.key(), study.getUid())
+                    .append(FileDBAdaptor.QueryParams.DELETED.key(), true);
+            int numDeletedEntries = deleteFromSolr(catalogSolrManager, this.fileDBAdaptor, deletedQuery,
+                    CatalogSolrManager.FILE_SOLR_COLLECTION);
+            updateSolrSyncWatermark(study, Enums.Resource.FILE, syncStart);
+            auditParams.append("numEntries", numEntries);
+            auditParams.append("numDeletedEntries", numDeletedEntries);
             auditManager.audit(OPENCGA, Enums.Action.INDEX, Enums.Resource.FILE, "", "", study.getId(), study.getUuid(), auditParams,
                     new AuditRecord.Status(AuditRecord.Status.Result.SUCCESS));
             return true;
@@ -1695,12 +1818,18 @@ public class StudyManager extends AbstractManager {
     }
 
 
-    private Boolean indexFamily(CatalogSolrManager catalogSolrManager, Study study) throws CatalogException {
+    private Boolean indexFamily(CatalogSolrManager catalogSolrManager, Study study, boolean incremental) throws CatalogException {
         ObjectMap auditParams = new ObjectMap("study", study.getFqn());
 
         try {
+            Date syncStart = TimeUtils.getDate();
             Query query = new Query()
                     .append(FamilyDBAdaptor.QueryParams.STUDY_UID.key(), study.getUid());
+            String watermark = getSolrSyncWatermark(study, Enums.Resource.FAMILY, incremental);
+            if (watermark != null) {
+                query.append(FamilyDBAdaptor.QueryParams.MODIFICATION_DATE.key(), ">=" + watermark);
+                auditParams.append("modifiedSince", watermark);
+            }
             QueryOptions familyQueryOptions = new QueryOptions()
                     .append(QueryOptions.INCLUDE, Arrays.asList(FamilyDBAdaptor.QueryParams.ID.key(),
                             FamilyDBAdaptor.QueryParams.CREATION_DATE.key(), FamilyDBAdaptor.QueryParams.STATUS.key(),
@@ -1710,8 +1839,16 @@ public class StudyManager extends AbstractManager {
                     .append(DBAdaptor.INCLUDE_ACLS, true)
                     .append(Constants.FLATTENED_ANNOTATIONS, true);
 
-            catalogSolrManager.insertCatalogCollection(this.familyDBAdaptor.iterator(query,
+            int numEntries = catalogSolrManager.insertCatalogCollection(this.familyDBAdaptor.iterator(query,
                     familyQueryOptions), new CatalogFamilyToSolrFamilyConverter(study), CatalogSolrManager.FAMILY_SOLR_COLLECTION);
+            Query deletedQuery = new Query()
+                    .append(FamilyDBAdaptor.QueryParams.STUDY_UID.key(), study.getUid())
+                    .append(FamilyDBAdaptor.QueryParams.DELETED.key(), true);
+            int numDeletedEntries = deleteFromSolr(catalogSolrManager, this.familyDBAdaptor, deletedQuery,
+                    CatalogSolrManager.FAMILY_SOLR_COLLECTION);
+            updateSolrSyncWatermark(study, Enums.Resource.FAMILY, syncStart);
+            auditParams.append("numEntries", numEntries);
+            auditParams.append("numDeletedEntries", numDeletedEntries);
             auditManager.audit(OPENCGA, Enums.Action.INDEX, Enums.Resource.FAMILY, "", "", study.getId(), study.getUuid(), auditParams,
                     new AuditRecord.Status(AuditRecord.Status.Result.SUCCESS));
 
@@ -1724,12 +1861,18 @@ public class StudyManager extends AbstractManager {
     }
 
 
-    private Boolean indexIndividual(CatalogSolrManager catalogSolrManager, Study study) throws CatalogException {
+    private Boolean indexIndividual(CatalogSolrManager catalogSolrManager, Study study, boolean incremental) throws CatalogException {
         ObjectMap auditParams = new ObjectMap("study", study.getFqn());
 
         try {
+            Date syncStart = TimeUtils.getDate();
             Query query = new Query()
                     .append(IndividualDBAdaptor.QueryParams.STUDY_UID.key(), study.getUid());
+            String watermark = getSolrSyncWatermark(study, Enums.Resource.INDIVIDUAL, incremental);
+            if (watermark != null) {
+                query.append(IndividualDBAdaptor.QueryParams.MODIFICATION_DATE.key(), ">=" + watermark);
+                auditParams.append("modifiedSince", watermark);
+            }
             QueryOptions individualQueryOptions = new QueryOptions()
                     .append(QueryOptions.INCLUDE, Arrays.asList(IndividualDBAdaptor.QueryParams.ID.key(),
                             IndividualDBAdaptor.QueryParams.FATHER_UID.key(), IndividualDBAdaptor.QueryParams.MOTHER_UID.key(),
@@ -1744,9 +1887,17 @@ public class StudyManager extends AbstractManager {
                     .append(DBAdaptor.INCLUDE_ACLS, true)
                     .append(Constants.FLATTENED_ANNOTATIONS, true);
 
-            catalogSolrManager.insertCatalogCollection(this.individualDBAdaptor.iterator(query,
+            int numEntries = catalogSolrManager.insertCatalogCollection(this.individualDBAdaptor.iterator(query,
                     individualQueryOptions), new CatalogIndividualToSolrIndividualConverter(study),
                     CatalogSolrManager.INDIVIDUAL_SOLR_COLLECTION);
+            Query deletedQuery = new Query()
+                    .append(IndividualDBAdaptor.QueryParams.STUDY_UID.key(), study.getUid())
+                    .append(IndividualDBAdaptor.QueryParams.DELETED.key(), true);
+            int numDeletedEntries = deleteFromSolr(catalogSolrManager, this.individualDBAdaptor, deletedQuery,
+                    CatalogSolrManager.INDIVIDUAL_SOLR_COLLECTION);
+            updateSolrSyncWatermark(study, Enums.Resource.INDIVIDUAL, syncStart);
+            auditParams.append("numEntries", numEntries);
+            auditParams.append("numDeletedEntries", numDeletedEntries);
             auditManager.audit(OPENCGA, Enums.Action.INDEX, Enums.Resource.INDIVIDUAL, "", "", study.getId(), study.getUuid(), auditParams,
                     new AuditRecord.Status(AuditRecord.Status.Result.SUCCESS));
             return true;
@@ -1757,12 +1908,18 @@ public class StudyManager extends AbstractManager {
         }
     }
 
-    private Boolean indexSample(CatalogSolrManager catalogSolrManager, Study study) throws CatalogException {
+    private Boolean indexSample(CatalogSolrManager catalogSolrManager, Study study, boolean incremental) throws CatalogException {
         ObjectMap auditParams = new ObjectMap("study", study.getFqn());
 
         try {
+            Date syncStart = TimeUtils.getDate();
             Query query = new Query()
                     .append(SampleDBAdaptor.QueryParams.STUDY_UID.key(), study.getUid());
+            String watermark = getSolrSyncWatermark(study, Enums.Resource.SAMPLE, incremental);
+            if (watermark != null) {
+                query.append(SampleDBAdaptor.QueryParams.MODIFICATION_DATE.key(), ">=" + watermark);
+                auditParams.append("modifiedSince", watermark);
+            }
             QueryOptions sampleQueryOptions = new QueryOptions()
                     .append(QueryOptions.INCLUDE, Arrays.asList(SampleDBAdaptor.QueryParams.ID.key(),
                             SampleDBAdaptor.QueryParams.SOURCE.key(),
@@ -1775,8 +1932,16 @@ public class StudyManager extends AbstractManager {
                     .append(DBAdaptor.INCLUDE_ACLS, true)
                     .append(Constants.FLATTENED_ANNOTATIONS, true);
 
-            catalogSolrManager.insertCatalogCollection(this.sampleDBAdaptor.iterator(query,
+            int numEntries = catalogSolrManager.insertCatalogCollection(this.sampleDBAdaptor.iterator(query,
                     sampleQueryOptions), new CatalogSampleToSolrSampleConverter(study), CatalogSolrManager.SAMPLE_SOLR_COLLECTION);
+            Query deletedQuery = new Query()
+                    .append(SampleDBAdaptor.QueryParams.STUDY_UID.key(), study.getUid())
+                    .append(SampleDBAdaptor.QueryParams.DELETED.key(), true);
+            int numDeletedEntries = deleteFromSolr(catalogSolrManager, this.sampleDBAdaptor, deletedQuery,
+                    CatalogSolrManager.SAMPLE_SOLR_COLLECTION);
+            updateSolrSyncWatermark(study, Enums.Resource.SAMPLE, syncStart);
+            auditParams.append("numEntries", numEntries);
+            auditParams.append("numDeletedEntries", numDeletedEntries);
             auditManager.audit(OPENCGA, Enums.Action.INDEX, Enums.Resource.SAMPLE, "", "", study.getId(), study.getUuid(), auditParams,
                     new AuditRecord.Status(AuditRecord.Status.Result.SUCCESS));
             return true;
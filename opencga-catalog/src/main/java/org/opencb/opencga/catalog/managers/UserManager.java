@@ -16,6 +16,7 @@
 
 package org.opencb.opencga.catalog.managers;
 
+import io.jsonwebtoken.Claims;
 import org.apache.commons.lang3.StringUtils;
 import org.opencb.commons.datastore.core.ObjectMap;
 import org.opencb.commons.datastore.core.Query;
@@ -28,6 +29,7 @@ import org.opencb.opencga.catalog.auth.authentication.AuthenticationManager;
 import org.opencb.opencga.catalog.auth.authentication.AzureADAuthenticationManager;
 import org.opencb.opencga.catalog.auth.authentication.CatalogAuthenticationManager;
 import org.opencb.opencga.catalog.auth.authentication.LDAPAuthenticationManager;
+import org.opencb.opencga.catalog.auth.authentication.TokenCache;
 import org.opencb.opencga.catalog.auth.authorization.AuthorizationManager;
 import org.opencb.opencga.catalog.db.DBAdaptorFactory;
 import org.opencb.opencga.catalog.db.api.UserDBAdaptor;
@@ -56,6 +58,7 @@ public class UserManager extends AbstractManager {
 
     private String INTERNAL_AUTHORIZATION = CatalogAuthenticationManager.INTERNAL;
     private Map<String, AuthenticationManager> authenticationManagerMap;
+    private final TokenCache tokenCache;
 
     protected static final String EMAIL_PATTERN = "^['_A-Za-z0-9-\\+]+(\\.['_A-Za-z0-9-]+)*@"
             + "[A-Za-z0-9-]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$";
@@ -70,6 +73,12 @@ public class UserManager extends AbstractManager {
         String secretKey = configuration.getAdmin().getSecretKey();
         long expiration = configuration.getAuthentication().getExpiration();
 
+        Integer tokenCacheSize = configuration.getAuthentication().getTokenCacheSize();
+        Long tokenCacheExpiration = configuration.getAuthentication().getTokenCacheExpiration();
+        tokenCache = new TokenCache(
+                tokenCacheSize == null ? TokenCache.DEFAULT_MAX_SIZE : tokenCacheSize,
+                tokenCacheExpiration == null ? TokenCache.DEFAULT_EXPIRATION_SECONDS : tokenCacheExpiration);
+
         authenticationManagerMap = new LinkedHashMap<>();
         if (configuration.getAuthentication().getAuthenticationOrigins() != null) {
             for (AuthenticationOrigin authenticationOrigin : configuration.getAuthentication().getAuthenticationOrigins()) {
@@ -127,11 +136,27 @@ public class UserManager extends AbstractManager {
      * @throws CatalogException when the session id does not correspond to any user or the token has expired.
      */
     public String getUserId(String token) throws CatalogException {
+        boolean useCache = StringUtils.isNotEmpty(token) && tokenCache.isEnabled();
+        if (useCache) {
+            TokenCache.Entry cachedEntry = tokenCache.get(token);
+            if (cachedEntry != null) {
+                return cachedEntry.getUserId();
+            }
+        }
         for (Map.Entry<String, AuthenticationManager> entry : authenticationManagerMap.entrySet()) {
             AuthenticationManager authenticationManager = entry.getValue();
             try {
-                String userId = authenticationManager.getUserId(token);
-                userDBAdaptor.checkId(userId);
+                String userId;
+                if (useCache) {
+                    // Read the user and the expiration from the same claims, so the token is verified only once
+                    Claims claims = authenticationManager.getClaims(token);
+                    userId = authenticationManager.getUserId(claims);
+                    userDBAdaptor.checkId(userId);
+                    tokenCache.put(token, userId, entry.getKey(), claims.getExpiration());
+                } else {
+                    userId = authenticationManager.getUserId(token);
+                    userDBAdaptor.checkId(userId);
+                }
                 return userId;
             } catch (Exception e) {
                 logger.debug("Could not get user from token using {} authentication manager. {}", entry.getKey(), e.getMessage(), e);
@@ -141,6 +166,10 @@ public class UserManager extends AbstractManager {
         return authenticationManagerMap.get(INTERNAL_AUTHORIZATION).getUserId(token);
     }
 
+    public TokenCache getTokenCache() {
+        return tokenCache;
+    }
+
     public void changePassword(String userId, String oldPassword, String newPassword) throws CatalogException {
         ParamUtils.checkParameter(userId, "userId");
 //        checkParameter(sessionId, "sessionId");
@@ -154,6 +183,7 @@ public class UserManager extends AbstractManager {
             userDBAdaptor.checkId(userId);
             String authOrigin = getAuthenticationOriginId(userId);
             authenticationManagerMap.get(authOrigin).changePassword(userId, oldPassword, newPassword);
+            tokenCache.invalidateUser(userId);
             userDBAdaptor.updateUserLastModified(userId);
             auditManager.auditUser(userId, Enums.Action.CHANGE_USER_PASSWORD, userId,
                     new AuditRecord.Status(AuditRecord.Status.Result.SUCCESS));
@@ -626,6 +656,7 @@ public class UserManager extends AbstractManager {
             if (OPENCGA.equals(tokenUser) || userId.equals(tokenUser)) {
                 try {
                     OpenCGAResult result = userDBAdaptor.delete(userId, options);
+                    tokenCache.invalidateUser(userId);
 
                     auditManager.auditDelete(operationUuid, tokenUser, Enums.Resource.USER, userId, "", "", "", auditParams,
                             new AuditRecord.Status(AuditRecord.Status.Result.SUCCESS));
@@ -675,6 +706,7 @@ public class UserManager extends AbstractManager {
             validateUserAndToken(userId, sessionId);
             String authOrigin = getAuthenticationOriginId(userId);
             OpenCGAResult writeResult = authenticationManagerMap.get(authOrigin).resetPassword(userId);
+            tokenCache.invalidateUser(userId);
             auditManager.auditUser(userId, Enums.Action.RESET_USER_PASSWORD, userId,
                     new AuditRecord.Status(AuditRecord.Status.Result.SUCCESS));
             return writeResult;
@@ -735,6 +767,7 @@ public class UserManager extends AbstractManager {
 
                 // Resync synced groups of user in OpenCGA
                 studyDBAdaptor.resyncUserWithSyncedGroups(userId, remoteGroups, authId);
+                authorizationManager.invalidatePermissionCache();
             } catch (CatalogException e) {
                 logger.error("Could not update synced groups for user '" + userId + "'\n" + e.getMessage(), e);
             }
@@ -17,6 +17,7 @@
 package org.opencb.opencga.catalog.stats.solr;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.lang3.time.StopWatch;
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrQuery;
@@ -39,6 +40,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Function;
 
 /**
  * Created by wasim on 27/06/18.
@@ -48,9 +51,11 @@ public class CatalogSolrManager {
     private CatalogManager catalogManager;
     private SolrManager solrManager;
     private int insertBatchSize;
+    private int insertThreads;
     private String DATABASE_PREFIX = "opencga";
 
     public static final int DEFAULT_INSERT_BATCH_SIZE = 10000;
+    public static final int DEFAULT_INSERT_THREADS = 2;
     public static final String COHORT_SOLR_COLLECTION = "Catalog_Cohort";
     public static final String FILE_SOLR_COLLECTION = "Catalog_File";
     public static final String FAMILY_SOLR_COLLECTION = "Catalog_Family";
@@ -74,6 +79,9 @@ public class CatalogSolrManager {
         int tmpInsertBatchSize = Integer.parseInt(searchConfiguration.getOptions().getOrDefault("insertBatchSize",
                 String.valueOf(DEFAULT_INSERT_BATCH_SIZE)));
         insertBatchSize = tmpInsertBatchSize > 0 ? tmpInsertBatchSize : DEFAULT_INSERT_BATCH_SIZE;
+        int tmpInsertThreads = Integer.parseInt(searchConfiguration.getOptions().getOrDefault("insertThreads",
+                String.valueOf(DEFAULT_INSERT_THREADS)));
+        insertThreads = tmpInsertThreads > 0 ? tmpInsertThreads : DEFAULT_INSERT_THREADS;
         this.solrManager = new SolrManager(searchConfiguration.getHosts(), mode, timeout);
 
         DATABASE_PREFIX = catalogManager.getConfiguration().getDatabasePrefix() + "_";
@@ -135,43 +143,158 @@ public class CatalogSolrManager {
         }
     }
 
-    public <T> void insertCatalogCollection(DBIterator<T> iterator, ComplexTypeConverter converter,
-                                            String collectionName) throws CatalogException {
+    /**
+     * Convert and insert all the records from the iterator.
+     *
+     * Batches are converted and sent to solr by a pool of threads. The number of batches in flight is bounded, so the iterator
+     * is not consumed faster than what solr is able to index. Changes are committed once at the end.
+     *
+     * @param iterator       Iterator of catalog entries
+     * @param converter      Converter to the solr model
+     * @param collectionName Solr collection name
+     * @param <T>            Catalog entry type
+     * @return Number of inserted records
+     * @throws CatalogException if there is any error inserting the records
+     */
+    public <T> int insertCatalogCollection(DBIterator<T> iterator, ComplexTypeConverter converter,
+                                           String collectionName) throws CatalogException {
+        // The caller thread runs the batch when all the threads are busy and the queue is full
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(insertThreads, insertThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(insertThreads),
+                new BasicThreadFactory.Builder().namingPattern("catalog-solr-insert-%d").daemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        List<Future<?>> futures = new ArrayList<>();
+        int count = 0;
+        try {
+            List<T> records = new ArrayList<>(insertBatchSize);
+            while (iterator.hasNext()) {
+                records.add(iterator.next());
+                count++;
+                if (records.size() == insertBatchSize) {
+                    List<T> batch = records;
+                    futures.add(executor.submit(() -> insertBatch(batch, converter, collectionName)));
+                    records = new ArrayList<>(insertBatchSize);
+                    checkFinishedBatches(futures);
+                }
+            }
+            if (CollectionUtils.isNotEmpty(records)) {
+                List<T> batch = records;
+                futures.add(executor.submit(() -> insertBatch(batch, converter, collectionName)));
+            }
+            for (Future<?> future : futures) {
+                getBatchResult(future);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
 
+        if (count > 0) {
+            commit(collectionName);
+        }
+        return count;
+    }
+
+    /**
+     * Remove from solr the documents of all the entries from the iterator, e.g. the entries deleted from catalog.
+     *
+     * Entries are removed by uid, the unique key of the solr documents, so removing entries that are not indexed is harmless.
+     *
+     * @param iterator       Iterator of catalog entries
+     * @param uidFunction    Function to get the uid of each entry
+     * @param collectionName Solr collection name
+     * @param <T>            Catalog entry type
+     * @return Number of removed records
+     * @throws CatalogException if there is any error removing the records
+     */
+    public <T> int deleteCatalogCollection(DBIterator<T> iterator, Function<T, Long> uidFunction, String collectionName)
+            throws CatalogException {
         int count = 0;
-        List<T> records = new ArrayList<>(insertBatchSize);
-        while (iterator.hasNext()) {
-            T record = iterator.next();
-            records.add(record);
-            count++;
-            if (count % insertBatchSize == 0) {
-                insertCatalogCollection(records, converter, collectionName);
-                records.clear();
+        try {
+            List<String> uids = new ArrayList<>(insertBatchSize);
+            while (iterator.hasNext()) {
+                uids.add(String.valueOf(uidFunction.apply(iterator.next())));
+                count++;
+                if (uids.size() == insertBatchSize) {
+                    deleteBatch(uids, collectionName);
+                    uids.clear();
+                }
             }
+            if (CollectionUtils.isNotEmpty(uids)) {
+                deleteBatch(uids, collectionName);
+            }
+        } finally {
+            iterator.close();
         }
 
-        if (CollectionUtils.isNotEmpty(records)) {
-            insertCatalogCollection(records, converter, collectionName);
+        if (count > 0) {
+            commit(collectionName);
+        }
+        return count;
+    }
+
+    private void deleteBatch(List<String> uids, String collectionName) throws CatalogException {
+        try {
+            UpdateResponse updateResponse = solrManager.getSolrClient().deleteById(DATABASE_PREFIX + collectionName, uids);
+            if (updateResponse.getStatus() != 0) {
+                throw new CatalogException("Error removing " + uids.size() + " documents from solr collection "
+                        + collectionName + ". Status " + updateResponse.getStatus());
+            }
+        } catch (IOException | SolrServerException e) {
+            throw new CatalogException(e.getMessage(), e);
         }
     }
 
     public <T, M> void insertCatalogCollection(List<T> records, ComplexTypeConverter converter,
                                                String collectionName) throws CatalogException {
-        List<M> solrModels = new ArrayList<>();
+        insertBatch(records, converter, collectionName);
+        commit(collectionName);
+    }
+
+    private <T, M> Void insertBatch(List<T> records, ComplexTypeConverter converter, String collectionName) throws CatalogException {
+        List<M> solrModels = new ArrayList<>(records.size());
 
         for (T record : records) {
             solrModels.add((M) converter.convertToStorageType(record));
         }
 
-        UpdateResponse updateResponse;
         try {
-            updateResponse = solrManager.getSolrClient().addBeans(DATABASE_PREFIX + collectionName, solrModels);
-            if (updateResponse.getStatus() == 0) {
-                solrManager.getSolrClient().commit(DATABASE_PREFIX + collectionName);
+            UpdateResponse updateResponse = solrManager.getSolrClient().addBeans(DATABASE_PREFIX + collectionName, solrModels);
+            if (updateResponse.getStatus() != 0) {
+                throw new CatalogException("Error inserting " + solrModels.size() + " documents into solr collection "
+                        + collectionName + ". Status " + updateResponse.getStatus());
             }
         } catch (IOException | SolrServerException e) {
             throw new CatalogException(e.getMessage(), e);
         }
+        return null;
+    }
+
+    private void commit(String collectionName) throws CatalogException {
+        try {
+            solrManager.getSolrClient().commit(DATABASE_PREFIX + collectionName);
+        } catch (IOException | SolrServerException e) {
+            throw new CatalogException(e.getMessage(), e);
+        }
+    }
+
+    private void checkFinishedBatches(List<Future<?>> futures) throws CatalogException {
+        while (!futures.isEmpty() && futures.get(0).isDone()) {
+            getBatchResult(futures.remove(0));
+        }
+    }
+
+    private void getBatchResult(Future<?> future) throws CatalogException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CatalogException("Interrupted while inserting into solr", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CatalogException) {
+                throw (CatalogException) e.getCause();
+            }
+            throw new CatalogException(e.getCause().getMessage(), e.getCause());
+        }
     }
 
     /**
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.catalog.audit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opencb.commons.datastore.core.ObjectMap;
+import org.opencb.commons.datastore.core.Query;
+import org.opencb.commons.datastore.core.QueryOptions;
+import org.opencb.commons.test.GenericTest;
+import org.opencb.opencga.catalog.db.api.AuditDBAdaptor;
+import org.opencb.opencga.catalog.exceptions.CatalogDBException;
+import org.opencb.opencga.core.common.TimeUtils;
+import org.opencb.opencga.core.models.common.Enums;
+import org.opencb.opencga.core.results.OpenCGAResult;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AsyncAuditWriterTest extends GenericTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testWriteBatches() throws Exception {
+        InMemoryAuditDBAdaptor dbAdaptor = new InMemoryAuditDBAdaptor();
+        AsyncAuditWriter writer = new AsyncAuditWriter(dbAdaptor, 100, 10, 100000, temporaryFolder.getRoot().toPath());
+        for (int i = 0; i < 25; i++) {
+            writer.write(newAuditRecord(i));
+        }
+        writer.close();
+
+        assertEquals(25, dbAdaptor.records.size());
+        assertEquals(25, writer.getWritten());
+        assertEquals(0, writer.getQueueSize());
+        assertTrue(dbAdaptor.batches >= 3);
+        assertEquals("id_0", dbAdaptor.records.get(0).getId());
+        assertEquals("id_24", dbAdaptor.records.get(24).getId());
+    }
+
+    @Test
+    public void testFlushInterval() throws Exception {
+        InMemoryAuditDBAdaptor dbAdaptor = new InMemoryAuditDBAdaptor();
+        AsyncAuditWriter writer = new AsyncAuditWriter(dbAdaptor, 100, 10, 50, temporaryFolder.getRoot().toPath());
+        writer.write(newAuditRecord(0));
+        for (int i = 0; i < 100 && dbAdaptor.records.isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, dbAdaptor.records.size());
+        writer.close();
+    }
+
+    @Test
+    public void testSpillAndRecover() throws Exception {
+        InMemoryAuditDBAdaptor dbAdaptor = new InMemoryAuditDBAdaptor();
+        dbAdaptor.fail = true;
+        Path spillDirectory = temporaryFolder.getRoot().toPath();
+        AsyncAuditWriter writer = new AsyncAuditWriter(dbAdaptor, 100, 10, 10, spillDirectory);
+        for (int i = 0; i < 5; i++) {
+            writer.write(newAuditRecord(i));
+        }
+        for (int i = 0; i < 100 && writer.getSpilled() < 5; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(5, writer.getSpilled());
+        assertTrue(writer.getFailedWrites() > 0);
+        assertEquals(0, dbAdaptor.records.size());
+
+        dbAdaptor.fail = false;
+        for (int i = 0; i < 200 && dbAdaptor.records.size() < 5; i++) {
+            Thread.sleep(20);
+        }
+        writer.close();
+
+        assertEquals(5, dbAdaptor.records.size());
+        assertEquals(0, writer.getDropped());
+        assertEquals(0, spillDirectory.toFile().list().length);
+    }
+
+    @Test
+    public void testWriteAfterClose() throws Exception {
+        InMemoryAuditDBAdaptor dbAdaptor = new InMemoryAuditDBAdaptor();
+        Path spillDirectory = temporaryFolder.getRoot().toPath();
+        AsyncAuditWriter writer = new AsyncAuditWriter(dbAdaptor, 100, 10, 10, spillDirectory);
+        writer.close();
+        writer.write(newAuditRecord(0));
+        assertEquals(1, writer.getSpilled());
+
+        // A new writer loads the spilled records
+        writer = new AsyncAuditWriter(dbAdaptor, 100, 10, 10, spillDirectory);
+        for (int i = 0; i < 100 && dbAdaptor.records.isEmpty(); i++) {
+            Thread.sleep(20);
+        }
+        writer.close();
+        assertEquals(1, dbAdaptor.records.size());
+        assertEquals("id_0", dbAdaptor.records.get(0).getId());
+    }
+
+    @Test
+    public void testSharedWriter() throws Exception {
+        InMemoryAuditDBAdaptor dbAdaptor1 = new InMemoryAuditDBAdaptor();
+        InMemoryAuditDBAdaptor dbAdaptor2 = new InMemoryAuditDBAdaptor();
+        Path spillDirectory = temporaryFolder.getRoot().toPath();
+        AsyncAuditWriter writer1 = AsyncAuditWriter.acquire(dbAdaptor1, 100, 10, 100000, spillDirectory);
+        AsyncAuditWriter writer2 = AsyncAuditWriter.acquire(dbAdaptor2, 100, 10, 100000, spillDirectory);
+        assertSame(writer1, writer2);
+
+        writer1.write(newAuditRecord(0));
+        // Released by the first user. Still open for the second one, which writes with its own AuditDBAdaptor
+        writer1.release(dbAdaptor1);
+        writer2.write(newAuditRecord(1));
+        writer2.release(dbAdaptor2);
+
+        assertEquals(2, writer2.getWritten());
+        assertEquals(0, writer2.getSpilled());
+        assertEquals(2, dbAdaptor1.records.size() + dbAdaptor2.records.size());
+        assertEquals("id_1", dbAdaptor2.records.get(dbAdaptor2.records.size() - 1).getId());
+
+        // Once released by all the users, a new writer is created
+        AsyncAuditWriter writer3 = AsyncAuditWriter.acquire(dbAdaptor1, 100, 10, 100000, spillDirectory);
+        assertNotSame(writer1, writer3);
+        writer3.release(dbAdaptor1);
+    }
+
+    private static AuditRecord newAuditRecord(int i) {
+        return new AuditRecord("id_" + i, "operation_" + i, "user", "v1", Enums.Action.SEARCH, Enums.Resource.SAMPLE, "", "",
+                "study", "", new ObjectMap("key", i), new AuditRecord.Status(AuditRecord.Status.Result.SUCCESS), TimeUtils.getDate(),
+                new ObjectMap());
+    }
+
+    private static class InMemoryAuditDBAdaptor implements AuditDBAdaptor {
+        private final List<AuditRecord> records = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean fail = false;
+        private volatile int batches = 0;
+
+        @Override
+        public OpenCGAResult<AuditRecord> insertAuditRecord(AuditRecord auditRecord) throws CatalogDBException {
+            return insertAuditRecords(Collections.singletonList(auditRecord));
+        }
+
+        @Override
+        public OpenCGAResult<AuditRecord> insertAuditRecords(List<AuditRecord> auditRecords) throws CatalogDBException {
+            if (fail) {
+                throw new CatalogDBException("Database not available");
+            }
+            batches++;
+            records.addAll(auditRecords);
+            return OpenCGAResult.empty();
+        }
+
+        @Override
+        public OpenCGAResult<AuditRecord> get(Query query, QueryOptions queryOptions) {
+            return OpenCGAResult.empty();
+        }
+
+        @Override
+        public OpenCGAResult groupBy(Query query, List<String> fields, QueryOptions options) {
+            return OpenCGAResult.empty();
+        }
+    }
+}
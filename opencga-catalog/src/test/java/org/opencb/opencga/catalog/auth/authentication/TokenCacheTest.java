@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.catalog.auth.authentication;
+
+import org.junit.Test;
+import org.opencb.commons.test.GenericTest;
+
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+public class TokenCacheTest extends GenericTest {
+
+    @Test
+    public void testGetPut() {
+        TokenCache cache = new TokenCache(10, 60);
+        assertNull(cache.get("token1"));
+        cache.put("token1", "user1", "internal", null);
+        assertEquals("user1", cache.get("token1").getUserId());
+        assertEquals("internal", cache.get("token1").getAuthOrigin());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testExpiredToken() {
+        TokenCache cache = new TokenCache(10, 60);
+        cache.put("token1", "user1", "internal", new Date(System.currentTimeMillis() - 1000));
+        assertNull(cache.get("token1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testMaxSize() {
+        TokenCache cache = new TokenCache(2, 60);
+        cache.put("token1", "user1", "internal", null);
+        cache.put("token2", "user2", "internal", null);
+        cache.get("token1");
+        cache.put("token3", "user3", "internal", null);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNotNull(cache.get("token1"));
+        assertNull(cache.get("token2"));
+    }
+
+    @Test
+    public void testInvalidate() {
+        TokenCache cache = new TokenCache(10, 60);
+        cache.put("token1", "user1", "internal", null);
+        cache.put("token2", "user1", "internal", null);
+        cache.put("token3", "user2", "internal", null);
+
+        cache.invalidateUser("user1");
+        assertNull(cache.get("token1"));
+        assertNull(cache.get("token2"));
+        assertNotNull(cache.get("token3"));
+
+        cache.invalidateAll();
+        assertNull(cache.get("token3"));
+    }
+
+    @Test
+    public void testDisabled() {
+        TokenCache cache = new TokenCache(0, 60);
+        assertFalse(cache.isEnabled());
+        cache.put("token1", "user1", "internal", null);
+        assertNull(cache.get("token1"));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.catalog.auth.authorization;
+
+import org.junit.Test;
+import org.opencb.commons.test.GenericTest;
+import org.opencb.opencga.core.models.acls.permissions.StudyAclEntry;
+
+import static org.junit.Assert.*;
+
+public class AuthorizationCacheTest extends GenericTest {
+
+    private static final String KEY = AuthorizationCache.permissionKey("user1", StudyAclEntry.StudyPermissions.VIEW_SAMPLES, 10);
+
+    @Test
+    public void testGrant() {
+        AuthorizationCache cache = new AuthorizationCache(10, 60);
+        assertFalse(cache.isGranted(1, KEY));
+        cache.grant(1, KEY, cache.getGeneration());
+        assertTrue(cache.isGranted(1, KEY));
+        assertFalse(cache.isGranted(2, KEY));
+    }
+
+    @Test
+    public void testInvalidateStudy() {
+        AuthorizationCache cache = new AuthorizationCache(10, 60);
+        cache.grant(1, KEY, cache.getGeneration());
+        cache.grant(2, KEY, cache.getGeneration());
+        cache.invalidateStudy(1);
+        assertFalse(cache.isGranted(1, KEY));
+        assertTrue(cache.isGranted(2, KEY));
+
+        cache.invalidateAll();
+        assertFalse(cache.isGranted(2, KEY));
+    }
+
+    @Test
+    public void testGrantAfterInvalidation() {
+        AuthorizationCache cache = new AuthorizationCache(10, 60);
+        long generation = cache.getGeneration();
+        // Permissions changed while checking the permission. Do not cache the outdated value.
+        cache.invalidateStudy(1);
+        cache.grant(1, KEY, generation);
+        assertFalse(cache.isGranted(1, KEY));
+    }
+
+    @Test
+    public void testMaxEntries() {
+        AuthorizationCache cache = new AuthorizationCache(1, 60);
+        String otherKey = AuthorizationCache.permissionKey("user1", StudyAclEntry.StudyPermissions.VIEW_SAMPLES, 11);
+        cache.grant(1, KEY, cache.getGeneration());
+        cache.grant(1, otherKey, cache.getGeneration());
+        assertFalse(cache.isGranted(1, KEY));
+        assertTrue(cache.isGranted(1, otherKey));
+    }
+}
@@ -31,6 +31,8 @@ import org.opencb.opencga.catalog.exceptions.CatalogException;
 import org.opencb.opencga.catalog.managers.CatalogManager;
 import org.opencb.opencga.catalog.managers.CatalogManagerExternalResource;
 import org.opencb.opencga.catalog.managers.FileManager;
+import org.opencb.opencga.catalog.models.update.SampleUpdateParams;
+import org.opencb.opencga.catalog.utils.Constants;
 import org.opencb.opencga.core.config.Configuration;
 import org.opencb.opencga.core.models.*;
 import org.opencb.opencga.core.models.acls.AclParams;
@@ -729,6 +731,50 @@ public class CatalogAuthorizationManagerTest extends GenericTest {
         catalogManager.getSampleManager().get(studyFqn, smp2.getId(), null, sessionId);
     }
 
+    @Test
+    public void filterAuthorisedSamples() throws CatalogException {
+        List<Long> uids = Arrays.asList(smp1.getUid(), smp2.getUid(), smp3.getUid(), smp4.getUid(), smp5.getUid(), smp6.getUid());
+        AuthorizationManager authorizationManager = catalogManager.getAuthorizationManager();
+
+        Set<Long> authorised = authorizationManager.filterAuthorisedEntries(studyUid, uids, externalUser,
+                StudyAclEntry.StudyPermissions.VIEW_SAMPLES, Enums.Resource.SAMPLE);
+        assertEquals(new HashSet<>(Arrays.asList(smp1.getUid(), smp6.getUid())), authorised);
+
+        // Served from the cache must return the same
+        authorised = authorizationManager.filterAuthorisedEntries(studyUid, uids, externalUser,
+                StudyAclEntry.StudyPermissions.VIEW_SAMPLES, Enums.Resource.SAMPLE);
+        assertEquals(new HashSet<>(Arrays.asList(smp1.getUid(), smp6.getUid())), authorised);
+
+        authorised = authorizationManager.filterAuthorisedEntries(studyUid, uids, ownerUser,
+                StudyAclEntry.StudyPermissions.VIEW_SAMPLES, Enums.Resource.SAMPLE);
+        assertEquals(new HashSet<>(uids), authorised);
+
+        // Permissions removed must not be served from the cache
+        catalogManager.getAuthorizationManager().removeAcls(Collections.singletonList(smp1.getUid()),
+                Collections.singletonList(externalUser), null, Enums.Resource.SAMPLE);
+        authorised = authorizationManager.filterAuthorisedEntries(studyUid, uids, externalUser,
+                StudyAclEntry.StudyPermissions.VIEW_SAMPLES, Enums.Resource.SAMPLE);
+        assertEquals(Collections.singleton(smp6.getUid()), authorised);
+    }
+
+    @Test
+    public void filterAuthorisedSamplesNewVersion() throws CatalogException {
+        catalogManager.getSampleManager().update(studyFqn, smp6.getId(), new SampleUpdateParams(),
+                new QueryOptions(Constants.INCREMENT_VERSION, true), ownerSessionId);
+        List<Long> uids = Arrays.asList(smp1.getUid(), smp2.getUid(), smp6.getUid());
+
+        Set<Long> authorised = catalogManager.getAuthorizationManager().filterAuthorisedEntries(studyUid, uids, externalUser,
+                StudyAclEntry.StudyPermissions.VIEW_SAMPLES, Enums.Resource.SAMPLE);
+        assertEquals(new HashSet<>(Arrays.asList(smp1.getUid(), smp6.getUid())), authorised);
+    }
+
+    @Test
+    public void filterAuthorisedSamplesWrongPermission() throws CatalogException {
+        thrown.expect(CatalogAuthorizationException.class);
+        catalogManager.getAuthorizationManager().filterAuthorisedEntries(studyUid, Collections.singletonList(smp1.getUid()),
+                externalUser, StudyAclEntry.StudyPermissions.VIEW_FILES, Enums.Resource.SAMPLE);
+    }
+
     @Test
     public void readSampleAdminUser() throws CatalogException {
         DataResult<Sample> sample = catalogManager.getSampleManager().get(studyFqn, smp1.getId(), null, studyAdmin1SessionId);
@@ -25,6 +25,7 @@ import org.opencb.commons.datastore.core.Query;
 import org.opencb.commons.datastore.core.QueryOptions;
 import org.opencb.opencga.catalog.db.DBAdaptorFactory;
 import org.opencb.opencga.catalog.db.api.CohortDBAdaptor;
+import org.opencb.opencga.catalog.db.api.DBIterator;
 import org.opencb.opencga.catalog.db.api.FileDBAdaptor;
 import org.opencb.opencga.catalog.db.api.JobDBAdaptor;
 import org.opencb.opencga.catalog.db.api.SampleDBAdaptor;
@@ -356,6 +357,48 @@ public class SampleMongoDBAdaptorTest {
     }
 
 
+    @Test
+    public void iteratorBatches() throws CatalogDBException {
+        QueryOptions options = new QueryOptions();
+        int numSamples = 10;
+        for (int i = 0; i < numSamples; i++) {
+            catalogSampleDBAdaptor.insert(studyId, new Sample().setId("it_sample" + i).setStatus(new Status()), Collections.emptyList(),
+                    options);
+            long sampleUid = getSample(studyId, "it_sample" + i, options).first().getUid();
+            Individual individual = new Individual()
+                    .setId("it_individual" + i)
+                    .setStatus(new Status())
+                    .setSamples(Collections.singletonList(new Sample().setUid(sampleUid).setVersion(1).setStatus(new Status())));
+            dbAdaptorFactory.getCatalogIndividualDBAdaptor().insert(studyId, individual, null, options);
+        }
+
+        Query query = new Query(SampleDBAdaptor.QueryParams.STUDY_UID.key(), studyId);
+        for (boolean prefetch : Arrays.asList(false, true)) {
+            // Small batches, so the samples are read in several batches
+            QueryOptions iteratorOptions = new QueryOptions(QueryOptions.SORT, SampleDBAdaptor.QueryParams.ID.key())
+                    .append(DBIterator.BATCH_SIZE, 5)
+                    .append(DBIterator.PREFETCH, prefetch);
+            List<String> samples = new ArrayList<>();
+            try (DBIterator<Sample> iterator = catalogSampleDBAdaptor.iterator(query, iteratorOptions)) {
+                while (iterator.hasNext()) {
+                    Sample sample = iterator.next();
+                    if (!sample.getId().startsWith("it_sample")) {
+                        continue;
+                    }
+                    samples.add(sample.getId());
+                    // The individuals are fetched with one query per batch
+                    Individual individual = (Individual) sample.getAttributes().get("OPENCGA_INDIVIDUAL");
+                    assertEquals(sample.getId().replace("sample", "individual"), individual.getId());
+                }
+            }
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < numSamples; i++) {
+                expected.add("it_sample" + i);
+            }
+            assertEquals("prefetch=" + prefetch, expected, samples);
+        }
+    }
+
     @Test
     public void deleteSampleTest() throws Exception {
         long studyId = user3.getProjects().get(0).getStudies().get(0).getUid();
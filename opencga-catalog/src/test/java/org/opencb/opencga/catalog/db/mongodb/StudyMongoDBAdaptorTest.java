@@ -55,6 +55,16 @@ public class StudyMongoDBAdaptorTest extends MongoDBAdaptorTest {
         assertEquals(1900, catalogStudyDBAdaptor.get(5, null).getResults().get(0).getSize());
     }
 
+    @Test
+    public void setInternalAttribute() throws Exception {
+        Study study = catalogStudyDBAdaptor.get(5, null).first();
+        catalogStudyDBAdaptor.setInternalAttribute(5, "MY_KEY", "MY_VALUE");
+
+        Study updated = catalogStudyDBAdaptor.get(5, null).first();
+        assertEquals("MY_VALUE", updated.getAttributes().get("MY_KEY"));
+        assertEquals(study.getModificationDate(), updated.getModificationDate());
+    }
+
     /***
      * The test will check whether it is possible to create a new study using an alias that is already being used, but on a different
      * project.
@@ -0,0 +1,85 @@
+package org.opencb.opencga.catalog.managers;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.common.SolrDocument;
+import org.junit.Test;
+import org.opencb.commons.datastore.core.QueryOptions;
+import org.opencb.opencga.catalog.models.update.SampleUpdateParams;
+import org.opencb.opencga.catalog.stats.solr.AbstractSolrManagerTest;
+import org.opencb.opencga.catalog.stats.solr.CatalogSolrManager;
+import org.opencb.opencga.core.models.Sample;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StudyManagerSolrIndexTest extends AbstractSolrManagerTest {
+
+    @Test
+    public void testIncrementalIndex() throws Exception {
+        String adminToken = catalogManager.getUserManager().loginAsAdmin("admin");
+        assertEquals(-1L, catalogManager.getStudyManager().getSolrSyncLag(studyFqn, adminToken).get("SAMPLE").longValue());
+
+        indexCatalogIntoSolr(false);
+        assertEquals(3, getIndexedSamples().size());
+        assertTrue(catalogManager.getStudyManager().getSolrSyncLag(studyFqn, adminToken).get("SAMPLE") >= 0);
+
+        // Empty the sample collection, so it only contains the entries processed by the next index
+        SolrClient solrClient = solrExternalResource.getSolrClient();
+        solrClient.deleteByQuery(getSampleCollection(), "*:*");
+        solrClient.commit(getSampleCollection());
+        assertEquals(0, getIndexedSamples().size());
+
+        // Dates have a precision of seconds. Entries modified within the same second of the last index would be indexed again
+        Thread.sleep(1100);
+        catalogManager.getSampleManager().update(studyFqn, "sample2", new SampleUpdateParams().setDescription("New description"),
+                QueryOptions.empty(), sessionIdAdmin);
+        Sample sample2 = catalogManager.getSampleManager().get(studyFqn, "sample2", QueryOptions.empty(), sessionIdOwner).first();
+        Thread.sleep(1100);
+
+        // Only the entries modified after the watermark are indexed
+        indexCatalogIntoSolr(true);
+        assertEquals(Collections.singleton(sample2.getUid()), getIndexedSamples());
+
+        // Nothing else was modified
+        solrClient.deleteByQuery(getSampleCollection(), "*:*");
+        solrClient.commit(getSampleCollection());
+        indexCatalogIntoSolr(true);
+        assertEquals(0, getIndexedSamples().size());
+
+        // The full index ignores the watermark
+        indexCatalogIntoSolr(false);
+        assertEquals(3, getIndexedSamples().size());
+    }
+
+    private void indexCatalogIntoSolr(boolean incremental) throws Exception {
+        ExecutorService threadPool = Executors.newSingleThreadExecutor();
+        try {
+            List<Future<Boolean>> futures = catalogManager.getStudyManager().indexCatalogIntoSolr(catalogSolrManager, threadPool,
+                    incremental);
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            threadPool.shutdown();
+        }
+    }
+
+    private Set<Long> getIndexedSamples() throws Exception {
+        Set<Long> uids = new HashSet<>();
+        SolrQuery query = new SolrQuery("*:*").setRows(100);
+        for (SolrDocument document : solrExternalResource.getSolrClient().query(getSampleCollection(), query).getResults()) {
+            uids.add(((Number) document.getFieldValue("uid")).longValue());
+        }
+        return uids;
+    }
+
+    private String getSampleCollection() {
+        return catalogManager.getConfiguration().getDatabasePrefix() + "_" + CatalogSolrManager.SAMPLE_SOLR_COLLECTION;
+    }
+}
@@ -5,6 +5,7 @@ import org.apache.solr.client.solrj.SolrServerException;
 import org.junit.Test;
 import org.opencb.commons.datastore.core.DataResult;
 import org.opencb.commons.datastore.core.FacetField;
+import org.opencb.commons.datastore.core.ObjectMap;
 import org.opencb.commons.datastore.core.Query;
 import org.opencb.commons.datastore.core.QueryOptions;
 import org.opencb.opencga.catalog.db.api.*;
@@ -23,6 +24,7 @@ import org.opencb.opencga.core.models.Sample;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -282,5 +284,47 @@ public class CatalogSolrManagerTest extends AbstractSolrManagerTest {
         assertEquals(3, facet.getResults().get(0).getBuckets().get(0).getCount());
     }
 
+    @Test
+    public void testDeleteCohorts() throws CatalogException {
+        MongoDBAdaptorFactory factory = new MongoDBAdaptorFactory(catalogManager.getConfiguration());
+
+        Map<String, Set<String>> studyAcls =
+                SolrConverterUtil.parseInternalOpenCGAAcls((List<Map<String, Object>>) study.getAttributes().get("OPENCGA_ACL"));
+        study.getAttributes().put("OPENCGA_ACL", studyAcls);
+
+        QueryOptions queryOptions = new QueryOptions()
+                .append(QueryOptions.INCLUDE, Arrays.asList(CohortDBAdaptor.QueryParams.ID.key(), CohortDBAdaptor.QueryParams.NAME.key(),
+                        CohortDBAdaptor.QueryParams.CREATION_DATE.key(), CohortDBAdaptor.QueryParams.STATUS.key(),
+                        CohortDBAdaptor.QueryParams.RELEASE.key(), CohortDBAdaptor.QueryParams.ANNOTATION_SETS.key(),
+                        CohortDBAdaptor.QueryParams.SAMPLE_UIDS.key(), CohortDBAdaptor.QueryParams.TYPE.key()))
+                .append(DBAdaptor.INCLUDE_ACLS, true)
+                .append(Constants.FLATTENED_ANNOTATIONS, true);
+
+        CohortDBAdaptor cohortDBAdaptor = factory.getCatalogCohortDBAdaptor();
+        catalogSolrManager.insertCatalogCollection(cohortDBAdaptor.iterator(
+                new Query(CohortDBAdaptor.QueryParams.STUDY_UID.key(), study.getUid()), queryOptions),
+                new CatalogCohortToSolrCohortConverter(study), CatalogSolrManager.COHORT_SOLR_COLLECTION);
+
+        catalogManager.getCohortManager().delete(studyFqn, Collections.singletonList("cohort3"), new ObjectMap(), sessionIdOwner);
+
+        Query deletedQuery = new Query(CohortDBAdaptor.QueryParams.STUDY_UID.key(), study.getUid())
+                .append(CohortDBAdaptor.QueryParams.DELETED.key(), true);
+        QueryOptions uidOptions = new QueryOptions(QueryOptions.INCLUDE, CohortDBAdaptor.QueryParams.UID.key());
+        int numDeleted = catalogSolrManager.deleteCatalogCollection(cohortDBAdaptor.iterator(deletedQuery, uidOptions), Cohort::getUid,
+                CatalogSolrManager.COHORT_SOLR_COLLECTION);
+        assertEquals(1, numDeleted);
+
+        DataResult<FacetField> facet = catalogSolrManager.facetedQuery(study, CatalogSolrManager.COHORT_SOLR_COLLECTION,
+                new Query(), new QueryOptions(QueryOptions.FACET, CohortDBAdaptor.QueryParams.RELEASE.key()), "owner");
+        assertEquals(2, facet.getResults().get(0).getBuckets().get(0).getCount());
+
+        // Removing again the same entries is harmless
+        numDeleted = catalogSolrManager.deleteCatalogCollection(cohortDBAdaptor.iterator(deletedQuery, uidOptions), Cohort::getUid,
+                CatalogSolrManager.COHORT_SOLR_COLLECTION);
+        assertEquals(1, numDeleted);
+        facet = catalogSolrManager.facetedQuery(study, CatalogSolrManager.COHORT_SOLR_COLLECTION,
+                new Query(), new QueryOptions(QueryOptions.FACET, CohortDBAdaptor.QueryParams.RELEASE.key()), "owner");
+        assertEquals(2, facet.getResults().get(0).getBuckets().get(0).getCount());
+    }
 
-}
\ No newline at end of file
+}
@@ -22,6 +22,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.opencb.commons.datastore.core.DataResult;
 import org.opencb.commons.datastore.core.DataStoreServerAddress;
+import org.opencb.commons.datastore.core.ObjectMap;
 import org.opencb.commons.datastore.core.Query;
 import org.opencb.commons.datastore.core.QueryOptions;
 import org.opencb.commons.datastore.mongodb.MongoDBConfiguration;
@@ -43,10 +44,14 @@ import org.opencb.opencga.core.models.Study;
 import java.io.ByteArrayInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.LinkedList;
-import java.util.List;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.*;
 
 import static org.junit.Assert.*;
 
@@ -97,6 +102,80 @@ public class CatalogFileUtilsTest {
         catalogFileUtils = new FileUtils(catalogManager);
     }
 
+    @Test
+    public void calculateChecksumTest() throws Exception {
+        Path dir = Paths.get("target/test-data", "checksums_" + TimeUtils.getTimeMillis()).toAbsolutePath();
+        Files.createDirectories(dir);
+        Random random = new Random(1);
+        Map<URI, String> expected = new HashMap<>();
+        // Include empty files and files larger than the read buffer
+        for (int size : new int[]{0, 1, 1000, 3 * 1024 * 1024 + 7}) {
+            byte[] data = new byte[size];
+            random.nextBytes(data);
+            Path file = dir.resolve("file_" + size + ".bin");
+            Files.write(file, data);
+            expected.put(file.toUri(), md5(data));
+        }
+
+        for (Map.Entry<URI, String> entry : expected.entrySet()) {
+            CatalogIOManager ioManager = catalogManager.getCatalogIOManagerFactory().get(entry.getKey());
+            assertEquals(entry.getValue(), ioManager.calculateChecksum(entry.getKey()));
+        }
+        assertEquals(expected, catalogFileUtils.calculateChecksums(expected.keySet()));
+        URI uri = expected.keySet().iterator().next();
+        assertEquals(Collections.singletonMap(uri, expected.get(uri)), catalogFileUtils.calculateChecksums(Collections.singletonList(uri)));
+    }
+
+    @Test
+    public void getModifiedFileAttributesTest() throws Exception {
+        File file = catalogManager.getFileManager().create(studyFqn, File.Type.FILE, File.Format.PLAIN, File.Bioformat.NONE,
+                "item." + TimeUtils.getTimeMillis() + ".txt", "file at root", null, 0, null, (long) -1, null, null, true,
+                StringUtils.randomString(100), null, userSessionId).first();
+        Path path = Paths.get(file.getUri());
+
+        // No checksum. Always modified
+        ObjectMap params = catalogFileUtils.getModifiedFileAttributes(file, null, true);
+        assertEquals(md5(Files.readAllBytes(path)), params.getString(FileDBAdaptor.QueryParams.CHECKSUM.key()));
+        assertEquals(Files.getLastModifiedTime(path).toMillis(), params.getMap(FileDBAdaptor.QueryParams.ATTRIBUTES.key())
+                .get(FileUtils.CHECKSUM_FILE_MODIFICATION_DATE));
+        file = update(file, params);
+
+        // Not modified. Checksum not calculated
+        params = catalogFileUtils.getModifiedFileAttributes(file, null, true);
+        assertFalse(params.containsKey(FileDBAdaptor.QueryParams.CHECKSUM.key()));
+
+        // Same size, different content, and an older modification date. e.g. restored with "cp -p"
+        FileTime modificationTime = Files.getLastModifiedTime(path);
+        byte[] newContent = StringUtils.randomString(100).getBytes();
+        Files.write(path, newContent);
+        Files.setLastModifiedTime(path, FileTime.fromMillis(modificationTime.toMillis() - 10000));
+        assertEquals(file.getSize(), Files.size(path));
+        params = catalogFileUtils.getModifiedFileAttributes(file, null, true);
+        assertEquals(md5(newContent), params.getString(FileDBAdaptor.QueryParams.CHECKSUM.key()));
+        file = update(file, params);
+
+        // Same size, different content, modified within the same second
+        modificationTime = Files.getLastModifiedTime(path);
+        newContent = StringUtils.randomString(100).getBytes();
+        Files.write(path, newContent);
+        Files.setLastModifiedTime(path, FileTime.fromMillis(modificationTime.toMillis() + 1));
+        params = catalogFileUtils.getModifiedFileAttributes(file, null, true);
+        assertEquals(md5(newContent), params.getString(FileDBAdaptor.QueryParams.CHECKSUM.key()));
+    }
+
+    private File update(File file, ObjectMap params) throws CatalogException {
+        catalogManager.getFileManager().update(studyFqn, file.getPath(), params, QueryOptions.empty(), userSessionId);
+        return catalogManager.getFileManager().get(studyFqn, file.getPath(), null, userSessionId).first();
+    }
+
+    private static String md5(byte[] data) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("MD5").digest(data)) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
     @Test
     public void checkFileTest() throws CatalogException, IOException {
         File file;
@@ -24,6 +24,11 @@ public class Audit {
     private String manager;
     private long maxDocuments;
     private long maxSize;
+    private boolean async = false;
+    private int queueSize = 10000;
+    private int batchSize = 500;
+    private long flushInterval = 1000;
+    private String spillDirectory;
 
     public Audit() {
     }
@@ -40,6 +45,11 @@ public class Audit {
         sb.append("manager='").append(manager).append('\'');
         sb.append(", maxDocuments=").append(maxDocuments);
         sb.append(", maxSize=").append(maxSize);
+        sb.append(", async=").append(async);
+        sb.append(", queueSize=").append(queueSize);
+        sb.append(", batchSize=").append(batchSize);
+        sb.append(", flushInterval=").append(flushInterval);
+        sb.append(", spillDirectory='").append(spillDirectory).append('\'');
         sb.append('}');
         return sb.toString();
     }
@@ -70,4 +80,49 @@ public class Audit {
         this.maxSize = maxSize;
         return this;
     }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public Audit setAsync(boolean async) {
+        this.async = async;
+        return this;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public Audit setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public Audit setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    public Audit setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+        return this;
+    }
+
+    public String getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    public Audit setSpillDirectory(String spillDirectory) {
+        this.spillDirectory = spillDirectory;
+        return this;
+    }
 }
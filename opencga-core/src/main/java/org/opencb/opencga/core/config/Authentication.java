@@ -25,6 +25,8 @@ import java.util.List;
 public class Authentication {
     private Long expiration;
     private List<AuthenticationOrigin> authenticationOrigins;
+    private Integer tokenCacheSize;
+    private Long tokenCacheExpiration;
 
     public Authentication() {
     }
@@ -52,11 +54,31 @@ public class Authentication {
         return this;
     }
 
+    public Integer getTokenCacheSize() {
+        return tokenCacheSize;
+    }
+
+    public Authentication setTokenCacheSize(Integer tokenCacheSize) {
+        this.tokenCacheSize = tokenCacheSize;
+        return this;
+    }
+
+    public Long getTokenCacheExpiration() {
+        return tokenCacheExpiration;
+    }
+
+    public Authentication setTokenCacheExpiration(Long tokenCacheExpiration) {
+        this.tokenCacheExpiration = tokenCacheExpiration;
+        return this;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Authentication{");
         sb.append("expiration=").append(expiration);
         sb.append(", authenticationOrigins=").append(authenticationOrigins);
+        sb.append(", tokenCacheSize=").append(tokenCacheSize);
+        sb.append(", tokenCacheExpiration=").append(tokenCacheExpiration);
         sb.append('}');
         return sb.toString();
     }
@@ -162,9 +162,23 @@ public class AdminWSServer extends OpenCGAWSServer {
     @POST
     @Path("/catalog/indexStats")
     @ApiOperation(value = "Sync Catalog into the Solr")
-    public Response syncSolr() {
+    public Response syncSolr(
+            @ApiParam(value = "Only index the entries modified since the last index") @DefaultValue("false")
+            @QueryParam("incremental") boolean incremental) {
         try {
-            return createOkResponse(catalogManager.getStudyManager().indexCatalogIntoSolr(token));
+            return createOkResponse(catalogManager.getStudyManager().indexCatalogIntoSolr(incremental, token));
+        } catch (Exception e) {
+            return createErrorResponse(e);
+        }
+    }
+
+    @GET
+    @Path("/catalog/indexStats/lag")
+    @ApiOperation(value = "Time since the last index into Solr of each entity of the study, in milliseconds. -1 if never indexed")
+    public Response syncSolrLag(
+            @ApiParam(value = "Study [[user@]project:]study", required = true) @QueryParam("study") String study) {
+        try {
+            return createOkResponse(catalogManager.getStudyManager().getSolrSyncLag(study, token));
         } catch (Exception e) {
             return createErrorResponse(e);
         }
@@ -282,7 +282,8 @@ public class VariantAnalysisWSService extends AnalysisWSService {
     public Response getVariants(@ApiParam(value = "Group variants by: [ct, gene, ensemblGene]") @DefaultValue("") @QueryParam("groupBy") String groupBy,
                                 @ApiParam(value = "Calculate histogram. Requires one region.") @DefaultValue("false") @QueryParam("histogram") boolean histogram,
                                 @ApiParam(value = "Histogram interval size") @DefaultValue("2000") @QueryParam("interval") int interval,
-                                @ApiParam(value = "Ranks different entities with the most number of variants. Rank by: [ct, gene, ensemblGene]") @QueryParam("rank") String rank
+                                @ApiParam(value = "Ranks different entities with the most number of variants. Rank by: [ct, gene, ensemblGene]") @QueryParam("rank") String rank,
+                                @ApiParam(value = "Describe how the query would be executed, without executing it") @DefaultValue("false") @QueryParam("explain") boolean explain
                                 // @ApiParam(value = "Merge results", required = false) @DefaultValue("false") @QueryParam("merge") boolean merge
     ) {
         return run(() -> {
@@ -290,7 +291,9 @@ public class VariantAnalysisWSService extends AnalysisWSService {
             QueryOptions queryOptions = new QueryOptions(uriInfo.getQueryParameters(), true);
             Query query = getVariantQuery(queryOptions);
 
-            if (count) {
+            if (explain) {
+                return variantManager.explain(query, queryOptions, token);
+            } else if (count) {
                 return variantManager.count(query, token);
             } else if (histogram) {
                 return variantManager.getFrequency(query, interval, token);
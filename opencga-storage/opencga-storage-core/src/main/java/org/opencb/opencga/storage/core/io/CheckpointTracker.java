@@ -0,0 +1,339 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.storage.core.io;
+
+import org.opencb.commons.io.DataReader;
+import org.opencb.commons.io.DataWriter;
+import org.opencb.commons.run.Task;
+import org.opencb.opencga.storage.core.exceptions.StorageEngineException;
+import org.opencb.opencga.storage.core.metadata.VariantStorageMetadataManager;
+import org.opencb.opencga.storage.core.metadata.models.TaskMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Keeps track of the batches committed by a {@link org.opencb.commons.run.ParallelTaskRunner}, and stores periodically
+ * a checkpoint in the {@link TaskMetadata}, so an interrupted task can be resumed from the last checkpoint.
+ *
+ * The checkpoint contains the number of elements read from the input that were committed, and the key of the last one.
+ * Batches may finish out of order, so only the contiguous sequence of committed batches since the beginning is considered.
+ *
+ * Usage:
+ *  - Wrap the reader of the ParallelTaskRunner with {@link #track(DataReader, boolean)}.
+ *  - If the data is written by the DataWriter, wrap the task with {@link #trackThroughTask(Task)} and the
+ *    writer with {@link #commitOnWrite(DataWriter)}.
+ *  - If the data is written by the task itself, wrap the task with {@link #commitOnTask(Task)}.
+ *
+ * Wrapped tasks and writers must return and receive the same list instances.
+ */
+public class CheckpointTracker<T> {
+
+    public static final String CHECKPOINT_COUNT = "checkpointCount";
+    public static final String CHECKPOINT_LAST = "checkpointLast";
+    public static final String CHECKPOINT_DATE = "checkpointDate";
+
+    private final VariantStorageMetadataManager metadataManager;
+    private final int studyId;
+    private final int taskId;
+    private final Function<T, String> keyFunction;
+    private final long intervalMillis;
+
+    // Batches read, pending to be committed. Indexed by identity
+    private final Map<List<?>, Batch> pending = Collections.synchronizedMap(new IdentityHashMap<>());
+    // Batches committed out of order
+    private final Map<Long, Batch> completed = new HashMap<>();
+    private final long resumeCount;
+    private final String resumeLast;
+    private long nextCommit = 0;
+    private long committedCount;
+    private String committedLast;
+    private long persistedCount;
+    private long lastCheckpointTime;
+
+    private final Logger logger = LoggerFactory.getLogger(CheckpointTracker.class);
+
+    private static final class Batch {
+        private final long seq;
+        private final int size;
+        private final String last;
+
+        private Batch(long seq, int size, String last) {
+            this.seq = seq;
+            this.size = size;
+            this.last = last;
+        }
+    }
+
+    /**
+     * @param metadataManager Metadata manager where to store the checkpoints
+     * @param task            Task to checkpoint. Previous checkpoints are read from its attributes.
+     * @param keyFunction     Function to describe the last committed element (e.g. variant id)
+     * @param intervalMillis  Min time between checkpoints
+     */
+    public CheckpointTracker(VariantStorageMetadataManager metadataManager, TaskMetadata task, Function<T, String> keyFunction,
+                             long intervalMillis) {
+        this.metadataManager = metadataManager;
+        this.studyId = task.getStudyId();
+        this.taskId = task.getId();
+        this.keyFunction = keyFunction;
+        this.intervalMillis = intervalMillis;
+        resumeCount = task.getAttributes().getLong(CHECKPOINT_COUNT, 0);
+        resumeLast = task.getAttributes().getString(CHECKPOINT_LAST);
+        committedCount = resumeCount;
+        committedLast = resumeLast;
+        persistedCount = resumeCount;
+        lastCheckpointTime = System.currentTimeMillis();
+    }
+
+    /**
+     * @return Number of elements committed in a previous execution.
+     */
+    public long getResumeCount() {
+        return resumeCount;
+    }
+
+    /**
+     * @return Key of the last element committed in a previous execution, if any.
+     */
+    public String getResumeLast() {
+        return resumeLast;
+    }
+
+    public synchronized long getCommittedCount() {
+        return committedCount;
+    }
+
+    public synchronized String getCommittedLast() {
+        return committedLast;
+    }
+
+    /**
+     * Track the batches read by the given reader.
+     *
+     * @param reader        Reader to track
+     * @param skipCommitted Skip the elements committed in a previous execution.
+     *                      Do not skip if the reader already starts after the last committed element.
+     * @return Tracked reader
+     */
+    public DataReader<T> track(DataReader<T> reader, boolean skipCommitted) {
+        return new DataReader<T>() {
+            private long toSkip = skipCommitted ? resumeCount : 0;
+            private long nextSeq = 0;
+
+            @Override
+            public boolean open() {
+                return reader.open();
+            }
+
+            @Override
+            public boolean pre() {
+                if (toSkip > 0) {
+                    logger.info("Resume from checkpoint. Skip {} elements committed in a previous execution, up to {}", toSkip, resumeLast);
+                }
+                return reader.pre();
+            }
+
+            @Override
+            public List<T> read(int batchSize) {
+                List<T> batch = reader.read(batchSize);
+                while (toSkip > 0 && !batch.isEmpty()) {
+                    if (batch.size() <= toSkip) {
+                        toSkip -= batch.size();
+                        batch = reader.read(batchSize);
+                    } else {
+                        batch = new ArrayList<>(batch.subList((int) toSkip, batch.size()));
+                        toSkip = 0;
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    pending.put(batch, new Batch(nextSeq++, batch.size(), keyFunction.apply(batch.get(batch.size() - 1))));
+                }
+                return batch;
+            }
+
+            @Override
+            public boolean post() {
+                return reader.post();
+            }
+
+            @Override
+            public boolean close() {
+                return reader.close();
+            }
+        };
+    }
+
+    /**
+     * Track the batches through the given task. The output batch will be committed by {@link #commitOnWrite(DataWriter)}.
+     *
+     * @param task Task to wrap
+     * @param <R>  Output type
+     * @return Wrapped task
+     */
+    public <R> Task<T, R> trackThroughTask(Task<T, R> task) {
+        return new Task<T, R>() {
+            @Override
+            public void pre() throws Exception {
+                task.pre();
+            }
+
+            @Override
+            public List<R> apply(List<T> batch) throws Exception {
+                List<R> output = task.apply(batch);
+                Batch b = pending.remove(batch);
+                if (b != null) {
+                    if (output.isEmpty()) {
+                        // Nothing to write.
+                        commit(b);
+                    } else {
+                        pending.put(output, b);
+                    }
+                }
+                return output;
+            }
+
+            @Override
+            public List<R> drain() throws Exception {
+                return task.drain();
+            }
+
+            @Override
+            public void post() throws Exception {
+                task.post();
+            }
+        };
+    }
+
+    /**
+     * Commit the batches once processed by the given task.
+     *
+     * @param task Task to wrap. Writes the data.
+     * @param <R>  Output type
+     * @return Wrapped task
+     */
+    public <R> Task<T, R> commitOnTask(Task<T, R> task) {
+        return new Task<T, R>() {
+            @Override
+            public void pre() throws Exception {
+                task.pre();
+            }
+
+            @Override
+            public List<R> apply(List<T> batch) throws Exception {
+                List<R> output = task.apply(batch);
+                Batch b = pending.remove(batch);
+                if (b != null) {
+                    commit(b);
+                }
+                return output;
+            }
+
+            @Override
+            public List<R> drain() throws Exception {
+                return task.drain();
+            }
+
+            @Override
+            public void post() throws Exception {
+                task.post();
+            }
+        };
+    }
+
+    /**
+     * Commit the batches once written by the given writer.
+     *
+     * @param writer Writer to wrap
+     * @param <R>    Output type
+     * @return Wrapped writer
+     */
+    public <R> DataWriter<R> commitOnWrite(DataWriter<R> writer) {
+        return new DataWriter<R>() {
+            @Override
+            public boolean open() {
+                return writer.open();
+            }
+
+            @Override
+            public boolean pre() {
+                return writer.pre();
+            }
+
+            @Override
+            public boolean write(List<R> batch) {
+                boolean write = writer.write(batch);
+                Batch b = pending.remove(batch);
+                if (b != null) {
+                    commit(b);
+                }
+                return write;
+            }
+
+            @Override
+            public boolean post() {
+                return writer.post();
+            }
+
+            @Override
+            public boolean close() {
+                return writer.close();
+            }
+        };
+    }
+
+    private synchronized void commit(Batch batch) {
+        completed.put(batch.seq, batch);
+        Batch next = completed.remove(nextCommit);
+        while (next != null) {
+            nextCommit++;
+            committedCount += next.size;
+            committedLast = next.last;
+            next = completed.remove(nextCommit);
+        }
+        if (System.currentTimeMillis() - lastCheckpointTime >= intervalMillis) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Store the current checkpoint in the task metadata, if anything was committed since the last one.
+     * Errors are logged but not propagated, as the previous checkpoint is still valid.
+     */
+    public synchronized void checkpoint() {
+        lastCheckpointTime = System.currentTimeMillis();
+        if (committedCount == persistedCount) {
+            return;
+        }
+        long count = committedCount;
+        String last = committedLast;
+        try {
+            metadataManager.updateTask(studyId, taskId, task -> {
+                task.getAttributes().put(CHECKPOINT_COUNT, count);
+                task.getAttributes().put(CHECKPOINT_LAST, last);
+                task.getAttributes().put(CHECKPOINT_DATE, Calendar.getInstance().getTime());
+                return task;
+            });
+            persistedCount = count;
+            logger.debug("Checkpoint task {} : {} elements, up to {}", taskId, count, last);
+        } catch (StorageEngineException | RuntimeException e) {
+            logger.warn("Error storing checkpoint of task " + taskId, e);
+        }
+    }
+}
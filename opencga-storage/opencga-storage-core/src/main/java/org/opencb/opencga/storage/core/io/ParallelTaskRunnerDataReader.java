@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.storage.core.io;
+
+import org.opencb.commons.io.DataReader;
+import org.opencb.commons.io.DataWriter;
+import org.opencb.commons.run.ParallelTaskRunner;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * DataReader that reads the output of a {@link ParallelTaskRunner} executed in a background thread.
+ *
+ * Used to chain two ParallelTaskRunners, so a sequential step can run between two parallel steps. e.g. parse in parallel,
+ * create the reference blocks sequentially in the writer thread of the first runner, and encode in parallel in the second runner.
+ * Batches are returned in the same order they were written by the first runner.
+ */
+public class ParallelTaskRunnerDataReader<T> implements DataReader<T> {
+
+    private final ParallelTaskRunner<?, ?> ptr;
+    private final BlockingQueue<List<T>> queue;
+    private volatile RuntimeException exception;
+    private volatile boolean closed = false;
+    private Thread thread;
+    private boolean finished = false;
+
+    /**
+     * @param ptrBuilder Builds the ParallelTaskRunner to read from, given the writer where to write its output
+     * @param capacity   Max number of batches written and not read
+     */
+    public ParallelTaskRunnerDataReader(Function<DataWriter<T>, ParallelTaskRunner<?, ?>> ptrBuilder, int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.ptr = ptrBuilder.apply(new DataWriter<T>() {
+            @Override
+            public boolean write(List<T> batch) {
+                if (batch.isEmpty()) {
+                    // Empty batches mark the end of the data
+                    return true;
+                }
+                if (closed) {
+                    throw new IllegalStateException("Reader closed before reaching the end of the data");
+                }
+                try {
+                    queue.put(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the reader", e);
+                }
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public boolean pre() {
+        thread = new Thread(this::runPtr, "ptr-reader");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    private void runPtr() {
+        try {
+            ptr.run();
+        } catch (ExecutionException e) {
+            exception = e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : new IllegalStateException(e.getCause());
+        } catch (RuntimeException e) {
+            exception = e;
+        } catch (Error e) {
+            exception = new IllegalStateException(e);
+        }
+        try {
+            queue.put(Collections.emptyList());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public List<T> read(int ignored) {
+        if (finished) {
+            return Collections.emptyList();
+        }
+        List<T> batch;
+        try {
+            batch = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the background ParallelTaskRunner", e);
+        }
+        if (batch.isEmpty()) {
+            finished = true;
+            if (exception != null) {
+                throw exception;
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public boolean close() {
+        closed = true;
+        if (thread != null) {
+            // If closed before reaching the end, the writer of the background runner might be waiting for space in the queue
+            try {
+                while (thread.isAlive()) {
+                    queue.clear();
+                    thread.join(100);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return true;
+    }
+}
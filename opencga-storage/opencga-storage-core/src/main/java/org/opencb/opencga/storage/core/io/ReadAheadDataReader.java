@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.storage.core.io;
+
+import org.opencb.commons.io.DataReader;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * DataReader that reads from the given reader in a background thread, keeping a bounded number of batches in memory.
+ *
+ * Used to run a sequential reading chain (e.g. decode, deduplicate and remap variants) in its own thread,
+ * so the reader thread of the {@link org.opencb.commons.run.ParallelTaskRunner} is free for other work.
+ * Batches are returned in the same order, with the size they were read with.
+ */
+public class ReadAheadDataReader<T> implements DataReader<T> {
+
+    private final DataReader<T> reader;
+    private final int batchSize;
+    private final BlockingQueue<List<T>> queue;
+    private volatile RuntimeException exception;
+    private Thread thread;
+    private boolean finished = false;
+
+    /**
+     * @param reader    Reader to read from in the background thread
+     * @param batchSize Size of the batches read
+     * @param capacity  Max number of batches read ahead
+     */
+    public ReadAheadDataReader(DataReader<T> reader, int batchSize, int capacity) {
+        this.reader = reader;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public boolean open() {
+        return reader.open();
+    }
+
+    @Override
+    public boolean pre() {
+        boolean pre = reader.pre();
+        thread = new Thread(this::readAll, "read-ahead");
+        thread.setDaemon(true);
+        thread.start();
+        return pre;
+    }
+
+    @Override
+    public List<T> read() {
+        return read(batchSize);
+    }
+
+    @Override
+    public List<T> read(int ignored) {
+        if (finished) {
+            return Collections.emptyList();
+        }
+        List<T> batch;
+        try {
+            batch = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the read ahead thread", e);
+        }
+        if (batch.isEmpty()) {
+            // End of data
+            finished = true;
+            if (exception != null) {
+                throw exception;
+            }
+        }
+        return batch;
+    }
+
+    private void readAll() {
+        try {
+            List<T> batch = reader.read(batchSize);
+            while (!batch.isEmpty()) {
+                queue.put(batch);
+                batch = reader.read(batchSize);
+            }
+        } catch (InterruptedException e) {
+            // Reader closed before reaching the end
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            exception = e;
+        } catch (Error e) {
+            exception = new IllegalStateException(e);
+        }
+        try {
+            queue.put(Collections.emptyList());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean post() {
+        return reader.post();
+    }
+
+    @Override
+    public boolean close() {
+        if (thread != null && thread.isAlive()) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return reader.close();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.storage.core.io;
+
+import org.opencb.commons.io.DataWriter;
+import org.opencb.commons.run.Task;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DataWriter that applies a task to each batch before writing it.
+ *
+ * Used with a sorted {@link org.opencb.commons.run.ParallelTaskRunner} to run stateful tasks
+ * over the ordered output of the parallel tasks, in the writer thread.
+ */
+public class TaskDataWriter<I, O> implements DataWriter<I> {
+
+    private final Task<I, O> task;
+    private final DataWriter<O> writer;
+
+    public TaskDataWriter(Task<I, O> task, DataWriter<O> writer) {
+        this.task = task;
+        this.writer = writer;
+    }
+
+    @Override
+    public boolean open() {
+        return writer.open();
+    }
+
+    @Override
+    public boolean pre() {
+        try {
+            task.pre();
+        } catch (Exception e) {
+            throw wrap(e);
+        }
+        return writer.pre();
+    }
+
+    @Override
+    public boolean write(I elem) {
+        return write(Collections.singletonList(elem));
+    }
+
+    @Override
+    public boolean write(List<I> batch) {
+        List<O> result;
+        try {
+            result = task.apply(batch);
+        } catch (Exception e) {
+            throw wrap(e);
+        }
+        return result.isEmpty() || writer.write(result);
+    }
+
+    @Override
+    public boolean post() {
+        try {
+            List<O> drain = task.drain();
+            if (!drain.isEmpty()) {
+                writer.write(drain);
+            }
+            task.post();
+        } catch (Exception e) {
+            throw wrap(e);
+        }
+        return writer.post();
+    }
+
+    @Override
+    public boolean close() {
+        return writer.close();
+    }
+
+    private static RuntimeException wrap(Exception e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        } else {
+            return new IllegalStateException(e);
+        }
+    }
+}
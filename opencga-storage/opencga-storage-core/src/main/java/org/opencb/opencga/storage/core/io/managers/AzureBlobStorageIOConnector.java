@@ -9,7 +9,6 @@ import org.apache.commons.lang3.time.StopWatch;
 import org.apache.log4j.Level;
 import org.opencb.commons.datastore.core.ObjectMap;
 import org.opencb.opencga.core.common.TimeUtils;
-import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,16 +19,13 @@ import java.net.URI;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousFileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.security.InvalidKeyException;
-import java.util.Iterator;
-import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -39,8 +35,14 @@ import java.util.stream.Collectors;
  */
 public class AzureBlobStorageIOConnector implements IOConnector {
 
+    public static final int DEFAULT_NUM_THREADS = 4;
+    public static final int DEFAULT_PART_SIZE = 8 * 1024 * 1024;
+
     private final String accountName;
     private final String accountKey;
+    // Concurrent range requests and block uploads per file
+    private final int numThreads;
+    private final int partSize;
     private ServiceURL serviceURL;
     protected static Logger logger = LoggerFactory.getLogger(AzureBlobStorageIOConnector.class);
 
@@ -51,11 +53,15 @@ public class AzureBlobStorageIOConnector implements IOConnector {
     public AzureBlobStorageIOConnector(ObjectMap options) {
         accountName = options.getString("accountName");
         accountKey = options.getString("accountKey");
+        numThreads = options.getInt("numThreads", DEFAULT_NUM_THREADS);
+        partSize = options.getInt("partSize", DEFAULT_PART_SIZE);
     }
 
     public AzureBlobStorageIOConnector(String azureStorageAccount, String azureStorageAccessKey) {
         accountName = azureStorageAccount;
         accountKey = azureStorageAccessKey;
+        numThreads = DEFAULT_NUM_THREADS;
+        partSize = DEFAULT_PART_SIZE;
     }
 
     @Override
@@ -128,9 +134,42 @@ public class AzureBlobStorageIOConnector implements IOConnector {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Read a blob. Blobs larger than the part size are read with concurrent range requests.
+     *
+     * The first part is always downloaded with a single range request. The size of the blob is obtained from the
+     * Content-Range header of that response, so small blobs are read without any extra request.
+     *
+     * @param uri Blob
+     * @return InputStream
+     * @throws IOException on IO error
+     */
     @Override
     public InputStream newInputStreamRaw(URI uri) throws IOException {
         BlobURL blobURL = createBlobURL(uri);
+        if (numThreads > 1) {
+            DownloadResponse response;
+            try {
+                BlobRange range = new BlobRange().withOffset(0).withCount((long) partSize);
+                response = blobURL.download(range, null, false, null).blockingGet();
+            } catch (StorageException e) {
+                if (!StorageErrorCode.INVALID_RANGE.equals(e.errorCode())) {
+                    throw e;
+                }
+                // Empty blobs do not accept range requests. Download the whole blob.
+                response = null;
+            }
+            if (response != null) {
+                InputStream firstPart = new AzureBlobInputStream(response.body(null).blockingIterable().iterator());
+                long size = getBlobSize(response.headers());
+                if (size > partSize) {
+                    return new SequenceInputStream(firstPart,
+                            new ParallelRangeInputStream(this, uri, partSize, size, numThreads, partSize));
+                } else {
+                    return firstPart;
+                }
+            }
+        }
 
         Single<DownloadResponse> download = blobURL.download();
         Flowable<ByteBuffer> body = download.blockingGet().body(null);
@@ -139,9 +178,89 @@ public class AzureBlobStorageIOConnector implements IOConnector {
         return new AzureBlobInputStream(byteBuffers);
     }
 
+    private static long getBlobSize(BlobDownloadHeaders headers) {
+        // Content-Range: bytes <start>-<end>/<size>
+        String contentRange = headers.contentRange();
+        if (StringUtils.isEmpty(contentRange) || !contentRange.contains("/")) {
+            return headers.contentLength();
+        }
+        return Long.parseLong(contentRange.substring(contentRange.lastIndexOf('/') + 1).trim());
+    }
+
+    @Override
+    public InputStream newInputStreamRaw(URI uri, long offset, long length) throws IOException {
+        BlobURL blobURL = createBlobURL(uri);
+
+        BlobRange range = new BlobRange().withOffset(offset).withCount(length);
+        Single<DownloadResponse> download = blobURL.download(range, null, false, null);
+        Flowable<ByteBuffer> body = download.blockingGet().body(null);
+        Iterator<ByteBuffer> byteBuffers = body.blockingIterable().iterator();
+
+        return new AzureBlobInputStream(byteBuffers);
+    }
+
     @Override
     public OutputStream newOutputStreamRaw(URI uri) throws IOException {
-        return new AzureBlobOutputStream(createBlobURL(uri).toBlockBlobURL());
+        return new ParallelMultipartOutputStream(newMultipartUpload(uri), numThreads, partSize);
+    }
+
+    @Override
+    public boolean isMultipartUploadSupported(URI uri) {
+        return true;
+    }
+
+    /**
+     * Upload a blob staging each part as a block. The blob is created when the list of blocks is committed.
+     * Uncommitted blocks are discarded by the service, so there is nothing to do on abort.
+     *
+     * @param uri Blob
+     * @return MultipartUpload
+     * @throws IOException on IO error
+     */
+    @Override
+    public MultipartUpload newMultipartUpload(URI uri) throws IOException {
+        BlockBlobURL blockBlobURL = createBlobURL(uri).toBlockBlobURL();
+        Set<Integer> stagedParts = ConcurrentHashMap.newKeySet();
+        return new MultipartUpload() {
+            @Override
+            public void uploadPart(int partNumber, long offset, ByteBuffer data) throws IOException {
+                if (!data.hasRemaining()) {
+                    // Empty blocks are not allowed
+                    return;
+                }
+                try {
+                    blockBlobURL.stageBlock(getBlockId(partNumber), Flowable.just(data), data.remaining()).blockingGet();
+                } catch (StorageException e) {
+                    throw new IOException("Problem uploading block " + partNumber + " of " + uri + ". ErrorCode: " + e.errorCode(), e);
+                }
+                stagedParts.add(partNumber);
+            }
+
+            @Override
+            public void complete(int numParts) throws IOException {
+                List<String> blockIds = new ArrayList<>(numParts);
+                for (int partNumber = 0; partNumber < numParts; partNumber++) {
+                    if (stagedParts.contains(partNumber)) {
+                        blockIds.add(getBlockId(partNumber));
+                    }
+                }
+                try {
+                    blockBlobURL.commitBlockList(blockIds).blockingGet();
+                } catch (StorageException e) {
+                    throw new IOException("Problem committing blocks of " + uri + ". ErrorCode: " + e.errorCode(), e);
+                }
+            }
+
+            @Override
+            public void abort() {
+                // Nothing to do
+            }
+        };
+    }
+
+    private static String getBlockId(int partNumber) {
+        // All the block ids of a blob must have the same length
+        return Base64.getEncoder().encodeToString(String.format("%08d", partNumber).getBytes(StandardCharsets.UTF_8));
     }
 
     public OutputStream newOutputStreamLocalScratch(Path localScratch, URI uri) throws IOException {
@@ -328,99 +447,4 @@ public class AzureBlobStorageIOConnector implements IOConnector {
             return 1;
         }
     }
-
-    /**
-     * OutputStream that generates a Flowable of ByteBuffer.
-     */
-    private static class AzureBlobOutputStream extends OutputStream {
-        private static final int BLOCK_SIZE = 8 * 1024 * 1024;
-        private final ArrayBlockingQueue<CompletableFuture<ByteBuffer>> queue;
-        private final Thread thread;
-        private CompletableFuture<ByteBuffer> currentFuture;
-        private ByteBuffer byteBuffer;
-
-        AzureBlobOutputStream(BlockBlobURL blockBlobURL) {
-            queue = new ArrayBlockingQueue<>(10);
-            byteBuffer = ByteBuffer.allocate(BLOCK_SIZE);
-            currentFuture = new CompletableFuture<>();
-            queue.add(currentFuture);
-
-            Flowable<ByteBuffer> flowable = Flowable.concat(() ->
-                    new Iterator<Publisher<? extends ByteBuffer>>() {
-                        @Override
-                        public boolean hasNext() {
-                            return !queue.isEmpty();
-                        }
-
-                        @Override
-                        public Flowable<ByteBuffer> next() {
-                            CompletableFuture<ByteBuffer> future = queue.poll();
-                            if (future == null) {
-                                throw new NoSuchElementException();
-                            }
-                            return Flowable.fromFuture(future);
-                        }
-                    });
-            Single<BlockBlobCommitBlockListResponse> single =
-                    TransferManager.uploadFromNonReplayableFlowable(flowable, blockBlobURL, BLOCK_SIZE, 5, null);
-
-            // Use blockingGet in a Thread so we can join the thread at OutputStream.close()
-            thread = new Thread(single::blockingGet);
-            thread.start();
-
-//            single.subscribeOn(Schedulers.newThread())
-//                    .observeOn(Schedulers.single())
-//                    .subscribe(System.out::println, Throwable::printStackTrace);
-        }
-
-        @Override
-        public void write(int b) throws IOException {
-            if (byteBuffer.capacity() == 0) {
-                flush();
-            }
-            byteBuffer.put((byte) b);
-        }
-
-        @Override
-        public synchronized void write(byte[] b, int off, int len) throws IOException {
-            while (len > byteBuffer.remaining()) {
-                int remaining = byteBuffer.remaining();
-                byteBuffer.put(b, off, remaining);
-                off += remaining;
-                len -= remaining;
-                flush();
-            }
-            byteBuffer.put(b, off, len);
-        }
-
-        @Override
-        public void close() throws IOException {
-            super.close();
-            completeCurrentFuture();
-            try {
-                thread.join();
-            } catch (InterruptedException e) {
-                throw new IOException(e);
-            }
-        }
-
-        @Override
-        public synchronized void flush() throws IOException {
-            CompletableFuture<ByteBuffer> nextFuture = new CompletableFuture<>();
-            try {
-                queue.offer(nextFuture, 30, TimeUnit.MINUTES);
-            } catch (InterruptedException e) {
-                throw new IOException(e);
-            }
-            completeCurrentFuture();
-            currentFuture = nextFuture;
-            byteBuffer = ByteBuffer.allocate(BLOCK_SIZE);
-        }
-
-        protected void completeCurrentFuture() {
-            byteBuffer.limit(byteBuffer.position());
-            byteBuffer.position(0);
-            currentFuture.complete(byteBuffer);
-        }
-    }
 }
@@ -1,10 +1,12 @@
 package org.opencb.opencga.storage.core.io.managers;
 
+import org.apache.commons.io.input.BoundedInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xerial.snappy.SnappyInputStream;
 import org.xerial.snappy.SnappyOutputStream;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -39,8 +41,85 @@ public interface IOConnector {
         return inputStream;
     }
 
+    /**
+     * Read a range of bytes from a file.
+     * Connectors to remote storages should override this method to request only the given range.
+     *
+     * @param uri    File
+     * @param offset Position of the first byte to read
+     * @param length Number of bytes to read
+     * @return InputStream with the bytes of the range
+     * @throws IOException on IO error
+     */
+    default InputStream newInputStreamRaw(URI uri, long offset, long length) throws IOException {
+        InputStream inputStream = newInputStreamRaw(uri);
+        long skipped = 0;
+        while (skipped < offset) {
+            long n = inputStream.skip(offset - skipped);
+            if (n <= 0) {
+                if (inputStream.read() < 0) {
+                    inputStream.close();
+                    throw new EOFException("Offset " + offset + " out of file " + uri);
+                }
+                n = 1;
+            }
+            skipped += n;
+        }
+        return new BoundedInputStream(inputStream, length);
+    }
+
+    /**
+     * Read a file fetching multiple ranges concurrently, with read-ahead.
+     *
+     * @param uri        File
+     * @param numThreads Number of concurrent range requests
+     * @param partSize   Size of each range
+     * @return InputStream
+     * @throws IOException on IO error
+     */
+    default InputStream newParallelInputStreamRaw(URI uri, int numThreads, int partSize) throws IOException {
+        long size = size(uri);
+        if (numThreads <= 1 || size <= partSize) {
+            return newInputStreamRaw(uri);
+        }
+        return new ParallelRangeInputStream(this, uri, size, numThreads, partSize);
+    }
+
     OutputStream newOutputStreamRaw(URI uri) throws IOException;
 
+    default boolean isMultipartUploadSupported(URI uri) {
+        return false;
+    }
+
+    /**
+     * Start a multipart upload.
+     *
+     * @param uri File to write
+     * @return MultipartUpload
+     * @throws IOException on IO error
+     * @throws UnsupportedOperationException if the connector does not support multipart uploads
+     */
+    default MultipartUpload newMultipartUpload(URI uri) throws IOException {
+        throw new UnsupportedOperationException("Multipart upload not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Write a file uploading multiple parts concurrently, if supported by the connector.
+     *
+     * @param uri        File to write
+     * @param numThreads Number of concurrent part uploads
+     * @param partSize   Size of each part
+     * @return OutputStream
+     * @throws IOException on IO error
+     */
+    default OutputStream newParallelOutputStreamRaw(URI uri, int numThreads, int partSize) throws IOException {
+        if (isMultipartUploadSupported(uri)) {
+            return new ParallelMultipartOutputStream(newMultipartUpload(uri), numThreads, partSize);
+        } else {
+            return newOutputStreamRaw(uri);
+        }
+    }
+
     default OutputStream newOutputStream(URI uri) throws IOException {
         Logger logger = LoggerFactory.getLogger(IOConnector.class);
         OutputStream outputStream = newOutputStreamRaw(uri);
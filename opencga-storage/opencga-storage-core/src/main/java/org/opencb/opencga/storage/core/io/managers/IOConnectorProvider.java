@@ -135,11 +135,40 @@ public class IOConnectorProvider implements IOConnector {
         return get(uri).newInputStream(uri);
     }
 
+    @Override
+    public InputStream newInputStreamRaw(URI uri, long offset, long length) throws IOException {
+        return get(uri).newInputStreamRaw(uri, offset, length);
+    }
+
+    @Override
+    public InputStream newParallelInputStreamRaw(URI uri, int numThreads, int partSize) throws IOException {
+        return get(uri).newParallelInputStreamRaw(uri, numThreads, partSize);
+    }
+
     @Override
     public OutputStream newOutputStreamRaw(URI uri) throws IOException {
         return get(uri).newOutputStreamRaw(uri);
     }
 
+    @Override
+    public boolean isMultipartUploadSupported(URI uri) {
+        try {
+            return get(uri).isMultipartUploadSupported(uri);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public MultipartUpload newMultipartUpload(URI uri) throws IOException {
+        return get(uri).newMultipartUpload(uri);
+    }
+
+    @Override
+    public OutputStream newParallelOutputStreamRaw(URI uri, int numThreads, int partSize) throws IOException {
+        return get(uri).newParallelOutputStreamRaw(uri, numThreads, partSize);
+    }
+
     @Override
     public OutputStream newOutputStream(URI uri) throws IOException {
         return get(uri).newOutputStream(uri);
@@ -1,14 +1,21 @@
 package org.opencb.opencga.storage.core.io.managers;
 
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.solr.common.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
 import java.net.URI;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 /**
  * Created on 01/05/19.
@@ -28,11 +35,57 @@ public class LocalIOConnector implements IOConnector {
         return Files.newInputStream(getPath(uri));
     }
 
+    @Override
+    public InputStream newInputStreamRaw(URI uri, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(getPath(uri), StandardOpenOption.READ);
+        channel.position(offset);
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
     @Override
     public OutputStream newOutputStreamRaw(URI uri) throws IOException {
         return Files.newOutputStream(getPath(uri));
     }
 
+    @Override
+    public boolean isMultipartUploadSupported(URI uri) {
+        return true;
+    }
+
+    /**
+     * Parts are written concurrently using positional writes.
+     *
+     * @param uri File to write
+     * @return MultipartUpload
+     * @throws IOException on IO error
+     */
+    @Override
+    public MultipartUpload newMultipartUpload(URI uri) throws IOException {
+        Path path = getPath(uri);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new MultipartUpload() {
+            @Override
+            public void uploadPart(int partNumber, long offset, ByteBuffer data) throws IOException {
+                long position = offset;
+                while (data.hasRemaining()) {
+                    position += channel.write(data, position);
+                }
+            }
+
+            @Override
+            public void complete(int numParts) throws IOException {
+                channel.close();
+            }
+
+            @Override
+            public void abort() throws IOException {
+                channel.close();
+                Files.deleteIfExists(path);
+            }
+        };
+    }
+
     @Override
     public boolean exists(URI uri) throws IOException {
         return Files.exists(getPath(uri));
@@ -78,26 +131,21 @@ public class LocalIOConnector implements IOConnector {
 
     @Override
     public String md5(URI uri) throws IOException {
-        String checksum;
+        MessageDigest md5;
         try {
-            String[] command = {"md5sum", uri.getPath()};
-            logger.debug("command = {} {}", command[0], command[1]);
-            Process p = Runtime.getRuntime().exec(command);
-            BufferedReader br = new BufferedReader(new InputStreamReader(p.getInputStream()));
-            checksum = br.readLine();
-
-            if (p.waitFor() != 0) {
-                //TODO: Handle error in checksum
-                logger.info("checksum = " + checksum);
-                br = new BufferedReader(new InputStreamReader(p.getErrorStream()));
-                throw new IOException("md5sum failed with exit value : " + p.exitValue() + ". ERROR: " + br.readLine());
-            }
-        } catch (InterruptedException e) {
-            //TODO: Handle error in checksum
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
             throw new IOException("Checksum error in file " + uri, e);
         }
-
-        return checksum.split(" ")[0];
+        try (FileChannel channel = FileChannel.open(getPath(uri), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                md5.update(buffer);
+                buffer.clear();
+            }
+        }
+        return String.format("%032x", new BigInteger(1, md5.digest()));
     }
 
     protected Path getPath(URI uri) {
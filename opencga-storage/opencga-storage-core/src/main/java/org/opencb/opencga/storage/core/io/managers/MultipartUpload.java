@@ -0,0 +1,37 @@
+package org.opencb.opencga.storage.core.io.managers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Upload of a file split in multiple parts. Parts can be uploaded concurrently and in any order.
+ * The content of the file is not complete until the upload is completed.
+ */
+public interface MultipartUpload {
+
+    /**
+     * Upload one part of the file. Must be thread safe.
+     *
+     * @param partNumber Part number, starting from 0
+     * @param offset     Position of the part in the file
+     * @param data       Content of the part
+     * @throws IOException on IO error
+     */
+    void uploadPart(int partNumber, long offset, ByteBuffer data) throws IOException;
+
+    /**
+     * Complete the upload. All the parts must be uploaded.
+     *
+     * @param numParts Number of parts
+     * @throws IOException on IO error
+     */
+    void complete(int numParts) throws IOException;
+
+    /**
+     * Abort the upload, discarding any uploaded part.
+     *
+     * @throws IOException on IO error
+     */
+    void abort() throws IOException;
+
+}
@@ -0,0 +1,135 @@
+package org.opencb.opencga.storage.core.io.managers;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OutputStream that splits the content in parts of a fixed size, uploaded concurrently using a {@link MultipartUpload}.
+ *
+ * Up to two parts per thread might be waiting to be uploaded. Memory usage is bounded to numThreads * 2 * partSize.
+ * If any part fails, the upload is aborted when closing the stream.
+ */
+public class ParallelMultipartOutputStream extends OutputStream {
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final MultipartUpload upload;
+    private final int partSize;
+    private final ExecutorService executor;
+    private final Semaphore pendingParts;
+    private final List<Future<?>> futures = new LinkedList<>();
+    private ByteBuffer buffer;
+    private int numParts = 0;
+    private boolean closed = false;
+
+    public ParallelMultipartOutputStream(MultipartUpload upload, int numThreads, int partSize) {
+        this.upload = upload;
+        this.partSize = partSize;
+        this.executor = Executors.newFixedThreadPool(numThreads, r -> {
+            Thread thread = new Thread(r, "multipart-upload-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pendingParts = new Semaphore(numThreads * 2);
+        this.buffer = ByteBuffer.allocate(partSize);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            uploadPart();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (!buffer.hasRemaining()) {
+                uploadPart();
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.put(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (buffer.position() > 0 || numParts == 0) {
+                uploadPart();
+            }
+            for (Future<?> future : futures) {
+                getPartResult(future);
+            }
+            upload.complete(numParts);
+        } catch (IOException | RuntimeException e) {
+            try {
+                upload.abort();
+            } catch (IOException | RuntimeException abortException) {
+                e.addSuppressed(abortException);
+            }
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void uploadPart() throws IOException {
+        // Fail fast if any previous part failed
+        for (Iterator<Future<?>> iterator = futures.iterator(); iterator.hasNext();) {
+            Future<?> future = iterator.next();
+            if (future.isDone()) {
+                getPartResult(future);
+                iterator.remove();
+            }
+        }
+        try {
+            pendingParts.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading part " + numParts);
+        }
+        buffer.flip();
+        ByteBuffer data = buffer;
+        int partNumber = numParts++;
+        long offset = ((long) partNumber) * partSize;
+        futures.add(executor.submit(() -> {
+            try {
+                upload.uploadPart(partNumber, offset, data);
+            } finally {
+                pendingParts.release();
+            }
+            return null;
+        }));
+        buffer = ByteBuffer.allocate(partSize);
+    }
+
+    private void getPartResult(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading parts");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else {
+                throw new IOException("Error uploading part", e.getCause());
+            }
+        }
+    }
+}
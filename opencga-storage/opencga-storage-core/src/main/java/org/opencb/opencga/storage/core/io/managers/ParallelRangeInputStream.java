@@ -0,0 +1,147 @@
+package org.opencb.opencga.storage.core.io.managers;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * InputStream that reads a file as a sequence of ranges fetched concurrently.
+ *
+ * Up to two ranges per thread are fetched ahead of the current read position.
+ * Memory usage is bounded to numThreads * 2 * partSize.
+ */
+public class ParallelRangeInputStream extends InputStream {
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final IOConnector ioConnector;
+    private final URI uri;
+    private final long size;
+    private final int partSize;
+    private final int maxPendingParts;
+    private final ExecutorService executor;
+    private final Queue<Future<byte[]>> pendingParts;
+    private long nextOffset;
+    private byte[] part = new byte[0];
+    private int partPosition = 0;
+
+    public ParallelRangeInputStream(IOConnector ioConnector, URI uri, long size, int numThreads, int partSize) {
+        this(ioConnector, uri, 0, size, numThreads, partSize);
+    }
+
+    /**
+     * @param ioConnector IOConnector used to read each range
+     * @param uri         File to read
+     * @param offset      Position of the file where to start reading
+     * @param size        Size of the file
+     * @param numThreads  Concurrent range requests
+     * @param partSize    Size of each range
+     */
+    public ParallelRangeInputStream(IOConnector ioConnector, URI uri, long offset, long size, int numThreads, int partSize) {
+        this.ioConnector = ioConnector;
+        this.uri = uri;
+        this.size = size;
+        this.partSize = partSize;
+        this.maxPendingParts = numThreads * 2;
+        this.executor = Executors.newFixedThreadPool(numThreads, r -> {
+            Thread thread = new Thread(r, "range-reader-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pendingParts = new ArrayDeque<>(maxPendingParts);
+        this.nextOffset = offset;
+    }
+
+    @Override
+    public int read() throws IOException {
+        while (partPosition >= part.length) {
+            if (!nextPart()) {
+                return -1;
+            }
+        }
+        return part[partPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (partPosition >= part.length) {
+            if (!nextPart()) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, part.length - partPosition);
+        System.arraycopy(part, partPosition, b, off, n);
+        partPosition += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return part.length - partPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        pendingParts.clear();
+    }
+
+    private boolean nextPart() throws IOException {
+        submitParts();
+        Future<byte[]> future = pendingParts.poll();
+        if (future == null) {
+            return false;
+        }
+        try {
+            part = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading " + uri);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else {
+                throw new IOException("Error reading " + uri, e.getCause());
+            }
+        }
+        partPosition = 0;
+        submitParts();
+        return true;
+    }
+
+    private void submitParts() {
+        while (nextOffset < size && pendingParts.size() < maxPendingParts) {
+            long offset = nextOffset;
+            int length = (int) Math.min(partSize, size - offset);
+            pendingParts.add(executor.submit(() -> readPart(offset, length)));
+            nextOffset += length;
+        }
+    }
+
+    private byte[] readPart(long offset, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        try (InputStream is = ioConnector.newInputStreamRaw(uri, offset, length)) {
+            int read = 0;
+            while (read < length) {
+                int n = is.read(bytes, read, length - read);
+                if (n < 0) {
+                    throw new EOFException("Unexpected end of file " + uri + " reading " + length + " bytes at offset " + offset);
+                }
+                read += n;
+            }
+        }
+        return bytes;
+    }
+}
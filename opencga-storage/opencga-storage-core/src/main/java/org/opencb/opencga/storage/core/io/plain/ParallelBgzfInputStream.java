@@ -0,0 +1,273 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.storage.core.io.plain;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decompress BGZF files (blocked gzip, as produced by bgzip) inflating multiple blocks concurrently.
+ *
+ * Compressed blocks are read sequentially from the underlying stream, inflated by a pool of threads,
+ * and returned in the original order. Use {@link #isBgzf(InputStream)} to check if a stream can be read with this class.
+ */
+public class ParallelBgzfInputStream extends InputStream {
+
+    private static final int GZIP_ID1 = 31;
+    private static final int GZIP_ID2 = 139;
+    private static final int GZIP_CM_DEFLATE = 8;
+    private static final int GZIP_FLG_FEXTRA = 4;
+    private static final int GZIP_FIXED_HEADER_SIZE = 12;
+    private static final int BGZF_HEADER_SIZE = 18;
+    private static final int GZIP_FOOTER_SIZE = 8;
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final InputStream is;
+    private final ExecutorService executor;
+    private final int maxPendingBlocks;
+    private final Queue<Future<byte[]>> pendingBlocks;
+    private byte[] block = new byte[0];
+    private int blockPosition = 0;
+    private boolean endOfInput = false;
+
+    public ParallelBgzfInputStream(InputStream is, int numThreads) {
+        this.is = is;
+        this.executor = Executors.newFixedThreadPool(numThreads, r -> {
+            Thread thread = new Thread(r, "bgzf-inflater-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxPendingBlocks = numThreads * 4;
+        this.pendingBlocks = new ArrayDeque<>(maxPendingBlocks);
+    }
+
+    /**
+     * Check if the stream starts with a BGZF block. The stream is reset to its original position.
+     *
+     * @param is InputStream supporting mark and reset
+     * @return If the stream is in BGZF format
+     * @throws IOException if there is an error reading the stream
+     */
+    public static boolean isBgzf(InputStream is) throws IOException {
+        if (!is.markSupported()) {
+            throw new IllegalArgumentException("InputStream " + is.getClass() + " does not support mark");
+        }
+        byte[] header = new byte[BGZF_HEADER_SIZE];
+        is.mark(BGZF_HEADER_SIZE);
+        try {
+            return readFully(is, header, 0, header.length) == header.length
+                    && isGzipHeader(header)
+                    && readUnsignedShort(header, 10) == 6
+                    && header[12] == 'B'
+                    && header[13] == 'C'
+                    && readUnsignedShort(header, 14) == 2;
+        } finally {
+            is.reset();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        while (blockPosition >= block.length) {
+            if (!nextBlock()) {
+                return -1;
+            }
+        }
+        return block[blockPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (blockPosition >= block.length) {
+            if (!nextBlock()) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, block.length - blockPosition);
+        System.arraycopy(block, blockPosition, b, off, n);
+        blockPosition += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return block.length - blockPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        pendingBlocks.clear();
+        is.close();
+    }
+
+    private boolean nextBlock() throws IOException {
+        submitBlocks();
+        Future<byte[]> future = pendingBlocks.poll();
+        if (future == null) {
+            return false;
+        }
+        try {
+            block = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while inflating BGZF block");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else {
+                throw new IOException(e.getCause());
+            }
+        }
+        blockPosition = 0;
+        // Keep the inflater threads busy while this block is consumed
+        submitBlocks();
+        return true;
+    }
+
+    private void submitBlocks() throws IOException {
+        while (!endOfInput && pendingBlocks.size() < maxPendingBlocks) {
+            byte[] compressedBlock = readCompressedBlock();
+            if (compressedBlock == null) {
+                endOfInput = true;
+            } else {
+                pendingBlocks.add(executor.submit(() -> inflate(compressedBlock)));
+            }
+        }
+    }
+
+    /**
+     * Read the next block from the underlying stream, skipping the header.
+     *
+     * @return Compressed data followed by the gzip footer (CRC32 and ISIZE), or null if there are no more blocks.
+     * @throws IOException if the block is malformed
+     */
+    private byte[] readCompressedBlock() throws IOException {
+        byte[] header = new byte[GZIP_FIXED_HEADER_SIZE];
+        int read = readFully(is, header, 0, header.length);
+        if (read == 0) {
+            return null;
+        }
+        if (read < header.length || !isGzipHeader(header)) {
+            throw new IOException("Malformed BGZF block header");
+        }
+        int extraLength = readUnsignedShort(header, 10);
+        byte[] extra = new byte[extraLength];
+        readFully(extra);
+
+        int blockSize = -1;
+        int i = 0;
+        while (i + 4 <= extraLength) {
+            int subfieldLength = readUnsignedShort(extra, i + 2);
+            if (extra[i] == 'B' && extra[i + 1] == 'C' && subfieldLength == 2 && i + 6 <= extraLength) {
+                blockSize = readUnsignedShort(extra, i + 4) + 1;
+            }
+            i += 4 + subfieldLength;
+        }
+        if (blockSize < 0) {
+            throw new IOException("Missing BGZF block size. Not a BGZF file");
+        }
+        int remaining = blockSize - GZIP_FIXED_HEADER_SIZE - extraLength;
+        if (remaining < GZIP_FOOTER_SIZE) {
+            throw new IOException("Malformed BGZF block size " + blockSize);
+        }
+        byte[] compressedBlock = new byte[remaining];
+        readFully(compressedBlock);
+        return compressedBlock;
+    }
+
+    private static byte[] inflate(byte[] compressedBlock) throws IOException {
+        int compressedLength = compressedBlock.length - GZIP_FOOTER_SIZE;
+        long expectedCrc = readUnsignedInt(compressedBlock, compressedLength);
+        int size = (int) readUnsignedInt(compressedBlock, compressedLength + 4);
+
+        byte[] data = new byte[size];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressedBlock, 0, compressedLength);
+            int inflated = 0;
+            while (inflated < size) {
+                int n = inflater.inflate(data, inflated, size - inflated);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != size) {
+                throw new IOException("Truncated BGZF block. Expected " + size + " bytes, got " + inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Malformed BGZF block", e);
+        } finally {
+            inflater.end();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, size);
+        if (crc.getValue() != expectedCrc) {
+            throw new IOException("CRC mismatch in BGZF block");
+        }
+        return data;
+    }
+
+    private void readFully(byte[] b) throws IOException {
+        if (readFully(is, b, 0, b.length) != b.length) {
+            throw new IOException("Unexpected end of BGZF file");
+        }
+    }
+
+    private static int readFully(InputStream is, byte[] b, int off, int len) throws IOException {
+        int total = 0;
+        while (total < len) {
+            int n = is.read(b, off + total, len - total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    private static boolean isGzipHeader(byte[] header) {
+        return (header[0] & 0xFF) == GZIP_ID1
+                && (header[1] & 0xFF) == GZIP_ID2
+                && header[2] == GZIP_CM_DEFLATE
+                && (header[3] & GZIP_FLG_FEXTRA) != 0;
+    }
+
+    private static int readUnsignedShort(byte[] b, int off) {
+        return (b[off] & 0xFF) | ((b[off + 1] & 0xFF) << 8);
+    }
+
+    private static long readUnsignedInt(byte[] b, int off) {
+        return ((long) readUnsignedShort(b, off)) | (((long) readUnsignedShort(b, off + 2)) << 16);
+    }
+}
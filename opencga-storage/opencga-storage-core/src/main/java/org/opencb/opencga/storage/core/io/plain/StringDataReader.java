@@ -51,6 +51,7 @@ public class StringDataReader implements DataReader<String> {
     private BiConsumer<Long, Long> readLinesListener;
     private final InputStream is;
     private final boolean closeReader;
+    private int decompressThreads = 1;
 
     public StringDataReader(Path path) {
         this.path = Objects.requireNonNull(path);
@@ -98,8 +99,15 @@ public class StringDataReader implements DataReader<String> {
                     sizeInputStream = new SizeInputStream(new FileInputStream(path.toFile()), lastAvailable);
                 }
                 if (fileName.endsWith(".gz")) {
-                    logger.debug("Gzip input compress");
-                    this.reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(sizeInputStream)));
+                    InputStream gzipInputStream = new BufferedInputStream(sizeInputStream);
+                    if (decompressThreads > 1 && ParallelBgzfInputStream.isBgzf(gzipInputStream)) {
+                        logger.debug("BGZF input compress. Decompress using {} threads", decompressThreads);
+                        this.reader = new BufferedReader(new InputStreamReader(
+                                new ParallelBgzfInputStream(gzipInputStream, decompressThreads)));
+                    } else {
+                        logger.debug("Gzip input compress");
+                        this.reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(gzipInputStream)));
+                    }
                 } else if (fileName.endsWith(".snappy") || fileName.endsWith(".snz")) {
                     logger.debug("Snappy input compress");
                     this.reader = new BufferedReader(new InputStreamReader(new SnappyInputStream(sizeInputStream)));
@@ -191,6 +199,17 @@ public class StringDataReader implements DataReader<String> {
         return this;
     }
 
+    /**
+     * Number of threads used to decompress BGZF files. Other files are always decompressed sequentially.
+     *
+     * @param decompressThreads Number of threads
+     * @return this
+     */
+    public StringDataReader setDecompressThreads(int decompressThreads) {
+        this.decompressThreads = decompressThreads;
+        return this;
+    }
+
     public long getFileSize() throws IOException {
         if (path != null) {
             return Files.size(path);
@@ -989,17 +989,106 @@ public abstract class VariantStorageEngine extends StorageEngine<VariantDBAdapto
      * @return VariantQueryExecutor to use
      */
     public VariantQueryExecutor getVariantQueryExecutor(Query query, QueryOptions options) {
+        return getVariantQueryPlan(query, options).getSelectedExecutor();
+    }
+
+    /**
+     * Describe how the given query would be executed, without executing it.
+     *
+     * @param query   Query to explain
+     * @param options Options for the query
+     * @return A DataResult with the {@link VariantQueryPlan} of the query
+     */
+    public DataResult<VariantQueryPlan> explain(Query query, QueryOptions options) {
+        StopWatch watch = StopWatch.createStarted();
+        options = options == null ? new QueryOptions() : new QueryOptions(options);
+        query = query == null ? new Query() : new Query(query);
+        addDefaultLimit(options, getOptions());
+        addDefaultSampleLimit(query, getOptions());
+        query = preProcessQuery(query, options);
+        VariantQueryPlan plan = getVariantQueryPlan(query, options);
+        return new DataResult<>((int) watch.getTime(TimeUnit.MILLISECONDS), Collections.emptyList(), 1,
+                Collections.singletonList(plan), 1);
+    }
+
+    /**
+     * Build the {@link VariantQueryPlan} for the given query.
+     *
+     * Executors are evaluated in order. The first valid executor is selected, unless
+     * {@link VariantStorageOptions#QUERY_EXECUTOR_COST_BASED} is enabled and it is able to estimate its cost.
+     * In that case, the following valid executors that are also able to estimate their cost are compared, and the cheapest one
+     * is selected. The first valid executor without cost estimation ends the comparison.
+     * Estimations are only computed when there are at least two executors to compare.
+     *
+     * @param query   Query to execute
+     * @param options Options for the query
+     * @return VariantQueryPlan with the selected executor
+     */
+    protected VariantQueryPlan getVariantQueryPlan(Query query, QueryOptions options) {
+        boolean costBased = options.getBoolean(QUERY_EXECUTOR_COST_BASED.key(),
+                getOptions().getBoolean(QUERY_EXECUTOR_COST_BASED.key(), QUERY_EXECUTOR_COST_BASED.defaultValue()));
+        VariantQueryPlan plan = new VariantQueryPlan().setCostBased(costBased);
+        boolean compare = costBased;
+        VariantQueryExecutor selected = null;
+        VariantQueryPlan.Step selectedStep = null;
+        long selectedCost = VariantQueryExecutor.UNKNOWN_COST;
         try {
             for (VariantQueryExecutor executor : getVariantQueryExecutors()) {
-                if (executor.canUseThisExecutor(query, options)) {
-                    return executor;
+                VariantQueryPlan.Step step = plan.addStep(executor);
+                if (selected != null && !(compare && selected.canEstimateCost())) {
+                    // Executor not evaluated
+                    continue;
+                }
+                boolean eligible = executor.canUseThisExecutor(query, options);
+                step.setEligible(eligible);
+                if (!eligible) {
+                    continue;
+                }
+                if (selected == null) {
+                    selected = executor;
+                    selectedStep = step;
+                } else if (executor.canEstimateCost()) {
+                    if (selectedStep.getCost() == null) {
+                        selectedCost = estimateCost(selected, selectedStep, query, options);
+                    }
+                    if (selectedCost == VariantQueryExecutor.UNKNOWN_COST) {
+                        // Unable to estimate the cost of the selected executor. Keep the list order
+                        compare = false;
+                        continue;
+                    }
+                    long cost = estimateCost(executor, step, query, options);
+                    if (cost != VariantQueryExecutor.UNKNOWN_COST && cost < selectedCost) {
+                        selected = executor;
+                        selectedStep = step;
+                        selectedCost = cost;
+                    }
+                } else {
+                    // Stop comparing. Executors without cost estimation are only selected following the list order
+                    compare = false;
                 }
             }
         } catch (StorageEngineException e) {
             throw VariantQueryException.internalException(e);
         }
-        // This should never happen, as the DBAdaptorVariantQueryExecutor can always run the query
-        throw new IllegalStateException("No VariantQueryExecutor found to run the query!");
+        if (selected == null) {
+            // This should never happen, as the DBAdaptorVariantQueryExecutor can always run the query
+            throw new IllegalStateException("No VariantQueryExecutor found to run the query!");
+        }
+        plan.setSelectedExecutor(selected, selectedStep);
+        logger.debug("{}", plan);
+        return plan;
+    }
+
+    private long estimateCost(VariantQueryExecutor executor, VariantQueryPlan.Step step, Query query, QueryOptions options) {
+        long cost;
+        try {
+            cost = executor.estimateCost(query, options);
+        } catch (StorageEngineException | RuntimeException e) {
+            logger.warn("Unable to estimate cost of executor " + step.getExecutor(), e);
+            cost = VariantQueryExecutor.UNKNOWN_COST;
+        }
+        step.setCost(cost);
+        return cost;
     }
 
     public Query preProcessQuery(Query originalQuery, QueryOptions options) {
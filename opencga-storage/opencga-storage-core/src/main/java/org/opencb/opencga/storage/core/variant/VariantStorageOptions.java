@@ -18,13 +18,17 @@ public enum VariantStorageOptions implements ConfigurationOption {
 
     TRANSFORM_BATCH_SIZE("transform.batchSize", 200),
     TRANSFORM_THREADS("transform.numThreads", 4),
+    TRANSFORM_DECOMPRESS_THREADS("transform.decompress.numThreads", 2), // Only for BGZF input files
     TRANSFORM_FORMAT("transform.format", "avro"),
     TRANSFORM_FAIL_ON_MALFORMED_VARIANT("transform.failOnMalformed", false),
     TRANSFORM_COMPRESSION("transform.compression", "gzip"),
     TRANSFORM_ISOLATE("transform.isolate", false), // Do not store file in metadata
+    TRANSFORM_GVCF_PARALLEL_PARSE("transform.gvcf.parallelParse", false), // Reference blocks are still created sequentially
 
     LOAD_BATCH_SIZE("load.batchSize", 100),
     LOAD_THREADS("load.numThreads", 6),
+    LOAD_READ_AHEAD_BATCHES("load.readAhead.batches", 0), // Batches read and deduplicated ahead in a separate thread. 0 to disable
+    LOAD_CHECKPOINT_INTERVAL("load.checkpoint.interval", 60), // Seconds between checkpoints of the committed batches, to resume the load
     LOAD_SPLIT_DATA("load.splitData", false),
     POST_LOAD_CHECK_SKIP("postLoad.skipCheck", false),
 
@@ -40,6 +44,12 @@ public enum VariantStorageOptions implements ConfigurationOption {
     STATS_AGGREGATION("stats.aggregation.type", Aggregation.NONE),
     STATS_AGGREGATION_MAPPING_FILE("stats.aggregation.mappingFile"),
 
+    SCORE_LOAD_BATCH_SIZE("score.load.batchSize", 100),
+    SCORE_LOAD_THREADS("score.load.numThreads", 4),
+    SCORE_LOAD_DECOMPRESS_THREADS("score.load.decompress.numThreads", 2), // Only for BGZF input files
+
+    EXPORT_AVRO_THREADS("export.avro.numThreads", 4), // Threads encoding variants, when exporting in Avro format
+
     ANNOTATE("annotate", false), // Do annotate after step.
     ANNOTATION_BATCH_SIZE("annotation.batchSize", 100),
     ANNOTATION_FILE_FORMAT("annotation.file.format", "json"),
@@ -61,6 +71,9 @@ public enum VariantStorageOptions implements ConfigurationOption {
     QUERY_LIMIT_MAX("query.limit.max", 5000),
     QUERY_SAMPLE_LIMIT_DEFAULT("query.sample.limit.default", 100),
     QUERY_SAMPLE_LIMIT_MAX("query.sample.limit.max", 1000),
+    QUERY_EXECUTOR_COST_BASED("query.executor.costBased", false), // Select the VariantQueryExecutor with the lowest estimated cost.
+                                                                  // Experimental. Estimations from different executors are not
+                                                                  // measured in the same units.
 
     // Search intersect options
     INTERSECT_ACTIVE("search.intersect.active", true),                       // Allow intersect queries with the SearchEngine (Solr)
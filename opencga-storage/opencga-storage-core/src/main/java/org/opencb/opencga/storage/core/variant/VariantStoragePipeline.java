@@ -48,11 +48,16 @@ import org.opencb.opencga.core.common.UriUtils;
 import org.opencb.opencga.storage.core.StoragePipeline;
 import org.opencb.opencga.storage.core.config.StorageConfiguration;
 import org.opencb.opencga.storage.core.exceptions.StorageEngineException;
+import org.opencb.opencga.storage.core.io.CheckpointTracker;
+import org.opencb.opencga.storage.core.io.ReadAheadDataReader;
+import org.opencb.opencga.storage.core.io.ParallelTaskRunnerDataReader;
+import org.opencb.opencga.storage.core.io.TaskDataWriter;
 import org.opencb.opencga.storage.core.io.managers.IOConnectorProvider;
 import org.opencb.opencga.storage.core.io.plain.StringDataReader;
 import org.opencb.opencga.storage.core.io.plain.StringDataWriter;
 import org.opencb.opencga.storage.core.metadata.VariantStorageMetadataManager;
 import org.opencb.opencga.storage.core.metadata.models.StudyMetadata;
+import org.opencb.opencga.storage.core.metadata.models.TaskMetadata;
 import org.opencb.opencga.storage.core.variant.adaptors.VariantDBAdaptor;
 import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryUtils;
 import org.opencb.opencga.storage.core.variant.io.VariantReaderUtils;
@@ -69,6 +74,8 @@ import java.net.URI;
 import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -207,8 +214,11 @@ public abstract class VariantStoragePipeline implements StoragePipeline {
         String fileName = UriUtils.fileName(input);
         String studyId = String.valueOf(getStudyId());
         boolean generateReferenceBlocks = options.getBoolean(VariantStorageOptions.GVCF.key(), false);
-        // Do not run parallelParse when generating reference blocks, as the task is stateful
-        boolean parallelParse = !generateReferenceBlocks;
+        // The creation of reference blocks is stateful. To parse in parallel, reference blocks are created in the writer thread,
+        // over the sorted output of the parse tasks.
+        boolean parallelParse = !generateReferenceBlocks || options.getBoolean(
+                VariantStorageOptions.TRANSFORM_GVCF_PARALLEL_PARSE.key(),
+                VariantStorageOptions.TRANSFORM_GVCF_PARALLEL_PARSE.defaultValue());
 
         int batchSize = options.getInt(
                 VariantStorageOptions.TRANSFORM_BATCH_SIZE.key(),
@@ -271,6 +281,9 @@ public abstract class VariantStoragePipeline implements StoragePipeline {
         }
         ProgressLogger progressLogger = new ProgressLogger("Transforming file:", fileSize, 200);
         stringReader.setReadBytesListener((totalRead, delta) -> progressLogger.increment(delta, "Bytes"));
+        stringReader.setDecompressThreads(options.getInt(
+                VariantStorageOptions.TRANSFORM_DECOMPRESS_THREADS.key(),
+                VariantStorageOptions.TRANSFORM_DECOMPRESS_THREADS.defaultValue()));
 
         VariantSetStatsCalculator statsCalculator = new VariantSetStatsCalculator(studyId, metadata);
 
@@ -281,6 +294,19 @@ public abstract class VariantStoragePipeline implements StoragePipeline {
                 .setFailOnError(failOnError)
                 .addMalformedErrorHandler(malformedHandler)
                 .setIncludeSrc(false);
+        Supplier<Task<String, Variant>> parseTask;
+        Task<Variant, Variant> referenceBlocksTask;
+        if (parallelParse && generateReferenceBlocks) {
+            parseTask = () ->
+                    new VariantTransformTask(header.getKey(), header.getValue(), studyId, metadata, null, true, false)
+                    .setFailOnError(failOnError)
+                    .addMalformedErrorHandler(malformedHandler)
+                    .setIncludeSrc(false);
+            referenceBlocksTask = VariantTransformTask.newReferenceBlockCreatorTask(metadata).then(statsCalculator);
+        } else {
+            parseTask = task;
+            referenceBlocksTask = null;
+        }
 
         ParallelTaskRunner ptr;
         if ("avro".equals(format)) {
@@ -300,7 +326,7 @@ public abstract class VariantStoragePipeline implements StoragePipeline {
                 throw StorageEngineException.ioException(e);
             }
 
-            ptr = buildTransformPtr(parallelParse, stringReader, task, encoder, dataWriter, config);
+            ptr = buildTransformPtr(parallelParse, stringReader, parseTask, referenceBlocksTask, encoder, dataWriter, config);
         } else if ("json".equals(format)) {
             Supplier<Task<Variant, String>> encoder = () -> Task.forEach(Variant::toJson);
 
@@ -317,7 +343,7 @@ public abstract class VariantStoragePipeline implements StoragePipeline {
                 }
             }
 
-            ptr = buildTransformPtr(parallelParse, stringReader, task, encoder, dataWriter, config);
+            ptr = buildTransformPtr(parallelParse, stringReader, parseTask, referenceBlocksTask, encoder, dataWriter, config);
         } else if ("proto".equals(format)) {
             ptr = transformProto(metadata, outputVariantsFile, stringReader, task);
         } else {
@@ -352,15 +378,38 @@ public abstract class VariantStoragePipeline implements StoragePipeline {
         return outputVariantsFile;
     }
 
-    protected <W> ParallelTaskRunner<?, W> buildTransformPtr(boolean parallelParse,
+    protected <W> ParallelTaskRunner<?, ?> buildTransformPtr(boolean parallelParse,
                                                      DataReader<String> stringReader,
                                                      Supplier<Task<String, Variant>> task,
                                                      Supplier<Task<Variant, W>> encoder,
                                                      DataWriter<W> dataWriter,
                                                      ParallelTaskRunner.Config config) {
+        return buildTransformPtr(parallelParse, stringReader, task, null, encoder, dataWriter, config);
+    }
+
+    protected <W> ParallelTaskRunner<?, ?> buildTransformPtr(boolean parallelParse,
+                                                     DataReader<String> stringReader,
+                                                     Supplier<Task<String, Variant>> task,
+                                                     Task<Variant, Variant> sequentialTask,
+                                                     Supplier<Task<Variant, W>> encoder,
+                                                     DataWriter<W> dataWriter,
+                                                     ParallelTaskRunner.Config config) {
 
         logger.info("Multi thread transform... [1 reading, {} transforming, 1 writing]", config.getNumTasks());
-        if (parallelParse) {
+        if (parallelParse && sequentialTask != null) {
+            // Parse in parallel and run the sequential task in the writer thread, over the sorted output of the parse tasks.
+            // Then, encode in parallel in a second runner.
+            logger.info("Running {} in the writer thread of the parse tasks", sequentialTask.getClass().getSimpleName());
+            ParallelTaskRunnerDataReader<Variant> parsedReader = new ParallelTaskRunnerDataReader<>(
+                    writer -> new ParallelTaskRunner<>(stringReader, task, new TaskDataWriter<>(sequentialTask, writer), config),
+                    config.getNumTasks() * 2);
+            return new ParallelTaskRunner<Variant, W>(
+                    parsedReader,
+                    encoder,
+                    dataWriter,
+                    config
+            );
+        } else if (parallelParse) {
             return new ParallelTaskRunner<String, W>(
                     stringReader,
                     () -> task.get().then(encoder.get()),
@@ -414,6 +463,38 @@ public abstract class VariantStoragePipeline implements StoragePipeline {
         return input;
     }
 
+    /**
+     * Run the given reader in a separate thread, reading up to {@link VariantStorageOptions#LOAD_READ_AHEAD_BATCHES} batches ahead.
+     * Sequential steps chained to the reader (e.g. deduplication) are then executed out of the reader thread of the load.
+     *
+     * @param reader    Reader
+     * @param batchSize Batch size
+     * @param <T>       Type of the reader
+     * @return          The reader to use in the load
+     */
+    protected <T> DataReader<T> readAhead(DataReader<T> reader, int batchSize) {
+        int batches = options.getInt(LOAD_READ_AHEAD_BATCHES.key(), LOAD_READ_AHEAD_BATCHES.defaultValue());
+        if (batches > 0) {
+            return new ReadAheadDataReader<>(reader, batchSize, batches);
+        } else {
+            return reader;
+        }
+    }
+
+    /**
+     * Track the batches committed by a load, storing periodically a checkpoint in the given task,
+     * every {@link VariantStorageOptions#LOAD_CHECKPOINT_INTERVAL} seconds.
+     *
+     * @param task        Task of the load. Contains the checkpoint from a previous execution, if any.
+     * @param keyFunction Function to describe the last committed element
+     * @param <T>         Type of the reader
+     * @return            The checkpoint tracker
+     */
+    protected <T> CheckpointTracker<T> newCheckpointTracker(TaskMetadata task, Function<T, String> keyFunction) {
+        int interval = options.getInt(LOAD_CHECKPOINT_INTERVAL.key(), LOAD_CHECKPOINT_INTERVAL.defaultValue());
+        return new CheckpointTracker<>(getMetadataManager(), task, keyFunction, TimeUnit.SECONDS.toMillis(interval));
+    }
+
     /**
      * PreLoad step for modify the StudyMetadata and register the file to be loaded.
      * This step is executed inside a study lock.
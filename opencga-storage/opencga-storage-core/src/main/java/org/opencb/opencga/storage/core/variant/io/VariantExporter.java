@@ -22,12 +22,15 @@ import org.opencb.biodata.formats.variant.vcf4.io.VariantVcfReader;
 import org.opencb.biodata.models.metadata.Individual;
 import org.opencb.biodata.models.variant.Variant;
 import org.opencb.biodata.models.variant.VariantFileMetadata;
+import org.opencb.biodata.models.variant.avro.VariantAvro;
 import org.opencb.biodata.models.variant.metadata.VariantMetadata;
 import org.opencb.biodata.models.variant.metadata.VariantStudyMetadata;
 import org.opencb.commons.ProgressLogger;
 import org.opencb.commons.datastore.core.Query;
 import org.opencb.commons.datastore.core.QueryOptions;
 import org.opencb.commons.io.DataWriter;
+import org.opencb.commons.io.avro.AvroEncoder;
+import org.opencb.commons.io.avro.AvroFileWriter;
 import org.opencb.commons.run.ParallelTaskRunner;
 import org.opencb.commons.run.Task;
 import org.opencb.opencga.core.common.UriUtils;
@@ -35,6 +38,7 @@ import org.opencb.opencga.storage.core.exceptions.StorageEngineException;
 import org.opencb.opencga.storage.core.io.managers.IOConnectorProvider;
 import org.opencb.opencga.storage.core.metadata.VariantMetadataFactory;
 import org.opencb.opencga.storage.core.variant.VariantStorageEngine;
+import org.opencb.opencga.storage.core.variant.VariantStorageOptions;
 import org.opencb.opencga.storage.core.variant.io.VariantWriterFactory.VariantOutputFormat;
 import org.opencb.opencga.storage.core.variant.io.db.VariantDBReader;
 import org.slf4j.Logger;
@@ -43,10 +47,12 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Prints the result of a given query in the selected output format, and the associated metadata.
@@ -155,12 +161,36 @@ public class VariantExporter {
             progressTask = batch -> batch;
         }
 
-        // DataWriter
-        DataWriter<Variant> variantDataWriter = variantWriterFactory.newDataWriter(outputFormat, outputStream, query, queryOptions);
+        ParallelTaskRunner<Variant, ?> ptr;
+        if (outputFormat.isAvro()) {
+            // Encode variants in parallel, and write the encoded records straight into the avro file
+            String codecName = "";
+            if (outputFormat.isGzip()) {
+                codecName = "gzip";
+            } else if (outputFormat.isSnappy()) {
+                codecName = "snappy";
+            }
+            DataWriter<ByteBuffer> dataWriter = new AvroFileWriter<>(VariantAvro.getClassSchema(), codecName, outputStream);
+            Supplier<Task<Variant, ByteBuffer>> encoder = () -> progressTask
+                    .then(Task.forEach(Variant::getImpl))
+                    .then(new AvroEncoder<>(VariantAvro.getClassSchema(), true));
+            int numTasks = engine.getOptions().getInt(VariantStorageOptions.EXPORT_AVRO_THREADS.key(),
+                    VariantStorageOptions.EXPORT_AVRO_THREADS.defaultValue());
+
+            ParallelTaskRunner.Config config = ParallelTaskRunner.Config.builder()
+                    .setNumTasks(numTasks)
+                    .setBatchSize(100)
+                    .setSorted(true)
+                    .build();
+            ptr = new ParallelTaskRunner<>(variantDBReader, encoder, dataWriter, config);
+        } else {
+            // DataWriter
+            DataWriter<Variant> variantDataWriter = variantWriterFactory.newDataWriter(outputFormat, outputStream, query, queryOptions);
 
-        ParallelTaskRunner.Config config = ParallelTaskRunner.Config.builder().setNumTasks(1).setBatchSize(10).build();
+            ParallelTaskRunner.Config config = ParallelTaskRunner.Config.builder().setNumTasks(1).setBatchSize(10).build();
 
-        ParallelTaskRunner<Variant, Variant> ptr = new ParallelTaskRunner<>(variantDBReader, progressTask, variantDataWriter, config);
+            ptr = new ParallelTaskRunner<>(variantDBReader, progressTask, variantDataWriter, config);
+        }
         try {
             ptr.run();
         } catch (ExecutionException e) {
@@ -114,6 +114,10 @@ public class VariantWriterFactory {
             return extension.endsWith(".snappy");
         }
 
+        public boolean isAvro() {
+            return extension.startsWith("avro");
+        }
+
     }
 
     /**
@@ -0,0 +1,100 @@
+package org.opencb.opencga.storage.core.variant.io.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.commons.io.IOUtils;
+import org.opencb.commons.run.Task;
+import org.xerial.snappy.Snappy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decompress and decode raw blocks from an {@link AvroBlockReader}.
+ * Records are resolved from the schema used to write the file into the given reader schema.
+ *
+ * Not thread safe. Use one instance per thread.
+ */
+public class AvroBlockDecoderTask<T> implements Task<AvroBlockReader.Block, T> {
+
+    private final Schema readerSchema;
+    private Schema writerSchema;
+    private SpecificDatumReader<T> datumReader;
+    private BinaryDecoder decoder;
+    // Reused between blocks. Must be released with end() at post
+    private Inflater inflater;
+
+    public AvroBlockDecoderTask(Schema readerSchema) {
+        this.readerSchema = readerSchema;
+    }
+
+    @Override
+    public List<T> apply(List<AvroBlockReader.Block> blocks) throws IOException {
+        int size = 0;
+        for (AvroBlockReader.Block block : blocks) {
+            size += block.getCount();
+        }
+        List<T> records = new ArrayList<>(size);
+        for (AvroBlockReader.Block block : blocks) {
+            if (block.getSchema() != writerSchema) {
+                writerSchema = block.getSchema();
+                datumReader = new SpecificDatumReader<>(writerSchema, readerSchema);
+            }
+            byte[] data = decompress(block);
+            decoder = DecoderFactory.get().binaryDecoder(data, decoder);
+            for (long i = 0; i < block.getCount(); i++) {
+                records.add(datumReader.read(null, decoder));
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public void post() {
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+    }
+
+    private byte[] decompress(AvroBlockReader.Block block) throws IOException {
+        byte[] data = block.getData();
+        switch (block.getCodec()) {
+            case DataFileConstants.NULL_CODEC:
+                return data;
+            case DataFileConstants.DEFLATE_CODEC:
+                if (inflater == null) {
+                    inflater = new Inflater(true);
+                } else {
+                    inflater.reset();
+                }
+                // Closing the stream does not end the given inflater
+                try (InputStream is = new InflaterInputStream(new ByteArrayInputStream(data), inflater)) {
+                    return IOUtils.toByteArray(is);
+                }
+            case DataFileConstants.SNAPPY_CODEC:
+                // Snappy blocks end with the CRC32 of the uncompressed data
+                int length = data.length - 4;
+                byte[] uncompressed = new byte[Snappy.uncompressedLength(data, 0, length)];
+                Snappy.uncompress(data, 0, length, uncompressed, 0);
+                CRC32 crc32 = new CRC32();
+                crc32.update(uncompressed, 0, uncompressed.length);
+                if (ByteBuffer.wrap(data, length, 4).getInt() != (int) crc32.getValue()) {
+                    throw new IOException("Checksum failure");
+                }
+                return uncompressed;
+            default:
+                throw new IOException("Unsupported Avro codec " + block.getCodec());
+        }
+    }
+}
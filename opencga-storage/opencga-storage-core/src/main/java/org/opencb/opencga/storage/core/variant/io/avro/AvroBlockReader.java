@@ -0,0 +1,168 @@
+package org.opencb.opencga.storage.core.variant.io.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.opencb.commons.io.DataReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Reads the raw blocks of an Avro data file, without decompressing or decoding them.
+ *
+ * Blocks are independent, so they can be decompressed and decoded in parallel with {@link AvroBlockDecoderTask}.
+ */
+public class AvroBlockReader implements DataReader<AvroBlockReader.Block> {
+
+    private final InputStream inputStream;
+    private final boolean closeStream;
+    private final byte[] sync = new byte[DataFileConstants.SYNC_SIZE];
+    private final byte[] blockSync = new byte[DataFileConstants.SYNC_SIZE];
+    private BinaryDecoder decoder;
+    private Schema schema;
+    private String codec;
+    private final Map<String, byte[]> meta = new HashMap<>();
+
+    /**
+     * Raw block of an Avro data file.
+     */
+    public static class Block {
+        private final Schema schema;
+        private final String codec;
+        private final long count;
+        private final byte[] data;
+
+        public Block(Schema schema, String codec, long count, byte[] data) {
+            this.schema = schema;
+            this.codec = codec;
+            this.count = count;
+            this.data = data;
+        }
+
+        /**
+         * @return Schema used to write the records.
+         */
+        public Schema getSchema() {
+            return schema;
+        }
+
+        public String getCodec() {
+            return codec;
+        }
+
+        /**
+         * @return Number of records in the block.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return Compressed content of the block.
+         */
+        public byte[] getData() {
+            return data;
+        }
+    }
+
+    public AvroBlockReader(InputStream inputStream) {
+        this(inputStream, true);
+    }
+
+    public AvroBlockReader(InputStream inputStream, boolean closeStream) {
+        this.inputStream = Objects.requireNonNull(inputStream);
+        this.closeStream = closeStream;
+    }
+
+    @Override
+    public boolean open() {
+        decoder = DecoderFactory.get().binaryDecoder(inputStream, null);
+        try {
+            readHeader();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+
+    private void readHeader() throws IOException {
+        byte[] magic = new byte[DataFileConstants.MAGIC.length];
+        decoder.readFixed(magic);
+        if (!Arrays.equals(DataFileConstants.MAGIC, magic)) {
+            throw new IOException("Not an Avro data file");
+        }
+        long l = decoder.readMapStart();
+        while (l > 0) {
+            for (long i = 0; i < l; i++) {
+                String key = decoder.readString(null).toString();
+                ByteBuffer value = decoder.readBytes(null);
+                byte[] bytes = new byte[value.remaining()];
+                value.get(bytes);
+                meta.put(key, bytes);
+            }
+            l = decoder.mapNext();
+        }
+        decoder.readFixed(sync);
+
+        schema = new Schema.Parser().parse(new String(meta.get(DataFileConstants.SCHEMA), StandardCharsets.UTF_8));
+        byte[] codecBytes = meta.get(DataFileConstants.CODEC);
+        codec = codecBytes == null ? DataFileConstants.NULL_CODEC : new String(codecBytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return Schema used to write the file. Available after {@link #open}.
+     */
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @param key Metadata key
+     * @return Metadata value from the header of the file. Available after {@link #open}.
+     */
+    public byte[] getMeta(String key) {
+        return meta.get(key);
+    }
+
+    @Override
+    public List<Block> read(int batchSize) {
+        List<Block> blocks = new ArrayList<>(batchSize);
+        try {
+            while (blocks.size() < batchSize && !decoder.isEnd()) {
+                long count = decoder.readLong();
+                long size = decoder.readLong();
+                if (size > Integer.MAX_VALUE || size < 0) {
+                    throw new IOException("Invalid block size " + size);
+                }
+                byte[] data = new byte[(int) size];
+                decoder.readFixed(data);
+                decoder.readFixed(blockSync);
+                if (!Arrays.equals(sync, blockSync)) {
+                    throw new IOException("Invalid sync marker");
+                }
+                blocks.add(new Block(schema, codec, count, data));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return blocks;
+    }
+
+    @Override
+    public boolean close() {
+        if (closeStream) {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,303 @@
+package org.opencb.opencga.storage.core.variant.query;
+
+import org.apache.commons.lang3.StringUtils;
+import org.opencb.biodata.models.feature.Genotype;
+import org.opencb.biodata.models.variant.StudyEntry;
+import org.opencb.biodata.models.variant.Variant;
+import org.opencb.biodata.models.variant.avro.ConsequenceType;
+import org.opencb.biodata.models.variant.avro.SequenceOntologyTerm;
+import org.opencb.opencga.storage.core.variant.adaptors.iterators.VariantDBIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Streaming compound heterozygous filter.
+ *
+ * Consumes a sorted iterator of variants where the proband is heterozygous, and groups the candidates by transcript
+ * in a sliding window. A transcript group is completed once the input moves to another chromosome, or goes further than
+ * the maximum transcript length from the first variant of the group. Variants are returned in the same order as the input
+ * as soon as all the groups they belong to are completed, and only if any of those groups contains variants inherited
+ * from both parents.
+ *
+ * Memory usage is bounded by the number of candidate variants within the window.
+ */
+public class CompoundHeterozygousIterator extends VariantDBIterator {
+
+    public static final int DEFAULT_MAX_TRANSCRIPT_LENGTH = 2500000;
+
+    private static Logger logger = LoggerFactory.getLogger(CompoundHeterozygousIterator.class);
+
+    private final VariantDBIterator iterator;
+    private final String proband;
+    private final String father;
+    private final String mother;
+    private final Set<String> consequenceTypes;
+    private final Set<String> biotypes;
+    private final int maxTranscriptLength;
+
+    // Open groups, sorted by first position, as the input is sorted.
+    private final LinkedHashMap<String, TranscriptGroup> openGroups = new LinkedHashMap<>();
+    private final ArrayDeque<Candidate> pending = new ArrayDeque<>();
+    private final ArrayDeque<Variant> ready = new ArrayDeque<>();
+    private boolean finished = false;
+    private int count = 0;
+    private int maxPending = 0;
+
+    private enum Origin {
+        FATHER,
+        MOTHER
+    }
+
+    private static class Candidate {
+        private final Variant variant;
+        private int openGroups = 0;
+        private boolean selected = false;
+
+        Candidate(Variant variant) {
+            this.variant = variant;
+        }
+    }
+
+    private static class TranscriptGroup {
+        private final String chromosome;
+        private final int start;
+        private final List<Candidate> candidates = new ArrayList<>();
+        private boolean fromFather = false;
+        private boolean fromMother = false;
+
+        TranscriptGroup(String chromosome, int start) {
+            this.chromosome = chromosome;
+            this.start = start;
+        }
+    }
+
+    /**
+     * Create a new CompoundHeterozygousIterator.
+     *
+     * @param iterator            Sorted iterator of variants
+     * @param proband             Proband sample name
+     * @param father              Father sample name, or {@link CompoundHeterozygousQueryExecutor#MISSING_SAMPLE}
+     * @param mother              Mother sample name, or {@link CompoundHeterozygousQueryExecutor#MISSING_SAMPLE}
+     * @param consequenceTypes    Consequence types to consider. Empty for any
+     * @param biotypes            Transcript biotypes to consider. Empty for any
+     * @param maxTranscriptLength Maximum distance between two variants of the same transcript
+     */
+    public CompoundHeterozygousIterator(VariantDBIterator iterator, String proband, String father, String mother,
+                                        Set<String> consequenceTypes, Set<String> biotypes, int maxTranscriptLength) {
+        this.iterator = iterator;
+        this.proband = proband;
+        this.father = CompoundHeterozygousQueryExecutor.MISSING_SAMPLE.equals(father) ? null : father;
+        this.mother = CompoundHeterozygousQueryExecutor.MISSING_SAMPLE.equals(mother) ? null : mother;
+        if (this.father == null && this.mother == null) {
+            throw new IllegalArgumentException("Require at least one parent to get compound heterozygous");
+        }
+        this.consequenceTypes = consequenceTypes == null ? Collections.emptySet() : consequenceTypes;
+        this.biotypes = biotypes == null ? Collections.emptySet() : biotypes;
+        this.maxTranscriptLength = maxTranscriptLength;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (ready.isEmpty() && !finished) {
+            if (iterator.hasNext()) {
+                Variant variant = iterator.next();
+                closeGroups(variant.getChromosome(), variant.getStart());
+                addCandidate(variant);
+            } else {
+                closeGroups(null, 0);
+                finished = true;
+                logger.debug("Compound heterozygous: read {} variants, returned {}, max buffered {}",
+                        iterator.getCount(), count + ready.size(), maxPending);
+            }
+            drainPending();
+        }
+        return !ready.isEmpty();
+    }
+
+    @Override
+    public Variant next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        count++;
+        return ready.removeFirst();
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public long getTimeFetching() {
+        return iterator.getTimeFetching();
+    }
+
+    @Override
+    public long getTimeConverting() {
+        return iterator.getTimeConverting();
+    }
+
+    @Override
+    public void close() throws Exception {
+        super.close();
+        iterator.close();
+    }
+
+    private void addCandidate(Variant variant) {
+        Origin origin = getOrigin(variant);
+        if (origin == null || variant.getAnnotation() == null || variant.getAnnotation().getConsequenceTypes() == null) {
+            return;
+        }
+        Candidate candidate = null;
+        Set<String> keys = new HashSet<>();
+        for (ConsequenceType ct : variant.getAnnotation().getConsequenceTypes()) {
+            String key = StringUtils.isNotEmpty(ct.getEnsemblTranscriptId()) ? ct.getEnsemblTranscriptId() : ct.getEnsemblGeneId();
+            if (StringUtils.isEmpty(key) || keys.contains(key) || !validConsequenceType(ct)) {
+                continue;
+            }
+            keys.add(key);
+            if (candidate == null) {
+                candidate = new Candidate(variant);
+                pending.add(candidate);
+                maxPending = Math.max(maxPending, pending.size());
+            }
+            TranscriptGroup group = openGroups.computeIfAbsent(key, k -> new TranscriptGroup(variant.getChromosome(), variant.getStart()));
+            group.candidates.add(candidate);
+            candidate.openGroups++;
+            if (origin == Origin.FATHER) {
+                group.fromFather = true;
+            } else {
+                group.fromMother = true;
+            }
+        }
+    }
+
+    private boolean validConsequenceType(ConsequenceType ct) {
+        if (!biotypes.isEmpty() && !biotypes.contains(ct.getBiotype())) {
+            return false;
+        }
+        if (consequenceTypes.isEmpty()) {
+            return true;
+        }
+        if (ct.getSequenceOntologyTerms() != null) {
+            for (SequenceOntologyTerm so : ct.getSequenceOntologyTerms()) {
+                if (consequenceTypes.contains(so.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Close the groups that can not have more variants, given the position of the next variant.
+     * Use a null chromosome to close all the groups.
+     *
+     * @param chromosome Chromosome of the next variant
+     * @param start      Start of the next variant
+     */
+    private void closeGroups(String chromosome, int start) {
+        Iterator<TranscriptGroup> groupsIterator = openGroups.values().iterator();
+        while (groupsIterator.hasNext()) {
+            TranscriptGroup group = groupsIterator.next();
+            if (chromosome != null && group.chromosome.equals(chromosome) && group.start + maxTranscriptLength >= start) {
+                // Groups are sorted by start. Following groups can not be closed either.
+                break;
+            }
+            boolean compoundHeterozygous = group.fromFather && group.fromMother;
+            for (Candidate candidate : group.candidates) {
+                candidate.openGroups--;
+                candidate.selected |= compoundHeterozygous;
+            }
+            groupsIterator.remove();
+        }
+    }
+
+    private void drainPending() {
+        while (!pending.isEmpty() && pending.peekFirst().openGroups == 0) {
+            Candidate candidate = pending.removeFirst();
+            if (candidate.selected) {
+                ready.add(candidate.variant);
+            }
+        }
+    }
+
+    private Origin getOrigin(Variant variant) {
+        StudyEntry study = variant.getStudies().isEmpty() ? null : variant.getStudies().get(0);
+        if (study == null) {
+            return null;
+        }
+        if (!isHet(study.getSampleData(proband, "GT"))) {
+            return null;
+        }
+        Boolean fatherHasAlt = father == null ? null : hasAlternate(study, father);
+        Boolean motherHasAlt = mother == null ? null : hasAlternate(study, mother);
+        if (father == null) {
+            if (motherHasAlt == null) {
+                return null;
+            }
+            return motherHasAlt ? Origin.MOTHER : Origin.FATHER;
+        } else if (mother == null) {
+            if (fatherHasAlt == null) {
+                return null;
+            }
+            return fatherHasAlt ? Origin.FATHER : Origin.MOTHER;
+        } else if (fatherHasAlt == null || motherHasAlt == null || fatherHasAlt.equals(motherHasAlt)) {
+            // Not informative
+            return null;
+        } else {
+            return fatherHasAlt ? Origin.FATHER : Origin.MOTHER;
+        }
+    }
+
+    /**
+     * Check if the sample has any alternate allele.
+     *
+     * @param study  StudyEntry
+     * @param sample Sample name
+     * @return true if any alternate allele, false if reference, or null if missing or unknown
+     */
+    private static Boolean hasAlternate(StudyEntry study, String sample) {
+        Genotype genotype = parseGenotype(study.getSampleData(sample, "GT"));
+        if (genotype == null) {
+            return null;
+        }
+        boolean hasAlternate = false;
+        for (int allele : genotype.getAllelesIdx()) {
+            if (allele < 0) {
+                return null;
+            } else if (allele > 0) {
+                hasAlternate = true;
+            }
+        }
+        return hasAlternate;
+    }
+
+    private static boolean isHet(String gt) {
+        Genotype genotype = parseGenotype(gt);
+        if (genotype == null) {
+            return false;
+        }
+        boolean hasRef = false;
+        boolean hasAlt = false;
+        for (int allele : genotype.getAllelesIdx()) {
+            hasRef |= allele == 0;
+            hasAlt |= allele > 0;
+        }
+        return hasRef && hasAlt;
+    }
+
+    private static Genotype parseGenotype(String gt) {
+        if (StringUtils.isEmpty(gt)) {
+            return null;
+        }
+        try {
+            return new Genotype(gt);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -2,7 +2,6 @@ package org.opencb.opencga.storage.core.variant.query;
 
 import com.google.common.collect.Iterators;
 import org.opencb.biodata.models.variant.Variant;
-import org.opencb.biodata.tools.pedigree.ModeOfInheritance;
 import org.opencb.cellbase.core.variant.annotation.VariantAnnotationUtils;
 import org.opencb.commons.datastore.core.DataResult;
 import org.opencb.commons.datastore.core.ObjectMap;
@@ -48,6 +47,11 @@ public class CompoundHeterozygousQueryExecutor extends AbstractTwoPhasedVariantQ
             VariantAnnotationUtils.TR_V_GENE
     ));
     public static final int DEFAULT_SAMPLING_SIZE = 200;
+    /**
+     * Maximum distance between two variants of the same transcript. Defines the size of the sliding window used to
+     * group the candidate variants.
+     */
+    public static final String MAX_TRANSCRIPT_LENGTH = "compoundHeterozygousMaxTranscriptLength";
     private final VariantIterable iterable;
     private static Logger logger = LoggerFactory.getLogger(CompoundHeterozygousQueryExecutor.class);
 
@@ -142,37 +146,40 @@ public class CompoundHeterozygousQueryExecutor extends AbstractTwoPhasedVariantQ
                 = new VariantDBIteratorWithCounts(getRawIterator(proband, father, mother, query, options));
 
         // Filter compound heterozygous
-        List<Variant> compoundHeterozygous = ModeOfInheritance.compoundHeterozygous(unfilteredIterator,
-                includeSample.indexOf(proband),
-                includeSample.indexOf(mother),
-                includeSample.indexOf(father),
-                Math.max(limit + skip, samplingSize), cts, biotypes);
-
-//        logger.debug("Got " + compoundHeterozygous.size() + " compHet groups with "
-//                + compoundHeterozygous.values().stream().mapToInt(List::size).sum() + " variants, "
-//                + "of which " + treeSet.size() + " are unique variants");
+        int maxTranscriptLength = inputOptions.getInt(MAX_TRANSCRIPT_LENGTH, CompoundHeterozygousIterator.DEFAULT_MAX_TRANSCRIPT_LENGTH);
+        CompoundHeterozygousIterator compoundHeterozygousIterator = new CompoundHeterozygousIterator(unfilteredIterator,
+                proband, father, mother, cts, biotypes, maxTranscriptLength);
 
         // Skip
-        Iterator<Variant> variantIterator = compoundHeterozygous.iterator();
-        Iterators.advance(variantIterator, skip);
-        variantIterator = Iterators.limit(variantIterator, limit);
+        int skipped = Iterators.advance(compoundHeterozygousIterator, skip);
+        Iterator<Variant> variantIterator;
+        List<Variant> compoundHeterozygous = null;
+        if (iterator) {
+            variantIterator = Iterators.limit(compoundHeterozygousIterator, limit);
+        } else {
+            // Stop reading once the sampling size is reached
+            compoundHeterozygous = new ArrayList<>();
+            Iterators.addAll(compoundHeterozygous, Iterators.limit(compoundHeterozygousIterator, Math.max(limit, samplingSize - skip)));
+            variantIterator = Iterators.limit(compoundHeterozygous.iterator(), limit);
+        }
 
         // Return either an iterator or a query result
         if (iterator) {
-            return VariantDBIterator.wrapper(variantIterator);
+            return VariantDBIterator.wrapper(variantIterator).addCloseable(compoundHeterozygousIterator);
         } else {
             VariantQueryResult<Variant> result = VariantDBIterator.wrapper(variantIterator)
                     .toDataResult(Collections.singletonMap(study, includeSample));
-            if ((limit + skip) < samplingSize && compoundHeterozygous.size() < samplingSize) {
+            int numCompoundHeterozygous = skipped + compoundHeterozygous.size();
+            if ((limit + skip) < samplingSize && numCompoundHeterozygous < samplingSize) {
                 result.setApproximateCount(false);
-                result.setNumTotalResults(compoundHeterozygous.size());
+                result.setNumTotalResults(numCompoundHeterozygous);
             } else {
                 setNumTotalResults(unfilteredIterator, result, query, inputOptions,
                         unfilteredIterator.getCount(),
-                        compoundHeterozygous.size());
+                        numCompoundHeterozygous);
             }
             try {
-                unfilteredIterator.close();
+                compoundHeterozygousIterator.close();
             } catch (Exception e) {
                 throw VariantQueryException.internalException(e);
             }
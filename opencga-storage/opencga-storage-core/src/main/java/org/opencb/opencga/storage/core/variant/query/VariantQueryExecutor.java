@@ -22,6 +22,8 @@ import static org.opencb.opencga.storage.core.variant.VariantStorageOptions.QUER
  */
 public abstract class VariantQueryExecutor implements VariantIterable {
 
+    public static final long UNKNOWN_COST = -1;
+
     protected final VariantStorageMetadataManager metadataManager;
     protected final String storageEngineId;
     private final ObjectMap options;
@@ -75,6 +77,30 @@ public abstract class VariantQueryExecutor implements VariantIterable {
      */
     public abstract boolean canUseThisExecutor(Query query, QueryOptions options) throws StorageEngineException;
 
+    /**
+     * Indicates if this VariantQueryExecutor is able to estimate the cost of the queries.
+     * Executors that can not estimate their cost are only selected following the order of the executors list.
+     *
+     * @return True if {@link #estimateCost} is implemented
+     */
+    public boolean canEstimateCost() {
+        return false;
+    }
+
+    /**
+     * Estimate the cost of running the given query with this executor, as the approximate number of variants to be read
+     * from the primary index used by the executor.
+     * Estimations might need to access the storage, so this method is only called when there are alternative executors to compare.
+     *
+     * @param query    Query to execute
+     * @param options  Options for the query
+     * @return         Estimated cost, or {@link #UNKNOWN_COST} if it can not be estimated
+     * @throws StorageEngineException if there is an error
+     */
+    public long estimateCost(Query query, QueryOptions options) throws StorageEngineException {
+        return UNKNOWN_COST;
+    }
+
     public abstract DataResult<Long> count(Query query);
 
     public VariantQueryResult<Long> approximateCount(Query query, QueryOptions options) {
@@ -0,0 +1,114 @@
+package org.opencb.opencga.storage.core.variant.query;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes how a variant query is going to be executed.
+ * Contains the list of {@link VariantQueryExecutor} considered, and the one selected to run the query.
+ */
+public class VariantQueryPlan {
+
+    private final List<Step> steps = new ArrayList<>();
+    private boolean costBased;
+    private String executor;
+    @JsonIgnore
+    private VariantQueryExecutor selectedExecutor;
+
+    public static class Step {
+        private final String executor;
+        private Boolean eligible;
+        private Long cost;
+        private boolean selected;
+
+        public Step(String executor) {
+            this.executor = executor;
+        }
+
+        public String getExecutor() {
+            return executor;
+        }
+
+        /**
+         * @return If the executor can run the query. Null if the executor was not evaluated.
+         */
+        public Boolean getEligible() {
+            return eligible;
+        }
+
+        public Step setEligible(Boolean eligible) {
+            this.eligible = eligible;
+            return this;
+        }
+
+        /**
+         * @return Estimated cost of running the query with this executor. Null if the cost was not estimated.
+         */
+        public Long getCost() {
+            return cost;
+        }
+
+        public Step setCost(Long cost) {
+            this.cost = cost;
+            return this;
+        }
+
+        public boolean isSelected() {
+            return selected;
+        }
+
+        public Step setSelected(boolean selected) {
+            this.selected = selected;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return executor + "{eligible=" + eligible + ", cost=" + cost + ", selected=" + selected + '}';
+        }
+    }
+
+    public Step addStep(VariantQueryExecutor executor) {
+        Step step = new Step(executor.getClass().getSimpleName());
+        steps.add(step);
+        return step;
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    public boolean isCostBased() {
+        return costBased;
+    }
+
+    public VariantQueryPlan setCostBased(boolean costBased) {
+        this.costBased = costBased;
+        return this;
+    }
+
+    public String getExecutor() {
+        return executor;
+    }
+
+    @JsonIgnore
+    public VariantQueryExecutor getSelectedExecutor() {
+        return selectedExecutor;
+    }
+
+    public VariantQueryPlan setSelectedExecutor(VariantQueryExecutor selectedExecutor, Step step) {
+        for (Step s : steps) {
+            s.setSelected(s == step);
+        }
+        this.selectedExecutor = selectedExecutor;
+        this.executor = step.getExecutor();
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "VariantQueryPlan{executor='" + executor + "', costBased=" + costBased + ", steps=" + steps + '}';
+    }
+}
@@ -49,7 +49,7 @@ public abstract class VariantScoreLoader {
 
     protected abstract void load(URI scoreFile, VariantScoreMetadata scoreMetadata,
                                  VariantScoreFormatDescriptor descriptor, ObjectMap options)
-            throws ExecutionException, IOException;
+            throws ExecutionException, IOException, StorageEngineException;
 
     protected VariantScoreMetadata preLoad(String study, String scoreName, String cohort1, String cohort2, ObjectMap options)
             throws StorageEngineException {
@@ -96,7 +96,23 @@ public abstract class VariantScoreLoader {
     }
 
     protected StringDataReader getDataReader(URI scoreFile) throws IOException {
+        return getDataReader(scoreFile, new ObjectMap());
+    }
+
+    /**
+     * Reader for the score file. Genome wide score files are usually BGZF compressed (tabix indexed), so the
+     * blocks are inflated concurrently to keep up with the parser tasks.
+     *
+     * @param scoreFile Score file
+     * @param options   Options
+     * @return          StringDataReader
+     * @throws IOException on IO error
+     */
+    protected StringDataReader getDataReader(URI scoreFile, ObjectMap options) throws IOException {
         StringDataReader stringReader = new StringDataReader(scoreFile, ioConnector);
+        stringReader.setDecompressThreads(options.getInt(
+                VariantStorageOptions.SCORE_LOAD_DECOMPRESS_THREADS.key(),
+                VariantStorageOptions.SCORE_LOAD_DECOMPRESS_THREADS.defaultValue()));
         ProgressLogger progressLogger = new ProgressLogger("Loading variant score:", ioConnector.size(scoreFile), 200);
         stringReader.setReadBytesListener((totalRead, delta) -> progressLogger.increment(delta, "Bytes"));
         return stringReader;
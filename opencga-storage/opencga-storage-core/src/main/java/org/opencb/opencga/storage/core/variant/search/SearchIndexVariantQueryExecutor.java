@@ -55,6 +55,33 @@ public class SearchIndexVariantQueryExecutor extends AbstractSearchIndexVariantQ
         return doQuerySearchManager(query, options) || doIntersectWithSearch(query, options);
     }
 
+    @Override
+    public boolean canEstimateCost() {
+        return true;
+    }
+
+    /**
+     * Estimate the cost from the number of documents matching the query in the search engine.
+     * When intersecting, each of those documents has to be fetched from the underlying {@link VariantDBAdaptor}.
+     *
+     * @param query    Query to execute
+     * @param options  Options for the query
+     * @return         Number of documents matching the query in the search engine
+     * @throws StorageEngineException if there is an error querying the search engine
+     */
+    @Override
+    public long estimateCost(Query query, QueryOptions options) throws StorageEngineException {
+        try {
+            if (doQuerySearchManager(query, options)) {
+                return searchManager.count(dbName, query);
+            } else {
+                return searchManager.count(dbName, getSearchEngineQuery(query));
+            }
+        } catch (IOException | VariantSearchException e) {
+            throw new StorageEngineException("Error estimating query cost from " + SEARCH_ENGINE_ID, e);
+        }
+    }
+
     @Override
     public DataResult<Long> count(Query query) {
         try {
@@ -90,6 +90,28 @@ public class VariantTransformTask implements Task<String, Variant> {
                                 String studyId, VariantFileMetadata fileMetadata,
                                 VariantSetStatsCalculator variantStatsTask,
                                 boolean generateReferenceBlocks) {
+        this(header, version, studyId, fileMetadata, variantStatsTask, generateReferenceBlocks, generateReferenceBlocks);
+    }
+
+    /**
+     * Creates a VariantTransformTask.
+     *
+     * The task that creates the reference blocks is stateful, as it requires the variants in order. Excluding it
+     * makes this task stateless, so multiple instances can be used concurrently. In that case, the reference blocks
+     * must be created later, over the ordered output, with {@link #newReferenceBlockCreatorTask}.
+     *
+     * @param header                  VCF header
+     * @param version                 VCF header version
+     * @param studyId                 Study id
+     * @param fileMetadata            File metadata
+     * @param variantStatsTask        Stats calculator. Might be null.
+     * @param generateReferenceBlocks Normalize variants generating reference blocks
+     * @param createReferenceBlocks   Include the task that creates the reference blocks between the variants
+     */
+    public VariantTransformTask(VCFHeader header, VCFHeaderVersion version,
+                                String studyId, VariantFileMetadata fileMetadata,
+                                VariantSetStatsCalculator variantStatsTask,
+                                boolean generateReferenceBlocks, boolean createReferenceBlocks) {
         this.variantStatsTask = variantStatsTask;
         this.factory = null;
         this.fileMetadata = fileMetadata;
@@ -98,10 +120,15 @@ public class VariantTransformTask implements Task<String, Variant> {
         this.vcfCodec = new FullVcfCodec();
         this.vcfCodec.setVCFHeader(header, version);
         this.converter = new VariantContextToVariantConverter(studyId, fileMetadata.getId(), fileMetadata.getSampleIds());
-        this.normalizer = initNormalizer(fileMetadata, generateReferenceBlocks);
+        this.normalizer = initNormalizer(fileMetadata, generateReferenceBlocks, createReferenceBlocks);
     }
 
     private Task<Variant, Variant> initNormalizer(VariantFileMetadata fileMetadata, boolean generateReferenceBlocks) {
+        return initNormalizer(fileMetadata, generateReferenceBlocks, generateReferenceBlocks);
+    }
+
+    private Task<Variant, Variant> initNormalizer(VariantFileMetadata fileMetadata, boolean generateReferenceBlocks,
+                                                  boolean createReferenceBlocks) {
         VariantNormalizer.VariantNormalizerConfig normalizerConfig = new VariantNormalizer.VariantNormalizerConfig()
                 .setReuseVariants(true)
                 .setNormalizeAlleles(true)
@@ -109,18 +136,29 @@ public class VariantTransformTask implements Task<String, Variant> {
                 .setGenerateReferenceBlocks(generateReferenceBlocks);
         Task<Variant, Variant> normalizer = new VariantNormalizer(normalizerConfig)
                 .configure(fileMetadata.getHeader());
-        if (generateReferenceBlocks) {
-            normalizer = normalizer
-                    .then(new VariantSorterTask(100)) // Sort before generating reference blocks
-                    .then(new VariantReferenceBlockCreatorTask(fileMetadata.getHeader()));
+        if (createReferenceBlocks) {
+            normalizer = normalizer.then(newReferenceBlockCreatorTask(fileMetadata));
         }
         return normalizer;
     }
 
+    /**
+     * Stateful task that creates the reference blocks between the normalized variants. Requires the variants in order.
+     *
+     * @param fileMetadata File metadata
+     * @return Task
+     */
+    public static Task<Variant, Variant> newReferenceBlockCreatorTask(VariantFileMetadata fileMetadata) {
+        return new VariantSorterTask(100) // Sort before generating reference blocks
+                .then(new VariantReferenceBlockCreatorTask(fileMetadata.getHeader()));
+    }
+
     @Override
     public void pre() {
-        synchronized (variantStatsTask) {
-            variantStatsTask.pre();
+        if (variantStatsTask != null) {
+            synchronized (variantStatsTask) {
+                variantStatsTask.pre();
+            }
         }
     }
 
@@ -154,7 +192,9 @@ public class VariantTransformTask implements Task<String, Variant> {
 
                     List<Variant> normalizedVariants = normalize(variants);
 
-                    variantStatsTask.apply(normalizedVariants);
+                    if (variantStatsTask != null) {
+                        variantStatsTask.apply(normalizedVariants);
+                    }
 
                     transformedVariants.addAll(normalizedVariants);
 
@@ -185,7 +225,9 @@ public class VariantTransformTask implements Task<String, Variant> {
 
             List<Variant> normalizedVariants = normalize(variants);
 
-            variantStatsTask.apply(normalizedVariants);
+            if (variantStatsTask != null) {
+                variantStatsTask.apply(normalizedVariants);
+            }
 
             transformedVariants.addAll(normalizedVariants);
         }
@@ -226,14 +268,18 @@ public class VariantTransformTask implements Task<String, Variant> {
     @Override
     public List<Variant> drain() throws Exception {
         List<Variant> drain = normalizer.drain();
-        variantStatsTask.apply(drain);
+        if (variantStatsTask != null) {
+            variantStatsTask.apply(drain);
+        }
         return drain;
     }
 
     @Override
     public void post() {
-        synchronized (variantStatsTask) {
-            variantStatsTask.post();
+        if (variantStatsTask != null) {
+            synchronized (variantStatsTask) {
+                variantStatsTask.post();
+            }
         }
         logger.debug("Time txt2hts: " + this.htsConvertTime.get());
         logger.debug("Time hts2biodata: " + this.biodataConvertTime.get());
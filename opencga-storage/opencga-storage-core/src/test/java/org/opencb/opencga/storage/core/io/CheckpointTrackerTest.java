@@ -0,0 +1,121 @@
+package org.opencb.opencga.storage.core.io;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opencb.commons.io.DataReader;
+import org.opencb.commons.io.DataWriter;
+import org.opencb.commons.run.ParallelTaskRunner;
+import org.opencb.commons.run.Task;
+import org.opencb.opencga.storage.core.metadata.VariantStorageMetadataManager;
+import org.opencb.opencga.storage.core.metadata.models.StudyMetadata;
+import org.opencb.opencga.storage.core.metadata.models.TaskMetadata;
+import org.opencb.opencga.storage.core.variant.dummy.DummyVariantStorageMetadataDBAdaptorFactory;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class CheckpointTrackerTest {
+
+    private static final int SIZE = 10000;
+    private VariantStorageMetadataManager metadataManager;
+    private StudyMetadata study;
+
+    @Before
+    public void setUp() throws Exception {
+        metadataManager = new VariantStorageMetadataManager(new DummyVariantStorageMetadataDBAdaptorFactory(true));
+        study = metadataManager.createStudy("STUDY");
+    }
+
+    @Test
+    public void testCommitOnWrite() throws Exception {
+        TaskMetadata task = metadataManager.addRunningTask(study.getId(), "load", Collections.singletonList(1));
+        CheckpointTracker<Integer> tracker = new CheckpointTracker<>(metadataManager, task, String::valueOf, 0);
+        Set<Integer> written = Collections.synchronizedSet(new HashSet<>());
+
+        Task<Integer, String> toString = batch -> batch.stream().map(String::valueOf).collect(Collectors.toList());
+        DataWriter<String> writer = new DataWriter<String>() {
+            @Override
+            public boolean write(List<String> batch) {
+                batch.forEach(s -> written.add(Integer.valueOf(s)));
+                return true;
+            }
+        };
+        new ParallelTaskRunner<>(tracker.track(new IntegerReader(), true), tracker.trackThroughTask(toString),
+                tracker.commitOnWrite(writer), config()).run();
+
+        assertEquals(SIZE, written.size());
+        assertEquals(SIZE, tracker.getCommittedCount());
+        assertEquals(String.valueOf(SIZE - 1), tracker.getCommittedLast());
+        tracker.checkpoint();
+        task = metadataManager.getTask(study.getId(), task.getId());
+        assertEquals(SIZE, task.getAttributes().getLong(CheckpointTracker.CHECKPOINT_COUNT));
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        TaskMetadata task = metadataManager.addRunningTask(study.getId(), "load", Collections.singletonList(1));
+        CheckpointTracker<Integer> tracker = new CheckpointTracker<>(metadataManager, task, String::valueOf, 0);
+        List<Integer> written = Collections.synchronizedList(new ArrayList<>());
+        Task<Integer, Integer> writerTask = batch -> {
+            if (batch.stream().anyMatch(i -> i >= SIZE / 2)) {
+                throw new IllegalStateException("Fail");
+            }
+            written.addAll(batch);
+            return batch;
+        };
+
+        try {
+            new ParallelTaskRunner<>(tracker.track(new IntegerReader(), true), tracker.commitOnTask(writerTask),
+                    null, config()).run();
+            fail("Expected exception");
+        } catch (ExecutionException e) {
+            tracker.checkpoint();
+        }
+
+        task = metadataManager.getTask(study.getId(), task.getId());
+        long count = task.getAttributes().getLong(CheckpointTracker.CHECKPOINT_COUNT);
+        assertTrue(count > 0);
+        assertTrue(count <= SIZE / 2);
+        assertEquals(String.valueOf(count - 1), task.getAttributes().getString(CheckpointTracker.CHECKPOINT_LAST));
+        // All the committed elements were written
+        Set<Integer> writtenSet = new HashSet<>(written);
+        for (int i = 0; i < count; i++) {
+            assertTrue(writtenSet.contains(i));
+        }
+
+        // Resume
+        CheckpointTracker<Integer> resumeTracker = new CheckpointTracker<>(metadataManager, task, String::valueOf, 0);
+        assertEquals(count, resumeTracker.getResumeCount());
+        List<Integer> resumed = Collections.synchronizedList(new ArrayList<>());
+        Task<Integer, Integer> resumeWriterTask = batch -> {
+            resumed.addAll(batch);
+            return batch;
+        };
+        new ParallelTaskRunner<>(resumeTracker.track(new IntegerReader(), true), resumeTracker.commitOnTask(resumeWriterTask),
+                null, config()).run();
+
+        assertEquals(SIZE - count, resumed.size());
+        assertEquals(count, Collections.min(resumed).intValue());
+        assertEquals(SIZE, resumeTracker.getCommittedCount());
+    }
+
+    private ParallelTaskRunner.Config config() {
+        return ParallelTaskRunner.Config.builder().setNumTasks(4).setBatchSize(7).setSorted(false).setAbortOnFail(true).build();
+    }
+
+    private static class IntegerReader implements DataReader<Integer> {
+        private int next = 0;
+
+        @Override
+        public List<Integer> read(int batchSize) {
+            List<Integer> batch = new ArrayList<>(batchSize);
+            while (batch.size() < batchSize && next < SIZE) {
+                batch.add(next++);
+            }
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.opencb.opencga.storage.core.io;
+
+import org.junit.Test;
+import org.opencb.commons.io.DataReader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ReadAheadDataReaderTest {
+
+    @Test
+    public void testRead() {
+        ReadAheadDataReader<Integer> reader = new ReadAheadDataReader<>(new IntegerReader(1000, -1), 7, 2);
+        reader.open();
+        reader.pre();
+        List<Integer> values = new ArrayList<>();
+        List<Integer> batch = reader.read(100);
+        while (!batch.isEmpty()) {
+            assertTrue(batch.size() <= 7);
+            values.addAll(batch);
+            batch = reader.read(100);
+        }
+        assertTrue(reader.read(100).isEmpty());
+        reader.post();
+        reader.close();
+
+        assertEquals(1000, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(i, values.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testFail() {
+        ReadAheadDataReader<Integer> reader = new ReadAheadDataReader<>(new IntegerReader(1000, 500), 10, 2);
+        reader.open();
+        reader.pre();
+        int read = 0;
+        try {
+            List<Integer> batch = reader.read(10);
+            while (!batch.isEmpty()) {
+                read += batch.size();
+                batch = reader.read(10);
+            }
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            assertEquals("Fail at 500", e.getMessage());
+        } finally {
+            reader.close();
+        }
+        assertEquals(500, read);
+    }
+
+    @Test
+    public void testCloseBeforeEnd() {
+        ReadAheadDataReader<Integer> reader = new ReadAheadDataReader<>(new IntegerReader(100000, -1), 10, 2);
+        reader.open();
+        reader.pre();
+        assertEquals(10, reader.read(10).size());
+        // Must not block
+        reader.close();
+    }
+
+    private static class IntegerReader implements DataReader<Integer> {
+        private final int size;
+        private final int failAt;
+        private int next = 0;
+
+        IntegerReader(int size, int failAt) {
+            this.size = size;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public List<Integer> read(int batchSize) {
+            if (next == failAt) {
+                throw new IllegalStateException("Fail at " + failAt);
+            }
+            if (next >= size) {
+                return Collections.emptyList();
+            }
+            List<Integer> batch = new ArrayList<>(batchSize);
+            while (batch.size() < batchSize && next < size) {
+                batch.add(next++);
+            }
+            return batch;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.opencb.opencga.storage.core.io;
 
 import org.opencb.opencga.storage.core.io.managers.LocalIOConnector;
+import org.opencb.opencga.storage.core.io.managers.MultipartUpload;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -30,11 +31,21 @@ public class TestIOConnector extends LocalIOConnector {
         return super.newInputStreamRaw(toLocalUri(uri));
     }
 
+    @Override
+    public InputStream newInputStreamRaw(URI uri, long offset, long length) throws IOException {
+        return super.newInputStreamRaw(toLocalUri(uri), offset, length);
+    }
+
     @Override
     public OutputStream newOutputStreamRaw(URI uri) throws IOException {
         return super.newOutputStreamRaw(toLocalUri(uri));
     }
 
+    @Override
+    public MultipartUpload newMultipartUpload(URI uri) throws IOException {
+        return super.newMultipartUpload(toLocalUri(uri));
+    }
+
     @Override
     public boolean isDirectory(URI uri) throws IOException {
         return super.isDirectory(toLocalUri(uri));
@@ -0,0 +1,124 @@
+package org.opencb.opencga.storage.core.io.managers;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.opencb.opencga.core.common.TimeUtils;
+import org.opencb.opencga.storage.core.io.TestIOConnector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Ranged reads and multipart uploads, using the local TestIOConnector as a stand-in of a remote storage.
+ */
+public class ParallelIOConnectorTest {
+
+    private static final int PART_SIZE = 1000;
+
+    private IOConnector io;
+    private URI file;
+    private byte[] data;
+
+    @Before
+    public void setUp() throws Exception {
+        io = new IOConnectorProvider(TestIOConnector.class);
+        String dir = "junit-opencga-storage-" + TimeUtils.getTimeMillis() + "_" + RandomStringUtils.randomAlphabetic(3);
+        Files.createDirectories(Paths.get("target/test-data", dir));
+        file = URI.create("test:///" + dir + "/file.bin");
+        data = new byte[PART_SIZE * 10 + 123];
+        new Random(1).nextBytes(data);
+    }
+
+    @Test
+    public void testParallelWriteAndRead() throws IOException {
+        try (OutputStream os = io.newParallelOutputStreamRaw(file, 4, PART_SIZE)) {
+            // Write in chunks not aligned with the part size
+            for (int i = 0; i < data.length; i += 333) {
+                os.write(data, i, Math.min(333, data.length - i));
+            }
+        }
+        assertEquals(data.length, io.size(file));
+
+        try (InputStream is = io.newParallelInputStreamRaw(file, 4, PART_SIZE)) {
+            assertArrayEquals(data, IOUtils.toByteArray(is));
+        }
+    }
+
+    @Test
+    public void testRangeRead() throws IOException {
+        try (OutputStream os = io.newOutputStreamRaw(file)) {
+            os.write(data);
+        }
+        try (InputStream is = io.newInputStreamRaw(file, 1500, 200)) {
+            byte[] expected = new byte[200];
+            System.arraycopy(data, 1500, expected, 0, 200);
+            assertArrayEquals(expected, IOUtils.toByteArray(is));
+        }
+    }
+
+    @Test
+    public void testParallelReadFromOffset() throws IOException {
+        try (OutputStream os = io.newOutputStreamRaw(file)) {
+            os.write(data);
+        }
+        // The first part was already read from a different request
+        try (InputStream is = new ParallelRangeInputStream(io, file, PART_SIZE, data.length, 4, PART_SIZE)) {
+            byte[] expected = new byte[data.length - PART_SIZE];
+            System.arraycopy(data, PART_SIZE, expected, 0, expected.length);
+            assertArrayEquals(expected, IOUtils.toByteArray(is));
+        }
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        io.newParallelOutputStreamRaw(file, 4, PART_SIZE).close();
+        assertTrue(io.exists(file));
+        assertEquals(0, io.size(file));
+        try (InputStream is = io.newParallelInputStreamRaw(file, 4, PART_SIZE)) {
+            assertEquals(-1, is.read());
+        }
+    }
+
+    @Test
+    public void testFailedPart() throws IOException {
+        MultipartUpload upload = io.newMultipartUpload(file);
+        MultipartUpload failingUpload = new MultipartUpload() {
+            @Override
+            public void uploadPart(int partNumber, long offset, ByteBuffer data) throws IOException {
+                if (partNumber == 3) {
+                    throw new IOException("Failed part");
+                }
+                upload.uploadPart(partNumber, offset, data);
+            }
+
+            @Override
+            public void complete(int numParts) throws IOException {
+                upload.complete(numParts);
+            }
+
+            @Override
+            public void abort() throws IOException {
+                upload.abort();
+            }
+        };
+        IOException exception = null;
+        try (OutputStream os = new ParallelMultipartOutputStream(failingUpload, 2, PART_SIZE)) {
+            os.write(data);
+        } catch (IOException e) {
+            exception = e;
+        }
+        assertNotNull(exception);
+        assertEquals("Failed part", exception.getMessage());
+        assertFalse(io.exists(file));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015-2017 OpenCB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.opencb.opencga.storage.core.io.plain;
+
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class ParallelBgzfInputStreamTest {
+
+    @Test
+    public void testRead() throws IOException {
+        byte[] data = createData(50000);
+        ByteArrayOutputStream bgzf = new ByteArrayOutputStream();
+        try (OutputStream os = new BlockCompressedOutputStream(bgzf, (File) null)) {
+            os.write(data);
+        }
+
+        InputStream is = new BufferedInputStream(new ByteArrayInputStream(bgzf.toByteArray()));
+        assertTrue(ParallelBgzfInputStream.isBgzf(is));
+        try (InputStream bgzfIs = new ParallelBgzfInputStream(is, 4)) {
+            assertArrayEquals(data, IOUtils.toByteArray(bgzfIs));
+        }
+    }
+
+    @Test
+    public void testIsNotBgzf() throws IOException {
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (OutputStream os = new GZIPOutputStream(gzip)) {
+            os.write(createData(100));
+        }
+        InputStream is = new BufferedInputStream(new ByteArrayInputStream(gzip.toByteArray()));
+        assertFalse(ParallelBgzfInputStream.isBgzf(is));
+        // Stream is reset
+        assertEquals(31, is.read());
+    }
+
+    @Test(expected = IOException.class)
+    public void testCorruptedBlock() throws IOException {
+        ByteArrayOutputStream bgzf = new ByteArrayOutputStream();
+        try (OutputStream os = new BlockCompressedOutputStream(bgzf, (File) null)) {
+            os.write(createData(1000));
+        }
+        byte[] bytes = bgzf.toByteArray();
+        // Modify the CRC32 of the first block
+        int blockSize = ((bytes[16] & 0xFF) | ((bytes[17] & 0xFF) << 8)) + 1;
+        bytes[blockSize - 8]++;
+        try (InputStream is = new ParallelBgzfInputStream(new ByteArrayInputStream(bytes), 2)) {
+            IOUtils.toByteArray(is);
+        }
+    }
+
+    private static byte[] createData(int numLines) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < numLines; i++) {
+            sb.append("22\t").append(16050000 + i).append("\t.\tA\tC\t.\tPASS\t.\tGT\t0/1\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,72 @@
+package org.opencb.opencga.storage.core.variant.io.avro;
+
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.junit.Test;
+import org.opencb.biodata.models.variant.Variant;
+import org.opencb.biodata.models.variant.avro.VariantAvro;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AvroBlockReaderTest {
+
+    @Test
+    public void testReadNull() throws Exception {
+        testRead("null");
+    }
+
+    @Test
+    public void testReadDeflate() throws Exception {
+        testRead("deflate");
+    }
+
+    @Test
+    public void testReadSnappy() throws Exception {
+        testRead("snappy");
+    }
+
+    private void testRead(String codec) throws Exception {
+        List<VariantAvro> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            expected.add(new Variant("1", 1000 + i, "A", "T").getImpl());
+        }
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (DataFileWriter<VariantAvro> writer = new DataFileWriter<>(new SpecificDatumWriter<>(VariantAvro.class))) {
+            writer.setCodec(CodecFactory.fromString(codec));
+            // Small blocks
+            writer.setSyncInterval(2048);
+            writer.create(VariantAvro.getClassSchema(), os);
+            for (VariantAvro variantAvro : expected) {
+                writer.append(variantAvro);
+            }
+        }
+
+        AvroBlockReader reader = new AvroBlockReader(new ByteArrayInputStream(os.toByteArray()));
+        reader.open();
+        reader.pre();
+        assertEquals(VariantAvro.getClassSchema(), reader.getSchema());
+        AvroBlockDecoderTask<VariantAvro> decoder = new AvroBlockDecoderTask<>(VariantAvro.getClassSchema());
+
+        List<VariantAvro> actual = new ArrayList<>();
+        int numBlocks = 0;
+        List<AvroBlockReader.Block> blocks = reader.read(2);
+        while (!blocks.isEmpty()) {
+            numBlocks += blocks.size();
+            actual.addAll(decoder.apply(blocks));
+            blocks = reader.read(2);
+        }
+        decoder.post();
+        reader.post();
+        reader.close();
+
+        assertTrue(numBlocks > 1);
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,103 @@
+package org.opencb.opencga.storage.core.variant.query;
+
+import org.junit.Test;
+import org.opencb.biodata.models.variant.Variant;
+import org.opencb.biodata.models.variant.avro.ConsequenceType;
+import org.opencb.biodata.models.variant.avro.SequenceOntologyTerm;
+import org.opencb.biodata.models.variant.avro.VariantAnnotation;
+import org.opencb.opencga.storage.core.variant.adaptors.iterators.VariantDBIterator;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+public class CompoundHeterozygousIteratorTest {
+
+    public static final String PROBAND = "proband";
+    public static final String FATHER = "father";
+    public static final String MOTHER = "mother";
+    public static final String FROM_FATHER = "0/1,0/1,0/0";
+    public static final String FROM_MOTHER = "0/1,0/0,0/1";
+    public static final String FROM_BOTH = "0/1,0/1,0/1";
+    public static final Set<String> BIOTYPES = Collections.singleton("protein_coding");
+
+    @Test
+    public void testCompoundHeterozygous() throws Exception {
+        List<Variant> variants = Arrays.asList(
+                variant("1:100:A:C", FROM_FATHER, "T1"),
+                variant("1:150:A:C", FROM_MOTHER, "T1"),
+                variant("1:300:A:C", FROM_FATHER, "T2"),
+                variant("1:400:A:C", FROM_FATHER, "T2"),
+                variant("1:450:A:C", FROM_MOTHER),
+                variant("1:500:A:C", FROM_BOTH, "T2"),
+                variant("1:600:A:C", FROM_FATHER, "T3"),
+                variant("1:700:A:C", FROM_MOTHER, "T3", "T4"),
+                variant("1:800:A:C", FROM_FATHER, "T4"),
+                variant("1:900:A:C", FROM_MOTHER, "T5:lincRNA"),
+                variant("1:950:A:C", FROM_FATHER, "T5:lincRNA"),
+                variant("2:100:A:C", FROM_FATHER, "T6"),
+                variant("2:2000:A:C", FROM_MOTHER, "T6")
+        );
+
+        assertEquals(Arrays.asList("1:100:A:C", "1:150:A:C", "1:600:A:C", "1:700:A:C", "1:800:A:C", "2:100:A:C", "2:2000:A:C"),
+                compoundHeterozygous(variants, FATHER, MOTHER, 10000));
+
+        // Variants too far away from the first variant of the transcript
+        assertEquals(Arrays.asList("1:100:A:C", "1:150:A:C", "1:600:A:C", "1:700:A:C", "1:800:A:C"),
+                compoundHeterozygous(variants, FATHER, MOTHER, 1000));
+    }
+
+    @Test
+    public void testCompoundHeterozygousSingleParent() throws Exception {
+        List<Variant> variants = Arrays.asList(
+                variant("1:100:A:C", FROM_FATHER, "T1"),
+                variant("1:150:A:C", FROM_MOTHER, "T1"),
+                variant("1:300:A:C", FROM_FATHER, "T2"),
+                variant("1:400:A:C", FROM_FATHER, "T2")
+        );
+
+        assertEquals(Arrays.asList("1:100:A:C", "1:150:A:C"),
+                compoundHeterozygous(variants, FATHER, CompoundHeterozygousQueryExecutor.MISSING_SAMPLE, 10000));
+        assertEquals(Arrays.asList("1:100:A:C", "1:150:A:C"),
+                compoundHeterozygous(variants, CompoundHeterozygousQueryExecutor.MISSING_SAMPLE, MOTHER, 10000));
+    }
+
+    private List<String> compoundHeterozygous(List<Variant> variants, String father, String mother, int maxTranscriptLength)
+            throws Exception {
+        List<String> result = new ArrayList<>();
+        try (CompoundHeterozygousIterator iterator = new CompoundHeterozygousIterator(VariantDBIterator.wrapper(variants.iterator()),
+                PROBAND, father, mother, Collections.emptySet(), BIOTYPES, maxTranscriptLength)) {
+            iterator.forEachRemaining(v -> result.add(v.toString()));
+        }
+        return result;
+    }
+
+    private Variant variant(String variantStr, String gts, String... transcripts) {
+        String[] gt = gts.split(",");
+        Variant variant = Variant.newBuilder(variantStr)
+                .setStudyId("s1")
+                .setFormat("GT")
+                .addSample(PROBAND, gt[0])
+                .addSample(FATHER, gt[1])
+                .addSample(MOTHER, gt[2])
+                .build();
+        List<ConsequenceType> cts = new ArrayList<>();
+        for (String transcript : transcripts) {
+            String biotype = "protein_coding";
+            if (transcript.contains(":")) {
+                biotype = transcript.split(":")[1];
+                transcript = transcript.split(":")[0];
+            }
+            ConsequenceType ct = new ConsequenceType();
+            ct.setEnsemblGeneId("G" + transcript);
+            ct.setEnsemblTranscriptId(transcript);
+            ct.setBiotype(biotype);
+            ct.setSequenceOntologyTerms(Collections.singletonList(new SequenceOntologyTerm("SO:0001583", "missense_variant")));
+            cts.add(ct);
+        }
+        VariantAnnotation annotation = new VariantAnnotation();
+        annotation.setConsequenceTypes(cts);
+        variant.setAnnotation(annotation);
+        return variant;
+    }
+}
@@ -0,0 +1,183 @@
+package org.opencb.opencga.storage.core.variant.query;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.opencb.commons.datastore.core.DataResult;
+import org.opencb.commons.datastore.core.ObjectMap;
+import org.opencb.commons.datastore.core.Query;
+import org.opencb.commons.datastore.core.QueryOptions;
+import org.opencb.opencga.storage.core.config.StorageConfiguration;
+import org.opencb.opencga.storage.core.config.StorageEngineConfiguration;
+import org.opencb.opencga.storage.core.variant.VariantStorageOptions;
+import org.opencb.opencga.storage.core.variant.dummy.DummyVariantStorageEngine;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class VariantQueryPlanTest {
+
+    private TestVariantStorageEngine engine;
+
+    @Before
+    public void setUp() throws Exception {
+        try (InputStream is = DummyVariantStorageEngine.class.getClassLoader().getResourceAsStream("storage-configuration.yml")) {
+            StorageConfiguration storageConfiguration = StorageConfiguration.load(is);
+            storageConfiguration.getVariant().setDefaultEngine(DummyVariantStorageEngine.STORAGE_ENGINE_ID);
+            storageConfiguration.getVariant().getOptions().put(VariantStorageOptions.QUERY_EXECUTOR_COST_BASED.key(), true);
+            storageConfiguration.getVariant().getEngines().add(new StorageEngineConfiguration()
+                    .setId(DummyVariantStorageEngine.STORAGE_ENGINE_ID)
+                    .setEngine(TestVariantStorageEngine.class.getName())
+                    .setOptions(new ObjectMap())
+            );
+            engine = new TestVariantStorageEngine();
+            engine.setConfiguration(storageConfiguration, DummyVariantStorageEngine.STORAGE_ENGINE_ID);
+        }
+    }
+
+    @Test
+    public void testFirstExecutorWithoutEstimation() {
+        TestExecutor a = new TestExecutor(false, 10L);
+        TestExecutor b = new TestExecutor(true, null);
+        TestExecutor c = new TestExecutor(true, 1L);
+        engine.executors.addAll(Arrays.asList(a, b, c));
+
+        VariantQueryPlan plan = engine.getVariantQueryPlan(new Query(), new QueryOptions());
+        assertSame(b, plan.getSelectedExecutor());
+        assertFalse(plan.getSteps().get(0).getEligible());
+        assertTrue(plan.getSteps().get(1).isSelected());
+        assertNull(plan.getSteps().get(1).getCost());
+        // Not evaluated
+        assertNull(plan.getSteps().get(2).getEligible());
+        assertEquals(0, a.estimations + b.estimations + c.estimations);
+    }
+
+    @Test
+    public void testSelectCheapest() {
+        TestExecutor a = new TestExecutor(true, 100L);
+        TestExecutor b = new TestExecutor(false, 1L);
+        TestExecutor c = new TestExecutor(true, 10L);
+        TestExecutor d = new TestExecutor(true, 50L);
+        TestExecutor e = new TestExecutor(true, null);
+        TestExecutor f = new TestExecutor(true, 1L);
+        engine.executors.addAll(Arrays.asList(a, b, c, d, e, f));
+
+        VariantQueryPlan plan = engine.getVariantQueryPlan(new Query(), new QueryOptions());
+        assertSame(c, plan.getSelectedExecutor());
+        assertEquals("TestExecutor", plan.getExecutor());
+        assertEquals(Long.valueOf(100), plan.getSteps().get(0).getCost());
+        assertNull(plan.getSteps().get(1).getCost());
+        assertEquals(Long.valueOf(10), plan.getSteps().get(2).getCost());
+        assertEquals(Long.valueOf(50), plan.getSteps().get(3).getCost());
+        assertTrue(plan.getSteps().get(4).getEligible());
+        assertNull(plan.getSteps().get(5).getEligible());
+        assertEquals(0, f.estimations);
+        assertSame(c, engine.getVariantQueryExecutor(new Query(), new QueryOptions()));
+    }
+
+    @Test
+    public void testSkipEstimationWithoutAlternatives() {
+        TestExecutor a = new TestExecutor(true, 100L);
+        TestExecutor b = new TestExecutor(false, 1L);
+        TestExecutor c = new TestExecutor(true, null);
+        engine.executors.addAll(Arrays.asList(a, b, c));
+
+        VariantQueryPlan plan = engine.getVariantQueryPlan(new Query(), new QueryOptions());
+        assertSame(a, plan.getSelectedExecutor());
+        assertEquals(0, a.estimations);
+    }
+
+    @Test
+    public void testKeepOrderIfUnknownCost() {
+        TestExecutor a = new TestExecutor(true, VariantQueryExecutor.UNKNOWN_COST);
+        TestExecutor b = new TestExecutor(true, 1L);
+        engine.executors.addAll(Arrays.asList(a, b));
+
+        VariantQueryPlan plan = engine.getVariantQueryPlan(new Query(), new QueryOptions());
+        assertSame(a, plan.getSelectedExecutor());
+        assertEquals(0, b.estimations);
+    }
+
+    @Test
+    public void testCostBasedDisabled() {
+        TestExecutor a = new TestExecutor(true, 100L);
+        TestExecutor b = new TestExecutor(true, 1L);
+        engine.executors.addAll(Arrays.asList(a, b));
+
+        VariantQueryPlan plan = engine.getVariantQueryPlan(new Query(),
+                new QueryOptions(VariantStorageOptions.QUERY_EXECUTOR_COST_BASED.key(), false));
+        assertSame(a, plan.getSelectedExecutor());
+        assertFalse(plan.isCostBased());
+        assertNull(plan.getSteps().get(1).getEligible());
+        assertEquals(0, a.estimations + b.estimations);
+    }
+
+    @Test
+    public void testCostBasedDisabledByDefault() {
+        engine.getConfiguration().getVariant().getOptions().remove(VariantStorageOptions.QUERY_EXECUTOR_COST_BASED.key());
+        engine.getOptions().remove(VariantStorageOptions.QUERY_EXECUTOR_COST_BASED.key());
+        TestExecutor a = new TestExecutor(true, 100L);
+        TestExecutor b = new TestExecutor(true, 1L);
+        engine.executors.addAll(Arrays.asList(a, b));
+
+        VariantQueryPlan plan = engine.getVariantQueryPlan(new Query(), new QueryOptions());
+        assertSame(a, plan.getSelectedExecutor());
+        assertFalse(plan.isCostBased());
+        assertEquals(0, a.estimations + b.estimations);
+    }
+
+    public static class TestVariantStorageEngine extends DummyVariantStorageEngine {
+        private final List<VariantQueryExecutor> executors = new ArrayList<>();
+
+        @Override
+        protected List<VariantQueryExecutor> initVariantQueryExecutors() {
+            return executors;
+        }
+
+        @Override
+        public VariantQueryPlan getVariantQueryPlan(Query query, QueryOptions options) {
+            return super.getVariantQueryPlan(query, options);
+        }
+    }
+
+    private static class TestExecutor extends VariantQueryExecutor {
+        private final boolean eligible;
+        private final Long cost;
+        private int estimations = 0;
+
+        TestExecutor(boolean eligible, Long cost) {
+            super(null, DummyVariantStorageEngine.STORAGE_ENGINE_ID, new ObjectMap());
+            this.eligible = eligible;
+            this.cost = cost;
+        }
+
+        @Override
+        public boolean canUseThisExecutor(Query query, QueryOptions options) {
+            return eligible;
+        }
+
+        @Override
+        public boolean canEstimateCost() {
+            return cost != null;
+        }
+
+        @Override
+        public long estimateCost(Query query, QueryOptions options) {
+            estimations++;
+            return cost;
+        }
+
+        @Override
+        public DataResult<Long> count(Query query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected Object getOrIterator(Query query, QueryOptions options, boolean iterator) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
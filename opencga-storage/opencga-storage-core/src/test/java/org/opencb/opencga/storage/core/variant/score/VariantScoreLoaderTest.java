@@ -33,10 +33,10 @@ import static org.opencb.opencga.storage.core.variant.adaptors.VariantMatchers.*
 @Ignore
 public abstract class VariantScoreLoaderTest extends VariantStorageBaseTest {
 
-    private Set<String> scoredVariants1;
-    private URI scoreFile1;
-    private Set<String> scoredVariants2;
-    private URI scoreFile2;
+    protected Set<String> scoredVariants1;
+    protected URI scoreFile1;
+    protected Set<String> scoredVariants2;
+    protected URI scoreFile2;
 
     @Before
     public void setUp() throws Exception {
@@ -218,6 +218,35 @@ public abstract class VariantStoragePipelineTransformTest extends VariantStorage
         assertEquals("1:31001-54321:N:.", list.get(1).toString());
     }
 
+    @Test
+    public void transformGvcfParallelParse() throws Exception {
+        VariantStorageEngine variantStorageManager = getVariantStorageEngine();
+        variantStorageManager.getOptions().put(VariantStorageOptions.TRANSFORM_FORMAT.key(), "avro");
+        // Small batches, so reference blocks span multiple batches
+        variantStorageManager.getOptions().put(VariantStorageOptions.TRANSFORM_BATCH_SIZE.key(), 10);
+        variantStorageManager.getOptions().put(VariantStorageOptions.TRANSFORM_THREADS.key(), 4);
+
+        URI platinumFile = getPlatinumFile(0);
+
+        variantStorageManager.getOptions().put(VariantStorageOptions.TRANSFORM_GVCF_PARALLEL_PARSE.key(), false);
+        StoragePipelineResult result = variantStorageManager.index(Collections.singletonList(platinumFile), newOutputUri(),
+                true, true, false).get(0);
+        List<String> expected = variantStorageManager.getVariantReaderUtils().getVariantReader(result.getTransformResult(), null)
+                .stream()
+                .map(Variant::toJson)
+                .collect(Collectors.toList());
+
+        variantStorageManager.getOptions().put(VariantStorageOptions.TRANSFORM_GVCF_PARALLEL_PARSE.key(), true);
+        result = variantStorageManager.index(Collections.singletonList(platinumFile), newOutputUri(), true, true, false).get(0);
+        List<String> actual = variantStorageManager.getVariantReaderUtils().getVariantReader(result.getTransformResult(), null)
+                .stream()
+                .map(Variant::toJson)
+                .collect(Collectors.toList());
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
     public int countLines(File outputFile) throws IOException {
         int numLines = 0;
         try (DataInputStream is = new DataInputStream(new FileInputStream(outputFile))) {
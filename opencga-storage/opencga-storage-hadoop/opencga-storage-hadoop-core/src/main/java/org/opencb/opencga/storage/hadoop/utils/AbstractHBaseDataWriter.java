@@ -1,10 +1,15 @@
 package org.opencb.opencga.storage.hadoop.utils;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.*;
 import org.apache.hadoop.hbase.util.Bytes;
+import org.opencb.commons.datastore.core.ObjectMap;
 import org.opencb.commons.io.DataWriter;
+import org.opencb.opencga.storage.core.exceptions.StorageEngineException;
+import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +28,9 @@ public abstract class AbstractHBaseDataWriter<T, M extends Mutation> implements
     protected final HBaseManager hBaseManager;
     protected final String tableName;
     private BufferedMutator mutator;
+    private HFileBulkLoader bulkLoader;
+    private String bulkLoadStagingDir;
+    private long bulkLoadBufferSize;
     private final Logger logger = LoggerFactory.getLogger(AbstractHBaseDataWriter.class);
 
     public AbstractHBaseDataWriter(HBaseManager hBaseManager, String tableName) {
@@ -32,8 +40,66 @@ public abstract class AbstractHBaseDataWriter<T, M extends Mutation> implements
 
     protected abstract List<M> convert(List<T> batch);
 
+    /**
+     * Write the mutations into HFiles instead of sending them to the region servers, and bulk load them at {@link #post}.
+     * Large loads might be bulk loaded in several rounds before the {@link #post}. See {@link HFileBulkLoader}.
+     * Only {@link Put} mutations are supported. Must be called before {@link #open}.
+     *
+     * @param stagingDir Directory where to write the HFiles. Must be writable by the HBase user.
+     * @param bufferSize Max size in bytes of the mutations buffered in memory before writing a new HFile.
+     * @return this
+     */
+    public AbstractHBaseDataWriter<T, M> setBulkLoad(String stagingDir, long bufferSize) {
+        this.bulkLoadStagingDir = Objects.requireNonNull(stagingDir);
+        this.bulkLoadBufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Configure the given writers to bulk load, if enabled with {@link HadoopVariantStorageOptions#LOAD_BULK_LOAD}.
+     *
+     * @param options Options
+     * @param conf    Hadoop configuration, to read the default staging directory
+     * @param writers Writers to configure. Null writers are ignored.
+     * @return If the bulk load is enabled
+     * @throws StorageEngineException if the staging directory is not defined
+     */
+    public static boolean configureBulkLoad(ObjectMap options, Configuration conf, AbstractHBaseDataWriter<?, ?>... writers)
+            throws StorageEngineException {
+        if (!options.getBoolean(HadoopVariantStorageOptions.LOAD_BULK_LOAD.key(),
+                HadoopVariantStorageOptions.LOAD_BULK_LOAD.defaultValue())) {
+            return false;
+        }
+        String stagingDir = options.getString(HadoopVariantStorageOptions.LOAD_BULK_LOAD_STAGING_DIR.key());
+        if (StringUtils.isEmpty(stagingDir)) {
+            stagingDir = conf.get("hbase.fs.tmp.dir");
+            if (StringUtils.isEmpty(stagingDir)) {
+                throw new StorageEngineException("Missing staging directory for bulk load. "
+                        + "Please, define " + HadoopVariantStorageOptions.LOAD_BULK_LOAD_STAGING_DIR.key());
+            }
+        }
+        long bufferSize = options.getLong(HadoopVariantStorageOptions.LOAD_BULK_LOAD_BUFFER_SIZE.key(),
+                HadoopVariantStorageOptions.LOAD_BULK_LOAD_BUFFER_SIZE.defaultValue());
+        LoggerFactory.getLogger(AbstractHBaseDataWriter.class).info("Bulk load HFiles from staging directory {}", stagingDir);
+        for (AbstractHBaseDataWriter<?, ?> writer : writers) {
+            if (writer != null) {
+                writer.setBulkLoad(stagingDir, bufferSize);
+            }
+        }
+        return true;
+    }
+
     @Override
     public boolean open() {
+        if (bulkLoadStagingDir != null) {
+            bulkLoader = new HFileBulkLoader(hBaseManager, tableName, bulkLoadStagingDir, bulkLoadBufferSize);
+            try {
+                bulkLoader.open();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to create HFiles staging directory", e);
+            }
+            return true;
+        }
         try {
             mutator = hBaseManager.getConnection().getBufferedMutator(TableName.valueOf(tableName));
         } catch (IOException e) {
@@ -53,6 +119,10 @@ public abstract class AbstractHBaseDataWriter<T, M extends Mutation> implements
     }
 
     protected void mutate(List<M> mutations) throws IOException {
+        if (bulkLoader != null) {
+            bulkLoader.add(mutations);
+            return;
+        }
         try {
             mutator.mutate(mutations);
         } catch (IllegalArgumentException e) {
@@ -83,6 +153,10 @@ public abstract class AbstractHBaseDataWriter<T, M extends Mutation> implements
     }
 
     public void flush() {
+        if (bulkLoader != null) {
+            // Mutations are not visible until the HFiles are bulk loaded
+            return;
+        }
         try {
             mutator.flush();
         } catch (IOException e) {
@@ -92,14 +166,26 @@ public abstract class AbstractHBaseDataWriter<T, M extends Mutation> implements
 
     @Override
     public boolean post() {
-        flush();
+        if (bulkLoader != null) {
+            try {
+                bulkLoader.bulkLoad();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            flush();
+        }
         return true;
     }
 
     @Override
     public boolean close() {
         try {
-            mutator.close();
+            if (bulkLoader != null) {
+                bulkLoader.close();
+            } else {
+                mutator.close();
+            }
             hBaseManager.close();
         } catch (IOException e) {
             throw new UncheckedIOException(e);
@@ -28,6 +28,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -153,6 +154,76 @@ public class HBaseManager implements AutoCloseable {
         return new PersistentResultScanner(this, scan, tableName);
     }
 
+    /**
+     * Get a ResultScanner that splits the given scans by region boundaries, and reads the sub-scans in parallel.
+     * Results are returned in the same order as a sequential scan.
+     *
+     * @param tableName Table name
+     * @param scans     Scans to execute
+     * @param threads   Max number of sub-scans to execute at the same time
+     * @param prefetch  Max number of results to buffer for each running sub-scan
+     * @return ResultScanner
+     * @throws IOException If any IO problem occurs
+     */
+    public ResultScanner getParallelScanner(String tableName, List<Scan> scans, int threads, int prefetch) throws IOException {
+        List<Scan> splitScans = new ArrayList<>(scans.size());
+        for (Scan scan : scans) {
+            splitScans.addAll(splitScanByRegions(tableName, scan));
+        }
+        return new ParallelResultScanner(this, tableName, splitScans, threads, prefetch);
+    }
+
+    /**
+     * Split a scan by the region boundaries of the table. Each sub-scan will read from one region.
+     *
+     * @param tableName Table name
+     * @param scan      Scan to split. This will not be modified
+     * @return List of sub-scans, sorted by start row.
+     * @throws IOException If any IO problem occurs
+     */
+    public List<Scan> splitScanByRegions(String tableName, Scan scan) throws IOException {
+        byte[][] startKeys;
+        try (RegionLocator regionLocator = getConnection().getRegionLocator(TableName.valueOf(tableName))) {
+            startKeys = regionLocator.getStartKeys();
+        }
+        return splitScan(scan, startKeys);
+    }
+
+    /**
+     * Split a scan by the given split points.
+     *
+     * @param scan          Scan to split. This will not be modified
+     * @param splitPoints   Sorted list of split points. Empty keys are ignored.
+     * @return List of sub-scans, sorted by start row.
+     * @throws IOException If any IO problem occurs
+     */
+    public static List<Scan> splitScan(Scan scan, byte[][] splitPoints) throws IOException {
+        if (scan.isReversed() || scan.isGetScan()) {
+            return Collections.singletonList(scan);
+        }
+        List<Scan> scans = new ArrayList<>();
+        byte[] stopRow = scan.getStopRow();
+        byte[] currentStartRow = scan.getStartRow();
+        for (byte[] splitPoint : splitPoints) {
+            if (splitPoint.length == 0 || Bytes.compareTo(splitPoint, currentStartRow) <= 0) {
+                continue;
+            }
+            if (stopRow.length != 0 && Bytes.compareTo(splitPoint, stopRow) >= 0) {
+                break;
+            }
+            Scan subScan = new Scan(scan);
+            subScan.setStartRow(currentStartRow);
+            subScan.setStopRow(splitPoint);
+            scans.add(subScan);
+            currentStartRow = splitPoint;
+        }
+        Scan lastScan = new Scan(scan);
+        lastScan.setStartRow(currentStartRow);
+        lastScan.setStopRow(stopRow);
+        scans.add(lastScan);
+        return scans;
+    }
+
     /**
      * Performs an action over a table.
      *
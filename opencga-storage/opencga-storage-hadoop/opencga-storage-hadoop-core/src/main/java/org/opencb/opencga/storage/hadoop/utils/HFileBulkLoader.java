@@ -0,0 +1,229 @@
+package org.opencb.opencga.storage.hadoop.utils;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hbase.*;
+import org.apache.hadoop.hbase.client.*;
+import org.apache.hadoop.hbase.io.hfile.CacheConfig;
+import org.apache.hadoop.hbase.io.hfile.HFileContext;
+import org.apache.hadoop.hbase.io.hfile.HFileContextBuilder;
+import org.apache.hadoop.hbase.mapreduce.LoadIncrementalHFiles;
+import org.apache.hadoop.hbase.regionserver.StoreFile;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.hbase.util.ClassSize;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Writes {@link Put} mutations into HFiles in a staging directory, and bulk loads them into the table,
+ * skipping the WAL and the memstore of the region servers.
+ *
+ * Mutations are buffered in memory sorted by key. Every time the buffer is full, a new HFile is written for each
+ * column family. HFiles spanning multiple regions are split by {@link LoadIncrementalHFiles} at load time.
+ * Cells are written with the timestamp of the HFile, so newer HFiles overwrite the cells from the previous ones.
+ *
+ * The number of HFiles per region and family in a single bulk load is limited by
+ * {@link LoadIncrementalHFiles#MAX_FILES_PER_REGION_PER_FAMILY}. To avoid reaching this limit, the HFiles are bulk
+ * loaded every time that this number of spills is reached, and again at the end with {@link #bulkLoad()}.
+ */
+public class HFileBulkLoader implements Closeable {
+
+    private final HBaseManager hBaseManager;
+    private final String tableName;
+    private final Path outputDir;
+    private final long bufferSize;
+    private final int maxSpillsPerLoad;
+    private final Map<byte[], TreeSet<KeyValue>> buffer = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+    private final Logger logger = LoggerFactory.getLogger(HFileBulkLoader.class);
+    private Map<byte[], HColumnDescriptor> families;
+    private FileSystem fs;
+    private long bufferedBytes = 0;
+    private long timestamp;
+    // Spills and HFiles written and not loaded yet
+    private int numSpills = 0;
+    private int numHFiles = 0;
+    // Each bulk load reads from a different subdirectory
+    private int numLoads = 0;
+
+    /**
+     * @param hBaseManager  HBaseManager
+     * @param tableName     Table to load
+     * @param stagingDir    Directory where to write the HFiles. Must be writable by the HBase user.
+     * @param bufferSize    Max size in bytes of the cells buffered in memory before writing a new HFile.
+     */
+    public HFileBulkLoader(HBaseManager hBaseManager, String tableName, String stagingDir, long bufferSize) {
+        this.hBaseManager = hBaseManager;
+        this.tableName = tableName;
+        // Namespace separator is not valid in a path
+        this.outputDir = new Path(stagingDir, tableName.replace(':', '_') + '_' + UUID.randomUUID());
+        this.bufferSize = bufferSize;
+        this.timestamp = System.currentTimeMillis();
+        // Every spill writes at most one HFile per region and family
+        this.maxSpillsPerLoad = Math.max(1, hBaseManager.getConf()
+                .getInt(LoadIncrementalHFiles.MAX_FILES_PER_REGION_PER_FAMILY, 32) - 1);
+    }
+
+    public void open() throws IOException {
+        fs = outputDir.getFileSystem(hBaseManager.getConf());
+        fs.mkdirs(outputDir);
+        logger.info("Writing HFiles for table '{}' at {}", tableName, outputDir);
+    }
+
+    public synchronized void add(List<? extends Mutation> mutations) throws IOException {
+        for (Mutation mutation : mutations) {
+            if (!(mutation instanceof Put)) {
+                throw new IllegalArgumentException("Unable to bulk load mutation of type " + mutation.getClass().getSimpleName());
+            }
+            for (Map.Entry<byte[], List<Cell>> entry : mutation.getFamilyCellMap().entrySet()) {
+                TreeSet<KeyValue> cells = buffer.computeIfAbsent(entry.getKey(), k -> new TreeSet<>(KeyValue.COMPARATOR));
+                for (Cell cell : entry.getValue()) {
+                    KeyValue kv = KeyValueUtil.ensureKeyValue(cell);
+                    kv.updateLatestStamp(Bytes.toBytes(timestamp));
+                    // Replace previous value of the same cell, if any
+                    KeyValue previous = cells.floor(kv);
+                    if (previous != null && KeyValue.COMPARATOR.compare(previous, kv) == 0) {
+                        cells.remove(previous);
+                        bufferedBytes -= heapSize(previous);
+                    }
+                    cells.add(kv);
+                    bufferedBytes += heapSize(kv);
+                }
+            }
+        }
+        if (bufferedBytes >= bufferSize) {
+            flushBuffer();
+            if (numSpills >= maxSpillsPerLoad) {
+                loadHFiles();
+            }
+        }
+    }
+
+    /**
+     * Memory used by a buffered cell, including the KeyValue object and the entry of the TreeSet.
+     *
+     * @param kv KeyValue
+     * @return Size in bytes
+     */
+    private static long heapSize(KeyValue kv) {
+        return kv.heapSize() + ClassSize.MAP_ENTRY;
+    }
+
+    /**
+     * Write the pending cells and bulk load all the HFiles into the table.
+     *
+     * @throws IOException on error writing or loading the HFiles
+     */
+    public synchronized void bulkLoad() throws IOException {
+        flushBuffer();
+        if (numHFiles == 0 && numLoads == 0) {
+            logger.info("Nothing to bulk load into table '{}'", tableName);
+            return;
+        }
+        loadHFiles();
+    }
+
+    private void loadHFiles() throws IOException {
+        if (numHFiles == 0) {
+            return;
+        }
+        logger.info("Bulk load {} HFiles into table '{}'", numHFiles, tableName);
+        LoadIncrementalHFiles loadIncrementalHFiles;
+        try {
+            loadIncrementalHFiles = new LoadIncrementalHFiles(hBaseManager.getConf());
+        } catch (Exception e) {
+            throw new IOException("Unable to bulk load HFiles into table " + tableName, e);
+        }
+        Connection connection = hBaseManager.getConnection();
+        TableName table = TableName.valueOf(tableName);
+        try (Admin admin = connection.getAdmin();
+             Table hTable = connection.getTable(table);
+             RegionLocator regionLocator = connection.getRegionLocator(table)) {
+            loadIncrementalHFiles.doBulkLoad(getLoadDir(), admin, hTable, regionLocator);
+        }
+        numLoads++;
+        numSpills = 0;
+        numHFiles = 0;
+    }
+
+    private Path getLoadDir() {
+        return new Path(outputDir, String.valueOf(numLoads));
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<byte[], TreeSet<KeyValue>> entry : buffer.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                writeHFile(entry.getKey(), entry.getValue());
+            }
+        }
+        numSpills++;
+        buffer.clear();
+        bufferedBytes = 0;
+        // Cells from following HFiles must overwrite the cells from this HFile
+        timestamp = Math.max(System.currentTimeMillis(), timestamp + 1);
+    }
+
+    private void writeHFile(byte[] family, Collection<KeyValue> cells) throws IOException {
+        HColumnDescriptor descriptor = getFamilies().get(family);
+        if (descriptor == null) {
+            throw new IOException("Column family '" + Bytes.toString(family) + "' not found in table " + tableName);
+        }
+        Configuration conf = hBaseManager.getConf();
+        HFileContext context = new HFileContextBuilder()
+                .withCompression(descriptor.getCompressionType())
+                .withDataBlockEncoding(descriptor.getDataBlockEncoding())
+                .withBlockSize(descriptor.getBlocksize())
+                .build();
+        StoreFile.Writer writer = new StoreFile.WriterBuilder(conf, new CacheConfig(conf), fs)
+                .withOutputDir(new Path(getLoadDir(), Bytes.toString(family)))
+                .withComparator(KeyValue.COMPARATOR)
+                .withBloomType(descriptor.getBloomFilterType())
+                .withFileContext(context)
+                .build();
+        try {
+            for (KeyValue kv : cells) {
+                writer.append(kv);
+            }
+            writer.appendFileInfo(StoreFile.BULKLOAD_TIME_KEY, Bytes.toBytes(System.currentTimeMillis()));
+            writer.appendFileInfo(StoreFile.MAJOR_COMPACTION_KEY, Bytes.toBytes(false));
+            writer.appendTrackedTimestampsToMetadata();
+        } finally {
+            writer.close();
+        }
+        numHFiles++;
+        logger.debug("Write HFile {} with {} cells", writer.getPath(), cells.size());
+    }
+
+    private Map<byte[], HColumnDescriptor> getFamilies() throws IOException {
+        // Read lazily, as the table might be created after opening the writer
+        if (families == null) {
+            HTableDescriptor tableDescriptor = hBaseManager.act(tableName, table -> {
+                return table.getTableDescriptor();
+            });
+            families = new TreeMap<>(Bytes.BYTES_COMPARATOR);
+            for (HColumnDescriptor columnDescriptor : tableDescriptor.getColumnFamilies()) {
+                families.put(columnDescriptor.getName(), columnDescriptor);
+            }
+        }
+        return families;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (numHFiles > 0 || !buffer.isEmpty()) {
+            logger.warn("Discarding HFiles for table '{}' not bulk loaded", tableName);
+        }
+        buffer.clear();
+        if (fs != null) {
+            // Loaded HFiles are moved to the table directory. Remove the remaining files.
+            fs.delete(outputDir, true);
+        }
+    }
+}
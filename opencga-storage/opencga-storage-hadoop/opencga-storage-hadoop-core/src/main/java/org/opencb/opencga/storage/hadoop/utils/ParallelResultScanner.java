@@ -0,0 +1,165 @@
+package org.opencb.opencga.storage.hadoop.utils;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.hadoop.hbase.client.AbstractClientScanner;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResultScanner that runs a list of sub-scans in parallel, returning the results in the same order as the given scans.
+ *
+ * At most "threads" sub-scans are executed at the same time. Each running sub-scan prefetches up to "prefetch"
+ * results in a bounded buffer, so the memory usage is limited regardless of the number of sub-scans.
+ *
+ * Sub-scans are usually obtained with {@link HBaseManager#splitScanByRegions}, so each region server
+ * is read concurrently.
+ */
+public class ParallelResultScanner extends AbstractClientScanner {
+
+    private static final Result END_OF_SCAN = new Result();
+    private static final long OFFER_TIMEOUT_MS = 100;
+    private static Logger logger = LoggerFactory.getLogger(ParallelResultScanner.class);
+
+    private final HBaseManager hBaseManager;
+    private final String tableName;
+    private final Iterator<Scan> pendingScans;
+    private final int prefetch;
+    private final ExecutorService executor;
+    private final LinkedList<ScanTask> runningTasks = new LinkedList<>();
+    private ScanTask currentTask;
+    private volatile boolean closed = false;
+
+    public ParallelResultScanner(HBaseManager hBaseManager, String tableName, List<Scan> scans, int threads, int prefetch) {
+        this.hBaseManager = hBaseManager;
+        this.tableName = tableName;
+        this.pendingScans = scans.iterator();
+        this.prefetch = Math.max(1, prefetch);
+        int poolSize = Math.max(1, Math.min(threads, scans.size()));
+        this.executor = Executors.newFixedThreadPool(poolSize, new BasicThreadFactory.Builder()
+                .namingPattern("hbase-parallel-scan-%s")
+                .daemon(true)
+                .build());
+
+        logger.debug("Run {} scans over table {} using {} threads", scans.size(), tableName, poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            submitNextScan();
+        }
+    }
+
+    private void submitNextScan() {
+        if (!closed && pendingScans.hasNext()) {
+            ScanTask task = new ScanTask(pendingScans.next());
+            runningTasks.add(task);
+            executor.submit(task);
+        }
+    }
+
+    @Override
+    public Result next() throws IOException {
+        while (true) {
+            if (closed) {
+                return null;
+            }
+            if (currentTask == null) {
+                currentTask = runningTasks.pollFirst();
+                if (currentTask == null) {
+                    // No more scans
+                    return null;
+                }
+            }
+            Result result;
+            try {
+                result = currentTask.buffer.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(e.getMessage());
+            }
+            if (result == END_OF_SCAN) {
+                Throwable exception = currentTask.exception;
+                if (exception instanceof IOException) {
+                    throw (IOException) exception;
+                } else if (exception instanceof Error) {
+                    throw (Error) exception;
+                } else if (exception != null) {
+                    throw new IOException(exception);
+                }
+                // Current sub-scan finished. Start next pending scan, if any.
+                currentTask = null;
+                submitNextScan();
+            } else {
+                return result;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean renewLease() {
+        return false;
+    }
+
+    private class ScanTask implements Runnable {
+        private final Scan scan;
+        private final BlockingQueue<Result> buffer;
+        private volatile Throwable exception;
+
+        ScanTask(Scan scan) {
+            this.scan = scan;
+            this.buffer = new ArrayBlockingQueue<>(prefetch);
+        }
+
+        @Override
+        public void run() {
+            try (ResultScanner scanner = hBaseManager.getScanner(tableName, scan)) {
+                for (Result result : scanner) {
+                    if (!offer(result)) {
+                        return;
+                    }
+                }
+            } catch (IOException | RuntimeException | Error e) {
+                exception = e;
+            } finally {
+                // Always mark the end of the scan, or the consumer would wait forever
+                offer(END_OF_SCAN);
+            }
+        }
+
+        /**
+         * Blocks until the result can be added to the buffer.
+         * @param result Result to add
+         * @return false if the scanner was closed.
+         */
+        private boolean offer(Result result) {
+            try {
+                while (!buffer.offer(result, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    if (closed) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.opencb.opencga.storage.hadoop.utils;
+
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Sequential scanner over a sorted list of non-overlapping scans, that allows to seek forward to a given row key.
+ *
+ * Seeking a row key far ahead from the current position will reopen the underlying scanner starting from that
+ * row key, instead of reading all the rows in between.
+ */
+public class SeekableResultScanner implements AutoCloseable {
+
+    private final HBaseManager hBaseManager;
+    private final String tableName;
+    private final LinkedList<Scan> pendingScans;
+    private Scan currentScan;
+    private ResultScanner scanner;
+    private Result current;
+    private int seeks = 0;
+
+    /**
+     * Create a new SeekableResultScanner.
+     *
+     * @param hBaseManager HBaseManager
+     * @param tableName    Table name
+     * @param scans        List of scans, sorted by start row, without overlapping.
+     */
+    public SeekableResultScanner(HBaseManager hBaseManager, String tableName, List<Scan> scans) {
+        this.hBaseManager = hBaseManager;
+        this.tableName = tableName;
+        this.pendingScans = new LinkedList<>(scans);
+    }
+
+    /**
+     * Get the last result returned by the scanner.
+     *
+     * @return Current result. Null if the scanner is exhausted or not started.
+     */
+    public Result current() {
+        return current;
+    }
+
+    /**
+     * Move to the next row.
+     *
+     * @return Next result, or null if there are no more results.
+     * @throws IOException If any IO problem occurs
+     */
+    public Result next() throws IOException {
+        while (true) {
+            if (scanner == null) {
+                if (pendingScans.isEmpty()) {
+                    current = null;
+                    return null;
+                }
+                openScanner(pendingScans.removeFirst());
+            }
+            current = scanner.next();
+            if (current != null) {
+                return current;
+            }
+            closeScanner();
+            currentScan = null;
+        }
+    }
+
+    /**
+     * Move to the first row greater or equal than the given row key.
+     * Can not seek backwards. If the current row is already greater or equal than the given row key, it does not move.
+     *
+     * @param rowKey     Row key to seek
+     * @return First result with a row key greater or equal than the given one. Null if there are no more results.
+     * @throws IOException If any IO problem occurs
+     */
+    public Result seek(byte[] rowKey) throws IOException {
+        if (current != null && Bytes.compareTo(current.getRow(), rowKey) >= 0) {
+            return current;
+        }
+        closeScanner();
+        seeks++;
+        // Discard scans finishing before the row key
+        for (Iterator<Scan> iterator = pendingScans.iterator(); iterator.hasNext();) {
+            Scan scan = iterator.next();
+            byte[] stopRow = scan.getStopRow();
+            if (stopRow.length != 0 && Bytes.compareTo(stopRow, rowKey) <= 0) {
+                iterator.remove();
+            } else {
+                break;
+            }
+        }
+        if (currentScan != null) {
+            byte[] stopRow = currentScan.getStopRow();
+            if (stopRow.length == 0 || Bytes.compareTo(stopRow, rowKey) > 0) {
+                // Current scan did not finish yet. Resume it.
+                pendingScans.addFirst(currentScan);
+            }
+            currentScan = null;
+        }
+        if (!pendingScans.isEmpty() && Bytes.compareTo(pendingScans.getFirst().getStartRow(), rowKey) < 0) {
+            Scan scan = new Scan(pendingScans.removeFirst());
+            scan.setStartRow(rowKey);
+            pendingScans.addFirst(scan);
+        }
+        return next();
+    }
+
+    private void openScanner(Scan scan) throws IOException {
+        currentScan = scan;
+        scanner = hBaseManager.getScanner(tableName, scan);
+    }
+
+    private void closeScanner() {
+        if (scanner != null) {
+            scanner.close();
+            scanner = null;
+        }
+    }
+
+    public int getSeeks() {
+        return seeks;
+    }
+
+    @Override
+    public void close() {
+        closeScanner();
+        currentScan = null;
+        current = null;
+        pendingScans.clear();
+    }
+}
@@ -37,9 +37,11 @@ import org.opencb.opencga.storage.core.metadata.models.TaskMetadata;
 import org.opencb.opencga.storage.core.variant.VariantStorageOptions;
 import org.opencb.opencga.storage.core.variant.io.VariantReaderUtils;
 import org.opencb.opencga.storage.core.variant.transform.DiscardDuplicatedVariantsResolver;
+import org.opencb.opencga.storage.hadoop.utils.AbstractHBaseDataWriter;
 import org.opencb.opencga.storage.hadoop.variant.adaptors.VariantHadoopDBAdaptor;
 import org.opencb.opencga.storage.hadoop.variant.archive.ArchiveTableHelper;
 import org.opencb.opencga.storage.hadoop.variant.archive.VariantHBaseArchiveDataWriter;
+import org.opencb.opencga.storage.hadoop.variant.index.sample.SampleIndexAnnotationLoader;
 import org.opencb.opencga.storage.hadoop.variant.index.sample.SampleIndexDBLoader;
 import org.opencb.opencga.storage.hadoop.variant.load.VariantHadoopDBWriter;
 import org.opencb.opencga.storage.hadoop.variant.transform.VariantSliceReader;
@@ -178,7 +180,10 @@ public class HadoopLocalLoadVariantStoragePipeline extends HadoopVariantStorageP
                     dbAdaptor.getTableNameGenerator().getSampleIndexTableName(helper.getStudyId()), sampleIds,
                     GenomeHelper.COLUMN_FAMILY_BYTES,
                     getOptions());
+            // New genotypes are not annotated in the sample index
+            SampleIndexAnnotationLoader.resetSampleIndexAnnotationStatus(helper.getStudyId(), sampleIds, getMetadataManager());
         }
+        configureBulkLoad(archiveWriter, variantsWriter, sampleIndexDBLoader);
 
 //        ((TaskMetadata<VcfSlice, VcfSlice>) t -> t)
 //                .then(archiveWriter)
@@ -249,8 +254,9 @@ public class HadoopLocalLoadVariantStoragePipeline extends HadoopVariantStorageP
 
         // Reader
         VariantDeduplicationTask dedupTask = new VariantDeduplicationTask(new DiscardDuplicatedVariantsResolver(fileId));
+        // Decode and deduplicate variants in a separate thread. The reader thread of the PTR groups them in slices
         VariantSliceReader sliceReader = new VariantSliceReader(
-                helper.getChunkSize(), variantReader.then(dedupTask), studyId, fileId, progressLogger);
+                helper.getChunkSize(), readAhead(variantReader.then(dedupTask), 10), studyId, fileId, progressLogger);
 
         // Archive Writer
         VariantHBaseArchiveDataWriter archiveWriter = new VariantHBaseArchiveDataWriter(helper, table, dbAdaptor.getHBaseManager());
@@ -266,7 +272,10 @@ public class HadoopLocalLoadVariantStoragePipeline extends HadoopVariantStorageP
                     dbAdaptor.getTableNameGenerator().getSampleIndexTableName(studyId), sampleIds,
                     GenomeHelper.COLUMN_FAMILY_BYTES,
                     getOptions());
+            // New genotypes are not annotated in the sample index
+            SampleIndexAnnotationLoader.resetSampleIndexAnnotationStatus(studyId, sampleIds, getMetadataManager());
         }
+        configureBulkLoad(archiveWriter, hadoopDBWriter, sampleIndexDBLoader);
 
         // TaskMetadata
         String archiveFields = options.getString(ARCHIVE_FIELDS.key());
@@ -345,6 +354,10 @@ public class HadoopLocalLoadVariantStoragePipeline extends HadoopVariantStorageP
         }
     }
 
+    private void configureBulkLoad(AbstractHBaseDataWriter<?, ?>... writers) throws StorageEngineException {
+        AbstractHBaseDataWriter.configureBulkLoad(options, conf, writers);
+    }
+
     private VariantHadoopDBWriter newVariantHadoopDBWriter() throws StorageEngineException {
         boolean includeReferenceVariantsData = getOptions().getBoolean(
                 VARIANT_TABLE_LOAD_REFERENCE.key(),
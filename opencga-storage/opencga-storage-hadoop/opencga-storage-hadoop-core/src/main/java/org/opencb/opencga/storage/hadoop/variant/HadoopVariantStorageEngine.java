@@ -763,7 +763,7 @@ public class HadoopVariantStorageEngine extends VariantStorageEngine implements
                                  VariantScoreFormatDescriptor descriptor, ObjectMap options)
             throws StorageEngineException {
         new HadoopVariantScoreLoader(getDBAdaptor(), ioConnectorProvider)
-                .loadVariantScore(scoreFile, study, scoreName, cohort1, cohort2, descriptor, options);
+                .loadVariantScore(scoreFile, study, scoreName, cohort1, cohort2, descriptor, getMergedOptions(options));
     }
 
     @Override
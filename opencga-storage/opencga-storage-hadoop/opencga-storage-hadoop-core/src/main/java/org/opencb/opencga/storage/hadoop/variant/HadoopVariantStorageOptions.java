@@ -7,9 +7,32 @@ public enum HadoopVariantStorageOptions implements ConfigurationOption {
 
 
     HADOOP_LOAD_FILES_IN_PARALLEL("storage.hadoop.load.filesInParallel", 1),
+    /**
+     * Write the archive, variants and sample index tables into HFiles, bulk loaded at the end of each file,
+     * instead of sending Puts to the region servers. Skips the WAL and the memstore.
+     */
+    LOAD_BULK_LOAD("storage.hadoop.load.bulkLoad", false),
+    /**
+     * Directory where to write the HFiles before bulk loading them. Must be writable by the HBase user.
+     * Defaults to the "hbase.fs.tmp.dir" directory.
+     */
+    LOAD_BULK_LOAD_STAGING_DIR("storage.hadoop.load.bulkLoad.stagingDir"),
+    /**
+     * Max size in bytes of the mutations buffered in memory for each table before writing a new set of HFiles.
+     */
+    LOAD_BULK_LOAD_BUFFER_SIZE("storage.hadoop.load.bulkLoad.bufferSize", 256L * 1024 * 1024),
     HBASE_NAMESPACE("storage.hadoop.hbase.namespace"),
     EXPECTED_FILES_NUMBER("expected_files_number", 5000),
     DBADAPTOR_PHOENIX_FETCH_SIZE("storage.hadoop.phoenix.fetchSize", -1),
+    /**
+     * Number of threads to read the variants table in parallel, split by region, when using native HBase queries.
+     * Results are returned sorted. Parallel scan is disabled if lower than 2.
+     */
+    DBADAPTOR_PARALLEL_SCAN_THREADS("storage.hadoop.dbadaptor.parallelScan.threads", 1),
+    /**
+     * Number of results to prefetch from each region being scanned in parallel.
+     */
+    DBADAPTOR_PARALLEL_SCAN_PREFETCH("storage.hadoop.dbadaptor.parallelScan.prefetch", 500),
 
     /////////////////////////
     // MapReduce configuration
@@ -79,6 +102,20 @@ public enum HadoopVariantStorageOptions implements ConfigurationOption {
     /////////////////////////
     SAMPLE_INDEX_TABLE_COMPRESSION("storage.hadoop.sampleIndex.table.compression", Compression.Algorithm.SNAPPY.getName()),
     SAMPLE_INDEX_TABLE_PRESPLIT_SIZE("storage.hadoop.sampleIndex.table.preSplit.samplesPerSplit", 15),
+    /**
+     * Evaluate the sample index filters (annotation, population frequency, file and parents) at the region servers,
+     * discarding the rows without matching variants. Requires the opencga-storage-hadoop-core jar to be deployed
+     * into the region servers classpath.
+     */
+    SAMPLE_INDEX_QUERY_SERVER_SIDE_FILTER("storage.hadoop.sampleIndex.query.serverSideFilter", false),
+    /**
+     * Number of batches of filtered variants to read ahead from the sample index in a helper thread. Use 0 to disable.
+     */
+    SAMPLE_INDEX_QUERY_PREFETCH_BATCHES("storage.hadoop.sampleIndex.query.prefetch.batches", 0),
+    /**
+     * Expected size in bytes of each scanner batch. Used to tune the scanner caching from the observed row size.
+     */
+    SAMPLE_INDEX_QUERY_PREFETCH_BATCH_SIZE_BYTES("storage.hadoop.sampleIndex.query.prefetch.batchSizeBytes", 2 * 1024 * 1024),
 
     /////////////////////////
     // Annotation index table  configuration
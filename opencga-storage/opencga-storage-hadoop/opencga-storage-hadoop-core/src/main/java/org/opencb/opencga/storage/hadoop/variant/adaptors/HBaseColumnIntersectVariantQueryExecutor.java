@@ -2,20 +2,23 @@ package org.opencb.opencga.storage.hadoop.variant.adaptors;
 
 import com.google.common.collect.Iterators;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hbase.client.Scan;
 import org.opencb.biodata.models.variant.Variant;
 import org.opencb.commons.datastore.core.DataResult;
 import org.opencb.commons.datastore.core.ObjectMap;
 import org.opencb.commons.datastore.core.Query;
 import org.opencb.commons.datastore.core.QueryOptions;
 import org.opencb.opencga.core.results.VariantQueryResult;
-import org.opencb.opencga.storage.core.variant.adaptors.VariantDBAdaptor;
+import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryException;
+import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryFields;
 import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryUtils;
+import org.opencb.opencga.storage.core.variant.adaptors.iterators.VariantDBIterator;
 import org.opencb.opencga.storage.core.variant.query.VariantQueryExecutor;
+import org.opencb.opencga.storage.hadoop.variant.adaptors.iterators.VariantRowKeyIntersectIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static org.opencb.opencga.storage.core.variant.adaptors.VariantField.ALTERNATE;
 import static org.opencb.opencga.storage.core.variant.adaptors.VariantField.REFERENCE;
@@ -31,12 +34,15 @@ import static org.opencb.opencga.storage.hadoop.variant.adaptors.VariantHBaseQue
  */
 public class HBaseColumnIntersectVariantQueryExecutor extends VariantQueryExecutor {
     public static final String HBASE_COLUMN_INTERSECT = "hbase_column_intersect";
+    public static final String MAX_FILTERS = "hbase_column_intersect_max_filters";
+    public static final int DEFAULT_MAX_FILTERS = 4;
+    public static final String MAX_STEPS_BEFORE_SEEK = "hbase_column_intersect_max_steps_before_seek";
     private static final boolean ACTIVE_BY_DEFAULT = false;
-    private final VariantDBAdaptor dbAdaptor;
+    private final VariantHadoopDBAdaptor dbAdaptor;
 
     private Logger logger = LoggerFactory.getLogger(HBaseColumnIntersectVariantQueryExecutor.class);
 
-    public HBaseColumnIntersectVariantQueryExecutor(VariantDBAdaptor dbAdaptor, String storageEngineId, ObjectMap options) {
+    public HBaseColumnIntersectVariantQueryExecutor(VariantHadoopDBAdaptor dbAdaptor, String storageEngineId, ObjectMap options) {
         super(dbAdaptor.getMetadataManager(), storageEngineId, options);
         this.dbAdaptor = dbAdaptor;
     }
@@ -84,6 +90,10 @@ public class HBaseColumnIntersectVariantQueryExecutor extends VariantQueryExecut
      * Intersect result of column hbase scan and full phoenix query.
      * Use {@link org.opencb.opencga.storage.core.variant.adaptors.iterators.MultiVariantDBIterator}.
      *
+     * If there are multiple column filters (e.g. multiple samples or files with AND operator), each filter is executed as a
+     * separated sorted scan, and the scans are intersected with a {@link VariantRowKeyIntersectIterator}.
+     * Scans are lazy, so queries with limit do not read further than needed.
+     *
      * @param query    Query
      * @param options  Options
      * @param iterator Shall the resulting object be an iterator instead of a DataResult
@@ -99,62 +109,116 @@ public class HBaseColumnIntersectVariantQueryExecutor extends VariantQueryExecut
         // If we add more columns, even to reduce the number of results, we will scan more rows,
         // which is what ultimately we want to reduce.
         // Only add more columns if we want rows with ANY of them. e.g: files=file1;file2
-        // TODO: Make number of filters configurable?
-        Query scanQuery = new Query();
+        // Filters by multiple columns with AND are executed as multiple scans, and intersected.
+        List<Query> scanQueries = buildScanQueries(query, options.getInt(MAX_FILTERS, DEFAULT_MAX_FILTERS));
         QueryOptions scanOptions = new QueryOptions(VariantHadoopDBAdaptor.NATIVE, true)
                 .append(QueryOptions.INCLUDE, Arrays.asList(CHROMOSOME, START, END, REFERENCE, ALTERNATE));
+        if (isValidParam(query, REGION)) {
+            query.remove(REGION.key());
+        }
 
-        scanQuery.putIfNotNull(STUDY.key(), query.get(STUDY.key()));
-        if (query.getBoolean(VARIANTS_TO_INDEX.key(), false)) {
-            scanQuery.put(VARIANTS_TO_INDEX.key(), true);
-        } else if (isValidParam(query, SAMPLE)) {
-            // At any case, filter only by first sample
-            // TODO: Use sample with less variants?
-
-            String value = query.getString(SAMPLE.key());
-            scanQuery.putIfNotNull(SAMPLE.key(), splitValue(value).getValue().get(0));
-        } else if (isValidParam(query, GENOTYPE)) {
-            // Get the genotype sample with fewer genotype filters (i.e., the most strict filter)
+        Iterator<String> variants;
+        AutoCloseable closeable;
+        if (scanQueries.size() == 1) {
+            VariantDBIterator scanIterator = dbAdaptor.iterator(scanQueries.get(0), scanOptions);
+            variants = Iterators.transform(scanIterator, Variant::toString);
+            closeable = scanIterator;
+        } else {
+            logger.info("Intersect {} column scans", scanQueries.size());
+            List<List<Scan>> scans = new ArrayList<>(scanQueries.size());
+            for (Query scanQuery : scanQueries) {
+                VariantQueryFields selectElements = VariantQueryUtils.parseVariantQueryFields(scanQuery, scanOptions,
+                        dbAdaptor.getMetadataManager());
+                scans.add(dbAdaptor.getHBaseQueryParser().parseQueryMultiRegion(selectElements, scanQuery, scanOptions));
+            }
+            VariantRowKeyIntersectIterator intersectIterator = new VariantRowKeyIntersectIterator(
+                    dbAdaptor.getHBaseManager(), dbAdaptor.getVariantTable(), scans,
+                    options.getInt(MAX_STEPS_BEFORE_SEEK, VariantRowKeyIntersectIterator.DEFAULT_MAX_STEPS_BEFORE_SEEK));
+            variants = Iterators.transform(intersectIterator, Variant::toString);
+            closeable = intersectIterator;
+        }
 
-            HashMap<Object, List<String>> map = new HashMap<>();
-            parseGenotypeFilter(query.getString(GENOTYPE.key()), map);
-            Map.Entry<Object, List<String>> currentEntry = null;
-            for (Map.Entry<Object, List<String>> entry : map.entrySet()) {
-                if (currentEntry == null || currentEntry.getValue().size() > entry.getValue().size()) {
-                    currentEntry = entry;
+        int batchSize = options.getInt("multiIteratorBatchSize", 100);
+        if (iterator) {
+            return dbAdaptor.iterator(variants, query, options, batchSize).addCloseable(closeable);
+        } else {
+            try {
+                VariantQueryResult<Variant> result = dbAdaptor.get(variants, query, options);
+                result.setSource(getStorageEngineId() + " + " + getStorageEngineId());
+                return result;
+            } finally {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    throw VariantQueryException.internalException(e);
                 }
             }
+        }
+    }
+
+    /**
+     * Build one query for each column filter to intersect.
+     *
+     * @param query      Input query
+     * @param maxFilters Max number of column filters to intersect
+     * @return List of queries, each one with one single column filter
+     */
+    protected List<Query> buildScanQueries(Query query, int maxFilters) {
+        Query baseQuery = new Query();
+        baseQuery.putIfNotNull(STUDY.key(), query.get(STUDY.key()));
+        if (isValidParam(query, REGION)) {
+            baseQuery.put(REGION.key(), query.get(REGION.key()));
+        }
 
-            scanQuery.putIfNotNull(GENOTYPE.key(),
-                    currentEntry.getKey() + ":" + currentEntry.getValue().stream().collect(Collectors.joining(",")));
-        } else if (isValidParam(query, FILE)) {
+        List<Query> scanQueries = new ArrayList<>();
+        if (query.getBoolean(VARIANTS_TO_INDEX.key(), false)) {
+            scanQueries.add(new Query(baseQuery).append(VARIANTS_TO_INDEX.key(), true));
+            return scanQueries;
+        }
+
+        if (isValidParam(query, SAMPLE)) {
+            Pair<QueryOperation, List<String>> pair = splitValue(query.getString(SAMPLE.key()));
+            if (pair.getKey() != QueryOperation.OR) {
+                for (String sample : pair.getValue()) {
+                    if (!isNegated(sample)) {
+                        scanQueries.add(new Query(baseQuery).append(SAMPLE.key(), sample));
+                    }
+                }
+            }
+        }
+        if (isValidParam(query, GENOTYPE)) {
+            // Sort genotype samples by number of genotypes (i.e., the most strict filter first)
+            HashMap<Object, List<String>> map = new HashMap<>();
+            QueryOperation queryOperation = parseGenotypeFilter(query.getString(GENOTYPE.key()), map);
+            if (queryOperation != QueryOperation.OR) {
+                map.entrySet()
+                        .stream()
+                        .sorted(Comparator.comparingInt(entry -> entry.getValue().size()))
+                        .forEach(entry -> scanQueries.add(new Query(baseQuery)
+                                .append(GENOTYPE.key(), entry.getKey() + ":" + String.join(",", entry.getValue()))));
+            }
+        }
+        if (isValidParam(query, FILE)) {
             String value = query.getString(FILE.key());
             Pair<QueryOperation, List<String>> pair = splitValue(value);
             if (pair.getKey() == QueryOperation.OR) {
                 // Because we want all the variants with ANY of this files, use ALL files to filter
-                scanQuery.putIfNotNull(FILE.key(), value);
+                scanQueries.add(new Query(baseQuery).append(FILE.key(), value));
             } else {
-                // Filter only by one file
-                scanQuery.putIfNotNull(FILE.key(), pair.getValue().get(0));
+                for (String file : pair.getValue()) {
+                    if (!isNegated(file)) {
+                        scanQueries.add(new Query(baseQuery).append(FILE.key(), file));
+                    }
+                }
             }
-
         }
-        if (isValidParam(query, REGION)) {
-            scanQuery.put(REGION.key(), query.get(REGION.key()));
-            query.remove(REGION.key());
+        if (scanQueries.isEmpty()) {
+            scanQueries.add(baseQuery);
         }
-
-        Iterator<String> variants = Iterators.transform(dbAdaptor.iterator(scanQuery, scanOptions), Variant::toString);
-
-        int batchSize = options.getInt("multiIteratorBatchSize", 100);
-        if (iterator) {
-            return dbAdaptor.iterator(variants, query, options, batchSize);
-        } else {
-            VariantQueryResult<Variant> result = dbAdaptor.get(variants, query, options);
-            result.setSource(getStorageEngineId() + " + " + getStorageEngineId());
-            return result;
+        if (scanQueries.size() > maxFilters) {
+            return scanQueries.subList(0, Math.max(1, maxFilters));
         }
+        return scanQueries;
     }
 
-
 }
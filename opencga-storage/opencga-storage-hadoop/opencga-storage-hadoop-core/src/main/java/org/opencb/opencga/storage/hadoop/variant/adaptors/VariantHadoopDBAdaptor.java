@@ -100,6 +100,8 @@ public class VariantHadoopDBAdaptor implements VariantDBAdaptor {
     private final VariantHBaseQueryParser hbaseQueryParser;
     private final HBaseFileMetadataDBAdaptor variantFileMetadataDBAdaptor;
     private final int phoenixFetchSize;
+    private final int parallelScanThreads;
+    private final int parallelScanPrefetch;
     private boolean clientSideSkip;
     private HBaseManager hBaseManager;
 
@@ -130,6 +132,12 @@ public class VariantHadoopDBAdaptor implements VariantDBAdaptor {
         phoenixFetchSize = options.getInt(
                 HadoopVariantStorageOptions.DBADAPTOR_PHOENIX_FETCH_SIZE.key(),
                 HadoopVariantStorageOptions.DBADAPTOR_PHOENIX_FETCH_SIZE.defaultValue());
+        parallelScanThreads = options.getInt(
+                HadoopVariantStorageOptions.DBADAPTOR_PARALLEL_SCAN_THREADS.key(),
+                HadoopVariantStorageOptions.DBADAPTOR_PARALLEL_SCAN_THREADS.defaultValue());
+        parallelScanPrefetch = options.getInt(
+                HadoopVariantStorageOptions.DBADAPTOR_PARALLEL_SCAN_PREFETCH.key(),
+                HadoopVariantStorageOptions.DBADAPTOR_PARALLEL_SCAN_PREFETCH.defaultValue());
 
         phoenixHelper = new VariantPhoenixHelper(genomeHelper);
 
@@ -176,6 +184,10 @@ public class VariantHadoopDBAdaptor implements VariantDBAdaptor {
         return variantTable;
     }
 
+    public VariantHBaseQueryParser getHBaseQueryParser() {
+        return hbaseQueryParser;
+    }
+
     public String getArchiveTableName(int studyId) {
         return tableNameGenerator.getArchiveTableName(studyId);
     }
@@ -437,13 +449,22 @@ public class VariantHadoopDBAdaptor implements VariantDBAdaptor {
                     unknownGenotype = query.getString(UNKNOWN_GENOTYPE.key());
                 }
                 List<String> formats = getIncludeFormats(query);
-                Iterator<ResultScanner> resScans = scans.stream().map(scan -> {
-                    try {
-                        return hBaseManager.getScanner(variantTable, scan);
-                    } catch (IOException e) {
-                        throw VariantQueryException.internalException(e);
-                    }
-                }).iterator();
+                int threads = options.getInt(HadoopVariantStorageOptions.DBADAPTOR_PARALLEL_SCAN_THREADS.key(), parallelScanThreads);
+                Iterator<ResultScanner> resScans;
+                if (threads > 1) {
+                    int prefetch = options.getInt(HadoopVariantStorageOptions.DBADAPTOR_PARALLEL_SCAN_PREFETCH.key(),
+                            parallelScanPrefetch);
+                    logger.debug("Parallel scan with {} threads", threads);
+                    resScans = Iterators.singletonIterator(hBaseManager.getParallelScanner(variantTable, scans, threads, prefetch));
+                } else {
+                    resScans = scans.stream().map(scan -> {
+                        try {
+                            return hBaseManager.getScanner(variantTable, scan);
+                        } catch (IOException e) {
+                            throw VariantQueryException.internalException(e);
+                        }
+                    }).iterator();
+                }
 
                 VariantHBaseScanIterator iterator = new VariantHBaseScanIterator(
                         resScans, genomeHelper, studyConfigurationManager.get(), query, options, unknownGenotype, formats, selectElements);
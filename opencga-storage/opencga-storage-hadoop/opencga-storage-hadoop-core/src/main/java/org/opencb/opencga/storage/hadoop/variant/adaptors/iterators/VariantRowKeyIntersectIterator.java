@@ -0,0 +1,152 @@
+package org.opencb.opencga.storage.hadoop.variant.adaptors.iterators;
+
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.opencb.biodata.models.variant.Variant;
+import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryException;
+import org.opencb.opencga.storage.hadoop.utils.HBaseManager;
+import org.opencb.opencga.storage.hadoop.utils.SeekableResultScanner;
+import org.opencb.opencga.storage.hadoop.variant.adaptors.phoenix.VariantPhoenixKeyFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Intersects the variants returned by multiple scans over the variants table.
+ *
+ * Uses a leapfrog join over the row keys, which are sorted in genomic order. Each scanner is moved forward to the
+ * largest row key seen so far. Small gaps are skipped reading the next rows. Bigger gaps are skipped with a row key seek.
+ * The result is lazy, so the scanners are not read further than required by the consumer.
+ */
+public class VariantRowKeyIntersectIterator implements Iterator<Variant>, AutoCloseable {
+
+    public static final int DEFAULT_MAX_STEPS_BEFORE_SEEK = 50;
+
+    private final Logger logger = LoggerFactory.getLogger(VariantRowKeyIntersectIterator.class);
+    private final List<SeekableResultScanner> scanners;
+    private final int maxStepsBeforeSeek;
+    private byte[] next;
+    private boolean finished = false;
+    private long steps = 0;
+    private int count = 0;
+
+    /**
+     * Create a new intersect iterator.
+     *
+     * @param hBaseManager       HBaseManager
+     * @param variantsTable      Variants table name
+     * @param scans              For each filter, list of scans to execute, sorted and without overlapping.
+     * @param maxStepsBeforeSeek Number of rows to read sequentially on a lagging scanner before seeking.
+     */
+    public VariantRowKeyIntersectIterator(HBaseManager hBaseManager, String variantsTable, List<List<Scan>> scans,
+                                          int maxStepsBeforeSeek) {
+        if (scans.isEmpty()) {
+            throw new IllegalArgumentException("Expected at least one scan to intersect");
+        }
+        this.scanners = new ArrayList<>(scans.size());
+        for (List<Scan> scanList : scans) {
+            scanners.add(new SeekableResultScanner(hBaseManager, variantsTable, scanList));
+        }
+        this.maxStepsBeforeSeek = maxStepsBeforeSeek;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            try {
+                next = fetchNext();
+            } catch (IOException e) {
+                throw VariantQueryException.internalException(e);
+            }
+            if (next == null) {
+                finished = true;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Variant next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Variant variant = VariantPhoenixKeyFactory.extractVariantFromVariantRowKey(next);
+        next = null;
+        count++;
+        return variant;
+    }
+
+    private byte[] fetchNext() throws IOException {
+        // All scanners are either not started, or positioned at the last returned row key.
+        // Move first scanner to obtain a new candidate.
+        Result result = scanners.get(0).next();
+        if (result == null) {
+            return null;
+        }
+        byte[] candidate = result.getRow();
+        int matches = 1;
+        int i = 1 % scanners.size();
+        while (matches < scanners.size()) {
+            byte[] row = advance(scanners.get(i), candidate);
+            if (row == null) {
+                return null;
+            }
+            if (Bytes.equals(row, candidate)) {
+                matches++;
+            } else {
+                // Scanner overtook the candidate. Use as new candidate.
+                candidate = row;
+                matches = 1;
+            }
+            i = (i + 1) % scanners.size();
+        }
+        return candidate;
+    }
+
+    /**
+     * Move the scanner to the first row greater or equal than the target.
+     *
+     * @param scanner Scanner to move
+     * @param target  Target row key
+     * @return Row key of the scanner after moving. Null if exhausted.
+     * @throws IOException If any IO problem occurs
+     */
+    private byte[] advance(SeekableResultScanner scanner, byte[] target) throws IOException {
+        Result result = scanner.current();
+        int localSteps = 0;
+        while (result == null || Bytes.compareTo(result.getRow(), target) < 0) {
+            if (result == null || localSteps >= maxStepsBeforeSeek) {
+                // Scanner not started, or lagging too much. Seek
+                result = scanner.seek(target);
+            } else {
+                result = scanner.next();
+                localSteps++;
+            }
+            if (result == null) {
+                return null;
+            }
+        }
+        steps += localSteps;
+        return result.getRow();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() {
+        int seeks = 0;
+        for (SeekableResultScanner scanner : scanners) {
+            seeks += scanner.getSeeks();
+            scanner.close();
+        }
+        logger.debug("Intersect {} scanners. Variants returned: {}, rows skipped: {}, seeks: {}", scanners.size(), count, steps, seeks);
+    }
+}
@@ -76,6 +76,7 @@ public class HadoopDefaultVariantAnnotationManager extends DefaultVariantAnnotat
     private final ObjectMap baseOptions;
     private final MRExecutor mrExecutor;
     private Query query;
+    private AnnotationIndexDBLoader annotationIndexDBLoader;
 
     public HadoopDefaultVariantAnnotationManager(VariantAnnotator variantAnnotator, VariantHadoopDBAdaptor dbAdaptor,
                                                  MRExecutor mrExecutor, ObjectMap options, IOConnectorProvider ioConnectorProvider) {
@@ -179,8 +180,9 @@ public class HadoopDefaultVariantAnnotationManager extends DefaultVariantAnnotat
                     .getAnnotation().getCurrent().getId();
             VariantAnnotationToHBaseConverter hBaseConverter =
                     new VariantAnnotationToHBaseConverter(dbAdaptor.getGenomeHelper(), progressLogger, currentAnnotationId);
-            AnnotationIndexDBLoader annotationIndexDBLoader = new AnnotationIndexDBLoader(
-                    dbAdaptor.getHBaseManager(), dbAdaptor.getTableNameGenerator().getAnnotationIndexTableName());
+            annotationIndexDBLoader = new AnnotationIndexDBLoader(
+                    dbAdaptor.getHBaseManager(), dbAdaptor.getTableNameGenerator().getAnnotationIndexTableName())
+                    .setTrackChanges(true);
 
             Task<VariantAnnotation, Put> task = Task.join(hBaseConverter, annotationIndexDBLoader.asTask(true));
 
@@ -190,6 +192,7 @@ public class HadoopDefaultVariantAnnotationManager extends DefaultVariantAnnotat
                     GenomeHelper.COLUMN_FAMILY_BYTES);
             return new ParallelTaskRunner<>(reader, task, writer, config);
         } else {
+            annotationIndexDBLoader = null;
             return new ParallelTaskRunner<>(reader,
                     () -> dbAdaptor.newAnnotationLoader(new QueryOptions(params))
                             .setProgressLogger(progressLogger), null, config);
@@ -213,6 +216,16 @@ public class HadoopDefaultVariantAnnotationManager extends DefaultVariantAnnotat
 
         List<Integer> studies = VariantQueryUtils.getIncludeStudies(query, null, metadataManager);
 
+        // Register the changes in the annotation index, even if the sample index is not updated now
+        Set<String> changedBatches = null;
+        if (annotationIndexDBLoader != null) {
+            changedBatches = annotationIndexDBLoader.getChangedBatches();
+            logger.info("Annotation index changed in " + changedBatches.size() + " sample index batches");
+            for (Integer studyId : studies) {
+                indexAnnotationLoader.addPendingRegions(studyId, changedBatches);
+            }
+        }
+
         List<String> samples = params.getAsStringList("sampleIndexAnnotation");
 
         if (samples.size() == 1 && (samples.get(0).equals(VariantQueryUtils.NONE) || samples.get(0).equals("skip"))) {
@@ -221,9 +234,14 @@ public class HadoopDefaultVariantAnnotationManager extends DefaultVariantAnnotat
         } else if (samples.isEmpty() || samples.size() == 1 && samples.get(0).equals(VariantQueryUtils.ALL)) {
             // Run on all pending samples
             for (Integer studyId : studies) {
-                List<Integer> indexedSamples = metadataManager.getIndexedSamples(studyId);
-                if (!indexedSamples.isEmpty()) {
-                    indexAnnotationLoader.updateSampleAnnotation(studyId, indexedSamples, params);
+                if (changedBatches != null) {
+                    // Only rewrite the changed regions
+                    indexAnnotationLoader.updateSampleAnnotationIncremental(studyId, params);
+                } else {
+                    List<Integer> indexedSamples = metadataManager.getIndexedSamples(studyId);
+                    if (!indexedSamples.isEmpty()) {
+                        indexAnnotationLoader.updateSampleAnnotation(studyId, indexedSamples, params);
+                    }
                 }
             }
         } else if (samples.size() == 1 && samples.get(0).equals("force_all")) {
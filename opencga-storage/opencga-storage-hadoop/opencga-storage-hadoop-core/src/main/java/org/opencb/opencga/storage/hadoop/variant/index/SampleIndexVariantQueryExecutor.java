@@ -24,6 +24,8 @@ import org.opencb.opencga.storage.hadoop.variant.index.sample.SampleIndexQueryPa
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -71,6 +73,40 @@ public class SampleIndexVariantQueryExecutor extends AbstractTwoPhasedVariantQue
         return false;
     }
 
+    @Override
+    public boolean canEstimateCost() {
+        return true;
+    }
+
+    /**
+     * Estimate the cost from the genotype counters of the sample index, ignoring any other filter.
+     * Uses the sample with the lowest count, or the sum of all the samples when using the OR operator.
+     *
+     * @param query    Query to execute
+     * @param options  Options for the query
+     * @return         Number of variants with the requested genotypes in the sample index
+     */
+    @Override
+    public long estimateCost(Query query, QueryOptions options) {
+        SampleIndexQuery sampleIndexQuery = sampleIndexDBAdaptor.getSampleIndexQueryParser().parse(new Query(query));
+        long cost = UNKNOWN_COST;
+        for (Map.Entry<String, List<String>> entry : sampleIndexQuery.getSamplesMap().entrySet()) {
+            if (sampleIndexQuery.isNegated(entry.getKey())) {
+                continue;
+            }
+            long count = sampleIndexDBAdaptor.count(sampleIndexQuery.getRegions(), sampleIndexQuery.getStudy(),
+                    entry.getKey(), entry.getValue());
+            if (cost == UNKNOWN_COST) {
+                cost = count;
+            } else if (sampleIndexQuery.getQueryOperation() == VariantQueryUtils.QueryOperation.OR) {
+                cost += count;
+            } else {
+                cost = Math.min(cost, count);
+            }
+        }
+        return cost;
+    }
+
     @Override
     public DataResult<Long> count(Query query) {
         throw new UnsupportedOperationException("Count not implemented in " + getClass());
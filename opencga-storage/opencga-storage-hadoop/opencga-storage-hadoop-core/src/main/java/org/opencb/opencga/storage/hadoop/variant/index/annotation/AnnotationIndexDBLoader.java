@@ -1,14 +1,21 @@
 package org.opencb.opencga.storage.hadoop.variant.index.annotation;
 
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.opencb.biodata.models.core.Region;
 import org.opencb.biodata.models.variant.avro.VariantAnnotation;
 import org.opencb.opencga.storage.hadoop.utils.AbstractHBaseDataWriter;
 import org.opencb.opencga.storage.hadoop.utils.HBaseManager;
+import org.opencb.opencga.storage.hadoop.variant.index.sample.SampleIndexSchema;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Created by jacobo on 04/01/19.
@@ -16,12 +23,36 @@ import java.util.List;
 public class AnnotationIndexDBLoader extends AbstractHBaseDataWriter<VariantAnnotation, Put> {
 
     private final AnnotationIndexConverter converter;
+    private final Set<String> changedBatches = ConcurrentHashMap.newKeySet();
+    private boolean trackChanges = false;
 
     public AnnotationIndexDBLoader(HBaseManager hBaseManager, String tableName) {
         super(hBaseManager, tableName);
         converter = new AnnotationIndexConverter();
     }
 
+    /**
+     * Compare the new annotation index entries with the existing ones, to register the sample index batches
+     * with changes in the annotation index.
+     *
+     * @param trackChanges Track changes
+     * @return this
+     */
+    public AnnotationIndexDBLoader setTrackChanges(boolean trackChanges) {
+        this.trackChanges = trackChanges;
+        return this;
+    }
+
+    /**
+     * Get the sample index batches (as regions) containing variants where the annotation index changed.
+     * Only available if {@link #setTrackChanges} is enabled.
+     *
+     * @return Set of regions.
+     */
+    public Set<String> getChangedBatches() {
+        return Collections.unmodifiableSet(changedBatches);
+    }
+
     @Override
     public boolean open() {
         super.open();
@@ -41,6 +72,52 @@ public class AnnotationIndexDBLoader extends AbstractHBaseDataWriter<VariantAnno
         for (VariantAnnotation variantAnnotation : batch) {
             puts.add(converter.convertToPut(variantAnnotation));
         }
+        if (trackChanges) {
+            registerChangedBatches(batch, puts);
+        }
         return puts;
     }
+
+    private void registerChangedBatches(List<VariantAnnotation> batch, List<Put> puts) {
+        List<Get> gets = new ArrayList<>(puts.size());
+        for (Put put : puts) {
+            gets.add(new Get(put.getRow()).addFamily(AnnotationIndexConverter.COLUMN_FMAILY));
+        }
+        Result[] results;
+        try {
+            results = hBaseManager.act(tableName, table -> {
+                return table.get(gets);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int i = 0; i < puts.size(); i++) {
+            if (hasChanged(puts.get(i), results[i])) {
+                VariantAnnotation annotation = batch.get(i);
+                changedBatches.add(toBatchRegion(annotation.getChromosome(), annotation.getStart()));
+            }
+        }
+    }
+
+    private static boolean hasChanged(Put put, Result result) {
+        if (result == null || result.isEmpty() || result.size() != put.size()) {
+            return true;
+        }
+        for (List<Cell> cells : put.getFamilyCellMap().values()) {
+            for (Cell cell : cells) {
+                byte[] value = result.getValue(CellUtil.cloneFamily(cell), CellUtil.cloneQualifier(cell));
+                if (value == null
+                        || !Bytes.equals(value, 0, value.length, cell.getValueArray(), cell.getValueOffset(), cell.getValueLength())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public static String toBatchRegion(String chromosome, int position) {
+        int batchStart = position - position % SampleIndexSchema.BATCH_SIZE;
+        // Positions are 1-based. First batch starts at 1
+        return new Region(chromosome, Math.max(batchStart, 1), batchStart + SampleIndexSchema.BATCH_SIZE - 1).toString();
+    }
 }
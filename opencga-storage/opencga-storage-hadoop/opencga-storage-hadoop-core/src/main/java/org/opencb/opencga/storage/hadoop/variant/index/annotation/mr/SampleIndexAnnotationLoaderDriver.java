@@ -3,6 +3,7 @@ package org.opencb.opencga.storage.hadoop.variant.index.annotation.mr;
 import htsjdk.variant.vcf.VCFConstants;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
 import org.apache.hadoop.hbase.mapreduce.TableInputFormat;
 import org.apache.hadoop.mapreduce.Job;
 import org.opencb.biodata.models.core.Region;
@@ -15,6 +16,7 @@ import org.opencb.opencga.storage.hadoop.variant.AbstractVariantsTableDriver;
 import org.opencb.opencga.storage.hadoop.variant.GenomeHelper;
 import org.opencb.opencga.storage.hadoop.variant.adaptors.VariantHBaseQueryParser;
 import org.opencb.opencga.storage.hadoop.variant.adaptors.phoenix.VariantPhoenixHelper;
+import org.opencb.opencga.storage.hadoop.variant.adaptors.phoenix.VariantPhoenixKeyFactory;
 import org.opencb.opencga.storage.hadoop.variant.converters.HBaseToVariantConverter;
 import org.opencb.opencga.storage.hadoop.variant.index.sample.SampleIndexAnnotationLoader;
 import org.opencb.opencga.storage.hadoop.variant.index.sample.SampleIndexSchema;
@@ -52,7 +54,7 @@ public class SampleIndexAnnotationLoaderDriver extends AbstractVariantsTableDriv
         Map<String, String> params = new HashMap<>();
         params.put("--" + SAMPLES, "<samples>");
         params.put("--" + OUTPUT, "<output-table>");
-        params.put("--" + VariantQueryParam.REGION.key(), "<region>");
+        params.put("--" + VariantQueryParam.REGION.key(), "<region>[,<region>]*");
         return params;
     }
 
@@ -104,7 +106,12 @@ public class SampleIndexAnnotationLoaderDriver extends AbstractVariantsTableDriv
         Scan scan = new Scan();
 
         if (StringUtils.isNotEmpty(region)) {
-            VariantHBaseQueryParser.addRegionFilter(scan, new Region(region));
+            List<Region> regions = Region.parseRegions(region);
+            if (regions.size() == 1) {
+                VariantHBaseQueryParser.addRegionFilter(scan, regions.get(0));
+            } else {
+                addRegionsFilter(scan, regions);
+            }
         }
 
         for (Integer sampleId : sampleIds) {
@@ -128,6 +135,27 @@ public class SampleIndexAnnotationLoaderDriver extends AbstractVariantsTableDriv
         return job;
     }
 
+    /**
+     * Restrict the scan to multiple regions. Regions must be sorted, and should be in the same chromosome.
+     *
+     * @param scan    Scan
+     * @param regions Sorted list of regions
+     * @throws IOException if the filter can not be created
+     */
+    private static void addRegionsFilter(Scan scan, List<Region> regions) throws IOException {
+        List<MultiRowRangeFilter.RowRange> ranges = new ArrayList<>(regions.size());
+        for (Region r : regions) {
+            ranges.add(new MultiRowRangeFilter.RowRange(
+                    VariantPhoenixKeyFactory.generateVariantRowKey(r.getChromosome(), r.getStart()), true,
+                    VariantPhoenixKeyFactory.generateVariantRowKey(r.getChromosome(), r.getEnd() + 1), false));
+        }
+        MultiRowRangeFilter filter = new MultiRowRangeFilter(ranges);
+        List<MultiRowRangeFilter.RowRange> sortedRanges = filter.getRowRanges();
+        scan.setStartRow(sortedRanges.get(0).getStartRow());
+        scan.setStopRow(sortedRanges.get(sortedRanges.size() - 1).getStopRow());
+        scan.setFilter(filter);
+    }
+
     @Override
     protected String getJobOperationName() {
         return "sample_index_annotation_loader";
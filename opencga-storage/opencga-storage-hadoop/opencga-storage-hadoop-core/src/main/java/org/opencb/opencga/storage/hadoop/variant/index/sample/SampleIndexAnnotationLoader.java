@@ -4,6 +4,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.BufferedMutator;
 import org.apache.hadoop.hbase.client.Put;
+import org.opencb.biodata.models.core.Region;
 import org.opencb.biodata.models.variant.Variant;
 import org.opencb.commons.ProgressLogger;
 import org.opencb.commons.datastore.core.ObjectMap;
@@ -12,7 +13,9 @@ import org.opencb.commons.run.ParallelTaskRunner;
 import org.opencb.opencga.storage.core.exceptions.StorageEngineException;
 import org.opencb.opencga.storage.core.metadata.VariantStorageMetadataManager;
 import org.opencb.opencga.storage.core.metadata.models.SampleMetadata;
+import org.opencb.opencga.storage.core.metadata.models.StudyMetadata;
 import org.opencb.opencga.storage.core.metadata.models.TaskMetadata;
+import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryParam;
 import org.opencb.opencga.storage.hadoop.utils.HBaseDataWriter;
 import org.opencb.opencga.storage.hadoop.utils.HBaseManager;
 import org.opencb.opencga.storage.hadoop.variant.GenomeHelper;
@@ -35,6 +38,10 @@ import java.util.concurrent.ExecutionException;
 public class SampleIndexAnnotationLoader {
 
     public static final String SAMPLE_INDEX_STATUS = "sampleIndex";
+    public static final String PENDING_REGIONS_TASK = "sample_index_annotation_pending_regions";
+    public static final String PENDING_REGIONS = "pendingRegions";
+    // StudyMetadata attribute with the id of the TaskMetadata containing the pending regions
+    public static final String PENDING_REGIONS_TASK_ID = "sampleIndexAnnotationPendingRegionsTaskId";
     private final HBaseManager hBaseManager;
     private final HBaseVariantTableNameGenerator tableNameGenerator;
     private final MRExecutor mrExecutor;
@@ -71,6 +78,149 @@ public class SampleIndexAnnotationLoader {
         updateSampleAnnotationBatchMapreduce(studyId, samples, options);
     }
 
+    /**
+     * Update the sample index annotation of all the indexed samples from the study, rewriting only what changed.
+     *
+     * Samples with an up to date sample index annotation only rewrite the regions pending to update, registered with
+     * {@link #addPendingRegions}. The rest of the samples are fully rewritten. Pending regions are processed one chromosome
+     * at a time, and removed from the pending list on success, so an interrupted update can be resumed.
+     *
+     * @param studyId Study
+     * @param options Other options
+     * @throws IOException on IO error
+     * @throws StorageEngineException on error running the MapReduce jobs
+     */
+    public void updateSampleAnnotationIncremental(int studyId, ObjectMap options) throws IOException, StorageEngineException {
+        List<Integer> readySamples = new ArrayList<>();
+        List<Integer> otherSamples = new ArrayList<>();
+        for (Integer sampleId : metadataManager.getIndexedSamples(studyId)) {
+            SampleMetadata sampleMetadata = metadataManager.getSampleMetadata(studyId, sampleId);
+            if (TaskMetadata.Status.READY.equals(sampleMetadata.getStatus(SAMPLE_INDEX_STATUS))) {
+                readySamples.add(sampleId);
+            } else {
+                otherSamples.add(sampleId);
+            }
+        }
+        if (!otherSamples.isEmpty()) {
+            updateSampleAnnotation(studyId, otherSamples, options);
+        }
+        if (!readySamples.isEmpty()) {
+            updatePendingRegions(studyId, readySamples, options);
+        }
+    }
+
+    /**
+     * Register regions where the annotation index changed, that need to be updated in the sample index.
+     *
+     * @param studyId Study
+     * @param regions Regions, aligned with the sample index batches
+     * @throws StorageEngineException on error updating the metadata
+     */
+    public void addPendingRegions(int studyId, Collection<String> regions) throws StorageEngineException {
+        if (regions.isEmpty()) {
+            return;
+        }
+        TaskMetadata task = getOrCreatePendingRegionsTask(studyId);
+        metadataManager.updateTask(studyId, task.getId(), t -> {
+            Set<String> pendingRegions = new LinkedHashSet<>(t.getAttributes().getAsStringList(PENDING_REGIONS));
+            pendingRegions.addAll(regions);
+            t.getAttributes().put(PENDING_REGIONS, new ArrayList<>(pendingRegions));
+            return t;
+        });
+    }
+
+    /**
+     * Get the regions where the annotation index changed, pending to be updated in the sample index.
+     *
+     * @param studyId Study
+     * @return Pending regions
+     */
+    public List<String> getPendingRegions(int studyId) {
+        TaskMetadata task = getPendingRegionsTask(studyId);
+        return task == null
+                ? Collections.emptyList()
+                : task.getAttributes().getAsStringList(PENDING_REGIONS);
+    }
+
+    private void updatePendingRegions(int studyId, List<Integer> samples, ObjectMap options)
+            throws IOException, StorageEngineException {
+        TaskMetadata task = getPendingRegionsTask(studyId);
+        List<String> pendingRegions = task == null
+                ? Collections.emptyList()
+                : task.getAttributes().getAsStringList(PENDING_REGIONS);
+        if (pendingRegions.isEmpty()) {
+            logger.info("Sample index annotation up to date for " + samples.size() + " samples");
+            return;
+        }
+
+        // Sort and group by chromosome. Each chromosome is a checkpoint.
+        Map<String, List<Region>> regionsByChromosome = new TreeMap<>();
+        for (String pendingRegion : pendingRegions) {
+            Region region = new Region(pendingRegion);
+            regionsByChromosome.computeIfAbsent(region.getChromosome(), k -> new ArrayList<>()).add(region);
+        }
+        logger.info("Update sample index annotation of " + samples.size() + " samples in " + pendingRegions.size()
+                + " pending regions from " + regionsByChromosome.size() + " chromosomes");
+
+        int taskId = task.getId();
+        metadataManager.updateTask(studyId, taskId, t -> t.addStatus(TaskMetadata.Status.RUNNING));
+        try {
+            for (Map.Entry<String, List<Region>> entry : regionsByChromosome.entrySet()) {
+                List<Region> regions = entry.getValue();
+                regions.sort(Comparator.comparingInt(Region::getStart));
+                List<String> regionsStr = new ArrayList<>(regions.size());
+                for (Region region : regions) {
+                    regionsStr.add(region.toString());
+                }
+
+                ObjectMap params = new ObjectMap(options);
+                params.put(VariantQueryParam.REGION.key(), String.join(",", regionsStr));
+                mrExecutor.run(SampleIndexAnnotationLoaderDriver.class, SampleIndexAnnotationLoaderDriver.buildArgs(
+                        tableNameGenerator.getArchiveTableName(studyId),
+                        tableNameGenerator.getVariantTableName(), studyId, samples, params), params,
+                        "Update sample annotation of " + regions.size() + " regions from chromosome " + entry.getKey());
+
+                // Checkpoint
+                metadataManager.updateTask(studyId, taskId, t -> {
+                    List<String> remaining = new ArrayList<>(t.getAttributes().getAsStringList(PENDING_REGIONS));
+                    remaining.removeAll(regionsStr);
+                    t.getAttributes().put(PENDING_REGIONS, remaining);
+                    return t;
+                });
+            }
+        } finally {
+            metadataManager.updateTask(studyId, taskId, t -> t.addStatus(TaskMetadata.Status.READY));
+        }
+    }
+
+    private TaskMetadata getPendingRegionsTask(int studyId) {
+        StudyMetadata studyMetadata = metadataManager.getStudyMetadata(studyId);
+        if (studyMetadata.getAttributes().containsKey(PENDING_REGIONS_TASK_ID)) {
+            return metadataManager.getTask(studyId, studyMetadata.getAttributes().getInt(PENDING_REGIONS_TASK_ID));
+        } else {
+            return null;
+        }
+    }
+
+    private TaskMetadata getOrCreatePendingRegionsTask(int studyId) throws StorageEngineException {
+        TaskMetadata task = getPendingRegionsTask(studyId);
+        if (task != null) {
+            return task;
+        }
+        // Create the task with the study locked, so concurrent processes do not create more than one
+        StudyMetadata studyMetadata = metadataManager.updateStudyMetadata(studyId, sm -> {
+            if (!sm.getAttributes().containsKey(PENDING_REGIONS_TASK_ID)) {
+                TaskMetadata newTask = new TaskMetadata(0, PENDING_REGIONS_TASK, Collections.emptyList(), System.currentTimeMillis(),
+                        TaskMetadata.Type.OTHER);
+                newTask.addStatus(TaskMetadata.Status.READY);
+                metadataManager.unsecureUpdateTask(studyId, newTask);
+                sm.getAttributes().put(PENDING_REGIONS_TASK_ID, newTask.getId());
+            }
+            return sm;
+        });
+        return metadataManager.getTask(studyId, studyMetadata.getAttributes().getInt(PENDING_REGIONS_TASK_ID));
+    }
+
     private void updateSampleAnnotationBatchMapreduce(int studyId, List<Integer> samples, ObjectMap options)
             throws IOException, StorageEngineException {
         mrExecutor.run(SampleIndexAnnotationLoaderDriver.class, SampleIndexAnnotationLoaderDriver.buildArgs(
@@ -269,6 +419,28 @@ public class SampleIndexAnnotationLoader {
         postAnnotationLoad(studyId, samples, metadataManager);
     }
 
+    /**
+     * Mark the sample index annotation of the given samples as outdated, as new genotypes are being loaded in their sample index.
+     * The next annotation update will rewrite these samples completely, instead of only the pending regions.
+     *
+     * @param studyId         Study
+     * @param samples         Samples being loaded
+     * @param metadataManager Metadata manager
+     * @throws StorageEngineException on error updating the metadata
+     */
+    public static void resetSampleIndexAnnotationStatus(int studyId, List<Integer> samples,
+                                                        VariantStorageMetadataManager metadataManager)
+            throws StorageEngineException {
+        for (Integer sampleId : samples) {
+            if (TaskMetadata.Status.READY.equals(metadataManager.getSampleMetadata(studyId, sampleId).getStatus(SAMPLE_INDEX_STATUS))) {
+                metadataManager.updateSampleMetadata(studyId, sampleId, sampleMetadata -> {
+                    sampleMetadata.setStatus(SAMPLE_INDEX_STATUS, TaskMetadata.Status.NONE);
+                    return sampleMetadata;
+                });
+            }
+        }
+    }
+
     public static void postAnnotationLoad(int studyId, List<Integer> samples, VariantStorageMetadataManager metadataManager)
             throws StorageEngineException {
         for (Integer sampleId : samples) {
@@ -23,6 +23,7 @@ import org.opencb.opencga.storage.core.variant.adaptors.iterators.UnionMultiVari
 import org.opencb.opencga.storage.core.variant.adaptors.iterators.VariantDBIterator;
 import org.opencb.opencga.storage.hadoop.utils.HBaseManager;
 import org.opencb.opencga.storage.hadoop.variant.GenomeHelper;
+import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageOptions;
 import org.opencb.opencga.storage.hadoop.variant.index.IndexUtils;
 import org.opencb.opencga.storage.hadoop.variant.index.query.SampleAnnotationIndexQuery.PopulationFrequencyQuery;
 import org.opencb.opencga.storage.hadoop.variant.index.query.SampleIndexQuery;
@@ -52,6 +53,9 @@ public class SampleIndexDBAdaptor implements VariantIterable {
     private static Logger logger = LoggerFactory.getLogger(SampleIndexDBAdaptor.class);
     private SampleIndexQueryParser parser;
     private final SampleIndexConfiguration configuration;
+    private final boolean serverSideFilter;
+    private final int prefetchBatches;
+    private final long prefetchBatchSizeBytes;
 
     public SampleIndexDBAdaptor(GenomeHelper helper, HBaseManager hBaseManager, HBaseVariantTableNameGenerator tableNameGenerator,
                                 VariantStorageMetadataManager metadataManager) {
@@ -62,6 +66,15 @@ public class SampleIndexDBAdaptor implements VariantIterable {
         // TODO: Read configuration from metadata manager
         configuration = SampleIndexConfiguration.defaultConfiguration();
         parser = new SampleIndexQueryParser(metadataManager, configuration);
+        serverSideFilter = hBaseManager.getConf().getBoolean(
+                HadoopVariantStorageOptions.SAMPLE_INDEX_QUERY_SERVER_SIDE_FILTER.key(),
+                HadoopVariantStorageOptions.SAMPLE_INDEX_QUERY_SERVER_SIDE_FILTER.defaultValue());
+        prefetchBatches = hBaseManager.getConf().getInt(
+                HadoopVariantStorageOptions.SAMPLE_INDEX_QUERY_PREFETCH_BATCHES.key(),
+                HadoopVariantStorageOptions.SAMPLE_INDEX_QUERY_PREFETCH_BATCHES.defaultValue());
+        prefetchBatchSizeBytes = hBaseManager.getConf().getLong(
+                HadoopVariantStorageOptions.SAMPLE_INDEX_QUERY_PREFETCH_BATCH_SIZE_BYTES.key(),
+                HadoopVariantStorageOptions.SAMPLE_INDEX_QUERY_PREFETCH_BATCH_SIZE_BYTES.<Integer>defaultValue());
     }
 
     @Override
@@ -153,13 +166,7 @@ public class SampleIndexDBAdaptor implements VariantIterable {
     private SingleSampleIndexVariantDBIterator internalIterator(SingleSampleIndexQuery query) {
         String tableName = tableNameGenerator.getSampleIndexTableName(toStudyId(query.getStudy()));
 
-        try {
-            return hBaseManager.act(tableName, table -> {
-                return new SingleSampleIndexVariantDBIterator(table, query, family, this);
-            });
-        } catch (IOException e) {
-            throw VariantQueryException.internalException(e);
-        }
+        return new SingleSampleIndexVariantDBIterator(hBaseManager, tableName, query, this, prefetchBatches, prefetchBatchSizeBytes);
     }
 
     protected Map<String, List<Variant>> queryByGt(int study, int sample, String chromosome, int position) throws IOException {
@@ -440,6 +447,10 @@ public class SampleIndexDBAdaptor implements VariantIterable {
         if (query.getMendelianError()) {
             scan.addColumn(family, SampleIndexSchema.toMendelianErrorColumn());
         }
+        if (!onlyCount && serverSideFilter && SampleIndexRowFilter.isUseful(query)) {
+            scan.setFilter(new SampleIndexRowFilter(query));
+            logger.info("Server side filter = " + scan.getFilter());
+        }
         scan.setCaching(hBaseManager.getConf().getInt("hbase.client.scanner.caching", 100));
 
         logger.info("StartRow = " + Bytes.toStringBinary(scan.getStartRow()) + " == "
@@ -0,0 +1,260 @@
+package org.opencb.opencga.storage.hadoop.variant.index.sample;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.exceptions.DeserializationException;
+import org.apache.hadoop.hbase.filter.FilterBase;
+import org.opencb.biodata.models.variant.avro.VariantType;
+import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryUtils.QueryOperation;
+import org.opencb.opencga.storage.hadoop.variant.index.query.SampleAnnotationIndexQuery;
+import org.opencb.opencga.storage.hadoop.variant.index.query.SampleAnnotationIndexQuery.PopulationFrequencyQuery;
+import org.opencb.opencga.storage.hadoop.variant.index.query.SampleFileIndexQuery;
+import org.opencb.opencga.storage.hadoop.variant.index.query.SampleIndexQuery;
+import org.opencb.opencga.storage.hadoop.variant.index.query.SingleSampleIndexQuery;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Server side HBase filter for the SampleIndex table.
+ *
+ * Applies the same checks as the {@link SampleIndexEntryFilter} (annotation index, population frequency, file index,
+ * parents and mendelian error filters) at the region servers, discarding the rows without any matching variant.
+ * The remaining rows are filtered again at the client side, so this filter only needs to be conservative.
+ *
+ * Requires the opencga-storage-hadoop-core jar to be available in the classpath of the region servers.
+ */
+public class SampleIndexRowFilter extends FilterBase {
+
+    private final byte[] serializedQuery;
+    private final SingleSampleIndexQuery query;
+    private final SampleIndexEntryFilter entryFilter;
+    private final HBaseToSampleIndexConverter converter;
+    private boolean filterRow = false;
+
+    public SampleIndexRowFilter(SingleSampleIndexQuery query) {
+        this(query, serialize(query));
+    }
+
+    private SampleIndexRowFilter(SingleSampleIndexQuery query, byte[] serializedQuery) {
+        this.serializedQuery = serializedQuery;
+        this.query = query;
+        this.entryFilter = new SampleIndexEntryFilter(query);
+        this.converter = new HBaseToSampleIndexConverter(SampleIndexConfiguration.defaultConfiguration());
+    }
+
+    /**
+     * Check if the query contains any filter that can be evaluated at the server side.
+     *
+     * @param query SingleSampleIndexQuery
+     * @return if the filter would discard any row
+     */
+    public static boolean isUseful(SingleSampleIndexQuery query) {
+        return !query.emptyOrRegionFilter() || query.getMendelianError();
+    }
+
+    public SingleSampleIndexQuery getQuery() {
+        return query;
+    }
+
+    @Override
+    public ReturnCode filterKeyValue(Cell cell) throws IOException {
+        return ReturnCode.INCLUDE;
+    }
+
+    @Override
+    public boolean hasFilterRow() {
+        return true;
+    }
+
+    @Override
+    public void filterRowCells(List<Cell> cells) throws IOException {
+        if (cells.isEmpty()) {
+            return;
+        }
+        SampleIndexEntry entry = converter.convert(Result.create(cells));
+        filterRow = entryFilter.filterAndCount(entry) == 0;
+    }
+
+    @Override
+    public boolean filterRow() throws IOException {
+        return filterRow;
+    }
+
+    @Override
+    public void reset() throws IOException {
+        filterRow = false;
+    }
+
+    @Override
+    public byte[] toByteArray() throws IOException {
+        return serializedQuery;
+    }
+
+    /**
+     * Deserialize the filter. Required by HBase.
+     *
+     * @param bytes Serialized filter
+     * @return SampleIndexRowFilter
+     * @throws DeserializationException if the filter can not be deserialized
+     */
+    public static SampleIndexRowFilter parseFrom(byte[] bytes) throws DeserializationException {
+        try {
+            return new SampleIndexRowFilter(deserialize(bytes), bytes);
+        } catch (IOException | RuntimeException e) {
+            throw new DeserializationException(e);
+        }
+    }
+
+    static byte[] serialize(SingleSampleIndexQuery query) {
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream(); DataOutputStream out = new DataOutputStream(bos)) {
+            out.writeUTF(query.getSample());
+            writeStrings(out, query.getGenotypes());
+
+            Set<VariantType> variantTypes = query.getVariantTypes();
+            if (variantTypes == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(variantTypes.size());
+                for (VariantType variantType : variantTypes) {
+                    out.writeUTF(variantType.name());
+                }
+            }
+
+            writeBooleans(out, query.hasFatherFilter() ? query.getFatherFilter() : null);
+            writeBooleans(out, query.hasMotherFilter() ? query.getMotherFilter() : null);
+
+            out.writeByte(query.getFileIndexMask());
+            writeBooleans(out, query.getSampleFileIndexQuery().getValidFileIndex());
+
+            SampleAnnotationIndexQuery annotationIndexQuery = query.getAnnotationIndexQuery();
+            out.writeByte(annotationIndexQuery.getAnnotationIndexMask());
+            out.writeByte(annotationIndexQuery.getAnnotationIndex());
+            out.writeShort(annotationIndexQuery.getConsequenceTypeMask());
+            out.writeByte(annotationIndexQuery.getBiotypeMask());
+            out.writeUTF(annotationIndexQuery.getPopulationFrequencyQueryOperator().name());
+            out.writeBoolean(annotationIndexQuery.isPopulationFrequencyQueryPartial());
+            out.writeInt(annotationIndexQuery.getPopulationFrequencyQueries().size());
+            for (PopulationFrequencyQuery pf : annotationIndexQuery.getPopulationFrequencyQueries()) {
+                out.writeInt(pf.getPosition());
+                out.writeUTF(pf.getStudy());
+                out.writeUTF(pf.getPopulation());
+                out.writeDouble(pf.getMinValueInclusive());
+                out.writeDouble(pf.getMaxValueExclusive());
+                out.writeByte(pf.getMinCodeInclusive());
+                out.writeByte(pf.getMaxCodeExclusive());
+            }
+
+            out.writeBoolean(query.getMendelianError());
+            out.writeBoolean(query.isOnlyDeNovo());
+            out.flush();
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static SingleSampleIndexQuery deserialize(byte[] bytes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            String sample = in.readUTF();
+            List<String> gts = readStrings(in);
+
+            Set<VariantType> variantTypes = null;
+            int numVariantTypes = in.readInt();
+            if (numVariantTypes >= 0) {
+                variantTypes = new HashSet<>(numVariantTypes);
+                for (int i = 0; i < numVariantTypes; i++) {
+                    variantTypes.add(VariantType.valueOf(in.readUTF()));
+                }
+            }
+
+            boolean[] fatherFilter = readBooleans(in);
+            boolean[] motherFilter = readBooleans(in);
+
+            byte fileIndexMask = in.readByte();
+            boolean[] validFileIndex = readBooleans(in);
+
+            byte annotationIndexMask = in.readByte();
+            byte annotationIndex = in.readByte();
+            short consequenceTypeMask = in.readShort();
+            byte biotypeMask = in.readByte();
+            QueryOperation popFreqOperator = QueryOperation.valueOf(in.readUTF());
+            boolean popFreqPartial = in.readBoolean();
+            int numPopFreqQueries = in.readInt();
+            List<PopulationFrequencyQuery> popFreqQueries = new ArrayList<>(numPopFreqQueries);
+            for (int i = 0; i < numPopFreqQueries; i++) {
+                int position = in.readInt();
+                String study = in.readUTF();
+                String population = in.readUTF();
+                double minValueInclusive = in.readDouble();
+                double maxValueExclusive = in.readDouble();
+                byte minCodeInclusive = in.readByte();
+                byte maxCodeExclusive = in.readByte();
+                popFreqQueries.add(new PopulationFrequencyQuery(position, study, population,
+                        minValueInclusive, maxValueExclusive, minCodeInclusive, maxCodeExclusive));
+            }
+
+            boolean mendelianError = in.readBoolean();
+            boolean onlyDeNovo = in.readBoolean();
+
+            SampleAnnotationIndexQuery annotationIndexQuery = new SampleAnnotationIndexQuery(
+                    new byte[]{annotationIndexMask, annotationIndex}, consequenceTypeMask, biotypeMask,
+                    popFreqOperator, popFreqQueries, popFreqPartial);
+            SampleIndexQuery query = new SampleIndexQuery(null, variantTypes, null,
+                    Collections.singletonMap(sample, gts),
+                    Collections.emptySet(),
+                    fatherFilter == null ? Collections.emptyMap() : Collections.singletonMap(sample, fatherFilter),
+                    motherFilter == null ? Collections.emptyMap() : Collections.singletonMap(sample, motherFilter),
+                    Collections.singletonMap(sample, new SampleFileIndexQuery(sample, fileIndexMask, null, null, validFileIndex)),
+                    annotationIndexQuery,
+                    mendelianError ? Collections.singleton(sample) : Collections.emptySet(),
+                    onlyDeNovo,
+                    QueryOperation.AND);
+            return query.forSample(sample, gts);
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    private static void writeBooleans(DataOutputStream out, boolean[] values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(values.length);
+            for (boolean value : values) {
+                out.writeBoolean(value);
+            }
+        }
+    }
+
+    private static boolean[] readBooleans(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        boolean[] values = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = in.readBoolean();
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "SampleIndexRowFilter{" + serializedQuery.length + " bytes}";
+    }
+}
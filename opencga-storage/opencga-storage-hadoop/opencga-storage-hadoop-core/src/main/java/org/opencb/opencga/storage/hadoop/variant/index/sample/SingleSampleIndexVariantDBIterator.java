@@ -1,22 +1,26 @@
 package org.opencb.opencga.storage.hadoop.variant.index.sample;
 
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Iterators;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
-import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.util.CollectionUtils;
 import org.opencb.biodata.models.core.Region;
 import org.opencb.biodata.models.variant.Variant;
 import org.opencb.opencga.storage.core.variant.adaptors.iterators.VariantDBIterator;
 import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryException;
 import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryUtils;
+import org.opencb.opencga.storage.hadoop.utils.HBaseManager;
 import org.opencb.opencga.storage.hadoop.variant.index.query.SingleSampleIndexQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Created on 03/07/18.
@@ -25,10 +29,30 @@ import java.util.List;
  */
 public class SingleSampleIndexVariantDBIterator extends VariantDBIterator {
 
+    private static final long OFFER_TIMEOUT_MS = 100;
+    private static final int MAX_CACHING = 1000;
+    private static Logger logger = LoggerFactory.getLogger(SingleSampleIndexVariantDBIterator.class);
+
     private final Iterator<Variant> iterator;
+    private ExecutorService executor;
+    private SampleIndexPrefetcher prefetcher;
     protected int count = 0;
 
-    public SingleSampleIndexVariantDBIterator(Table table, SingleSampleIndexQuery query, byte[] family, SampleIndexDBAdaptor dbAdaptor) {
+    /**
+     * Create a new SingleSampleIndexVariantDBIterator.
+     *
+     * If prefetchBatches is greater than 0, the scanners are read, decoded and filtered in a helper thread,
+     * keeping up to "prefetchBatches" batches of filtered variants ready to be consumed.
+     *
+     * @param hBaseManager     HBaseManager
+     * @param tableName        SampleIndex table name
+     * @param query            Query
+     * @param dbAdaptor        SampleIndexDBAdaptor
+     * @param prefetchBatches  Number of batches to prefetch. Use 0 to read synchronously
+     * @param targetBatchBytes Expected size in bytes of each scanner batch. Used to tune the scanner caching.
+     */
+    public SingleSampleIndexVariantDBIterator(HBaseManager hBaseManager, String tableName, SingleSampleIndexQuery query,
+                                              SampleIndexDBAdaptor dbAdaptor, int prefetchBatches, long targetBatchBytes) {
         List<Region> regions;
         if (CollectionUtils.isEmpty(query.getRegions())) {
             // If no regions are defined, get a list of one null element to initialize the stream.
@@ -37,27 +61,38 @@ public class SingleSampleIndexVariantDBIterator extends VariantDBIterator {
             regions = VariantQueryUtils.mergeRegions(query.getRegions());
         }
 
-        Iterator<Iterator<Variant>> iterators = regions.stream()
-                .map(region -> {
-                    // One scan per region
-                    Scan scan = dbAdaptor.parse(query, region);
-                    HBaseToSampleIndexConverter converter = new HBaseToSampleIndexConverter(dbAdaptor.getConfiguration());
-                    SampleIndexEntryFilter filter = dbAdaptor.buildSampleIndexEntryFilter(query, region);
-                    try {
-                        ResultScanner scanner = table.getScanner(scan);
-                        addCloseable(scanner);
-                        Iterator<Result> resultIterator = scanner.iterator();
-                        Iterator<Iterator<Variant>> transform = Iterators.transform(resultIterator,
-                                result -> {
-                                    SampleIndexEntry sampleIndexEntry = converter.convert(result);
-                                    return filter.filter(sampleIndexEntry).iterator();
-                                });
-                        return Iterators.concat(transform);
-                    } catch (IOException e) {
-                        throw VariantQueryException.internalException(e);
-                    }
-                }).iterator();
-        iterator = Iterators.concat(iterators);
+        if (prefetchBatches > 0) {
+            prefetcher = new SampleIndexPrefetcher(hBaseManager, tableName, query, dbAdaptor, regions,
+                    prefetchBatches, targetBatchBytes);
+            executor = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder()
+                    .namingPattern("sample-index-prefetch-%s")
+                    .daemon(true)
+                    .build());
+            executor.submit(prefetcher);
+            iterator = Iterators.concat(Iterators.transform(prefetcher.batchIterator(), List::iterator));
+        } else {
+            Iterator<Iterator<Variant>> iterators = regions.stream()
+                    .map(region -> {
+                        // One scan per region
+                        Scan scan = dbAdaptor.parse(query, region);
+                        HBaseToSampleIndexConverter converter = new HBaseToSampleIndexConverter(dbAdaptor.getConfiguration());
+                        SampleIndexEntryFilter filter = dbAdaptor.buildSampleIndexEntryFilter(query, region);
+                        try {
+                            ResultScanner scanner = hBaseManager.getScanner(tableName, scan);
+                            addCloseable(scanner);
+                            Iterator<Result> resultIterator = scanner.iterator();
+                            Iterator<Iterator<Variant>> transform = Iterators.transform(resultIterator,
+                                    result -> {
+                                        SampleIndexEntry sampleIndexEntry = converter.convert(result);
+                                        return filter.filter(sampleIndexEntry).iterator();
+                                    });
+                            return Iterators.concat(transform);
+                        } catch (IOException e) {
+                            throw VariantQueryException.internalException(e);
+                        }
+                    }).iterator();
+            iterator = Iterators.concat(iterators);
+        }
     }
 
     @Override
@@ -77,4 +112,140 @@ public class SingleSampleIndexVariantDBIterator extends VariantDBIterator {
         return variant;
     }
 
+    @Override
+    public void close() throws Exception {
+        if (prefetcher != null) {
+            prefetcher.close();
+            executor.shutdownNow();
+            logger.debug("Prefetched {} rows with avg size {} bytes", prefetcher.rows, prefetcher.getAvgRowBytes());
+        }
+        super.close();
+    }
+
+    /**
+     * Reads the scanners, decodes the SampleIndexEntries and filters the variants in a helper thread.
+     */
+    private static class SampleIndexPrefetcher implements Runnable {
+        private static final List<Variant> END_OF_RESULTS = new ArrayList<>(0);
+
+        private final HBaseManager hBaseManager;
+        private final String tableName;
+        private final SingleSampleIndexQuery query;
+        private final SampleIndexDBAdaptor dbAdaptor;
+        private final List<Region> regions;
+        private final long targetBatchBytes;
+        private final BlockingQueue<List<Variant>> queue;
+        private volatile boolean closed = false;
+        private volatile Throwable exception;
+        private long rows = 0;
+        private long rowsBytes = 0;
+
+        SampleIndexPrefetcher(HBaseManager hBaseManager, String tableName, SingleSampleIndexQuery query,
+                              SampleIndexDBAdaptor dbAdaptor, List<Region> regions, int prefetchBatches, long targetBatchBytes) {
+            this.hBaseManager = hBaseManager;
+            this.tableName = tableName;
+            this.query = query;
+            this.dbAdaptor = dbAdaptor;
+            this.regions = regions;
+            this.targetBatchBytes = targetBatchBytes;
+            this.queue = new ArrayBlockingQueue<>(prefetchBatches);
+        }
+
+        @Override
+        public void run() {
+            try {
+                HBaseToSampleIndexConverter converter = new HBaseToSampleIndexConverter(dbAdaptor.getConfiguration());
+                for (Region region : regions) {
+                    Scan scan = dbAdaptor.parse(query, region);
+                    if (rows > 0 && targetBatchBytes > 0) {
+                        // Tune caching from the observed row size
+                        int caching = (int) Math.max(1, Math.min(MAX_CACHING, targetBatchBytes / getAvgRowBytes()));
+                        scan.setCaching(caching);
+                    }
+                    int batchRows = Math.max(1, scan.getCaching());
+                    SampleIndexEntryFilter filter = dbAdaptor.buildSampleIndexEntryFilter(query, region);
+                    try (ResultScanner scanner = hBaseManager.getScanner(tableName, scan)) {
+                        List<Variant> batch = new ArrayList<>();
+                        int rowsInBatch = 0;
+                        for (Result result = scanner.next(); result != null; result = scanner.next()) {
+                            rows++;
+                            rowsBytes += sizeOf(result);
+                            batch.addAll(filter.filter(converter.convert(result)));
+                            rowsInBatch++;
+                            if (rowsInBatch >= batchRows) {
+                                if (!offer(batch)) {
+                                    return;
+                                }
+                                batch = new ArrayList<>();
+                                rowsInBatch = 0;
+                            }
+                        }
+                        if (!batch.isEmpty() && !offer(batch)) {
+                            return;
+                        }
+                    }
+                }
+            } catch (Exception | Error e) {
+                exception = e;
+            } finally {
+                // Always mark the end of the results, or the iterator would wait forever
+                offer(END_OF_RESULTS);
+            }
+        }
+
+        private long getAvgRowBytes() {
+            return rows == 0 ? 0 : Math.max(1, rowsBytes / rows);
+        }
+
+        private static long sizeOf(Result result) {
+            long size = 0;
+            for (Cell cell : result.rawCells()) {
+                size += cell.getRowLength() + cell.getFamilyLength() + cell.getQualifierLength() + cell.getValueLength();
+            }
+            return size;
+        }
+
+        private boolean offer(List<Variant> batch) {
+            try {
+                while (!queue.offer(batch, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    if (closed) {
+                        return false;
+                    }
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        Iterator<List<Variant>> batchIterator() {
+            return new AbstractIterator<List<Variant>>() {
+                @Override
+                protected List<Variant> computeNext() {
+                    List<Variant> batch;
+                    try {
+                        batch = queue.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw VariantQueryException.internalException(e);
+                    }
+                    if (batch == END_OF_RESULTS) {
+                        if (exception instanceof Error) {
+                            throw (Error) exception;
+                        } else if (exception != null) {
+                            throw VariantQueryException.internalException((Exception) exception);
+                        }
+                        return endOfData();
+                    }
+                    return batch;
+                }
+            };
+        }
+
+        void close() {
+            closed = true;
+        }
+    }
+
 }
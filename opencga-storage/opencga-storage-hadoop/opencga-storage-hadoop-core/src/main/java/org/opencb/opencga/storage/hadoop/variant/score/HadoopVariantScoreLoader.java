@@ -2,16 +2,20 @@ package org.opencb.opencga.storage.hadoop.variant.score;
 
 import com.google.common.base.Throwables;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.opencb.commons.datastore.core.ObjectMap;
 import org.opencb.commons.run.ParallelTaskRunner;
 import org.opencb.commons.run.ParallelTaskRunner.Config;
+import org.opencb.commons.run.Task;
 import org.opencb.opencga.storage.core.exceptions.StorageEngineException;
 import org.opencb.opencga.storage.core.io.managers.IOConnector;
 import org.opencb.opencga.storage.core.io.plain.StringDataReader;
 import org.opencb.opencga.storage.core.metadata.models.VariantScoreMetadata;
+import org.opencb.opencga.storage.core.variant.VariantStorageOptions;
 import org.opencb.opencga.storage.core.variant.score.VariantScoreFormatDescriptor;
 import org.opencb.opencga.storage.core.variant.score.VariantScoreLoader;
 import org.opencb.opencga.storage.core.variant.score.VariantScoreParser;
+import org.opencb.opencga.storage.hadoop.utils.AbstractHBaseDataWriter;
 import org.opencb.opencga.storage.hadoop.utils.HBaseDataWriter;
 import org.opencb.opencga.storage.hadoop.variant.GenomeHelper;
 import org.opencb.opencga.storage.hadoop.variant.adaptors.VariantHadoopDBAdaptor;
@@ -36,8 +40,8 @@ public class HadoopVariantScoreLoader extends VariantScoreLoader {
 
     @Override
     protected void load(URI scoreFile, VariantScoreMetadata scoreMetadata, VariantScoreFormatDescriptor descriptor, ObjectMap options)
-            throws ExecutionException, IOException {
-        StringDataReader stringReader = getDataReader(scoreFile);
+            throws ExecutionException, IOException, StorageEngineException {
+        StringDataReader stringReader = getDataReader(scoreFile, options);
 
         VariantScoreParser parser = newParser(scoreMetadata, descriptor);
         VariantScoreToHBaseConverter converter = new VariantScoreToHBaseConverter(
@@ -46,13 +50,24 @@ public class HadoopVariantScoreLoader extends VariantScoreLoader {
                 scoreMetadata.getId());
 
         HBaseDataWriter<Put> hbaseWriter = new HBaseDataWriter<>(dbAdaptor.getHBaseManager(), dbAdaptor.getVariantTable());
+        // Write HFiles and bulk load them at the end, instead of sending the puts to the region servers
+        AbstractHBaseDataWriter.configureBulkLoad(options, dbAdaptor.getConfiguration(), hbaseWriter);
 
-        int numTasks = 4;
+        // Sort each batch by rowkey, so the mutations sent to each region are contiguous
+        Task<Put, Put> sortByRowKey = batch -> {
+            batch.sort((put1, put2) -> Bytes.compareTo(put1.getRow(), put2.getRow()));
+            return batch;
+        };
+
+        int numTasks = options.getInt(VariantStorageOptions.SCORE_LOAD_THREADS.key(),
+                VariantStorageOptions.SCORE_LOAD_THREADS.defaultValue());
+        int batchSize = options.getInt(VariantStorageOptions.SCORE_LOAD_BATCH_SIZE.key(),
+                VariantStorageOptions.SCORE_LOAD_BATCH_SIZE.defaultValue());
         ParallelTaskRunner<String, Put> ptr = new ParallelTaskRunner<>(
                 stringReader,
-                parser.then(converter),
+                parser.then(converter).then(sortByRowKey),
                 hbaseWriter,
-                Config.builder().setBatchSize(100).setNumTasks(numTasks).build());
+                Config.builder().setBatchSize(batchSize).setNumTasks(numTasks).build());
 
         ptr.run();
     }
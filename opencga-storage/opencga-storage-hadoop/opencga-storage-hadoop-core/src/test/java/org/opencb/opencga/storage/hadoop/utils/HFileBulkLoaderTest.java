@@ -0,0 +1,142 @@
+package org.opencb.opencga.storage.hadoop.utils;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.io.compress.Compression;
+import org.apache.hadoop.hbase.mapreduce.LoadIncrementalHFiles;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.ExternalResource;
+import org.opencb.opencga.storage.core.variant.VariantStorageBaseTest;
+import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HFileBulkLoaderTest extends VariantStorageBaseTest implements HadoopVariantStorageTest {
+
+    @ClassRule
+    public static ExternalResource externalResource = new HadoopExternalResource();
+
+    private static final byte[] FAMILY = Bytes.toBytes("0");
+    private static final byte[] QUALIFIER = Bytes.toBytes("Q");
+    private HBaseManager hBaseManager;
+    private String stagingDir;
+
+    @Before
+    public void setUp() throws Exception {
+        clearDB(DB_NAME);
+        hBaseManager = new HBaseManager(configuration.get());
+        hBaseManager.createTableIfNeeded(DB_NAME, FAMILY, Compression.Algorithm.NONE);
+        stagingDir = newOutputUri().resolve("staging").getPath();
+    }
+
+    @Test
+    public void testBulkLoad() throws Exception {
+        // Allow all the HFiles in one single bulk load
+        HBaseDataWriter<Put> writer = new HBaseDataWriter<>(newHBaseManager(1000), DB_NAME);
+        // Small buffer to write multiple HFiles
+        writer.setBulkLoad(stagingDir, 1024);
+        writer.open();
+        writer.pre();
+        writeRows(writer);
+
+        // Nothing loaded until post
+        hBaseManager.act(DB_NAME, table -> {
+            assertTrue(table.get(new Get(Bytes.toBytes("row_0001"))).isEmpty());
+        });
+
+        writer.post();
+        writer.close();
+
+        checkRows();
+    }
+
+    @Test
+    public void testBulkLoadEveryNSpills() throws Exception {
+        // Bulk load every 3 spills
+        HBaseDataWriter<Put> writer = new HBaseDataWriter<>(newHBaseManager(4), DB_NAME);
+        writer.setBulkLoad(stagingDir, 1024);
+        writer.open();
+        writer.pre();
+        writeRows(writer);
+
+        // Some HFiles loaded before post
+        hBaseManager.act(DB_NAME, table -> {
+            assertFalse(table.get(new Get(Bytes.toBytes("row_0001"))).isEmpty());
+        });
+
+        writer.post();
+        writer.close();
+
+        checkRows();
+    }
+
+    private HBaseManager newHBaseManager(int maxFilesPerRegionPerFamily) {
+        Configuration conf = new Configuration(hBaseManager.getConf());
+        conf.setInt(LoadIncrementalHFiles.MAX_FILES_PER_REGION_PER_FAMILY, maxFilesPerRegionPerFamily);
+        return new HBaseManager(conf);
+    }
+
+    private void writeRows(HBaseDataWriter<Put> writer) {
+        for (int i = 0; i < 1000; i += 100) {
+            List<Put> puts = new ArrayList<>();
+            // Write rows unsorted
+            for (int j = 99; j >= 0; j--) {
+                puts.add(new Put(Bytes.toBytes(String.format("row_%04d", i + j))).addColumn(FAMILY, QUALIFIER, Bytes.toBytes(i + j)));
+            }
+            writer.write(puts);
+        }
+        // Overwrite some rows, after some HFiles were written
+        writer.write(Collections.singletonList(
+                new Put(Bytes.toBytes("row_0000")).addColumn(FAMILY, QUALIFIER, Bytes.toBytes(-1))));
+    }
+
+    private void checkRows() throws Exception {
+        hBaseManager.act(DB_NAME, table -> {
+            for (int i = 1; i < 1000; i++) {
+                Result result = table.get(new Get(Bytes.toBytes(String.format("row_%04d", i))));
+                assertEquals(i, Bytes.toInt(result.getValue(FAMILY, QUALIFIER)));
+            }
+            Result result = table.get(new Get(Bytes.toBytes("row_0000")));
+            assertEquals(-1, Bytes.toInt(result.getValue(FAMILY, QUALIFIER)));
+        });
+    }
+
+    @Test
+    public void testDiscardIfNotLoaded() throws Exception {
+        HBaseDataWriter<Put> writer = new HBaseDataWriter<>(hBaseManager, DB_NAME);
+        writer.setBulkLoad(stagingDir, 1024);
+        writer.open();
+        writer.write(Collections.singletonList(new Put(Bytes.toBytes("row")).addColumn(FAMILY, QUALIFIER, Bytes.toBytes(1))));
+        writer.close();
+
+        hBaseManager.act(DB_NAME, table -> {
+            assertTrue(table.get(new Get(Bytes.toBytes("row"))).isEmpty());
+        });
+    }
+
+    @Test
+    public void testUnsupportedMutation() throws Exception {
+        HBaseDataWriter<Delete> writer = new HBaseDataWriter<>(hBaseManager, DB_NAME);
+        writer.setBulkLoad(stagingDir, 1024);
+        writer.open();
+        try {
+            writer.write(Collections.singletonList(new Delete(Bytes.toBytes("row"))));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("Delete"));
+        } finally {
+            writer.close();
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.opencb.opencga.storage.hadoop.utils;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.io.compress.Compression;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageTest.HadoopExternalResource;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ParallelResultScannerTest {
+
+    @Rule
+    public HadoopExternalResource hadoop = new HadoopExternalResource();
+
+    private HBaseManager hBaseManager;
+    private final byte[] family = Bytes.toBytes("0");
+    private final String tableName = "test_parallel";
+
+    @Before
+    public void setUp() throws Exception {
+        Configuration conf = hadoop.getConf();
+        hBaseManager = new HBaseManager(conf);
+
+        List<byte[]> preSplits = Arrays.asList(Bytes.toBytes("r_020"), Bytes.toBytes("r_050"), Bytes.toBytes("r_075"));
+        hBaseManager.createTableIfNeeded(tableName, family, preSplits, Compression.Algorithm.NONE);
+        hBaseManager.act(tableName, table -> {
+            for (int i = 0; i < 100; i++) {
+                table.put(new Put(Bytes.toBytes(String.format("r_%03d", i))).addColumn(family, Bytes.toBytes("value"), Bytes.toBytes(i)));
+            }
+        });
+    }
+
+    @Test
+    public void testSplitScan() throws Exception {
+        byte[][] splitPoints = {new byte[0], Bytes.toBytes("r_020"), Bytes.toBytes("r_050"), Bytes.toBytes("r_075")};
+
+        List<Scan> scans = HBaseManager.splitScan(new Scan(), splitPoints);
+        assertEquals(4, scans.size());
+        assertArrayEquals(new byte[0], scans.get(0).getStartRow());
+        assertArrayEquals(Bytes.toBytes("r_020"), scans.get(0).getStopRow());
+        assertArrayEquals(Bytes.toBytes("r_075"), scans.get(3).getStartRow());
+        assertArrayEquals(new byte[0], scans.get(3).getStopRow());
+
+        scans = HBaseManager.splitScan(new Scan(Bytes.toBytes("r_030"), Bytes.toBytes("r_060")), splitPoints);
+        assertEquals(2, scans.size());
+        assertArrayEquals(Bytes.toBytes("r_030"), scans.get(0).getStartRow());
+        assertArrayEquals(Bytes.toBytes("r_050"), scans.get(0).getStopRow());
+        assertArrayEquals(Bytes.toBytes("r_050"), scans.get(1).getStartRow());
+        assertArrayEquals(Bytes.toBytes("r_060"), scans.get(1).getStopRow());
+    }
+
+    @Test
+    public void testParallelScan() throws Exception {
+        checkSortedScan(new Scan(), 0, 100);
+        checkSortedScan(new Scan(Bytes.toBytes("r_010"), Bytes.toBytes("r_080")), 10, 80);
+    }
+
+    @Test
+    public void testParallelScanSmallPrefetch() throws Exception {
+        Scan scan = new Scan().setCaching(1);
+        try (ResultScanner scanner = hBaseManager.getParallelScanner(tableName, Arrays.asList(scan), 2, 1)) {
+            int i = 0;
+            for (Result result : scanner) {
+                assertEquals(String.format("r_%03d", i), Bytes.toString(result.getRow()));
+                i++;
+            }
+            assertEquals(100, i);
+        }
+    }
+
+    @Test
+    public void testParallelScanEarlyClose() throws Exception {
+        ResultScanner scanner = hBaseManager.getParallelScanner(tableName, Arrays.asList(new Scan()), 4, 2);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(String.format("r_%03d", i), Bytes.toString(scanner.next().getRow()));
+        }
+        scanner.close();
+    }
+
+    @Test(timeout = 30000)
+    public void testParallelScanError() throws Exception {
+        HBaseManager failingHBaseManager = new HBaseManager(hBaseManager) {
+            @Override
+            public ResultScanner getScanner(String tableName, Scan scan) throws IOException {
+                throw new NoClassDefFoundError("Fail");
+            }
+        };
+        ResultScanner scanner = new ParallelResultScanner(failingHBaseManager, tableName, Arrays.asList(new Scan()), 2, 1);
+        try {
+            scanner.next();
+            fail("Expected NoClassDefFoundError");
+        } catch (NoClassDefFoundError e) {
+            assertEquals("Fail", e.getMessage());
+        } finally {
+            scanner.close();
+        }
+    }
+
+    private void checkSortedScan(Scan scan, int start, int end) throws Exception {
+        try (ResultScanner scanner = hBaseManager.getParallelScanner(tableName, Arrays.asList(scan), 4, 10)) {
+            int i = start;
+            for (Result result : scanner) {
+                assertEquals(String.format("r_%03d", i), Bytes.toString(result.getRow()));
+                assertEquals(i, Bytes.toInt(result.getValue(family, Bytes.toBytes("value"))));
+                i++;
+            }
+            assertEquals(end, i);
+        }
+    }
+}
@@ -20,9 +20,26 @@ import org.apache.log4j.ConsoleAppender;
 import org.apache.log4j.Level;
 import org.apache.log4j.LogManager;
 import org.junit.ClassRule;
+import org.junit.Test;
 import org.junit.rules.ExternalResource;
+import org.opencb.biodata.models.variant.Variant;
+import org.opencb.commons.datastore.core.Query;
+import org.opencb.commons.datastore.core.QueryOptions;
+import org.opencb.opencga.storage.core.variant.VariantStorageEngine;
+import org.opencb.opencga.storage.core.variant.VariantStorageOptions;
 import org.opencb.opencga.storage.core.variant.VariantStorageSearchIntersectTest;
+import org.opencb.opencga.storage.core.variant.query.VariantQueryPlan;
+import org.opencb.opencga.storage.core.variant.search.SearchIndexVariantQueryExecutor;
 import org.opencb.opencga.storage.hadoop.variant.adaptors.VariantHadoopDBAdaptor;
+import org.opencb.opencga.storage.hadoop.variant.index.SampleIndexVariantQueryExecutor;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.opencb.opencga.storage.core.variant.adaptors.VariantQueryParam.ANNOT_CONSERVATION;
+import static org.opencb.opencga.storage.core.variant.adaptors.VariantQueryParam.SAMPLE;
+import static org.opencb.opencga.storage.core.variant.search.solr.VariantSearchManager.USE_SEARCH_INDEX;
 
 /**
  * Created on 07/07/17.
@@ -48,4 +65,44 @@ public class HadoopVariantStorageSearchIntersectTest extends VariantStorageSearc
         stderr.setThreshold(Level.DEBUG);
     }
 
+    @Test
+    public void testQueryPlanCostBased() throws Exception {
+        Query query = new Query(SAMPLE.key(), "NA19660")
+                .append(ANNOT_CONSERVATION.key(), "gerp>0.1");
+        QueryOptions options = new QueryOptions(USE_SEARCH_INDEX, VariantStorageEngine.UseSearchIndex.YES);
+
+        // Disabled by default. The first valid executor is selected without estimating any cost
+        VariantQueryPlan plan = variantStorageEngine.explain(query, options).first();
+        assertFalse(plan.isCostBased());
+        assertEquals(SampleIndexVariantQueryExecutor.class.getSimpleName(), plan.getExecutor());
+        for (VariantQueryPlan.Step step : plan.getSteps()) {
+            assertNull(step.getCost());
+        }
+
+        QueryOptions costBasedOptions = new QueryOptions(options)
+                .append(VariantStorageOptions.QUERY_EXECUTOR_COST_BASED.key(), true);
+        plan = variantStorageEngine.explain(query, costBasedOptions).first();
+        assertTrue(plan.isCostBased());
+        VariantQueryPlan.Step sampleIndexStep = getStep(plan, SampleIndexVariantQueryExecutor.class.getSimpleName());
+        VariantQueryPlan.Step searchStep = getStep(plan, SearchIndexVariantQueryExecutor.class.getSimpleName());
+        assertTrue(sampleIndexStep.getEligible());
+        assertTrue(searchStep.getEligible());
+        assertNotNull(sampleIndexStep.getCost());
+        assertNotNull(searchStep.getCost());
+        VariantQueryPlan.Step expected = searchStep.getCost() < sampleIndexStep.getCost() ? searchStep : sampleIndexStep;
+        assertTrue(expected.isSelected());
+        assertEquals(expected.getExecutor(), plan.getExecutor());
+
+        // Same result with any of the executors
+        Set<String> expectedVariants = dbAdaptor.get(query, new QueryOptions()).getResults()
+                .stream().map(Variant::toString).collect(Collectors.toSet());
+        Set<String> variants = variantStorageEngine.get(query, new QueryOptions(costBasedOptions).append(QueryOptions.LIMIT, 10000))
+                .getResults().stream().map(Variant::toString).collect(Collectors.toSet());
+        assertEquals(expectedVariants, variants);
+    }
+
+    private static VariantQueryPlan.Step getStep(VariantQueryPlan plan, String executor) {
+        return plan.getSteps().stream().filter(step -> step.getExecutor().equals(executor)).findFirst().orElse(null);
+    }
+
 }
@@ -135,6 +135,26 @@ public class VariantHadoopMultiSampleTest extends VariantStorageBaseTest impleme
 
     }
 
+    @Test
+    public void testTwoFilesBulkLoad() throws Exception {
+        ObjectMap params = new ObjectMap()
+                .append(HadoopVariantStorageOptions.LOAD_BULK_LOAD.key(), true)
+                .append(HadoopVariantStorageOptions.LOAD_BULK_LOAD_STAGING_DIR.key(), newOutputUri().resolve("staging").getPath())
+                // Force multiple HFiles per table
+                .append(HadoopVariantStorageOptions.LOAD_BULK_LOAD_BUFFER_SIZE.key(), 10 * 1024);
+
+        StudyMetadata studyMetadata = VariantStorageBaseTest.newStudyMetadata();
+        VariantHadoopDBAdaptor dbAdaptor = getVariantStorageEngine().getDBAdaptor();
+        loadFile("s1.genome.vcf", studyMetadata, params);
+
+        studyMetadata = dbAdaptor.getMetadataManager().getStudyMetadata(studyMetadata.getId());
+        loadFile("s2.genome.vcf", studyMetadata, params);
+
+        printVariants(studyMetadata, dbAdaptor, newOutputUri());
+
+        checkLoadedFilesS1S2(studyMetadata, dbAdaptor);
+    }
+
     @Test
     public void testTwoFilesBasicFillMissing() throws Exception {
         ObjectMap params = new ObjectMap();
@@ -1,5 +1,6 @@
 package org.opencb.opencga.storage.hadoop.variant.adaptors;
 
+import org.apache.hadoop.hbase.client.Scan;
 import org.junit.ClassRule;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -10,18 +11,25 @@ import org.opencb.commons.datastore.core.ObjectMap;
 import org.opencb.commons.datastore.core.Query;
 import org.opencb.commons.datastore.core.QueryOptions;
 import org.opencb.opencga.core.results.VariantQueryResult;
+import org.opencb.opencga.storage.core.metadata.VariantStorageMetadataManager;
 import org.opencb.opencga.storage.core.variant.VariantStorageEngine;
 import org.opencb.opencga.storage.core.variant.VariantStorageOptions;
 import org.opencb.opencga.storage.core.variant.adaptors.GenotypeClass;
 import org.opencb.opencga.storage.core.variant.adaptors.VariantDBAdaptorMultiFileTest;
 import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryParam;
+import org.opencb.opencga.storage.hadoop.variant.GenomeHelper;
 import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageOptions;
 import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageTest;
 import org.opencb.opencga.storage.hadoop.variant.VariantHbaseTestUtils;
+import org.opencb.opencga.storage.hadoop.variant.adaptors.phoenix.VariantPhoenixHelper;
+import org.opencb.opencga.storage.hadoop.variant.adaptors.phoenix.VariantPhoenixKeyFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.*;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertThat;
+import static org.junit.Assert.*;
 import static org.opencb.opencga.storage.core.variant.adaptors.VariantMatchers.*;
 
 /**
@@ -299,4 +307,102 @@ public class HadoopVariantDBAdaptorMultiFileTest extends VariantDBAdaptorMultiFi
         assertThat(queryResult, everyResult(allVariants, withStudy("S_1", withFileId("1K.end.platinum-genomes-vcf-NA12877_S1.genome.vcf.gz"))));
     }
 
+    @Test
+    public void testHBaseColumnIntersectBuildScanQueries() throws Exception {
+        VariantHadoopDBAdaptor hadoopDBAdaptor = (VariantHadoopDBAdaptor) dbAdaptor;
+        HBaseColumnIntersectVariantQueryExecutor executor = new HBaseColumnIntersectVariantQueryExecutor(hadoopDBAdaptor,
+                variantStorageEngine.getStorageEngineId(), options);
+        query = new Query()
+                .append(VariantQueryParam.STUDY.key(), "S_1")
+                .append(VariantQueryParam.GENOTYPE.key(), sampleNA12877 + ":0/1,1/1;" + sampleNA12878 + ":1/1")
+                .append(VariantQueryParam.FILE.key(), file12877 + ";" + file12878)
+                .append(VariantQueryParam.REGION.key(), "1:1-12783,M");
+
+        // One query per column filter. Genotype filters sorted by number of genotypes, then file filters
+        List<Query> scanQueries = executor.buildScanQueries(query, 10);
+        assertEquals(4, scanQueries.size());
+        assertEquals(sampleNA12878 + ":1/1", scanQueries.get(0).getString(VariantQueryParam.GENOTYPE.key()));
+        assertEquals(sampleNA12877 + ":0/1,1/1", scanQueries.get(1).getString(VariantQueryParam.GENOTYPE.key()));
+        assertEquals(file12877, scanQueries.get(2).getString(VariantQueryParam.FILE.key()));
+        assertEquals(file12878, scanQueries.get(3).getString(VariantQueryParam.FILE.key()));
+        for (Query scanQuery : scanQueries) {
+            assertEquals("S_1", scanQuery.getString(VariantQueryParam.STUDY.key()));
+            assertEquals("1:1-12783,M", scanQuery.getString(VariantQueryParam.REGION.key()));
+            assertEquals(3, scanQuery.size());
+        }
+
+        // Truncated to the max number of filters
+        List<Query> truncated = executor.buildScanQueries(query, 2);
+        assertEquals(2, truncated.size());
+        assertEquals(sampleNA12878 + ":1/1", truncated.get(0).getString(VariantQueryParam.GENOTYPE.key()));
+        assertEquals(sampleNA12877 + ":0/1,1/1", truncated.get(1).getString(VariantQueryParam.GENOTYPE.key()));
+
+        // One scan per region, each of them filtering by its own column
+        VariantStorageMetadataManager mm = hadoopDBAdaptor.getMetadataManager();
+        int studyId = mm.getStudyId("S_1");
+        List<byte[]> columns = Arrays.asList(
+                VariantPhoenixHelper.buildSampleColumnKey(studyId, mm.getSampleId(studyId, sampleNA12878)),
+                VariantPhoenixHelper.buildSampleColumnKey(studyId, mm.getSampleId(studyId, sampleNA12877)),
+                VariantPhoenixHelper.buildFileColumnKey(studyId, mm.getFileId(studyId, file12877)),
+                VariantPhoenixHelper.buildFileColumnKey(studyId, mm.getFileId(studyId, file12878)));
+        QueryOptions scanOptions = new QueryOptions(VariantHadoopDBAdaptor.NATIVE, true);
+        for (int i = 0; i < scanQueries.size(); i++) {
+            List<Scan> scans = hadoopDBAdaptor.getHBaseQueryParser().parseQueryMultiRegion(scanQueries.get(i), scanOptions);
+            assertEquals(2, scans.size());
+            assertArrayEquals(VariantPhoenixKeyFactory.generateVariantRowKey("1", 1), scans.get(0).getStartRow());
+            assertArrayEquals(VariantPhoenixKeyFactory.generateVariantRowKey("1", 12784), scans.get(0).getStopRow());
+            Region chrM = new Region("M");
+            assertArrayEquals(VariantPhoenixKeyFactory.generateVariantRowKey(chrM.getChromosome(), chrM.getStart()),
+                    scans.get(1).getStartRow());
+            for (Scan scan : scans) {
+                assertNotNull(scan.getFilter());
+                assertTrue(scan.getFamilyMap().get(GenomeHelper.COLUMN_FAMILY_BYTES).contains(columns.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void testHBaseColumnIntersectMultiSample() throws Exception {
+        testHBaseColumnIntersectMultiFilter(new Query()
+                .append(VariantQueryParam.STUDY.key(), "S_1")
+                .append(VariantQueryParam.SAMPLE.key(), sampleNA12877 + ";" + sampleNA12878)
+                .append(VariantQueryParam.REGION.key(), "1:1-12783,M"));
+    }
+
+    @Test
+    public void testHBaseColumnIntersectMultiGenotypeAndFile() throws Exception {
+        testHBaseColumnIntersectMultiFilter(new Query()
+                .append(VariantQueryParam.STUDY.key(), "S_1")
+                .append(VariantQueryParam.GENOTYPE.key(), sampleNA12877 + ":0/1,1/1;" + sampleNA12878 + ":0/1,1/1")
+                .append(VariantQueryParam.FILE.key(), file12877 + ";" + file12878));
+    }
+
+    public void testHBaseColumnIntersectMultiFilter(Query query) throws Exception {
+        QueryOptions options = new QueryOptions(this.options)
+                .append(HBaseColumnIntersectVariantQueryExecutor.HBASE_COLUMN_INTERSECT, true)
+                .append("sample_index_intersect", false);
+
+        // Intersect multiple scans
+        VariantQueryResult<Variant> multiScan = variantStorageEngine.get(new Query(query), new QueryOptions(options));
+        // Single scan, filtering by one column
+        VariantQueryResult<Variant> singleScan = variantStorageEngine.get(new Query(query), new QueryOptions(options)
+                .append(HBaseColumnIntersectVariantQueryExecutor.MAX_FILTERS, 1));
+        // Seek on every step
+        VariantQueryResult<Variant> seekScan = variantStorageEngine.get(new Query(query), new QueryOptions(options)
+                .append(HBaseColumnIntersectVariantQueryExecutor.MAX_STEPS_BEFORE_SEEK, 0));
+        // Without column intersect
+        VariantQueryResult<Variant> expected = variantStorageEngine.get(new Query(query), new QueryOptions(options)
+                .append(HBaseColumnIntersectVariantQueryExecutor.HBASE_COLUMN_INTERSECT, false));
+
+        String source = variantStorageEngine.getStorageEngineId() + " + " + variantStorageEngine.getStorageEngineId();
+        assertEquals(source, multiScan.getSource());
+        assertEquals(source, singleScan.getSource());
+        assertEquals(source, seekScan.getSource());
+        assertNotEquals(0, expected.getNumResults());
+        List<String> expectedVariants = expected.getResults().stream().map(Variant::toString).collect(Collectors.toList());
+        assertEquals(expectedVariants, multiScan.getResults().stream().map(Variant::toString).collect(Collectors.toList()));
+        assertEquals(expectedVariants, singleScan.getResults().stream().map(Variant::toString).collect(Collectors.toList()));
+        assertEquals(expectedVariants, seekScan.getResults().stream().map(Variant::toString).collect(Collectors.toList()));
+    }
+
 }
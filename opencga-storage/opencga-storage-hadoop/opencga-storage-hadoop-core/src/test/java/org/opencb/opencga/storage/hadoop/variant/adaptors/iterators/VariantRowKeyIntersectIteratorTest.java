@@ -0,0 +1,88 @@
+package org.opencb.opencga.storage.hadoop.variant.adaptors.iterators;
+
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.CompareFilter;
+import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
+import org.apache.hadoop.hbase.io.compress.Compression;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.opencb.biodata.models.variant.Variant;
+import org.opencb.opencga.storage.hadoop.utils.HBaseManager;
+import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageTest.HadoopExternalResource;
+import org.opencb.opencga.storage.hadoop.variant.adaptors.phoenix.VariantPhoenixKeyFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class VariantRowKeyIntersectIteratorTest {
+
+    @Rule
+    public HadoopExternalResource hadoop = new HadoopExternalResource();
+
+    private HBaseManager hBaseManager;
+    private final byte[] family = Bytes.toBytes("0");
+    private final String tableName = "test_intersect";
+
+    @Before
+    public void setUp() throws Exception {
+        hBaseManager = new HBaseManager(hadoop.getConf());
+        hBaseManager.createTableIfNeeded(tableName, family, Compression.Algorithm.NONE);
+        hBaseManager.act(tableName, table -> {
+            for (int i = 1; i <= 1000; i++) {
+                Put put = new Put(VariantPhoenixKeyFactory.generateVariantRowKey(new Variant("1", i, "A", "C")));
+                // Column "a" every 2 variants, column "b" every 3 variants, column "c" every 300 variants
+                put.addColumn(family, Bytes.toBytes("a"), Bytes.toBytes(i % 2 == 0));
+                put.addColumn(family, Bytes.toBytes("b"), Bytes.toBytes(i % 3 == 0));
+                put.addColumn(family, Bytes.toBytes("c"), Bytes.toBytes(i % 300 == 0));
+                table.put(put);
+            }
+        });
+    }
+
+    @Test
+    public void testIntersect() throws Exception {
+        List<String> variants = intersect(5, "a", "b");
+        assertEquals(166, variants.size());
+        for (String variant : variants) {
+            assertEquals(0, new Variant(variant).getStart() % 6);
+        }
+    }
+
+    @Test
+    public void testIntersectWithSeek() throws Exception {
+        List<String> variants = intersect(5, "a", "c", "b");
+        assertEquals(Arrays.asList("1:300:A:C", "1:600:A:C", "1:900:A:C"), variants);
+    }
+
+    @Test
+    public void testIntersectNoSeek() throws Exception {
+        List<String> variants = intersect(Integer.MAX_VALUE, "c", "a");
+        assertEquals(Arrays.asList("1:300:A:C", "1:600:A:C", "1:900:A:C"), variants);
+    }
+
+    private List<String> intersect(int maxStepsBeforeSeek, String... columns) {
+        List<List<Scan>> scans = new ArrayList<>();
+        for (String column : columns) {
+            Scan scan = new Scan();
+            scan.addColumn(family, Bytes.toBytes(column));
+            SingleColumnValueFilter filter = new SingleColumnValueFilter(family, Bytes.toBytes(column),
+                    CompareFilter.CompareOp.EQUAL, Bytes.toBytes(true));
+            filter.setFilterIfMissing(true);
+            scan.setFilter(filter);
+            scans.add(Collections.singletonList(scan));
+        }
+        List<String> variants = new ArrayList<>();
+        try (VariantRowKeyIntersectIterator iterator = new VariantRowKeyIntersectIterator(hBaseManager, tableName, scans,
+                maxStepsBeforeSeek)) {
+            iterator.forEachRemaining(v -> variants.add(v.toString()));
+        }
+        return variants;
+    }
+}
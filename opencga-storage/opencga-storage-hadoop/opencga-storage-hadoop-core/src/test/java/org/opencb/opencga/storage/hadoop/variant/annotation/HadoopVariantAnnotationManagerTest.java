@@ -6,20 +6,36 @@ import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.rules.ExternalResource;
 import org.opencb.biodata.models.variant.Variant;
+import org.opencb.biodata.models.variant.annotation.ConsequenceTypeMappings;
+import org.opencb.biodata.models.variant.avro.ConsequenceType;
+import org.opencb.biodata.models.variant.avro.SequenceOntologyTerm;
+import org.opencb.biodata.models.variant.avro.VariantAnnotation;
 import org.opencb.commons.datastore.core.ObjectMap;
 import org.opencb.commons.datastore.core.Query;
+import org.opencb.commons.datastore.core.QueryOptions;
+import org.opencb.opencga.storage.core.config.StorageConfiguration;
+import org.opencb.opencga.storage.core.metadata.VariantStorageMetadataManager;
+import org.opencb.opencga.storage.core.metadata.models.ProjectMetadata;
+import org.opencb.opencga.storage.core.metadata.models.TaskMetadata;
 import org.opencb.opencga.storage.core.variant.VariantStorageOptions;
 import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryParam;
 import org.opencb.opencga.storage.core.variant.annotation.VariantAnnotationManagerTest;
+import org.opencb.opencga.storage.core.variant.annotation.VariantAnnotatorException;
+import org.opencb.opencga.storage.core.variant.annotation.annotators.VariantAnnotatorFactory;
 import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageEngine;
 import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageTest;
 import org.opencb.opencga.storage.hadoop.variant.VariantHbaseTestUtils;
 import org.opencb.opencga.storage.hadoop.variant.annotation.pending.DiscoverPendingVariantsToAnnotateDriver;
 import org.opencb.opencga.storage.hadoop.variant.annotation.pending.PendingVariantsToAnnotateReader;
+import org.opencb.opencga.storage.hadoop.variant.index.sample.SampleIndexAnnotationLoader;
 
+import java.io.*;
 import java.net.URI;
-import java.util.List;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Created on 25/04/18.
@@ -70,4 +86,113 @@ public class HadoopVariantAnnotationManagerTest extends VariantAnnotationManager
         Assert.assertEquals(0L, engine.annotate(new Query(), new ObjectMap()));
         Assert.assertEquals(variants, engine.annotate(new Query(), new ObjectMap(VariantStorageOptions.ANNOTATION_OVERWEITE.key(), true)));
     }
+
+    @Test
+    public void incrementalSampleIndexAnnotationTest() throws Exception {
+        HadoopVariantStorageEngine engine = getVariantStorageEngine();
+        VariantStorageMetadataManager metadataManager = engine.getMetadataManager();
+        List<String> samples = Arrays.asList("NA19600", "NA19660", "NA19661", "NA19685");
+
+        // Split the input file in two files with the same samples
+        Path outdir = Paths.get(newOutputUri());
+        URI file1 = outdir.resolve("variant-test-file.chr1-11.vcf").toUri();
+        URI file2 = outdir.resolve("variant-test-file.chr12-X.vcf").toUri();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(smallInputUri.getPath()))));
+             PrintStream out1 = new PrintStream(new FileOutputStream(file1.getPath()));
+             PrintStream out2 = new PrintStream(new FileOutputStream(file2.getPath()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    out1.println(line);
+                    out2.println(line);
+                } else {
+                    String chromosome = line.substring(0, line.indexOf('\t'));
+                    if (!chromosome.equals("X") && Integer.parseInt(chromosome) <= 11) {
+                        out1.println(line);
+                    } else {
+                        out2.println(line);
+                    }
+                }
+            }
+        }
+
+        engine.getOptions()
+                .append(VariantStorageOptions.ANNOTATOR_CLASS.key(), ConsequenceTypeTestAnnotator.class.getName())
+                .append(VariantStorageOptions.ANNOTATOR.key(), VariantAnnotatorFactory.AnnotationEngine.OTHER);
+
+        runDefaultETL(file1, engine, null, new ObjectMap(VariantStorageOptions.ANNOTATE.key(), false)
+                .append(VariantStorageOptions.STATS_CALCULATE.key(), false));
+        int studyId = metadataManager.getStudyId(STUDY_NAME);
+        SampleIndexAnnotationLoader sampleIndexAnnotationLoader = new SampleIndexAnnotationLoader(
+                engine.getDBAdaptor().getGenomeHelper(), engine.getDBAdaptor().getHBaseManager(),
+                engine.getDBAdaptor().getTableNameGenerator(), metadataManager, engine.getMRExecutor());
+
+        // First annotation. Full sample index annotation
+        engine.annotate(new Query(), new ObjectMap(ConsequenceTypeTestAnnotator.ANNOT_KEY, "synonymous_variant"));
+        checkSampleIndexAnnotation(engine, studyId, samples, "synonymous_variant");
+
+        // Change the annotation. Only the changed regions are updated
+        engine.annotate(new Query(), new ObjectMap(ConsequenceTypeTestAnnotator.ANNOT_KEY, "missense_variant")
+                .append(VariantStorageOptions.ANNOTATION_OVERWEITE.key(), true));
+        Assert.assertEquals(Collections.emptyList(), sampleIndexAnnotationLoader.getPendingRegions(studyId));
+        checkSampleIndexAnnotation(engine, studyId, samples, "missense_variant");
+
+        // Load new genotypes for the same samples. The sample index annotation is no longer up to date
+        runDefaultETL(file2, engine, null, new ObjectMap(VariantStorageOptions.ANNOTATE.key(), false)
+                .append(VariantStorageOptions.STATS_CALCULATE.key(), false)
+                .append(VariantStorageOptions.LOAD_SPLIT_DATA.key(), true));
+        for (String sample : samples) {
+            Assert.assertNotEquals(TaskMetadata.Status.READY, metadataManager.getSampleMetadata(studyId, metadataManager.getSampleId(studyId, sample))
+                    .getStatus(SampleIndexAnnotationLoader.SAMPLE_INDEX_STATUS));
+        }
+
+        // Annotate the new variants. Samples with new genotypes are fully updated
+        engine.annotate(new Query(), new ObjectMap(ConsequenceTypeTestAnnotator.ANNOT_KEY, "missense_variant"));
+        Assert.assertEquals(Collections.emptyList(), sampleIndexAnnotationLoader.getPendingRegions(studyId));
+        checkSampleIndexAnnotation(engine, studyId, samples, "missense_variant");
+    }
+
+    private void checkSampleIndexAnnotation(HadoopVariantStorageEngine engine, int studyId, List<String> samples, String ct)
+            throws Exception {
+        VariantStorageMetadataManager metadataManager = engine.getMetadataManager();
+        for (String sample : samples) {
+            Assert.assertEquals(TaskMetadata.Status.READY, metadataManager.getSampleMetadata(studyId, metadataManager.getSampleId(studyId, sample))
+                    .getStatus(SampleIndexAnnotationLoader.SAMPLE_INDEX_STATUS));
+
+            Query query = new Query(VariantQueryParam.SAMPLE.key(), sample)
+                    .append(VariantQueryParam.ANNOT_CONSEQUENCE_TYPE.key(), ct);
+            Set<String> expected = engine.getDBAdaptor().get(query, new QueryOptions()).getResults()
+                    .stream().map(Variant::toString).collect(Collectors.toSet());
+            Set<String> actual = engine.get(query, new QueryOptions(QueryOptions.LIMIT, 10000)).getResults()
+                    .stream().map(Variant::toString).collect(Collectors.toSet());
+            Assert.assertFalse(expected.isEmpty());
+            Assert.assertEquals(sample, expected, actual);
+        }
+    }
+
+    /**
+     * Annotates all the variants with the consequence type given in {@link #ANNOT_KEY}.
+     */
+    public static class ConsequenceTypeTestAnnotator extends TestAnnotator {
+
+        private final String consequenceType;
+
+        public ConsequenceTypeTestAnnotator(StorageConfiguration configuration, ProjectMetadata projectMetadata, ObjectMap options)
+                throws VariantAnnotatorException {
+            super(configuration, projectMetadata, options);
+            consequenceType = options.getString(ANNOT_KEY);
+        }
+
+        @Override
+        public List<VariantAnnotation> annotate(List<Variant> variants) throws VariantAnnotatorException {
+            List<VariantAnnotation> annotations = super.annotate(variants);
+            for (VariantAnnotation annotation : annotations) {
+                for (ConsequenceType ct : annotation.getConsequenceTypes()) {
+                    ct.setSequenceOntologyTerms(Collections.singletonList(new SequenceOntologyTerm(
+                            ConsequenceTypeMappings.getSoAccessionString(consequenceType), consequenceType)));
+                }
+            }
+            return annotations;
+        }
+    }
 }
@@ -134,6 +134,37 @@ public class SampleIndexEntryFilterTest {
         Assert.assertEquals(Arrays.asList("1:10:A:T", "1:20:A:T"), result);
     }
 
+    @Test
+    public void testSampleIndexRowFilterSerialization() throws Exception {
+        SingleSampleIndexQuery query = getSingleSampleIndexQuery(VariantQueryUtils.QueryOperation.AND, false,
+                buildPopulationFrequencyQuery("s2", 0, 4),
+                buildPopulationFrequencyQuery("s3", 1, 4),
+                buildPopulationFrequencyQuery("s4", 2, 4));
+        SingleSampleIndexQuery deserialized = SampleIndexRowFilter.deserialize(SampleIndexRowFilter.serialize(query));
+
+        Assert.assertEquals(query.getSample(), deserialized.getSample());
+        Assert.assertEquals(query.getGenotypes(), deserialized.getGenotypes());
+        Assert.assertEquals(query.getAnnotationIndexQuery().getPopulationFrequencyQueries(),
+                deserialized.getAnnotationIndexQuery().getPopulationFrequencyQueries());
+        Assert.assertEquals(query.hasFatherFilter(), deserialized.hasFatherFilter());
+        Assert.assertEquals(query.getFileIndexMask(), deserialized.getFileIndexMask());
+
+        List<String> expected = new SampleIndexEntryFilter(query).filter(getSampleIndexEntry1())
+                .stream().map(Variant::toString).collect(Collectors.toList());
+        List<String> result = new SampleIndexEntryFilter(deserialized).filter(getSampleIndexEntry1())
+                .stream().map(Variant::toString).collect(Collectors.toList());
+        Assert.assertEquals(Arrays.asList("1:20:A:T", "1:40:A:T"), result);
+        Assert.assertEquals(expected, result);
+
+        query = getSingleSampleIndexQuery(new Query()
+                .append(VariantQueryParam.ANNOT_BIOTYPE.key(), "protein_coding,nonsense_mediated_decay")
+                .append(VariantQueryParam.ANNOT_CONSEQUENCE_TYPE.key(), "stop_gained"));
+        deserialized = SampleIndexRowFilter.parseFrom(new SampleIndexRowFilter(query).toByteArray()).getQuery();
+        result = new SampleIndexEntryFilter(deserialized).filter(getSampleIndexEntry2())
+                .stream().map(Variant::toString).collect(Collectors.toList());
+        Assert.assertEquals(Arrays.asList("1:20:A:T"), result);
+    }
+
     private SampleIndexEntry getSampleIndexEntry1() {
         byte[] pf = new AnnotationIndexPutBuilder()                                         // s1 s2 s3 s4 s5
                 .add(new AnnotationIndexEntry((byte) 0, false, (short) 0, (byte) 0, new byte[]{ 0, 0, 0, 0, 3 }, new byte[0]))  // 1:10:A:T
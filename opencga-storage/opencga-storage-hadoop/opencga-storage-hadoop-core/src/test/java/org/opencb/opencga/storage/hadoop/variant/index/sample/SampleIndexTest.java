@@ -2,6 +2,7 @@ package org.opencb.opencga.storage.hadoop.variant.index.sample;
 
 import com.google.common.collect.Lists;
 import org.apache.commons.lang3.time.StopWatch;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Connection;
 import org.apache.hadoop.hbase.client.Result;
@@ -30,9 +31,12 @@ import org.opencb.opencga.storage.core.variant.VariantStorageOptions;
 import org.opencb.opencga.storage.core.variant.adaptors.VariantField;
 import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryParam;
 import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryUtils;
+import org.opencb.opencga.storage.core.variant.adaptors.iterators.VariantDBIterator;
 import org.opencb.opencga.storage.core.variant.annotation.annotators.CellBaseRestVariantAnnotator;
+import org.opencb.opencga.storage.hadoop.utils.HBaseManager;
 import org.opencb.opencga.storage.hadoop.variant.GenomeHelper;
 import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageEngine;
+import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageOptions;
 import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageTest;
 import org.opencb.opencga.storage.hadoop.variant.VariantHbaseTestUtils;
 import org.opencb.opencga.storage.hadoop.variant.adaptors.VariantHadoopDBAdaptor;
@@ -40,6 +44,7 @@ import org.opencb.opencga.storage.hadoop.variant.index.IndexUtils;
 import org.opencb.opencga.storage.hadoop.variant.index.annotation.mr.SampleIndexAnnotationLoaderDriver;
 import org.opencb.opencga.storage.hadoop.variant.index.query.SampleIndexQuery;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -354,5 +359,64 @@ public class SampleIndexTest extends VariantStorageBaseTest implements HadoopVar
         }
     }
 
+    @Test
+    public void testPrefetch() throws Exception {
+        SampleIndexDBAdaptor noPrefetch = newSampleIndexDBAdaptor(0);
+        SampleIndexDBAdaptor prefetch = newSampleIndexDBAdaptor(4);
+        List<Query> queries = Arrays.asList(
+                new Query(),
+                new Query(ANNOT_CONSEQUENCE_TYPE.key(), String.join(",", VariantQueryUtils.LOF_EXTENDED_SET)),
+                new Query(REGION.key(), "1:1000-16400000"));
+
+        for (String sample : sampleNames) {
+            for (Query q : queries) {
+                Query query = new Query(q).append(STUDY.key(), STUDY_NAME).append(SAMPLE.key(), sample);
+                List<String> expected = sampleIndexQuery(noPrefetch, query);
+                List<String> actual = sampleIndexQuery(prefetch, query);
+                assertEquals(query.toJson(), expected, actual);
+                if (q.isEmpty()) {
+                    assertFalse(expected.isEmpty());
+                }
+            }
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testPrefetchError() throws Exception {
+        HBaseManager hBaseManager = dbAdaptor.getHBaseManager();
+        Configuration conf = new Configuration(hBaseManager.getConf());
+        conf.setInt(HadoopVariantStorageOptions.SAMPLE_INDEX_QUERY_PREFETCH_BATCHES.key(), 4);
+        HBaseManager failingHBaseManager = new HBaseManager(conf, hBaseManager.getConnection()) {
+            @Override
+            public ResultScanner getScanner(String tableName, Scan scan) throws IOException {
+                throw new NoClassDefFoundError("Fail");
+            }
+        };
+        SampleIndexDBAdaptor sampleIndexDBAdaptor = new SampleIndexDBAdaptor(dbAdaptor.getGenomeHelper(), failingHBaseManager,
+                dbAdaptor.getTableNameGenerator(), dbAdaptor.getMetadataManager());
+
+        // The error is propagated to the consumer, instead of waiting forever for the results
+        thrown.expect(NoClassDefFoundError.class);
+        sampleIndexQuery(sampleIndexDBAdaptor, new Query(STUDY.key(), STUDY_NAME).append(SAMPLE.key(), sampleNames.get(0)));
+    }
+
+    private SampleIndexDBAdaptor newSampleIndexDBAdaptor(int prefetchBatches) {
+        HBaseManager hBaseManager = dbAdaptor.getHBaseManager();
+        Configuration conf = new Configuration(hBaseManager.getConf());
+        conf.setInt(HadoopVariantStorageOptions.SAMPLE_INDEX_QUERY_PREFETCH_BATCHES.key(), prefetchBatches);
+        // Small batches, so more than one batch is read ahead
+        conf.setLong(HadoopVariantStorageOptions.SAMPLE_INDEX_QUERY_PREFETCH_BATCH_SIZE_BYTES.key(), 1024);
+        return new SampleIndexDBAdaptor(dbAdaptor.getGenomeHelper(), new HBaseManager(conf, hBaseManager.getConnection()),
+                dbAdaptor.getTableNameGenerator(), dbAdaptor.getMetadataManager());
+    }
+
+    private List<String> sampleIndexQuery(SampleIndexDBAdaptor sampleIndexDBAdaptor, Query query) throws Exception {
+        SampleIndexQuery indexQuery = sampleIndexDBAdaptor.getSampleIndexQueryParser().parse(new Query(query));
+        List<String> variants = new ArrayList<>();
+        try (VariantDBIterator iterator = sampleIndexDBAdaptor.iterator(indexQuery)) {
+            iterator.forEachRemaining(variant -> variants.add(variant.toString()));
+        }
+        return variants;
+    }
 
-}
\ No newline at end of file
+}
@@ -2,10 +2,26 @@ package org.opencb.opencga.storage.hadoop.variant.score;
 
 import org.junit.After;
 import org.junit.ClassRule;
+import org.junit.Test;
+import org.opencb.biodata.models.variant.Variant;
+import org.opencb.biodata.models.variant.avro.VariantScore;
+import org.opencb.commons.datastore.core.ObjectMap;
+import org.opencb.commons.datastore.core.Query;
+import org.opencb.commons.datastore.core.QueryOptions;
+import org.opencb.opencga.storage.core.variant.VariantStorageOptions;
+import org.opencb.opencga.storage.core.variant.adaptors.VariantQueryParam;
+import org.opencb.opencga.storage.core.variant.score.VariantScoreFormatDescriptor;
 import org.opencb.opencga.storage.core.variant.score.VariantScoreLoaderTest;
+import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageOptions;
 import org.opencb.opencga.storage.hadoop.variant.HadoopVariantStorageTest;
 import org.opencb.opencga.storage.hadoop.variant.VariantHbaseTestUtils;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
 public class HadoopVariantScoreLoaderTest extends VariantScoreLoaderTest implements HadoopVariantStorageTest {
 
     @ClassRule
@@ -15,4 +31,30 @@ public class HadoopVariantScoreLoaderTest extends VariantScoreLoaderTest impleme
     public void tearDown() throws Exception {
         VariantHbaseTestUtils.printVariants(getVariantStorageEngine().getDBAdaptor(), newOutputUri(getTestName().getMethodName()));
     }
+
+    @Test
+    public void loadScoreBulkLoad() throws Exception {
+        // Small buffer to write multiple HFiles
+        variantStorageEngine.loadVariantScore(scoreFile1, "s1", "score1", "ALL", null, new VariantScoreFormatDescriptor(0, 1, -1),
+                new ObjectMap(HadoopVariantStorageOptions.LOAD_BULK_LOAD.key(), true)
+                        .append(HadoopVariantStorageOptions.LOAD_BULK_LOAD_STAGING_DIR.key(), newOutputUri().resolve("staging").getPath())
+                        .append(HadoopVariantStorageOptions.LOAD_BULK_LOAD_BUFFER_SIZE.key(), 10 * 1024));
+        // Not bulk loaded, with custom batch size and number of threads
+        variantStorageEngine.loadVariantScore(scoreFile2, "s1", "score2", "ALL", null, new VariantScoreFormatDescriptor(0, 1, 2, 3, 4, 5),
+                new ObjectMap(VariantStorageOptions.SCORE_LOAD_BATCH_SIZE.key(), 7)
+                        .append(VariantStorageOptions.SCORE_LOAD_THREADS.key(), 2));
+
+        checkScore("score1", scoredVariants1);
+        checkScore("score2", scoredVariants2);
+    }
+
+    private void checkScore(String score, Set<String> expectedVariants) throws Exception {
+        List<Variant> variants = variantStorageEngine.get(new Query(VariantQueryParam.SCORE.key(), score + ">=0"),
+                new QueryOptions(QueryOptions.LIMIT, 10000)).getResults();
+        assertEquals(expectedVariants, variants.stream().map(Variant::toString).collect(Collectors.toSet()));
+        for (Variant variant : variants) {
+            List<String> scores = variant.getStudies().get(0).getScores().stream().map(VariantScore::getId).collect(Collectors.toList());
+            assertEquals(variant.toString(), 1, scores.stream().filter(score::equals).count());
+        }
+    }
 }
\ No newline at end of file
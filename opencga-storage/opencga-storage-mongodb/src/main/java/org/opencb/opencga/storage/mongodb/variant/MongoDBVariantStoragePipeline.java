@@ -34,6 +34,7 @@ import org.opencb.commons.io.DataReader;
 import org.opencb.commons.run.ParallelTaskRunner;
 import org.opencb.opencga.storage.core.config.StorageConfiguration;
 import org.opencb.opencga.storage.core.exceptions.StorageEngineException;
+import org.opencb.opencga.storage.core.io.CheckpointTracker;
 import org.opencb.opencga.storage.core.io.managers.IOConnectorProvider;
 import org.opencb.opencga.storage.core.metadata.VariantStorageMetadataManager;
 import org.opencb.opencga.storage.core.metadata.models.FileMetadata;
@@ -299,6 +300,8 @@ public class MongoDBVariantStoragePipeline extends VariantStoragePipeline {
             DataReader<Variant> variantReader = variantReaderUtils.getVariantReader(inputUri, metadata, stdin)
                     .then(duplicatedVariantsDetector)
                     .then(remapIdsTask);
+            // Decode and deduplicate variants in a separate thread. The reader thread of the PTR reads from the stage collection
+            variantReader = readAhead(variantReader, batchSize);
 
             MongoDBCollection stageCollection = dbAdaptor.getStageCollection(studyId);
             MergeMode mergeMode = MergeMode.from(studyMetadata.getAttributes());
@@ -388,7 +391,7 @@ public class MongoDBVariantStoragePipeline extends VariantStoragePipeline {
 //        final int numTasks = loadThreads == 1 ? 1 : loadThreads - numReaders; //Subtract the reader thread
         boolean stdin = options.getBoolean(STDIN.key(), STDIN.defaultValue());
 
-
+        CheckpointTracker<Variant> checkpointTracker = null;
         try {
             StudyMetadata studyMetadata = getStudyMetadata();
             MongoDBCollection stageCollection = dbAdaptor.getStageCollection(studyMetadata.getId());
@@ -406,6 +409,10 @@ public class MongoDBVariantStoragePipeline extends VariantStoragePipeline {
                     new MongoDBVariantStageLoader(stageCollection, studyMetadata.getId(), fileId,
                             isResumeStage(options));
 
+            // Checkpoint the number of variants from the input file already staged. Resume after the last checkpoint.
+            checkpointTracker = newCheckpointTracker(currentTask, Variant::toString);
+            DataReader<Variant> reader = checkpointTracker.track(variantReader, true);
+
             ParallelTaskRunner<Variant, ?> ptr;
             ParallelTaskRunner.Config config = ParallelTaskRunner.Config.builder()
                     .setReadQueuePutTimeout(20 * 60)
@@ -414,10 +421,12 @@ public class MongoDBVariantStoragePipeline extends VariantStoragePipeline {
                     .setAbortOnFail(true).build();
             if (isStageParallelWrite(options)) {
                 logger.info("Multi thread stage load... [{} readerThreads, {} writerThreads]", numReaders, loadThreads);
-                ptr = new ParallelTaskRunner<>(variantReader, remapIdsTask.then(converterTask).then(stageLoader), null, config);
+                ptr = new ParallelTaskRunner<>(reader,
+                        checkpointTracker.commitOnTask(remapIdsTask.then(converterTask).then(stageLoader)), null, config);
             } else {
                 logger.info("Multi thread stage load... [{} readerThreads, {} tasks, {} writerThreads]", numReaders, loadThreads, 1);
-                ptr = new ParallelTaskRunner<>(variantReader, remapIdsTask.then(converterTask), stageLoader, config);
+                ptr = new ParallelTaskRunner<>(reader, checkpointTracker.trackThroughTask(remapIdsTask.then(converterTask)),
+                        checkpointTracker.commitOnWrite(stageLoader), config);
             }
 
             Thread hook = new Thread(() -> {
@@ -444,6 +453,9 @@ public class MongoDBVariantStoragePipeline extends VariantStoragePipeline {
             options.put("skippedVariants", skippedVariants);
             logger.info("Stage Write result: {}", skippedVariants);
         } catch (ExecutionException | RuntimeException e) {
+            if (checkpointTracker != null) {
+                checkpointTracker.checkpoint();
+            }
             try {
                 stageError();
             } catch (Exception e2) {
@@ -646,6 +658,16 @@ public class MongoDBVariantStoragePipeline extends VariantStoragePipeline {
             reader.setFileIds(fileIds);
         }
         boolean resume = isResumeMerge(options);
+        // Checkpoint the last merged stage document. Only possible if the stage documents are read sorted.
+        CheckpointTracker<Document> checkpointTracker = null;
+        if (reader.isSorted()) {
+            checkpointTracker = newCheckpointTracker(currentTask, document -> document.getString("_id"));
+            if (resume && checkpointTracker.getResumeLast() != null) {
+                logger.info("Resume merge from checkpoint. Skip {} variants already merged, up to {}",
+                        checkpointTracker.getResumeCount(), checkpointTracker.getResumeLast());
+                reader.setStartAfter(checkpointTracker.getResumeLast());
+            }
+        }
         boolean cleanWhileLoading = options.getBoolean(STAGE_CLEAN_WHILE_LOAD.key(), STAGE_CLEAN_WHILE_LOAD.defaultValue());
         ProgressLogger progressLogger = new ProgressLogger("Write variants in VARIANTS collection:", reader::countNumVariants, 200);
         progressLogger.setApproximateTotalCount(reader.countAproxNumVariants());
@@ -666,10 +688,21 @@ public class MongoDBVariantStoragePipeline extends VariantStoragePipeline {
                 .setBatchSize(batchSize)
                 .setAbortOnFail(true).build();
         try {
-            if (isMergeParallelWrite(options)) {
-                ptrMerge = new ParallelTaskRunner<>(reader, variantMerger.then(variantLoader), null, config);
+            if (checkpointTracker == null) {
+                if (isMergeParallelWrite(options)) {
+                    ptrMerge = new ParallelTaskRunner<>(reader, variantMerger.then(variantLoader), null, config);
+                } else {
+                    ptrMerge = new ParallelTaskRunner<>(reader, variantMerger, variantLoader, config);
+                }
             } else {
-                ptrMerge = new ParallelTaskRunner<>(reader, variantMerger, variantLoader, config);
+                DataReader<Document> trackedReader = checkpointTracker.track(reader, false);
+                if (isMergeParallelWrite(options)) {
+                    ptrMerge = new ParallelTaskRunner<>(trackedReader,
+                            checkpointTracker.commitOnTask(variantMerger.then(variantLoader)), null, config);
+                } else {
+                    ptrMerge = new ParallelTaskRunner<>(trackedReader, checkpointTracker.trackThroughTask(variantMerger),
+                            checkpointTracker.commitOnWrite(variantLoader), config);
+                }
             }
         } catch (RuntimeException e) {
             throw new StorageEngineException("Error while creating ParallelTaskRunner", e);
@@ -680,6 +713,9 @@ public class MongoDBVariantStoragePipeline extends VariantStoragePipeline {
             ptrMerge.run();
         } catch (ExecutionException e) {
             logger.info("Write result: {}", variantLoader.getResult());
+            if (checkpointTracker != null) {
+                checkpointTracker.checkpoint();
+            }
             throw new StorageEngineException("Error while executing LoadVariants in ParallelTaskRunner", e);
         }
         return variantLoader.getResult();
@@ -17,10 +17,10 @@
 package org.opencb.opencga.storage.mongodb.variant.load;
 
 import org.bson.Document;
-import org.opencb.biodata.formats.variant.io.VariantReader;
 import org.opencb.biodata.models.variant.StudyEntry;
 import org.opencb.biodata.models.variant.Variant;
 import org.opencb.biodata.models.variant.avro.FileEntry;
+import org.opencb.biodata.models.variant.avro.VariantAvro;
 import org.opencb.biodata.models.variant.metadata.VariantFileMetadata;
 import org.opencb.biodata.models.variant.metadata.VariantMetadata;
 import org.opencb.biodata.models.variant.metadata.VariantStudyMetadata;
@@ -31,22 +31,26 @@ import org.opencb.commons.datastore.core.QueryOptions;
 import org.opencb.commons.datastore.mongodb.MongoDBCollection;
 import org.opencb.commons.io.DataWriter;
 import org.opencb.commons.run.ParallelTaskRunner;
+import org.opencb.commons.run.Task;
 import org.opencb.opencga.storage.core.exceptions.StorageEngineException;
 import org.opencb.opencga.storage.core.metadata.StudyConfiguration;
 import org.opencb.opencga.storage.core.variant.io.VariantImporter;
-import org.opencb.opencga.storage.core.variant.io.avro.VariantAvroReader;
+import org.opencb.opencga.storage.core.variant.io.avro.AvroBlockDecoderTask;
+import org.opencb.opencga.storage.core.variant.io.avro.AvroBlockReader;
 import org.opencb.opencga.storage.mongodb.variant.adaptors.VariantMongoDBAdaptor;
 import org.opencb.opencga.storage.mongodb.variant.converters.DocumentToSamplesConverter;
 import org.opencb.opencga.storage.mongodb.variant.converters.DocumentToStudyVariantEntryConverter;
 import org.opencb.opencga.storage.mongodb.variant.converters.DocumentToVariantConverter;
 import org.opencb.opencga.storage.mongodb.variant.converters.DocumentToVariantStatsConverter;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -76,17 +80,37 @@ public class MongoVariantImporter extends VariantImporter {
             samplesPositions.put(sc.getName(), map);
             samplesPositions.put(String.valueOf(sc.getId()), map);
         }
-        VariantReader variantReader = new VariantAvroReader(input.toAbsolutePath().toFile(), samplesPositions);
+        // Read raw Avro blocks, and decode them in parallel in the tasks
+        AvroBlockReader blockReader = new AvroBlockReader(new FileInputStream(input.toAbsolutePath().toFile()));
 
         ProgressLogger progressLogger = new ProgressLogger("Loaded variants");
-        ParallelTaskRunner.Task<Variant, Document> converterTask =
-                new VariantToDocumentConverter(studyConfigurations, metadata, progressLogger);
+        VariantToDocumentConverter converterTask = new VariantToDocumentConverter(studyConfigurations, metadata, progressLogger);
+        // Avro to Variant is just a wrapper. Add the samples position.
+        Task<VariantAvro, Variant> toVariantTask = batch -> {
+            List<Variant> variants = new ArrayList<>(batch.size());
+            for (VariantAvro variantAvro : batch) {
+                Variant variant = new Variant(variantAvro);
+                for (StudyEntry studyEntry : variant.getStudies()) {
+                    LinkedHashMap<String, Integer> samplesPosition = samplesPositions.get(studyEntry.getStudyId());
+                    if (samplesPosition != null) {
+                        studyEntry.setSortedSamplesPosition(samplesPosition);
+                    }
+                }
+                variants.add(variant);
+            }
+            return variants;
+        };
+        Supplier<Task<AvroBlockReader.Block, Document>> taskSupplier = () ->
+                new AvroBlockDecoderTask<VariantAvro>(VariantAvro.getClassSchema())
+                        .then(toVariantTask)
+                        .then(converterTask);
 
         DataWriter<Document> writer = new MongoDBVariantDocumentDBWriter(variantsCollection);
 
-        ParallelTaskRunner.Config config = ParallelTaskRunner.Config.builder().setNumTasks(5).setSorted(false).setBatchSize(200).build();
+        // Each Avro block contains several variants. Read one block per batch.
+        ParallelTaskRunner.Config config = ParallelTaskRunner.Config.builder().setNumTasks(5).setSorted(false).setBatchSize(1).build();
 
-        ParallelTaskRunner<Variant, Document> ptr = new ParallelTaskRunner<>(variantReader, converterTask, writer, config);
+        ParallelTaskRunner<AvroBlockReader.Block, Document> ptr = new ParallelTaskRunner<>(blockReader, taskSupplier, writer, config);
 
         try {
             ptr.run();
@@ -98,7 +122,7 @@ public class MongoVariantImporter extends VariantImporter {
     /**
      * Simple TaskMetadata for converting Variants into MongoDB Documents.
      */
-    private static class VariantToDocumentConverter implements ParallelTaskRunner.Task<Variant, Document> {
+    private static class VariantToDocumentConverter implements Task<Variant, Document> {
         private final DocumentToVariantConverter variantConverter;
         // Remap input studyId and fileId to internal numerical Ids.
         private final Map<String, String> studiesIdRemap;
@@ -51,6 +51,7 @@ public class MongoDBVariantStageReader implements DataReader<Document> {
     private final int studyId;
     private Collection<Integer> fileIds;
     private final Collection<String> chromosomes;
+    private String startAfter;
     private MongoPersistentCursor iterator;
     private Document next = null;   // Pending variant
 
@@ -73,6 +74,24 @@ public class MongoDBVariantStageReader implements DataReader<Document> {
         return this;
     }
 
+    /**
+     * Read only variants after the given stage document id. Only valid for sorted readers.
+     *
+     * @param startAfter Stage document id
+     * @return this
+     */
+    public MongoDBVariantStageReader setStartAfter(String startAfter) {
+        this.startAfter = startAfter;
+        return this;
+    }
+
+    /**
+     * @return if the documents are returned sorted by id.
+     */
+    public boolean isSorted() {
+        return fileIds == null || fileIds.isEmpty();
+    }
+
     public long countNumVariants() {
         return stageCollection.nativeQuery().count(getQuery());
     }
@@ -99,7 +118,7 @@ public class MongoDBVariantStageReader implements DataReader<Document> {
 
     public QueryOptions getQueryOptions() {
         QueryOptions options = new QueryOptions();
-        if (fileIds == null || fileIds.isEmpty()) {
+        if (isSorted()) {
             options.put(QueryOptions.SORT, Sorts.ascending("_id"));
         }
         return options;
@@ -126,6 +145,9 @@ public class MongoDBVariantStageReader implements DataReader<Document> {
         } else {
             bson = and(studyFilter, or(chrFilters)); // Be in any of these chromosomes
         }
+        if (startAfter != null) {
+            bson = and(bson, gt("_id", startAfter));
+        }
         logger.debug("stage filter: " +  bson.toBsonDocument(Document.class, com.mongodb.MongoClient.getDefaultCodecRegistry()));
         return bson;
     }
@@ -59,6 +59,8 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.*;
@@ -1147,6 +1149,71 @@ public class MongoVariantStorageEngineTest extends VariantStorageEngineTest impl
         }
     }
 
+    @Test
+    public void directLoadReadAheadTest() throws Exception {
+        ObjectMap params = new ObjectMap()
+                .append(VariantStorageOptions.ANNOTATE.key(), false)
+                .append(VariantStorageOptions.STATS_CALCULATE.key(), false)
+                .append(VariantStorageOptions.LOAD_BATCH_SIZE.key(), 10);
+
+        // Expected result, without read ahead
+        runDefaultETL(smallInputUri, getVariantStorageEngine("_expected"), newStudyMetadata(), params);
+
+        // Small read ahead queue, so the read ahead thread has to wait for the load
+        StudyMetadata studyMetadata = newStudyMetadata();
+        runDefaultETL(smallInputUri, getVariantStorageEngine(), studyMetadata, new ObjectMap(params)
+                .append(VariantStorageOptions.LOAD_READ_AHEAD_BATCHES.key(), 2));
+
+        List<String> tasks = new ArrayList<>();
+        metadataManager.taskIterator(studyMetadata.getId()).forEachRemaining(task -> tasks.add(task.getName()));
+        assertThat(tasks, hasItem(MongoDBVariantStorageOptions.DIRECT_LOAD.key()));
+
+        compareCollections(getVariantStorageEngine("_expected").getDBAdaptor().getVariantsCollection(),
+                getVariantStorageEngine().getDBAdaptor().getVariantsCollection());
+        checkLoadedVariants();
+        assertReadAheadThreadsFinished();
+    }
+
+    @Test
+    public void directLoadReadAheadErrorTest() throws Exception {
+        ObjectMap params = new ObjectMap()
+                .append(VariantStorageOptions.ANNOTATE.key(), false)
+                .append(VariantStorageOptions.STATS_CALCULATE.key(), false)
+                .append(VariantStorageOptions.LOAD_BATCH_SIZE.key(), 10)
+                .append(VariantStorageOptions.LOAD_READ_AHEAD_BATCHES.key(), 2);
+        StudyMetadata studyMetadata = newStudyMetadata();
+        URI transformed = runDefaultETL(smallInputUri, getVariantStorageEngine(), studyMetadata, params, true, false)
+                .getTransformResult();
+
+        // Truncate the transformed file, so the reader fails in the read ahead thread after reading some batches
+        Path path = Paths.get(transformed);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length / 2));
+
+        try {
+            runDefaultETL(transformed, getVariantStorageEngine(), studyMetadata, params, false, true);
+            fail("Expected load to fail reading a truncated file");
+        } catch (StorageEngineException e) {
+            logger.info("Expected exception", e);
+        }
+
+        List<TaskMetadata> tasks = new ArrayList<>();
+        metadataManager.taskIterator(studyMetadata.getId()).forEachRemaining(tasks::add);
+        assertEquals(1, tasks.size());
+        assertEquals(MongoDBVariantStorageOptions.DIRECT_LOAD.key(), tasks.get(0).getName());
+        assertEquals(TaskMetadata.Status.ERROR, tasks.get(0).currentStatus());
+        assertReadAheadThreadsFinished();
+    }
+
+    private static void assertReadAheadThreadsFinished() throws InterruptedException {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("read-ahead")) {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+                assertFalse("Read ahead thread still alive", thread.isAlive());
+            }
+        }
+    }
+
     @Test
     public void removeFileMergeBasicTest() throws Exception {
         removeFileTest(new QueryOptions(VariantStorageOptions.MERGE_MODE.key(), VariantStorageEngine.MergeMode.BASIC));